@@ -0,0 +1,26 @@
+package com.ism.satellite.async;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings for the async endpoints, bound from satellite.async.*.
+ */
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "satellite.async")
+public class AsyncProperties {
+
+    // Threads running the blocking service calls, more than the connection pool would only wait for a connection
+    private int threads = 10;
+
+    // Calls waiting for a thread beyond this are refused with 503 Service Unavailable
+    private int queuedCalls = 10_000;
+
+    // Rows read per keyset page while streaming a listing, at most one page is read ahead of the client
+    private int pageSize = 256;
+
+}
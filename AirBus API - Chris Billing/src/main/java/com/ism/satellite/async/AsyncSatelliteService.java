@@ -0,0 +1,95 @@
+package com.ism.satellite.async;
+
+import com.ism.satellite.domain.Satellite;
+import com.ism.satellite.domain.SatelliteParameters;
+import com.ism.satellite.exception.custom.ServiceUnavailableException;
+import com.ism.satellite.response.SatellitePage;
+import com.ism.satellite.service.SatelliteService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Asynchronous facade over the blocking SatelliteService for the async endpoints. It is not a reactive data path:
+ * each call runs the same service method as the MVC controller, with its blocking JPA calls, so validation, caches,
+ * the position engine and write-behind apply unchanged. Only the thread changes, the call runs on a small bounded
+ * scheduler and the request thread is released as soon as the handler returns. A call still holds a scheduler thread
+ * and a database connection for as long as it blocks, so the scheduler bounds concurrency rather than raising it.
+ *
+ * <p>Listings are read one keyset page at a time as the subscriber requests rows, so a slow client holds a page of
+ * the catalog rather than all of it.
+ */
+@Service
+public class AsyncSatelliteService implements MeterBinder, DisposableBean {
+
+    private final SatelliteService satelliteService;
+
+    private final AsyncProperties properties;
+
+    private final Scheduler scheduler;
+
+    private final AtomicInteger pending = new AtomicInteger();
+
+    public AsyncSatelliteService(SatelliteService satelliteService, AsyncProperties properties) {
+        this.satelliteService = satelliteService;
+        this.properties = properties;
+        this.scheduler = Schedulers.newBoundedElastic(properties.getThreads(), properties.getQueuedCalls(),
+          "satellite-async");
+    }
+
+    public Mono<Satellite> getById(Long id) {
+        return call(() -> satelliteService.getById(id));
+    }
+
+    public Mono<SatelliteParameters> getSatellitePosition(Long satelliteId) {
+        return call(() -> satelliteService.getSatellitePosition(satelliteId));
+    }
+
+    public Mono<Satellite> patchParameters(Long satelliteId, SatelliteParameters satelliteParameters,
+                                           String ifMatch) {
+        return call(() -> satelliteService.patchParameters(satelliteId, satelliteParameters, ifMatch));
+    }
+
+    /**
+     * Every satellite in id order. The next page is only read once the subscriber has requested the rows of the
+     * previous one.
+     */
+    public Flux<Satellite> streamAll() {
+        int pageSize = properties.getPageSize();
+        return call(() -> satelliteService.getPage(null, pageSize))
+          .expand(page -> page.getNextCursor() == null
+            ? Mono.empty()
+            : call(() -> satelliteService.getPage(page.getNextCursor(), pageSize)))
+          .concatMapIterable(SatellitePage::getItems, 1);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("satellite.async.pending", pending, AtomicInteger::get)
+          .description("Async service calls running or waiting for a scheduler thread")
+          .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.dispose();
+    }
+
+    private <T> Mono<T> call(Callable<T> call) {
+        return Mono.fromCallable(call)
+          .subscribeOn(scheduler)
+          .doOnSubscribe(subscription -> pending.incrementAndGet())
+          .doFinally(signal -> pending.decrementAndGet())
+          .onErrorMap(RejectedExecutionException.class, ex -> new ServiceUnavailableException(
+            "Too many async requests are waiting, retry later"));
+    }
+}
@@ -0,0 +1,18 @@
+package com.ism.satellite.cache;
+
+import lombok.Value;
+
+/**
+ * A response body as written to the wire, with the ETag of the versions it was serialized from.
+ */
+@Value
+public class CachedResponse {
+
+    String tag;
+
+    byte[] body;
+
+    // Gzipped, to be sent with Content-Encoding: gzip
+    boolean compressed;
+
+}
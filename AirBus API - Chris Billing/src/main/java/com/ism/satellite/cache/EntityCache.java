@@ -0,0 +1,113 @@
+package com.ism.satellite.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hibernate second-level cache on an in-process Caffeine JCache provider. Every region is created up front with
+ * its size and time to live, so a cached entity without a configured region fails at startup instead of growing
+ * unbounded. Each region is exported with Micrometer's JCache binder, giving cache.gets hits and misses,
+ * cache.puts, cache.removals and cache.evictions per region.
+ */
+@Component
+public class EntityCache implements HibernatePropertiesCustomizer, MeterBinder {
+
+    public static final String SATELLITE_REGION = "satellite";
+
+    public static final String PARAMETERS_REGION = "satellite-parameters";
+
+    // Contexts sharing a JVM, such as tests, each get their own cache manager
+    private static final AtomicInteger MANAGERS = new AtomicInteger();
+
+    private final EntityCacheProperties properties;
+
+    private final CacheManager cacheManager;
+
+    public EntityCache(EntityCacheProperties properties) {
+        this.properties = properties;
+        this.cacheManager = properties.isEnabled() ? createCacheManager() : null;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, cacheManager != null);
+        if (cacheManager == null) {
+            return;
+        }
+        hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+        hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+        hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, properties.isQueryCacheEnabled());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (cacheManager == null) {
+            return;
+        }
+        for (String name : cacheManager.getCacheNames()) {
+            JCacheMetrics.monitor(registry, cacheManager.getCache(name), Tags.empty());
+        }
+    }
+
+    // Null when the cache is disabled
+    CacheManager getCacheManager() {
+        return cacheManager;
+    }
+
+    @PreDestroy
+    void close() {
+        if (cacheManager != null) {
+            cacheManager.close();
+        }
+    }
+
+    private CacheManager createCacheManager() {
+        CacheManager manager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+          .getCacheManager(URI.create("satellite-entity-cache-" + MANAGERS.incrementAndGet()),
+            getClass().getClassLoader());
+        for (String region : List.of(SATELLITE_REGION, PARAMETERS_REGION)) {
+            manager.createCache(region, configuration(properties.getMaxEntries(), properties.getTimeToLive()));
+        }
+        if (properties.isQueryCacheEnabled()) {
+            manager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+              configuration(properties.getQueryMaxEntries(), properties.getQueryTimeToLive()));
+            // One entry per table, and must never expire or cached query results could outlive a write
+            manager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+              configuration(-1, null));
+        }
+        return manager;
+    }
+
+    private static CaffeineConfiguration<Object, Object> configuration(long maxEntries, Duration timeToLive) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        // Hibernate caches immutable disassembled state, so copying values in and out would only cost time
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        if (maxEntries >= 0) {
+            configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        }
+        if (timeToLive != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(timeToLive.toNanos()));
+        }
+        return configuration;
+    }
+}
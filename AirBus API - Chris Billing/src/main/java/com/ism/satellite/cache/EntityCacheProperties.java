@@ -0,0 +1,33 @@
+package com.ism.satellite.cache;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings for the Hibernate second-level cache, bound from satellite.entity-cache.*.
+ */
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "satellite.entity-cache")
+public class EntityCacheProperties {
+
+    private boolean enabled = true;
+
+    // Entries per entity region, satellites and their parameters are held in separate regions
+    private long maxEntries = 100_000;
+
+    // Entries are dropped this long after they were loaded or last written
+    private Duration timeToLive = Duration.ofMinutes(10);
+
+    // Results of queries marked cacheable, invalidated whenever a table they read is written
+    private boolean queryCacheEnabled = true;
+
+    private long queryMaxEntries = 10_000;
+
+    private Duration queryTimeToLive = Duration.ofMinutes(10);
+
+}
@@ -0,0 +1,222 @@
+package com.ism.satellite.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import lombok.Value;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Serialized satellite responses, so a read that hits is written to the wire without loading or mapping anything.
+ * Entries are kept per satellite, or for the whole catalog, per wire format and per content encoding, each with the
+ * ETag of the versions it was serialized from. The cache is bounded by the bytes it holds.
+ *
+ * <p>Writers invalidate a satellite after their transaction commits, which also drops the catalog. A reader takes a
+ * {@link #stamp} before loading and hands it to {@link #put}, so a body loaded before a concurrent write committed
+ * is never kept once that write's invalidation has run.
+ */
+@Component
+public class ResponseCache implements MeterBinder {
+
+    private static final List<String> FORMATS = List.of("json", "cbor", "smile");
+
+    // Invalidation stamps are striped by id, so a write only disturbs readers of satellites sharing its stripe
+    private static final int STRIPES = 1024;
+
+    // Key, entry and map node bookkeeping, counted against the size limit along with the body
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    private final ResponseCacheProperties properties;
+
+    private final Map<String, ObjectMapper> mappers;
+
+    private final Cache<Key, CachedResponse> responses;
+
+    private final AtomicLongArray stamps = new AtomicLongArray(STRIPES);
+
+    private final AtomicLong catalogStamp = new AtomicLong();
+
+    public ResponseCache(ResponseCacheProperties properties, Jackson2ObjectMapperBuilder builder) {
+        this.properties = properties;
+        // Built from Boot's Jackson builder like the message converters, so the bytes match what they would write
+        ObjectMapper json = builder.build();
+        ObjectMapper cbor = builder.createXmlMapper(false).factory(new CBORFactory()).build();
+        ObjectMapper smile = builder.createXmlMapper(false).factory(new SmileFactory()).build();
+        this.mappers = Map.of("json", json, "cbor", cbor, "smile", smile);
+        this.responses = Caffeine.newBuilder()
+          .maximumWeight(properties.getMaxSize().toBytes())
+          .weigher((Key key, CachedResponse response) -> response.getBody().length + ENTRY_OVERHEAD_BYTES)
+          .recordStats()
+          .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new CaffeineCacheMetrics<>(responses, "responses", Tags.empty()).bindTo(registry);
+    }
+
+    /**
+     * Current stamp of a satellite, or of the catalog when id is null. Taken before loading a body to put.
+     */
+    public long stamp(Long id) {
+        return id == null ? catalogStamp.get() : stamps.get(stripe(id));
+    }
+
+    /**
+     * The stored response of a satellite, or of the catalog when id is null, for a wire format and encoding.
+     */
+    public CachedResponse get(Long id, String format, boolean gzip) {
+        return properties.isEnabled() ? responses.getIfPresent(new Key(id, format, gzip)) : null;
+    }
+
+    /**
+     * Serializes a body in the wire format, gzipped when the client accepts gzip and it is large enough, and keeps
+     * it unless the satellite or catalog was invalidated since the stamp was taken. Returns the response to write
+     * either way.
+     */
+    public CachedResponse put(Long id, long stamp, String tag, Object body, String format, boolean gzip) {
+        byte[] serialized = serialize(body, format);
+        boolean compressed = gzip && serialized.length >= properties.getCompressionMinSize().toBytes();
+        CachedResponse response = new CachedResponse(tag, compressed ? gzip(serialized) : serialized, compressed);
+        if (properties.isEnabled() && response.getBody().length <= properties.getMaxEntrySize().toBytes()) {
+            Key key = new Key(id, format, gzip);
+            responses.put(key, response);
+            // Invalidations bump the stamp before removing, so either this sees the bump or the removal follows
+            if (stamp(id) != stamp) {
+                responses.asMap().remove(key, response);
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Drops the stored responses of a satellite and of the catalog once the current transaction commits, or at
+     * once outside a transaction.
+     */
+    public void invalidate(long id) {
+        afterCommit(() -> {
+            stamps.incrementAndGet(stripe(id));
+            catalogStamp.incrementAndGet();
+            responses.invalidateAll(keys(id));
+            responses.invalidateAll(keys(null));
+        });
+    }
+
+    /**
+     * Drops the stored responses of several satellites and of the catalog once the current transaction commits.
+     */
+    public void invalidate(Collection<Long> ids) {
+        afterCommit(() -> {
+            for (Long id : ids) {
+                stamps.incrementAndGet(stripe(id));
+            }
+            catalogStamp.incrementAndGet();
+            for (Long id : ids) {
+                responses.invalidateAll(keys(id));
+            }
+            responses.invalidateAll(keys(null));
+        });
+    }
+
+    /**
+     * Drops the stored catalog responses once the current transaction commits, for writes that add satellites.
+     */
+    public void invalidateCatalog() {
+        afterCommit(() -> {
+            catalogStamp.incrementAndGet();
+            responses.invalidateAll(keys(null));
+        });
+    }
+
+    public void invalidateAll() {
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            stamps.incrementAndGet(stripe);
+        }
+        catalogStamp.incrementAndGet();
+        responses.invalidateAll();
+    }
+
+    private byte[] serialize(Object body, String format) {
+        try {
+            return mappers.get(format).writeValueAsBytes(body);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        // Fastest level, the compressed bytes are usually cached but a busy catalog is compressed on every change
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_SPEED);
+            }
+        }) {
+            gzip.write(body);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    private static List<Key> keys(Long id) {
+        List<Key> keys = new ArrayList<>(FORMATS.size() * 2);
+        for (String format : FORMATS) {
+            keys.add(new Key(id, format, false));
+            keys.add(new Key(id, format, true));
+        }
+        return keys;
+    }
+
+    private static int stripe(long id) {
+        return (int) (id ^ (id >>> 32)) & (STRIPES - 1);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * A satellite, or the catalog when id is null, in one wire format and encoding.
+     */
+    @Value
+    private static class Key {
+
+        Long id;
+
+        String format;
+
+        boolean gzip;
+
+    }
+}
@@ -0,0 +1,29 @@
+package com.ism.satellite.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Settings for the serialized response cache, bound from satellite.response-cache.*.
+ */
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "satellite.response-cache")
+public class ResponseCacheProperties {
+
+    private boolean enabled = true;
+
+    // Total size of the cached bodies, least recently used entries are evicted beyond it
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+
+    // Larger bodies, such as the listing of a big catalog, are written but not kept
+    private DataSize maxEntrySize = DataSize.ofMegabytes(16);
+
+    // Bodies at least this large are gzipped for clients that accept it, smaller ones are sent as they are
+    private DataSize compressionMinSize = DataSize.ofKilobytes(1);
+
+}
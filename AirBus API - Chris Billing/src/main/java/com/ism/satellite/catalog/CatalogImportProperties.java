@@ -0,0 +1,34 @@
+package com.ism.satellite.catalog;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings for bulk catalog imports, bound from satellite.import.*.
+ */
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "satellite.import")
+public class CatalogImportProperties {
+
+    // Records parsed per task and committed per transaction, the unit a failed import resumes from
+    private int transactionSize = 1000;
+
+    // Inserts sent to the database per JDBC batch while importing
+    private int jdbcBatchSize = 500;
+
+    // Threads parsing and validating chunks, 0 uses one per available processor
+    private int parserThreads = 0;
+
+    // Failed records listed in an import report, all of them are counted
+    private int maxReportedFailures = 100;
+
+    // Catalog files imported at startup, an import that already completed is skipped and a failed one resumed
+    private List<String> files = new ArrayList<>();
+
+}
@@ -0,0 +1,61 @@
+package com.ism.satellite.catalog;
+
+import com.ism.satellite.domain.CatalogFormat;
+import com.ism.satellite.domain.CatalogImportStatus;
+import com.ism.satellite.response.CatalogImportReport;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Imports the catalog files listed in satellite.import.files at startup. Each file's import id is derived from its
+ * path, size and modification time, so a restart skips files already imported, resumes one that failed part way,
+ * and imports a file again once it has been replaced.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class CatalogImportRunner implements ApplicationRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CatalogImportRunner.class);
+
+    private final CatalogImportProperties properties;
+
+    private final CatalogImportService importService;
+
+    public CatalogImportRunner(CatalogImportProperties properties, CatalogImportService importService) {
+        this.properties = properties;
+        this.importService = importService;
+    }
+
+    // Runs after the stores are warmed, so imported satellites are published into them, and before any export
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        for (String name : properties.getFiles()) {
+            Path file = Paths.get(name).toAbsolutePath();
+            CatalogFormat format = CatalogFormat.fromFileName(file.getFileName().toString());
+            if (format == null) {
+                throw new IllegalArgumentException("Unrecognised catalog file extension: " + file);
+            }
+            String importId = "file-" + Integer.toHexString(file.toString().hashCode()) + "-"
+              + Long.toHexString(Files.size(file)) + "-" + Long.toHexString(Files.getLastModifiedTime(file).toMillis());
+            CatalogImportReport report;
+            try (InputStream in = Files.newInputStream(file)) {
+                report = importService.importCatalog(in, format, importId, file.toString());
+            }
+            if (report.getStatus() == CatalogImportStatus.FAILED) {
+                // Startup carries on, the next start resumes the import from its checkpoint
+                LOGGER.error("Catalog import of {} failed after {} records: {}", file, report.getRecordsCommitted(),
+                  report.getError());
+            }
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.ism.satellite.catalog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.ism.satellite.cache.ResponseCache;
+import com.ism.satellite.domain.CatalogFormat;
+import com.ism.satellite.domain.CatalogImport;
+import com.ism.satellite.domain.CatalogImportStatus;
+import com.ism.satellite.domain.Satellite;
+import com.ism.satellite.exception.custom.BadRequestException;
+import com.ism.satellite.exception.custom.NotFoundException;
+import com.ism.satellite.live.PositionBroadcaster;
+import com.ism.satellite.propagation.OrbitPropagator;
+import com.ism.satellite.repository.CatalogImportRepository;
+import com.ism.satellite.response.BulkItemFailure;
+import com.ism.satellite.response.CatalogImportReport;
+import com.ism.satellite.service.PositionPublisher;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bulk catalog import. The source is split into chunks of one transaction's worth of records on the calling thread,
+ * the chunks are parsed and validated in parallel on a small pool, and committed strictly in source order through
+ * {@link CatalogImportWriter}, each commit advancing the import's checkpoint. A restarted import with the same id
+ * skips the records already committed and carries on from there.
+ *
+ * <p>Only a bounded number of chunks is parsed ahead of the writer, so memory stays flat whatever the file size.
+ */
+@Component
+public class CatalogImportService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CatalogImportService.class);
+
+    private static final long PROGRESS_LOG_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final CatalogImportProperties properties;
+
+    private final CatalogImportWriter writer;
+
+    private final CatalogImportRepository repository;
+
+    private final ObjectReader satelliteReader;
+
+    private final Validator validator;
+
+    private final PositionPublisher positionPublisher;
+
+    private final OrbitPropagator orbitPropagator;
+
+    private final PositionBroadcaster positionBroadcaster;
+
+    private final ResponseCache responseCache;
+
+    // Imports currently running in this instance, an id can only run once at a time
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    private ExecutorService parsers;
+
+    private int parserThreads;
+
+    public CatalogImportService(CatalogImportProperties properties, CatalogImportWriter writer,
+                                CatalogImportRepository repository, ObjectMapper objectMapper, Validator validator,
+                                PositionPublisher positionPublisher, OrbitPropagator orbitPropagator,
+                                PositionBroadcaster positionBroadcaster, ResponseCache responseCache) {
+        this.properties = properties;
+        this.writer = writer;
+        this.repository = repository;
+        this.satelliteReader = objectMapper.readerFor(Satellite.class);
+        this.validator = validator;
+        this.positionPublisher = positionPublisher;
+        this.orbitPropagator = orbitPropagator;
+        this.positionBroadcaster = positionBroadcaster;
+        this.responseCache = responseCache;
+    }
+
+    @PostConstruct
+    void start() {
+        parserThreads = properties.getParserThreads() > 0 ? properties.getParserThreads()
+          : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        parsers = Executors.newFixedThreadPool(parserThreads, runnable -> {
+            Thread thread = new Thread(runnable, "catalog-parser-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        parsers.shutdownNow();
+    }
+
+    /**
+     * Imports a catalog, resuming a failed import with the same id. An import that already completed is not run
+     * again, its report is returned as it stands. A null id starts a fresh import under a generated id.
+     */
+    public CatalogImportReport importCatalog(InputStream source, CatalogFormat format, String importId,
+                                             String sourceName) {
+        if (format == null) {
+            throw new BadRequestException("Catalog format is required, one of TLE, CSV, NDJSON");
+        }
+        String id = importId == null ? UUID.randomUUID().toString() : importId;
+        if (id.isBlank() || id.length() > 64) {
+            throw new BadRequestException("Import id must be between 1 and 64 characters");
+        }
+        if (!running.add(id)) {
+            throw new BadRequestException(String.format("Import %s is already running", id));
+        }
+        try {
+            CatalogImport existing = repository.findById(id).orElse(null);
+            if (existing != null && existing.getStatus() == CatalogImportStatus.COMPLETED) {
+                return report(existing, 0, List.of(), 0);
+            }
+            return run(source, format, id, sourceName);
+        } finally {
+            running.remove(id);
+        }
+    }
+
+    public CatalogImportReport getReport(String importId) {
+        CatalogImport catalogImport = repository.findById(importId)
+          .orElseThrow(() -> new NotFoundException(String.format("Import with id: %s not found", importId)));
+        return report(catalogImport, 0, null, 0);
+    }
+
+    private CatalogImportReport run(InputStream source, CatalogFormat format, String id, String sourceName) {
+        long startNanos = System.nanoTime();
+        CatalogImport catalogImport = writer.start(id, sourceName, format);
+        long resumedFrom = catalogImport.getRecordsCommitted();
+        List<BulkItemFailure> failures = new ArrayList<>();
+        ArrayDeque<Future<CatalogParser.ParsedChunk>> inFlight = new ArrayDeque<>();
+        int maxInFlight = Math.max(2, parserThreads * 2);
+        int transactionSize = Math.max(1, properties.getTransactionSize());
+        String error = null;
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(source, StandardCharsets.UTF_8), 1 << 16)) {
+            CatalogRecordReader records = new CatalogRecordReader(in, format);
+            CatalogParser parser = new CatalogParser(format, records.getHeader(), satelliteReader, validator);
+            long index = 0;
+            // Records before the checkpoint were committed by an earlier run, they are read past but not parsed
+            while (index < resumedFrom && records.next() != null) {
+                index++;
+            }
+            if (index < resumedFrom) {
+                throw new IllegalArgumentException(String.format(
+                  "Source has %s records but import %s already committed %s", index, id, resumedFrom));
+            }
+            long lastLogNanos = System.nanoTime();
+            List<String> chunk = new ArrayList<>(transactionSize);
+            String record;
+            while ((record = records.next()) != null) {
+                chunk.add(record);
+                if (chunk.size() == transactionSize) {
+                    inFlight.add(submit(parser, chunk, index));
+                    index += chunk.size();
+                    chunk = new ArrayList<>(transactionSize);
+                    if (inFlight.size() == maxInFlight) {
+                        commit(id, inFlight.poll(), failures);
+                    }
+                }
+                if (System.nanoTime() - lastLogNanos > PROGRESS_LOG_INTERVAL_NANOS) {
+                    lastLogNanos = System.nanoTime();
+                    LOGGER.info("Import {} read {} records", id, index);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                inFlight.add(submit(parser, chunk, index));
+            }
+            while (!inFlight.isEmpty()) {
+                commit(id, inFlight.poll(), failures);
+            }
+        } catch (Exception ex) {
+            if (ex instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            for (Future<CatalogParser.ParsedChunk> pending : inFlight) {
+                pending.cancel(true);
+            }
+            error = ex instanceof ExecutionException ? ex.getCause().getMessage() : ex.getMessage();
+            if (error == null) {
+                error = ex.getClass().getSimpleName();
+            }
+            LOGGER.error("Import {} failed, resume it with the same id: {}", id, error);
+        }
+        CatalogImport finished = writer.finish(id, error);
+        CatalogImportReport report = report(finished, resumedFrom, failures, System.nanoTime() - startNanos);
+        LOGGER.info("Import {} {}: {} imported, {} failed in {} ms ({} records/s)", id,
+          report.getStatus().name().toLowerCase(), report.getImported(), report.getFailed(),
+          Math.round(report.getElapsedMillis()), Math.round(report.getRecordsPerSecond()));
+        return report;
+    }
+
+    private Future<CatalogParser.ParsedChunk> submit(CatalogParser parser, List<String> chunk, long firstIndex) {
+        return parsers.submit(() -> parser.parse(chunk, firstIndex));
+    }
+
+    private void commit(String id, Future<CatalogParser.ParsedChunk> future, List<BulkItemFailure> failures)
+      throws ExecutionException, InterruptedException {
+        CatalogParser.ParsedChunk chunk = future.get();
+        writer.persist(id, chunk.satellites, chunk.records, chunk.failures.size());
+        for (BulkItemFailure failure : chunk.failures) {
+            if (failures.size() == properties.getMaxReportedFailures()) {
+                break;
+            }
+            failures.add(failure);
+        }
+        // Published once committed, as single creates do, so the live views never show rolled back satellites
+        for (Satellite satellite : chunk.satellites) {
+            positionBroadcaster.trackOrbit(satellite.getId(), satellite.getOrbit());
+            positionPublisher.publish(satellite.getId(), satellite.getParameters());
+            orbitPropagator.register(satellite.getId(), satellite.getElements());
+        }
+        if (!chunk.satellites.isEmpty()) {
+            responseCache.invalidateCatalog();
+        }
+    }
+
+    private static CatalogImportReport report(CatalogImport catalogImport, long resumedFrom,
+                                              List<BulkItemFailure> failures, long elapsedNanos) {
+        if (elapsedNanos == 0 && catalogImport.getStartedAt() != null && catalogImport.getUpdatedAt() != null) {
+            // Reports read back from the database span the whole import, including earlier runs
+            elapsedNanos = Duration.between(catalogImport.getStartedAt(), catalogImport.getUpdatedAt()).toNanos();
+        }
+        long processed = catalogImport.getRecordsCommitted() - resumedFrom;
+        return CatalogImportReport.builder()
+          .importId(catalogImport.getId())
+          .source(catalogImport.getSource())
+          .format(catalogImport.getFormat())
+          .status(catalogImport.getStatus())
+          .resumedFrom(resumedFrom)
+          .recordsCommitted(catalogImport.getRecordsCommitted())
+          .imported(catalogImport.getImported())
+          .failed(catalogImport.getFailed())
+          .failures(failures)
+          .elapsedMillis(elapsedNanos / 1e6)
+          .recordsPerSecond(elapsedNanos == 0 ? 0 : processed * 1e9 / elapsedNanos)
+          .error(catalogImport.getError())
+          .build();
+    }
+}
@@ -0,0 +1,87 @@
+package com.ism.satellite.catalog;
+
+import com.ism.satellite.domain.CatalogFormat;
+import com.ism.satellite.domain.CatalogImport;
+import com.ism.satellite.domain.CatalogImportStatus;
+import com.ism.satellite.domain.Satellite;
+import com.ism.satellite.repository.CatalogImportRepository;
+import jakarta.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Transactional side of a catalog import. Each call to {@link #persist} inserts one transaction's worth of
+ * satellites as JDBC batches and advances the import's checkpoint in the same transaction, so the checkpoint never
+ * runs ahead of or behind what is stored.
+ */
+@Component
+public class CatalogImportWriter {
+
+    private final CatalogImportRepository repository;
+
+    private final EntityManager entityManager;
+
+    private final CatalogImportProperties properties;
+
+    public CatalogImportWriter(CatalogImportRepository repository, EntityManager entityManager,
+                               CatalogImportProperties properties) {
+        this.repository = repository;
+        this.entityManager = entityManager;
+        this.properties = properties;
+    }
+
+    /**
+     * Creates the import row, or marks an earlier failed run of the same import as running again.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public CatalogImport start(String importId, String source, CatalogFormat format) {
+        CatalogImport catalogImport = repository.findById(importId).orElseGet(() -> {
+            CatalogImport created = new CatalogImport();
+            created.setId(importId);
+            created.setStartedAt(LocalDateTime.now());
+            return created;
+        });
+        catalogImport.setSource(source);
+        catalogImport.setFormat(format);
+        catalogImport.setStatus(CatalogImportStatus.RUNNING);
+        catalogImport.setError(null);
+        catalogImport.setUpdatedAt(LocalDateTime.now());
+        return repository.save(catalogImport);
+    }
+
+    /**
+     * Inserts the satellites and moves the checkpoint past the source records they were parsed from.
+     */
+    @Transactional
+    public void persist(String importId, List<Satellite> satellites, int records, int failed) {
+        Session session = entityManager.unwrap(Session.class);
+        session.setJdbcBatchSize(properties.getJdbcBatchSize());
+        // Imported satellites are not put in the second-level cache, a large import would only evict the hot ones
+        session.setCacheMode(CacheMode.IGNORE);
+        for (Satellite satellite : satellites) {
+            entityManager.persist(satellite);
+        }
+        CatalogImport catalogImport = entityManager.find(CatalogImport.class, importId);
+        catalogImport.setRecordsCommitted(catalogImport.getRecordsCommitted() + records);
+        catalogImport.setImported(catalogImport.getImported() + satellites.size());
+        catalogImport.setFailed(catalogImport.getFailed() + failed);
+        catalogImport.setUpdatedAt(LocalDateTime.now());
+        entityManager.flush();
+        // The satellites are handed to the live views after commit, the context has no further use for them
+        entityManager.clear();
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public CatalogImport finish(String importId, String error) {
+        CatalogImport catalogImport = entityManager.find(CatalogImport.class, importId);
+        catalogImport.setStatus(error == null ? CatalogImportStatus.COMPLETED : CatalogImportStatus.FAILED);
+        catalogImport.setError(error == null || error.length() <= 500 ? error : error.substring(0, 500));
+        catalogImport.setUpdatedAt(LocalDateTime.now());
+        return catalogImport;
+    }
+}
@@ -0,0 +1,298 @@
+package com.ism.satellite.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.ism.satellite.domain.CatalogFormat;
+import com.ism.satellite.domain.OrbitType;
+import com.ism.satellite.domain.OrbitalElements;
+import com.ism.satellite.domain.Satellite;
+import com.ism.satellite.domain.SatelliteParameters;
+import com.ism.satellite.propagation.OrbitMath;
+import com.ism.satellite.propagation.OrbitPropagator;
+import com.ism.satellite.response.BulkItemFailure;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maps raw catalog records to new Satellite entities and validates them with the same rules as single creates.
+ * Immutable once built, so one parser serves every parallel chunk of an import.
+ */
+final class CatalogParser {
+
+    // GEO altitude is 35,786 km, anything within this of it counts as geostationary
+    private static final double GEO_TOLERANCE_KM = 500;
+
+    private static final double LEO_CEILING_KM = 2000;
+
+    private static final int MAX_NAME_LENGTH = 50;
+
+    private final CatalogFormat format;
+
+    private final ObjectReader satelliteReader;
+
+    private final Validator validator;
+
+    // Column index of each recognised CSV header, keyed by lower case Satellite field name
+    private final Map<String, Integer> columns = new HashMap<>();
+
+    /**
+     * Satellites and rejected records of one chunk, in source order.
+     */
+    static final class ParsedChunk {
+
+        final List<Satellite> satellites;
+
+        final List<BulkItemFailure> failures;
+
+        final int records;
+
+        ParsedChunk(List<Satellite> satellites, List<BulkItemFailure> failures, int records) {
+            this.satellites = satellites;
+            this.failures = failures;
+            this.records = records;
+        }
+    }
+
+    CatalogParser(CatalogFormat format, String csvHeader, ObjectReader satelliteReader, Validator validator) {
+        this.format = format;
+        this.satelliteReader = satelliteReader;
+        this.validator = validator;
+        if (format == CatalogFormat.CSV) {
+            if (csvHeader == null) {
+                throw new IllegalArgumentException("CSV catalog is missing its header row");
+            }
+            List<String> names = splitCsv(csvHeader);
+            for (int i = 0; i < names.size(); i++) {
+                columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+        }
+    }
+
+    ParsedChunk parse(List<String> records, long firstIndex) {
+        List<Satellite> satellites = new ArrayList<>(records.size());
+        List<BulkItemFailure> failures = new ArrayList<>();
+        for (int i = 0; i < records.size(); i++) {
+            try {
+                Satellite satellite = switch (format) {
+                    case TLE -> parseTle(records.get(i));
+                    case CSV -> parseCsv(records.get(i));
+                    case NDJSON -> parseJson(records.get(i));
+                };
+                String invalid = validate(satellite);
+                if (invalid != null) {
+                    failures.add(new BulkItemFailure((int) (firstIndex + i), null, invalid));
+                } else {
+                    satellites.add(satellite);
+                }
+            } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException ex) {
+                failures.add(new BulkItemFailure((int) (firstIndex + i), null, ex.getMessage()));
+            }
+        }
+        return new ParsedChunk(satellites, failures, records.size());
+    }
+
+    private String validate(Satellite satellite) {
+        if (satellite.getName() == null || satellite.getOrbit() == null || satellite.getParameters() == null
+          || satellite.getLaunchDate() == null) {
+            return "Satellite missing required parameters";
+        }
+        Set<ConstraintViolation<Satellite>> violations = validator.validate(satellite);
+        if (!violations.isEmpty()) {
+            return violations.iterator().next().getMessage();
+        }
+        Set<ConstraintViolation<SatelliteParameters>> parameterViolations =
+          validator.validate(satellite.getParameters());
+        if (!parameterViolations.isEmpty()) {
+            return "Satellite Parameters missing required parameters";
+        }
+        return satellite.getElements() == null ? null : OrbitMath.validate(satellite.getElements());
+    }
+
+    /**
+     * Maps a NORAD element set. The orbit type follows from the mean altitude, the launch date from the year of the
+     * international designator, and the position is the orbit propagated to the element set's epoch.
+     */
+    private Satellite parseTle(String record) {
+        String[] lines = record.split("\n");
+        if (lines.length < 2) {
+            throw new IllegalArgumentException("Incomplete element set: " + abbreviate(lines[0]));
+        }
+        String line1 = lines[lines.length - 2];
+        String line2 = lines[lines.length - 1];
+        checkTleLine(line1, '1');
+        checkTleLine(line2, '2');
+        String catalogNumber = line1.substring(2, 7).trim();
+        if (!catalogNumber.equals(line2.substring(2, 7).trim())) {
+            throw new IllegalArgumentException("Element set lines belong to different satellites: " + catalogNumber);
+        }
+
+        OrbitalElements elements = new OrbitalElements();
+        double revolutionsPerDay = Double.parseDouble(line2.substring(52, 63).trim());
+        double meanMotion = revolutionsPerDay * OrbitMath.TWO_PI / 86_400;
+        elements.setSemiMajorAxisKm(Math.cbrt(OrbitMath.MU / (meanMotion * meanMotion)));
+        elements.setEccentricity(Double.parseDouble("0." + line2.substring(26, 33).trim()));
+        elements.setInclinationDeg(Double.parseDouble(line2.substring(8, 16).trim()));
+        elements.setRaanDeg(Double.parseDouble(line2.substring(17, 25).trim()));
+        elements.setArgumentOfPerigeeDeg(Double.parseDouble(line2.substring(34, 42).trim()));
+        elements.setMeanAnomalyDeg(Double.parseDouble(line2.substring(43, 51).trim()));
+        int epochYear = fullYear(Integer.parseInt(line1.substring(18, 20).trim()));
+        double epochDay = Double.parseDouble(line1.substring(20, 32).trim());
+        LocalDateTime epoch = LocalDateTime.of(epochYear, 1, 1, 0, 0)
+          .plusNanos(Math.round((epochDay - 1) * 86_400_000_000_000d));
+        elements.setEpoch(epoch);
+        String invalid = OrbitMath.validate(elements);
+        if (invalid != null) {
+            throw new IllegalArgumentException(invalid + ": " + catalogNumber);
+        }
+
+        Satellite satellite = new Satellite();
+        String name = lines.length > 2 ? lines[0].trim() : "";
+        // Three line sets from some sources prefix the name line with a 0
+        if (name.startsWith("0 ")) {
+            name = name.substring(2).trim();
+        }
+        satellite.setName(abbreviate(name.isEmpty() ? "NORAD " + catalogNumber : name));
+        String launchYear = line1.substring(9, 11).trim();
+        satellite.setLaunchDate(launchYear.isEmpty() ? epoch
+          : LocalDateTime.of(fullYear(Integer.parseInt(launchYear)), 1, 1, 0, 0));
+        satellite.setElements(elements);
+        double meanAltitude = elements.getSemiMajorAxisKm() - OrbitMath.EARTH_RADIUS_KM;
+        satellite.setOrbit(meanAltitude < LEO_CEILING_KM ? OrbitType.LEO
+          : Math.abs(meanAltitude - 35_786) < GEO_TOLERANCE_KM ? OrbitType.GEO : OrbitType.MEO);
+        double[] position = new double[3];
+        OrbitPropagator.propagate(elements, epoch.toInstant(ZoneOffset.UTC).toEpochMilli(), position);
+        satellite.setParameters(parameters(position[0], position[1], position[2]));
+        return satellite;
+    }
+
+    private Satellite parseCsv(String record) {
+        List<String> values = splitCsv(record);
+        Satellite satellite = new Satellite();
+        satellite.setName(csvValue(values, "name"));
+        String orbit = csvValue(values, "orbit");
+        satellite.setOrbit(orbit == null ? null : OrbitType.valueOf(orbit.toUpperCase(Locale.ROOT)));
+        String launchDate = csvValue(values, "launchdate");
+        satellite.setLaunchDate(launchDate == null ? null : LocalDateTime.parse(launchDate));
+        satellite.setParameters(parameters(csvDouble(values, "altitude"), csvDouble(values, "latitude"),
+          csvDouble(values, "longitude")));
+        Double semiMajorAxis = csvDouble(values, "semimajoraxiskm");
+        if (semiMajorAxis != null) {
+            OrbitalElements elements = new OrbitalElements();
+            elements.setSemiMajorAxisKm(semiMajorAxis);
+            elements.setEccentricity(csvDouble(values, "eccentricity"));
+            elements.setInclinationDeg(csvDouble(values, "inclinationdeg"));
+            elements.setRaanDeg(csvDouble(values, "raandeg"));
+            elements.setArgumentOfPerigeeDeg(csvDouble(values, "argumentofperigeedeg"));
+            elements.setMeanAnomalyDeg(csvDouble(values, "meananomalydeg"));
+            String epoch = csvValue(values, "elementsepoch");
+            elements.setEpoch(epoch == null ? null : LocalDateTime.parse(epoch));
+            satellite.setElements(elements);
+        }
+        return satellite;
+    }
+
+    private Satellite parseJson(String record) {
+        try {
+            Satellite satellite = satelliteReader.readValue(record);
+            // Imports always create, ids and versions in the file are ignored
+            satellite.setId(null);
+            satellite.setVersion(null);
+            if (satellite.getParameters() != null) {
+                satellite.getParameters().setId(null);
+                satellite.getParameters().setVersion(null);
+            }
+            return satellite;
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Malformed satellite: " + ex.getOriginalMessage());
+        }
+    }
+
+    private String csvValue(List<String> values, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private Double csvDouble(List<String> values, String column) {
+        String value = csvValue(values, column);
+        return value == null ? null : Double.valueOf(value);
+    }
+
+    // RFC 4180 fields: commas separate, double quotes enclose and "" escapes a quote
+    static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private static void checkTleLine(String line, char number) {
+        if (line.length() < 69 || line.charAt(0) != number) {
+            throw new IllegalArgumentException("Malformed element set line " + number + ": " + abbreviate(line));
+        }
+        // Modulo 10 sum of the digits, minus signs counting as 1
+        int sum = 0;
+        for (int i = 0; i < 68; i++) {
+            char c = line.charAt(i);
+            if (c >= '0' && c <= '9') {
+                sum += c - '0';
+            } else if (c == '-') {
+                sum++;
+            }
+        }
+        if (sum % 10 != line.charAt(68) - '0') {
+            throw new IllegalArgumentException("Checksum mismatch on element set line " + number + ": "
+              + line.substring(2, 7).trim());
+        }
+    }
+
+    // Two digit years in element sets run from 1957 to 2056
+    private static int fullYear(int twoDigitYear) {
+        return twoDigitYear < 57 ? 2000 + twoDigitYear : 1900 + twoDigitYear;
+    }
+
+    private static SatelliteParameters parameters(Double altitude, Double latitude, Double longitude) {
+        SatelliteParameters parameters = new SatelliteParameters();
+        parameters.setAltitude(altitude);
+        parameters.setLatitude(latitude);
+        parameters.setLongitude(longitude);
+        return parameters;
+    }
+
+    private static String abbreviate(String value) {
+        return value.length() <= MAX_NAME_LENGTH ? value : value.substring(0, MAX_NAME_LENGTH);
+    }
+}
@@ -0,0 +1,81 @@
+package com.ism.satellite.catalog;
+
+import com.ism.satellite.domain.CatalogFormat;
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Splits a catalog stream into raw records without parsing them, so the expensive parsing can run in parallel.
+ * TLE records are their two or three lines joined by newlines, CSV and NDJSON records are single lines. Blank lines
+ * are skipped, the CSV header row is read up front.
+ */
+final class CatalogRecordReader {
+
+    private final BufferedReader reader;
+
+    private final CatalogFormat format;
+
+    private final String header;
+
+    // A line read ahead while looking for the end of a TLE record
+    private String pending;
+
+    CatalogRecordReader(BufferedReader reader, CatalogFormat format) throws IOException {
+        this.reader = reader;
+        this.format = format;
+        this.header = format == CatalogFormat.CSV ? nextLine() : null;
+    }
+
+    String getHeader() {
+        return header;
+    }
+
+    /**
+     * Returns the next raw record, or null at the end of the stream.
+     */
+    String next() throws IOException {
+        String line = nextLine();
+        if (line == null || format != CatalogFormat.TLE) {
+            return line;
+        }
+        // A name line comes before line 1 in three line sets
+        String name = isElementLine(line, '1') ? null : line;
+        String first = name == null ? line : nextLine();
+        if (first == null || !isElementLine(first, '1')) {
+            // Malformed, hand over what was read so the record is reported rather than silently merged
+            pending = first != null && !isElementLine(first, '2') ? first : null;
+            return name;
+        }
+        String second = nextLine();
+        if (second != null && !isElementLine(second, '2')) {
+            pending = second;
+            second = null;
+        }
+        StringBuilder record = new StringBuilder(name == null ? 140 : 166);
+        if (name != null) {
+            record.append(name).append('\n');
+        }
+        record.append(first);
+        if (second != null) {
+            record.append('\n').append(second);
+        }
+        return record.toString();
+    }
+
+    private String nextLine() throws IOException {
+        if (pending != null) {
+            String line = pending;
+            pending = null;
+            return line;
+        }
+        String line;
+        do {
+            line = reader.readLine();
+        } while (line != null && line.isBlank());
+        return line;
+    }
+
+    private static boolean isElementLine(String line, char number) {
+        return line.length() >= 2 && line.charAt(0) == number && line.charAt(1) == ' ';
+    }
+}
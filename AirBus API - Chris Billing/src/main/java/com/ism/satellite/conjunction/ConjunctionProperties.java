@@ -0,0 +1,27 @@
+package com.ism.satellite.conjunction;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings for conjunction screening, bound from satellite.conjunction.*.
+ */
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "satellite.conjunction")
+public class ConjunctionProperties {
+
+    // Enables the periodic screening job, one-shot screening is always available
+    private boolean enabled = true;
+
+    private double thresholdKm = 5.0;
+
+    private Duration interval = Duration.ofMinutes(1);
+
+    private int maxResults = 1000;
+
+}
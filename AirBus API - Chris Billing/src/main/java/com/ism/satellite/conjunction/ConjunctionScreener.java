@@ -0,0 +1,279 @@
+package com.ism.satellite.conjunction;
+
+import com.ism.satellite.response.Conjunction;
+import com.ism.satellite.store.LongIntHashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import lombok.Value;
+
+/**
+ * Finds every pair of objects closer than a threshold with a 3D spatial hash. Space is cut into cubes whose side is
+ * the threshold, so a close pair always lies in the same or in adjacent cubes. Objects are grouped by cube with a
+ * counting sort, and each cube is compared with itself and with 13 of its 26 neighbours, which visits every
+ * neighbouring pair of cubes exactly once. Cubes are screened in parallel on a ForkJoinPool.
+ */
+public class ConjunctionScreener {
+
+    // Below this many occupied cubes a range is screened on the current thread
+    static final int SPLIT_THRESHOLD = 512;
+
+    private static final int AXIS_BITS = 21;
+
+    private static final int AXIS_OFFSET = 1 << (AXIS_BITS - 1);
+
+    private static final long AXIS_MASK = (1L << AXIS_BITS) - 1;
+
+    // Half of the 26 neighbour offsets, those lexicographically after (0, 0, 0)
+    private static final int[][] FORWARD_NEIGHBOURS = forwardNeighbours();
+
+    private static final Comparator<Conjunction> NEAREST_FIRST = Comparator.comparingDouble(Conjunction::getDistanceKm);
+
+    private static final Comparator<Conjunction> FARTHEST_FIRST = NEAREST_FIRST.reversed();
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Outcome of a screening, the closest pairs nearest first and the number of pairs found in total.
+     */
+    @Value
+    public static class Result {
+
+        List<Conjunction> conjunctions;
+
+        long total;
+
+    }
+
+    public ConjunctionScreener(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Screens objects given as Earth-fixed coordinates in km, returning at most maxResults of the closest pairs.
+     */
+    public Result screen(long[] ids, double[] x, double[] y, double[] z, double thresholdKm, int maxResults) {
+        Cubes cubes = Cubes.build(x, y, z, thresholdKm);
+        Found found = pool.invoke(new ScreenRange(cubes, ids, x, y, z, thresholdKm * thresholdKm, maxResults,
+          0, cubes.count));
+        List<Conjunction> conjunctions = new ArrayList<>(found.closest);
+        conjunctions.sort(NEAREST_FIRST);
+        return new Result(conjunctions, found.total);
+    }
+
+    static long cubeKey(int cubeX, int cubeY, int cubeZ) {
+        return ((cubeX + AXIS_OFFSET) & AXIS_MASK) << (2 * AXIS_BITS)
+          | ((cubeY + AXIS_OFFSET) & AXIS_MASK) << AXIS_BITS
+          | ((cubeZ + AXIS_OFFSET) & AXIS_MASK);
+    }
+
+    // Clamped so coordinates far outside the key range share the edge cubes, which only costs extra comparisons
+    static int cube(double coordinate, double cubeSize) {
+        double index = Math.floor(coordinate / cubeSize);
+        return (int) Math.max(-AXIS_OFFSET + 1, Math.min(AXIS_OFFSET - 2, index));
+    }
+
+    private static int[][] forwardNeighbours() {
+        List<int[]> offsets = new ArrayList<>();
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dz = -1; dz <= 1; dz++) {
+                    if (dx > 0 || (dx == 0 && dy > 0) || (dx == 0 && dy == 0 && dz > 0)) {
+                        offsets.add(new int[] {dx, dy, dz});
+                    }
+                }
+            }
+        }
+        return offsets.toArray(new int[0][]);
+    }
+
+    /**
+     * Objects grouped by cube: members of cube c are order[start[c]] .. order[start[c + 1] - 1].
+     */
+    private static final class Cubes {
+
+        private final LongIntHashMap ordinals;
+
+        private final int count;
+
+        private final int[] cubeX;
+
+        private final int[] cubeY;
+
+        private final int[] cubeZ;
+
+        private final int[] start;
+
+        private final int[] order;
+
+        private Cubes(LongIntHashMap ordinals, int count, int[] cubeX, int[] cubeY, int[] cubeZ, int[] start,
+                      int[] order) {
+            this.ordinals = ordinals;
+            this.count = count;
+            this.cubeX = cubeX;
+            this.cubeY = cubeY;
+            this.cubeZ = cubeZ;
+            this.start = start;
+            this.order = order;
+        }
+
+        static Cubes build(double[] x, double[] y, double[] z, double cubeSize) {
+            int size = x.length;
+            LongIntHashMap ordinals = new LongIntHashMap(size);
+            int[] ordinalOf = new int[size];
+            int[] cubeX = new int[size];
+            int[] cubeY = new int[size];
+            int[] cubeZ = new int[size];
+            int[] counts = new int[size + 1];
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                int cx = cube(x[i], cubeSize);
+                int cy = cube(y[i], cubeSize);
+                int cz = cube(z[i], cubeSize);
+                long key = cubeKey(cx, cy, cz);
+                int ordinal = ordinals.get(key);
+                if (ordinal == LongIntHashMap.NO_VALUE) {
+                    ordinal = count++;
+                    ordinals.put(key, ordinal);
+                    cubeX[ordinal] = cx;
+                    cubeY[ordinal] = cy;
+                    cubeZ[ordinal] = cz;
+                }
+                ordinalOf[i] = ordinal;
+                counts[ordinal + 1]++;
+            }
+            for (int c = 0; c < count; c++) {
+                counts[c + 1] += counts[c];
+            }
+            int[] start = counts;
+            int[] next = Arrays.copyOf(start, count);
+            int[] order = new int[size];
+            for (int i = 0; i < size; i++) {
+                order[next[ordinalOf[i]]++] = i;
+            }
+            return new Cubes(ordinals, count, cubeX, cubeY, cubeZ, start, order);
+        }
+    }
+
+    /**
+     * Pairs found by a task: a bounded max-heap of the closest and the total count.
+     */
+    private static final class Found {
+
+        private final PriorityQueue<Conjunction> closest = new PriorityQueue<>(FARTHEST_FIRST);
+
+        private final int limit;
+
+        private long total;
+
+        Found(int limit) {
+            this.limit = limit;
+        }
+
+        void add(Conjunction conjunction) {
+            total++;
+            if (closest.size() < limit) {
+                closest.add(conjunction);
+            } else if (limit > 0 && conjunction.getDistanceKm() < closest.peek().getDistanceKm()) {
+                closest.poll();
+                closest.add(conjunction);
+            }
+        }
+
+        Found merge(Found other) {
+            Found larger = closest.size() >= other.closest.size() ? this : other;
+            Found smaller = larger == this ? other : this;
+            long combined = total + other.total;
+            smaller.closest.forEach(larger::add);
+            larger.total = combined;
+            return larger;
+        }
+    }
+
+    private static final class ScreenRange extends RecursiveTask<Found> {
+
+        private final Cubes cubes;
+
+        private final long[] ids;
+
+        private final double[] x;
+
+        private final double[] y;
+
+        private final double[] z;
+
+        private final double thresholdSquared;
+
+        private final int maxResults;
+
+        private final int from;
+
+        private final int to;
+
+        ScreenRange(Cubes cubes, long[] ids, double[] x, double[] y, double[] z, double thresholdSquared,
+                    int maxResults, int from, int to) {
+            this.cubes = cubes;
+            this.ids = ids;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.thresholdSquared = thresholdSquared;
+            this.maxResults = maxResults;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Found compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                ScreenRange right = new ScreenRange(cubes, ids, x, y, z, thresholdSquared, maxResults, middle, to);
+                right.fork();
+                Found left = new ScreenRange(cubes, ids, x, y, z, thresholdSquared, maxResults, from, middle)
+                  .compute();
+                return left.merge(right.join());
+            }
+            Found found = new Found(maxResults);
+            int[] start = cubes.start;
+            int[] order = cubes.order;
+            for (int cube = from; cube < to; cube++) {
+                int first = start[cube];
+                int end = start[cube + 1];
+                for (int a = first; a < end; a++) {
+                    for (int b = a + 1; b < end; b++) {
+                        check(order[a], order[b], found);
+                    }
+                }
+                for (int[] offset : FORWARD_NEIGHBOURS) {
+                    int neighbour = cubes.ordinals.get(cubeKey(cubes.cubeX[cube] + offset[0],
+                      cubes.cubeY[cube] + offset[1], cubes.cubeZ[cube] + offset[2]));
+                    if (neighbour == LongIntHashMap.NO_VALUE) {
+                        continue;
+                    }
+                    for (int a = first; a < end; a++) {
+                        for (int b = start[neighbour], neighbourEnd = start[neighbour + 1]; b < neighbourEnd; b++) {
+                            check(order[a], order[b], found);
+                        }
+                    }
+                }
+            }
+            return found;
+        }
+
+        private void check(int i, int j, Found found) {
+            double dx = x[i] - x[j];
+            double dy = y[i] - y[j];
+            double dz = z[i] - z[j];
+            double distanceSquared = dx * dx + dy * dy + dz * dz;
+            if (distanceSquared <= thresholdSquared) {
+                long first = Math.min(ids[i], ids[j]);
+                long second = Math.max(ids[i], ids[j]);
+                found.add(new Conjunction(first, second, Math.sqrt(distanceSquared)));
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.ism.satellite.conjunction;
+
+import com.ism.satellite.exception.custom.BadRequestException;
+import com.ism.satellite.exception.custom.NotFoundException;
+import com.ism.satellite.propagation.OrbitMath;
+import com.ism.satellite.propagation.OrbitPropagator;
+import com.ism.satellite.response.ConjunctionReport;
+import com.ism.satellite.response.FleetPositions;
+import com.ism.satellite.store.PositionStore;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Screens the fleet for close approaches, either on demand or periodically with the latest report cached. Current
+ * positions come from the PositionStore; screening at another instant uses the orbits known to the OrbitPropagator.
+ */
+@Component
+public class ConjunctionService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConjunctionService.class);
+
+    public static final String SOURCE_CURRENT = "CURRENT";
+
+    public static final String SOURCE_PROPAGATED = "PROPAGATED";
+
+    public static final double MAX_THRESHOLD_KM = 1000;
+
+    private final ConjunctionProperties properties;
+
+    private final PositionStore positionStore;
+
+    private final OrbitPropagator orbitPropagator;
+
+    private final ConjunctionScreener screener;
+
+    private volatile ConjunctionReport latest;
+
+    public ConjunctionService(ConjunctionProperties properties, PositionStore positionStore,
+                              OrbitPropagator orbitPropagator) {
+        this.properties = properties;
+        this.positionStore = positionStore;
+        this.orbitPropagator = orbitPropagator;
+        this.screener = new ConjunctionScreener(ForkJoinPool.commonPool());
+    }
+
+    public int getMaxResults() {
+        return properties.getMaxResults();
+    }
+
+    /**
+     * Screens current positions, or positions propagated to at when it is not null.
+     */
+    public ConjunctionReport screen(double thresholdKm, Instant at) {
+        if (!(thresholdKm > 0 && thresholdKm <= MAX_THRESHOLD_KM)) {
+            throw new BadRequestException(String.format("Conjunction threshold must be above 0 and at most %s km",
+              MAX_THRESHOLD_KM));
+        }
+        long started = System.nanoTime();
+        Instant screenedAt = Instant.now();
+        Positions positions = at == null ? currentPositions() : propagatedPositions(at);
+        ConjunctionScreener.Result result = screener.screen(positions.ids, positions.x, positions.y, positions.z,
+          thresholdKm, properties.getMaxResults());
+        return ConjunctionReport.builder()
+          .screenedAt(screenedAt)
+          .positionsAt(at == null ? screenedAt : at)
+          .source(at == null ? SOURCE_CURRENT : SOURCE_PROPAGATED)
+          .thresholdKm(thresholdKm)
+          .satellites(positions.ids.length)
+          .conjunctionCount(result.getTotal())
+          .truncated(result.getTotal() > result.getConjunctions().size())
+          .durationMillis((System.nanoTime() - started) / 1_000_000d)
+          .conjunctions(result.getConjunctions())
+          .build();
+    }
+
+    /**
+     * The report of the last periodic screening, not found before the first one completes.
+     */
+    public ConjunctionReport getLatest() {
+        ConjunctionReport report = latest;
+        if (report == null) {
+            throw new NotFoundException("No conjunction screening has completed yet");
+        }
+        return report;
+    }
+
+    @Scheduled(fixedDelayString = "${satellite.conjunction.interval:PT1M}")
+    public void screenPeriodically() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            ConjunctionReport report = screen(properties.getThresholdKm(), null);
+            latest = report;
+            if (report.getConjunctionCount() > 0) {
+                LOGGER.info("Conjunction screening found {} pairs within {} km among {} satellites in {} ms",
+                  report.getConjunctionCount(), report.getThresholdKm(), report.getSatellites(),
+                  report.getDurationMillis());
+            }
+        } catch (RuntimeException ex) {
+            // The previous report stays cached until a later run succeeds
+            LOGGER.error("Conjunction screening failed: {}", ex.getMessage());
+        }
+    }
+
+    private Positions currentPositions() {
+        Positions positions = new Positions(Math.max(16, positionStore.size()));
+        double[] point = new double[3];
+        positionStore.forEach((satelliteId, parametersId, altitude, latitude, longitude) -> {
+            OrbitMath.earthFixed(altitude, latitude, longitude, point);
+            positions.add(satelliteId, point);
+        });
+        return positions.trim();
+    }
+
+    private Positions propagatedPositions(Instant at) {
+        FleetPositions fleet = orbitPropagator.propagate(at);
+        Positions positions = new Positions(fleet.getSatelliteIds().length);
+        double[] point = new double[3];
+        for (int i = 0; i < fleet.getSatelliteIds().length; i++) {
+            OrbitMath.earthFixed(fleet.getAltitudes()[i], fleet.getLatitudes()[i], fleet.getLongitudes()[i], point);
+            positions.add(fleet.getSatelliteIds()[i], point);
+        }
+        return positions.trim();
+    }
+
+    /**
+     * Growable Earth-fixed coordinate columns.
+     */
+    private static final class Positions {
+
+        private long[] ids;
+
+        private double[] x;
+
+        private double[] y;
+
+        private double[] z;
+
+        private int size;
+
+        Positions(int capacity) {
+            ids = new long[capacity];
+            x = new double[capacity];
+            y = new double[capacity];
+            z = new double[capacity];
+        }
+
+        void add(long id, double[] point) {
+            if (size == ids.length) {
+                int capacity = Math.max(16, size << 1);
+                ids = Arrays.copyOf(ids, capacity);
+                x = Arrays.copyOf(x, capacity);
+                y = Arrays.copyOf(y, capacity);
+                z = Arrays.copyOf(z, capacity);
+            }
+            ids[size] = id;
+            x[size] = point[0];
+            y[size] = point[1];
+            z[size] = point[2];
+            size++;
+        }
+
+        Positions trim() {
+            if (size != ids.length) {
+                ids = Arrays.copyOf(ids, size);
+                x = Arrays.copyOf(x, size);
+                y = Arrays.copyOf(y, size);
+                z = Arrays.copyOf(z, size);
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.ism.satellite.controller;
+
+import com.ism.satellite.async.AsyncSatelliteService;
+import com.ism.satellite.domain.Satellite;
+import com.ism.satellite.domain.SatelliteParameters;
+import com.ism.satellite.format.WireFormats;
+import com.ism.satellite.service.EntityTags;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Async facade over the SatelliteController lookups, listing and patch, served by Spring MVC's async request
+ * handling. Handlers return Mono and Flux around the blocking service calls, so the request thread is released while
+ * a call runs on the AsyncSatelliteService scheduler, and errors reach the GlobalExceptionHandler as usual.
+ */
+@RestController
+@RequestMapping("/api/async/satellite")
+public class AsyncSatelliteController {
+
+    @Autowired
+    private AsyncSatelliteService asyncSatelliteService;
+
+    // Streams the catalog as newline delimited JSON, the next row is only read once the previous one was written.
+    @GetMapping(value = "/", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public Flux<Satellite> streamAllSatellites() {
+        return asyncSatelliteService.streamAll();
+    }
+
+    @GetMapping(value = "/{id}", produces = {WireFormats.JSON, WireFormats.CBOR, WireFormats.SMILE})
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<ResponseEntity<Satellite>> getById(@PathVariable("id") Long id,
+                                                   @RequestHeader(value = HttpHeaders.ACCEPT, required = false)
+                                                   String accept) {
+        String format = WireFormats.negotiate(accept);
+        return asyncSatelliteService.getById(id)
+          .map(satellite -> ResponseEntity.ok()
+            .eTag(EntityTags.withFormat(EntityTags.satellite(satellite), format))
+            .varyBy(HttpHeaders.ACCEPT)
+            .body(satellite));
+    }
+
+    @GetMapping(value = "/position/{id}", produces = {WireFormats.JSON, WireFormats.CBOR, WireFormats.SMILE})
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<ResponseEntity<SatelliteParameters>> getSatellitePosition(
+      @PathVariable("id") Long satelliteId,
+      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        String format = WireFormats.negotiate(accept);
+        return asyncSatelliteService.getSatellitePosition(satelliteId)
+          .map(position -> ResponseEntity.ok()
+            .eTag(EntityTags.withFormat(EntityTags.position(position), format))
+            .varyBy(HttpHeaders.ACCEPT)
+            .body(position));
+    }
+
+    // If-Match takes the ETag of GET /position/{id} from either controller.
+    @PatchMapping(value = "/{id}", produces = {WireFormats.JSON, WireFormats.CBOR, WireFormats.SMILE})
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<Satellite> patchSatelliteParameters(@RequestBody SatelliteParameters satelliteParameters,
+                                                    @PathVariable("id") Long satelliteId,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                    String ifMatch) {
+        return asyncSatelliteService.patchParameters(satelliteId, satelliteParameters,
+          ifMatch == null ? null : EntityTags.withoutFormat(ifMatch));
+    }
+}
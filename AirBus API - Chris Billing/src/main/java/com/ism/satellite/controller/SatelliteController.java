@@ -1,10 +1,59 @@
 package com.ism.satellite.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.ism.satellite.cache.CachedResponse;
+import com.ism.satellite.cache.ResponseCache;
+import com.ism.satellite.catalog.CatalogImportService;
+import com.ism.satellite.conjunction.ConjunctionService;
+import com.ism.satellite.domain.CatalogFormat;
+import com.ism.satellite.domain.CatalogImportStatus;
+import com.ism.satellite.domain.OrbitType;
 import com.ism.satellite.domain.Satellite;
 import com.ism.satellite.domain.SatelliteParameters;
+import com.ism.satellite.exception.custom.BadRequestException;
+import com.ism.satellite.export.PositionExport;
+import com.ism.satellite.export.PositionExportFormat;
+import com.ism.satellite.export.PositionExportService;
+import com.ism.satellite.format.WireFormats;
+import com.ism.satellite.history.PositionHistoryService;
+import com.ism.satellite.live.PositionBroadcaster;
+import com.ism.satellite.pass.PassPredictionService;
+import com.ism.satellite.propagation.OrbitPropagator;
+import com.ism.satellite.request.PassPredictionRequest;
+import com.ism.satellite.request.PositionUpdate;
+import com.ism.satellite.request.SatelliteSearch;
+import com.ism.satellite.response.BulkUpdateResponse;
+import com.ism.satellite.response.CatalogImportReport;
+import com.ism.satellite.response.ConjunctionReport;
+import com.ism.satellite.response.FleetPositions;
+import com.ism.satellite.response.PassPredictionJob;
+import com.ism.satellite.response.PositionConsistencyReport;
+import com.ism.satellite.response.PositionHistoryPoint;
+import com.ism.satellite.response.SatelliteLocation;
+import com.ism.satellite.response.SatellitePage;
+import com.ism.satellite.response.SatelliteSearchPage;
+import com.ism.satellite.response.WriteBehindStats;
+import com.ism.satellite.service.EntityTags;
 import com.ism.satellite.service.SatelliteService;
+import com.ism.satellite.spatial.RegionQueryService;
+import com.ism.satellite.writebehind.WriteBehindBuffer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -15,9 +64,14 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * Satellite Controller Layer. Responses use ResponseEntity to better manage handling of exceptions and errors.
@@ -26,50 +80,455 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api/satellite")
 public class SatelliteController {
 
+    // Rows are flushed to the client in groups of this size while streaming
+    private static final int STREAM_FLUSH_INTERVAL = 256;
+
     @Autowired
     private SatelliteService satelliteService;
 
-    @GetMapping(value = "/", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @Autowired
+    private PositionHistoryService positionHistoryService;
+
+    @Autowired
+    private PositionExportService positionExportService;
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private PassPredictionService passPredictionService;
+
+    @Autowired
+    private OrbitPropagator orbitPropagator;
+
+    @Autowired
+    private RegionQueryService regionQueryService;
+
+    @Autowired
+    private ConjunctionService conjunctionService;
+
+    @Autowired
+    private PositionBroadcaster positionBroadcaster;
+
+    @Autowired
+    private WriteBehindBuffer writeBehindBuffer;
+
+    @GetMapping(value = "/", produces = {WireFormats.JSON, WireFormats.CBOR, WireFormats.SMILE})
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseEntity<byte[]> getAllSatellites(WebRequest request) {
+        String format = WireFormats.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+        boolean gzip = acceptsGzip(request);
+        // Written from the stored bytes until a write touches the catalog
+        CachedResponse response = responseCache.get(null, format, gzip);
+        if (response == null) {
+            // A revalidation compares the catalog's versions first, rows are only loaded and written when it changed
+            if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+              && request.checkNotModified(cachedTagFor(satelliteService.getCatalogTag(), format, gzip))) {
+                return notModified();
+            }
+            long stamp = responseCache.stamp(null);
+            List<Satellite> satellites = satelliteService.getAll();
+            response = responseCache.put(null, stamp, cachedTagFor(EntityTags.catalog(satellites), format, gzip),
+              satellites, format, gzip);
+        }
+        return respond(response, format, request);
+    }
+
+    // Streams the catalog as newline delimited JSON, rows are written as they are read from the database.
+    @GetMapping(value = "/", produces = MediaType.APPLICATION_NDJSON_VALUE)
     @ResponseStatus(HttpStatus.OK)
-    public ResponseEntity<List<Satellite>> getAllSatellites() {
-        return new ResponseEntity<>(satelliteService.getAll(), HttpStatus.OK);
+    public ResponseEntity<StreamingResponseBody> streamAllSatellites() {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                int[] written = {0};
+                satelliteService.streamAll(satellite -> {
+                    try {
+                        generator.writeObject(satellite);
+                        generator.writeRaw('\n');
+                        if (written[0]++ % STREAM_FLUSH_INTERVAL == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+          .contentType(MediaType.APPLICATION_NDJSON)
+          .body(body);
     }
 
-    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(value = "/page", produces = {WireFormats.JSON, WireFormats.CBOR, WireFormats.SMILE})
     @ResponseStatus(HttpStatus.OK)
-    public ResponseEntity<Satellite> getById(@PathVariable("id") Long id) {
-        return new ResponseEntity<>(satelliteService.getById(id), HttpStatus.OK);
+    public ResponseEntity<SatellitePage> getSatellitePage(@RequestParam(value = "after", required = false) Long afterId,
+                                                          @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        return new ResponseEntity<>(satelliteService.getPage(afterId, limit), HttpStatus.OK);
     }
 
-    @GetMapping(value = "/position/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(value = "/search", produces = {WireFormats.JSON, WireFormats.CBOR, WireFormats.SMILE})
     @ResponseStatus(HttpStatus.OK)
-    public ResponseEntity<SatelliteParameters> getSatellitePosition(@PathVariable("id") Long satelliteId) {
-        return new ResponseEntity<>(satelliteService.getSatellitePosition(satelliteId), HttpStatus.OK);
+    public ResponseEntity<SatelliteSearchPage> searchSatellites(
+      @RequestParam(value = "orbit", required = false) OrbitType orbit,
+      @RequestParam(value = "name", required = false) String name,
+      @RequestParam(value = "nameMatch", defaultValue = "PREFIX") SatelliteSearch.NameMatch nameMatch,
+      @RequestParam(value = "launchedFrom", required = false)
+      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime launchedFrom,
+      @RequestParam(value = "launchedTo", required = false)
+      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime launchedTo,
+      @RequestParam(value = "minAlt", required = false) Double minAltitude,
+      @RequestParam(value = "maxAlt", required = false) Double maxAltitude,
+      @RequestParam(value = "sort", defaultValue = "ID") SatelliteSearch.SortField sort,
+      @RequestParam(value = "after", required = false) String after,
+      @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        SatelliteSearch search = SatelliteSearch.builder()
+          .orbit(orbit)
+          .name(name)
+          .nameMatch(nameMatch)
+          .launchedFrom(launchedFrom)
+          .launchedTo(launchedTo)
+          .minAltitude(minAltitude)
+          .maxAltitude(maxAltitude)
+          .sort(sort)
+          .after(after)
+          .limit(limit)
+          .build();
+        return new ResponseEntity<>(satelliteService.search(search), HttpStatus.OK);
     }
 
-    @PostMapping(value = "/", produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(value = "/{id}", produces = {WireFormats.JSON, WireFormats.CBOR, WireFormats.SMILE})
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseEntity<byte[]> getById(@PathVariable("id") Long id, WebRequest request) {
+        String format = WireFormats.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+        boolean gzip = acceptsGzip(request);
+        // Written from the stored bytes until the satellite is next written, revalidations included
+        CachedResponse response = responseCache.get(id, format, gzip);
+        if (response == null) {
+            // A revalidation reads just the versions, the satellite is only loaded and written when it changed
+            if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+              && request.checkNotModified(cachedTagFor(satelliteService.getSatelliteTag(id), format, gzip))) {
+                return notModified();
+            }
+            long stamp = responseCache.stamp(id);
+            Satellite satellite = satelliteService.getById(id);
+            response = responseCache.put(id, stamp, cachedTagFor(EntityTags.satellite(satellite), format, gzip),
+              satellite, format, gzip);
+        }
+        return respond(response, format, request);
+    }
+
+    @GetMapping(value = "/position/{id}", produces = {WireFormats.JSON, WireFormats.CBOR, WireFormats.SMILE})
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseEntity<SatelliteParameters> getSatellitePosition(@PathVariable("id") Long satelliteId,
+                                                                    WebRequest request) {
+        // Positions usually come from memory, so an unchanged one is answered without the database or serialising
+        SatelliteParameters position = satelliteService.getSatellitePosition(satelliteId);
+        String tag = tagFor(EntityTags.position(position), request);
+        if (request.checkNotModified(tag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        return ResponseEntity.ok().eTag(tag).varyBy(HttpHeaders.ACCEPT).body(position);
+    }
+
+    // Position fixes recorded between from and to, defaulting to the last hour.
+    @GetMapping(value = "/{id}/history", produces = {WireFormats.JSON, WireFormats.CBOR, WireFormats.SMILE})
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseEntity<List<PositionHistoryPoint>> getPositionHistory(
+      @PathVariable("id") Long satelliteId,
+      @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+      @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+      @RequestParam(value = "limit", defaultValue = "1000") int limit) {
+        Instant end = to == null ? Instant.now() : to;
+        Instant start = from == null ? end.minus(Duration.ofHours(1)) : from;
+        return new ResponseEntity<>(positionHistoryService.getPositionHistory(satelliteId, start, end, limit),
+          HttpStatus.OK);
+    }
+
+    // Compact columnar export of the recorded position history between from and to, by default everything
+    // retained, or of the current positions when history is disabled. Streamed with fixed memory however large.
+    @GetMapping(value = "/export", produces = PositionExportFormat.MEDIA_TYPE)
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseEntity<StreamingResponseBody> exportPositions(
+      @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+      @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        PositionExport export = positionExportService.export(from, to);
+        String filename = "positions-" + export.getSource().name().toLowerCase() + PositionExportFormat.FILE_EXTENSION;
+        return ResponseEntity.ok()
+          .contentType(MediaType.parseMediaType(PositionExportFormat.MEDIA_TYPE))
+          .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+          .body(export::writeTo);
+    }
+
+    // Bulk catalog import of TLE, CSV or NDJSON. The format comes from the format parameter or the content type.
+    // A failed import answers 500 with its report, sending the same importId again resumes it where it stopped.
+    @PostMapping(value = "/import", produces = {WireFormats.JSON, WireFormats.CBOR, WireFormats.SMILE})
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseEntity<CatalogImportReport> importCatalog(
+      InputStream body, @RequestParam(value = "format", required = false) CatalogFormat format,
+      @RequestParam(value = "importId", required = false) String importId,
+      @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType) {
+        CatalogImportReport report = catalogImportService.importCatalog(body,
+          format == null ? formatOf(contentType) : format, importId, "upload");
+        return new ResponseEntity<>(report, report.getStatus() == CatalogImportStatus.FAILED
+          ? HttpStatus.INTERNAL_SERVER_ERROR : HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/import/{importId}", produces = {WireFormats.JSON, WireFormats.CBOR, WireFormats.SMILE})
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseEntity<CatalogImportReport> getCatalogImport(@PathVariable("importId") String importId) {
+        return new ResponseEntity<>(catalogImportService.getReport(importId), HttpStatus.OK);
+    }
+
+    // Predicts the passes of every satellite with orbital elements over a ground station. Runs as a job, poll it with
+    // GET /passes/{jobId} until it completes, or cancel it with DELETE.
+    @PostMapping(value = "/passes", produces = {WireFormats.JSON, WireFormats.CBOR, WireFormats.SMILE})
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ResponseEntity<PassPredictionJob> submitPassPrediction(@RequestBody PassPredictionRequest request) {
+        return new ResponseEntity<>(passPredictionService.submit(request), HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping(value = "/passes/{jobId}", produces = {WireFormats.JSON, WireFormats.CBOR, WireFormats.SMILE})
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseEntity<PassPredictionJob> getPassPrediction(@PathVariable("jobId") String jobId) {
+        return new ResponseEntity<>(passPredictionService.get(jobId), HttpStatus.OK);
+    }
+
+    @DeleteMapping(value = "/passes/{jobId}", produces = {WireFormats.JSON, WireFormats.CBOR, WireFormats.SMILE})
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseEntity<PassPredictionJob> cancelPassPrediction(@PathVariable("jobId") String jobId) {
+        return new ResponseEntity<>(passPredictionService.cancel(jobId), HttpStatus.OK);
+    }
+
+    // Compares the in-memory position store with the database without changing either.
+    @GetMapping(value = "/position/consistency", produces = {WireFormats.JSON, WireFormats.CBOR, WireFormats.SMILE})
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseEntity<PositionConsistencyReport> checkPositionConsistency() {
+        return new ResponseEntity<>(satelliteService.checkPositionConsistency(false), HttpStatus.OK);
+    }
+
+    // Same comparison, reloading anything that drifted from the database. A POST, as it changes the store.
+    @PostMapping(value = "/position/consistency/repair",
+      produces = {WireFormats.JSON, WireFormats.CBOR, WireFormats.SMILE})
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseEntity<PositionConsistencyReport> repairPositionConsistency() {
+        return new ResponseEntity<>(satelliteService.checkPositionConsistency(true), HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/write-behind/stats", produces = {WireFormats.JSON, WireFormats.CBOR, WireFormats.SMILE})
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseEntity<WriteBehindStats> getWriteBehindStats() {
+        return new ResponseEntity<>(writeBehindBuffer.getStats(), HttpStatus.OK);
+    }
+
+    @PostMapping(value = "/", produces = {WireFormats.JSON, WireFormats.CBOR, WireFormats.SMILE})
     @ResponseStatus(HttpStatus.CREATED)
     public ResponseEntity<Satellite> createSatellite(@RequestBody Satellite satellite) throws Exception {
         return new ResponseEntity<>(satelliteService.create(satellite), HttpStatus.CREATED);
     }
 
-    @PutMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PutMapping(value = "/{id}", produces = {WireFormats.JSON, WireFormats.CBOR, WireFormats.SMILE})
     @ResponseStatus(HttpStatus.OK)
-    public ResponseEntity<Satellite> updateSatellite(@RequestBody Satellite satellite, @PathVariable("id") Long id) {
-        return new ResponseEntity<>(satelliteService.update(satellite, id), HttpStatus.OK);
+    public ResponseEntity<Satellite> updateSatellite(@RequestBody Satellite satellite, @PathVariable("id") Long id,
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                     String ifMatch, WebRequest request) {
+        Satellite updated = satelliteService.update(satellite, id, untagged(ifMatch));
+        return ResponseEntity.ok().eTag(tagFor(EntityTags.satellite(updated), request)).varyBy(HttpHeaders.ACCEPT)
+          .body(updated);
     }
 
     // Included a Patch method that provides a straight forward way to update a satellites position.
-    @PatchMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    // If-Match takes the ETag of GET /position/{id}.
+    @PatchMapping(value = "/{id}", produces = {WireFormats.JSON, WireFormats.CBOR, WireFormats.SMILE})
     @ResponseStatus(HttpStatus.OK)
     public ResponseEntity<Satellite> patchSatelliteParameters(@RequestBody SatelliteParameters satelliteParameters,
-                                                              @PathVariable("id") Long satelliteId) {
-        return new ResponseEntity<>(satelliteService.patchParameters(satelliteId, satelliteParameters), HttpStatus.OK);
+                                                              @PathVariable("id") Long satelliteId,
+                                                              @RequestHeader(value = HttpHeaders.IF_MATCH,
+                                                                required = false) String ifMatch) {
+        return new ResponseEntity<>(satelliteService.patchParameters(satelliteId, satelliteParameters,
+          untagged(ifMatch)), HttpStatus.OK);
+    }
+
+    // Positions of every satellite with orbital elements propagated to the requested instant, defaulting to now.
+    @GetMapping(value = "/positions", produces = {WireFormats.JSON, WireFormats.CBOR, WireFormats.SMILE})
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseEntity<FleetPositions> propagatePositions(
+      @RequestParam(value = "at", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant at) {
+        return new ResponseEntity<>(orbitPropagator.propagate(at == null ? Instant.now() : at), HttpStatus.OK);
+    }
+
+    // Satellites currently over a latitude/longitude box, minLon above maxLon crosses the antimeridian.
+    @GetMapping(value = "/within/box", produces = {WireFormats.JSON, WireFormats.CBOR, WireFormats.SMILE})
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseEntity<List<SatelliteLocation>> findWithinBox(
+      @RequestParam("minLat") double minLatitude, @RequestParam("maxLat") double maxLatitude,
+      @RequestParam("minLon") double minLongitude, @RequestParam("maxLon") double maxLongitude,
+      @RequestParam(value = "minAlt", required = false) Double minAltitude,
+      @RequestParam(value = "maxAlt", required = false) Double maxAltitude,
+      @RequestParam(value = "limit", defaultValue = "1000") int limit) {
+        return new ResponseEntity<>(regionQueryService.findWithinBox(minLatitude, maxLatitude, minLongitude,
+          maxLongitude, minAltitude, maxAltitude, limit), HttpStatus.OK);
+    }
+
+    // Satellites whose ground track point is within radiusKm of a point, nearest first.
+    @GetMapping(value = "/within/radius", produces = {WireFormats.JSON, WireFormats.CBOR, WireFormats.SMILE})
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseEntity<List<SatelliteLocation>> findWithinRadius(
+      @RequestParam("lat") double latitude, @RequestParam("lon") double longitude,
+      @RequestParam("radiusKm") double radiusKm,
+      @RequestParam(value = "minAlt", required = false) Double minAltitude,
+      @RequestParam(value = "maxAlt", required = false) Double maxAltitude,
+      @RequestParam(value = "limit", defaultValue = "1000") int limit) {
+        return new ResponseEntity<>(regionQueryService.findWithinRadius(latitude, longitude, radiusKm, minAltitude,
+          maxAltitude, limit), HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/within/altitude", produces = {WireFormats.JSON, WireFormats.CBOR, WireFormats.SMILE})
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseEntity<List<SatelliteLocation>> findWithinAltitude(
+      @RequestParam("min") double minAltitude, @RequestParam("max") double maxAltitude,
+      @RequestParam(value = "limit", defaultValue = "1000") int limit) {
+        return new ResponseEntity<>(regionQueryService.findWithinAltitude(minAltitude, maxAltitude, limit),
+          HttpStatus.OK);
+    }
+
+    // One-shot screening for pairs closer than thresholdKm, at the current positions or propagated to at.
+    @GetMapping(value = "/conjunctions", produces = {WireFormats.JSON, WireFormats.CBOR, WireFormats.SMILE})
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseEntity<ConjunctionReport> screenConjunctions(
+      @RequestParam(value = "thresholdKm", defaultValue = "5") double thresholdKm,
+      @RequestParam(value = "at", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant at) {
+        return new ResponseEntity<>(conjunctionService.screen(thresholdKm, at), HttpStatus.OK);
     }
 
-    @DeleteMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(value = "/conjunctions/latest", produces = {WireFormats.JSON, WireFormats.CBOR, WireFormats.SMILE})
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseEntity<ConjunctionReport> getLatestConjunctions() {
+        return new ResponseEntity<>(conjunctionService.getLatest(), HttpStatus.OK);
+    }
+
+    // Server-Sent Events stream of position changes for the given satellites, an orbit type, or every satellite
+    // when neither is given. Fixes arrive as batched "positions" events, conflated to the latest per satellite.
+    @GetMapping(value = "/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribePositions(@RequestParam(value = "ids", required = false) List<Long> satelliteIds,
+                                         @RequestParam(value = "orbit", required = false) OrbitType orbit) {
+        return positionBroadcaster.subscribe(satelliteIds == null ? List.of() : satelliteIds, orbit);
+    }
+
+    // Bulk ingest of position fixes, accepting either a JSON array or newline delimited JSON. The body is read
+    // lazily so large telemetry uploads are never held in memory as a whole.
+    @PostMapping(value = "/positions",
+      consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+      produces = {WireFormats.JSON, WireFormats.CBOR, WireFormats.SMILE})
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseEntity<BulkUpdateResponse> bulkUpdatePositions(InputStream body) throws IOException {
+        try (MappingIterator<PositionUpdate> updates = objectMapper.readerFor(PositionUpdate.class).readValues(body)) {
+            return new ResponseEntity<>(satelliteService.bulkUpdatePositions(rejectingUnmappable(updates)),
+              HttpStatus.OK);
+        } catch (JsonProcessingException ex) {
+            throw new BadRequestException("Malformed position update: " + ex.getOriginalMessage());
+        } catch (RuntimeException ex) {
+            // MappingIterator wraps parse errors met while iterating in unchecked exceptions
+            if (ex.getCause() instanceof JsonProcessingException cause) {
+                throw new BadRequestException("Malformed position update: " + cause.getOriginalMessage());
+            }
+            throw ex;
+        }
+    }
+
+    @DeleteMapping(value = "/{id}", produces = {WireFormats.JSON, WireFormats.CBOR, WireFormats.SMILE})
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void delete(@PathVariable("id") Long id) {
         satelliteService.delete(id);
     }
+
+    // An item that does not map to a PositionUpdate is rejected on its own with BadRequestException, which the batch
+    // writer reports at its index. MappingIterator then skips to the next item, only a parse error fails the request.
+    private static Iterator<PositionUpdate> rejectingUnmappable(MappingIterator<PositionUpdate> updates) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return updates.hasNext();
+            }
+
+            @Override
+            public PositionUpdate next() {
+                try {
+                    return updates.next();
+                } catch (RuntimeJsonMappingException ex) {
+                    JsonMappingException cause = (JsonMappingException) ex.getCause();
+                    throw new BadRequestException("Malformed position update: " + cause.getOriginalMessage());
+                }
+            }
+        };
+    }
+
+    // A strong ETag must not match two different byte sequences, so each wire format gets its own tag
+    private static String tagFor(String tag, WebRequest request) {
+        return EntityTags.withFormat(tag, WireFormats.negotiate(request.getHeader(HttpHeaders.ACCEPT)));
+    }
+
+    // Tag of a response served through the response cache, which also differs for clients accepting gzip
+    private static String cachedTagFor(String tag, String format, boolean gzip) {
+        return EntityTags.withGzip(EntityTags.withFormat(tag, format), gzip);
+    }
+
+    private static boolean acceptsGzip(WebRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    // Writes the stored bytes as they are, the message converter only copies them to the response
+    private static ResponseEntity<byte[]> respond(CachedResponse response, String format, WebRequest request) {
+        if (request.checkNotModified(response.getTag())) {
+            return notModified();
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+          .eTag(response.getTag())
+          .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+          .contentType(WireFormats.mediaType(format));
+        if (response.isCompressed()) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(response.getBody());
+    }
+
+    private static <T> ResponseEntity<T> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+          .build();
+    }
+
+    // If-Match may carry a tag from any wire format, the service compares the format independent tag
+    private static String untagged(String ifMatch) {
+        return ifMatch == null ? null : EntityTags.withoutFormat(ifMatch);
+    }
+
+    // Catalog format implied by a request content type, null when it says nothing about the format
+    private static CatalogFormat formatOf(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        String type = contentType.toLowerCase();
+        if (type.startsWith("text/csv")) {
+            return CatalogFormat.CSV;
+        }
+        if (type.startsWith(MediaType.APPLICATION_NDJSON_VALUE)) {
+            return CatalogFormat.NDJSON;
+        }
+        return null;
+    }
 }
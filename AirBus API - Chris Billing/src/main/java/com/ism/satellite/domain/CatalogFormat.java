@@ -0,0 +1,30 @@
+package com.ism.satellite.domain;
+
+/**
+ * File formats accepted by the bulk catalog import.
+ */
+public enum CatalogFormat {
+    // NORAD two or three line element sets, names on their own line are optional
+    TLE,
+    // Header row naming Satellite fields, one satellite per row
+    CSV,
+    // One Satellite JSON object per line
+    NDJSON;
+
+    /**
+     * Format implied by a file name's extension, or null when it is not recognised.
+     */
+    public static CatalogFormat fromFileName(String fileName) {
+        String lower = fileName.toLowerCase();
+        if (lower.endsWith(".tle") || lower.endsWith(".3le") || lower.endsWith(".txt")) {
+            return TLE;
+        }
+        if (lower.endsWith(".csv")) {
+            return CSV;
+        }
+        if (lower.endsWith(".ndjson") || lower.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        return null;
+    }
+}
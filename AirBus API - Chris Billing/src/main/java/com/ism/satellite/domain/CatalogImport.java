@@ -0,0 +1,49 @@
+package com.ism.satellite.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Progress of a bulk catalog import. The checkpoint counts the source records whose satellites are committed and
+ * is updated in the same transaction as them, so a restarted import skips exactly what was already stored.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "catalog_import")
+public class CatalogImport {
+
+    @Id
+    @Column(length = 64)
+    private String id;
+
+    private String source;
+
+    @Enumerated(EnumType.STRING)
+    private CatalogFormat format;
+
+    @Enumerated(EnumType.STRING)
+    private CatalogImportStatus status;
+
+    // Source records consumed by committed transactions, imported and rejected alike
+    private long recordsCommitted;
+
+    private long imported;
+
+    private long failed;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime updatedAt;
+
+    @Column(length = 500)
+    private String error;
+
+}
@@ -0,0 +1,8 @@
+package com.ism.satellite.domain;
+
+public enum CatalogImportStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+
+}
@@ -0,0 +1,36 @@
+package com.ism.satellite.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import java.time.LocalDateTime;
+import lombok.Data;
+
+/**
+ * Classical Keplerian elements of a satellite's orbit at a reference epoch (UTC). Angles are in degrees and the
+ * semi-major axis in kilometres. Optional on Satellite, only satellites with elements can be propagated.
+ */
+@Embeddable
+@Data
+public class OrbitalElements {
+
+    @Column(name = "semi_major_axis_km")
+    private Double semiMajorAxisKm;
+
+    private Double eccentricity;
+
+    @Column(name = "inclination_deg")
+    private Double inclinationDeg;
+
+    @Column(name = "raan_deg")
+    private Double raanDeg;
+
+    @Column(name = "argument_of_perigee_deg")
+    private Double argumentOfPerigeeDeg;
+
+    @Column(name = "mean_anomaly_deg")
+    private Double meanAnomalyDeg;
+
+    @Column(name = "elements_epoch")
+    private LocalDateTime epoch;
+
+}
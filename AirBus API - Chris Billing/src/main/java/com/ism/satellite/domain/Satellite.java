@@ -1,36 +1,55 @@
 package com.ism.satellite.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.ism.satellite.cache.EntityCache;
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
+import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import java.time.LocalDateTime;
 import lombok.Data;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Satellite Domain object. Could implement the @Builder annotation to assist in constructing the object
  */
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCache.SATELLITE_REGION)
 @Getter
 @Setter
 @Data
-@Table(name = "satellite")
+// Search filters and sort keys, each ending in id so keyset paging can seek straight to the next page
+@Table(name = "satellite", indexes = {
+  @Index(name = "idx_satellite_orbit", columnList = "orbit, id"),
+  @Index(name = "idx_satellite_name", columnList = "name, id"),
+  @Index(name = "idx_satellite_launch_date", columnList = "launch_date, id")
+})
 public class Satellite  {
 
     @Id
-    @GeneratedValue(generator = "uuid")
+    // Pooled sequence ids keep JDBC insert batching possible, unlike identity columns
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "satellite_seq")
+    @SequenceGenerator(name = "satellite_seq", sequenceName = "satellite_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -45,9 +64,17 @@ public class Satellite  {
     @Enumerated(EnumType.STRING)
     private OrbitType orbit;
 
+    @Embedded
+    private OrbitalElements elements;
+
     @NotNull(message = "Satellite must have Parameters")
     @OneToOne(cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
     @JoinColumn(name = "param_id", referencedColumnName = "id")
     private SatelliteParameters parameters;
 
+    // Optimistic lock version, exposed to clients through ETags rather than the body
+    @Version
+    @JsonIgnore
+    private Long version;
+
 }
@@ -1,13 +1,22 @@
 package com.ism.satellite.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.ism.satellite.cache.EntityCache;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * SatelliteParameters Domain object. Could implement the @Builder annotation to assist in constructing the object
@@ -15,12 +24,15 @@ import lombok.Setter;
  * Also used no native double data type for further functionality
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCache.PARAMETERS_REGION)
 @Getter
 @Setter
-@Table()
+@Table(indexes = @Index(name = "idx_satellite_parameters_altitude", columnList = "altitude"))
 public class SatelliteParameters {
     @Id
-    @GeneratedValue(generator = "uuid")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "satellite_parameters_seq")
+    @SequenceGenerator(name = "satellite_parameters_seq", sequenceName = "satellite_parameters_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
     @NotNull
@@ -29,5 +41,8 @@ public class SatelliteParameters {
     private Double latitude;
     @NotNull
     private Double longitude;
+    @Version
+    @JsonIgnore
+    private Long version;
 
 }
@@ -0,0 +1,24 @@
+package com.ism.satellite.engine;
+
+import com.ism.satellite.domain.SatelliteParameters;
+
+/**
+ * Immutable position of one satellite as held by its shard. A new fix replaces the whole record, so a reader always
+ * sees the four values of a single fix.
+ */
+record EnginePosition(long satelliteId, long parametersId, double altitude, double latitude, double longitude) {
+
+    static EnginePosition of(long satelliteId, SatelliteParameters parameters) {
+        return new EnginePosition(satelliteId, parameters.getId() == null ? 0L : parameters.getId(),
+          parameters.getAltitude(), parameters.getLatitude(), parameters.getLongitude());
+    }
+
+    SatelliteParameters toParameters() {
+        SatelliteParameters parameters = new SatelliteParameters();
+        parameters.setId(parametersId == 0L ? null : parametersId);
+        parameters.setAltitude(altitude);
+        parameters.setLatitude(latitude);
+        parameters.setLongitude(longitude);
+        return parameters;
+    }
+}
@@ -0,0 +1,33 @@
+package com.ism.satellite.engine;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings for the sharded position engine, bound from satellite.engine.*.
+ */
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "satellite.engine")
+public class EngineProperties {
+
+    private boolean enabled = false;
+
+    // Number of shards and writer threads, zero uses one per available processor
+    private int shards = 0;
+
+    // Commands waiting in one shard's inbox before further patches are refused
+    private int inboxCapacity = 65536;
+
+    // How long a patch waits for its shard to apply it
+    private Duration applyTimeout = Duration.ofSeconds(5);
+
+    public int resolveShards() {
+        return shards > 0 ? shards : Runtime.getRuntime().availableProcessors();
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.ism.satellite.engine;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Unbounded lock-free queue for many producers and a single consumer. A producer swaps itself in as the tail with
+ * one atomic exchange and then links the previous tail to it, the consumer walks the links from a stub head and
+ * never contends with producers. A node is briefly unreachable between the exchange and the link, the consumer then
+ * sees the queue as empty and picks the node up on its next poll.
+ */
+final class MpscInbox<T> {
+
+    private static final class Node<T> {
+
+        T value;
+
+        volatile Node<T> next;
+
+        Node(T value) {
+            this.value = value;
+        }
+    }
+
+    private final AtomicReference<Node<T>> tail;
+
+    // Owned by the consumer
+    private Node<T> head;
+
+    MpscInbox() {
+        Node<T> stub = new Node<>(null);
+        this.head = stub;
+        this.tail = new AtomicReference<>(stub);
+    }
+
+    void offer(T value) {
+        Node<T> node = new Node<>(value);
+        tail.getAndSet(node).next = node;
+    }
+
+    /**
+     * Returns the oldest value or null when none is linked yet. Consumer only.
+     */
+    T poll() {
+        Node<T> next = head.next;
+        if (next == null) {
+            return null;
+        }
+        T value = next.value;
+        // The node becomes the new stub, cleared so the value can be collected
+        next.value = null;
+        head = next;
+        return value;
+    }
+
+    /**
+     * Consumer only.
+     */
+    boolean isEmpty() {
+        return head.next == null;
+    }
+}
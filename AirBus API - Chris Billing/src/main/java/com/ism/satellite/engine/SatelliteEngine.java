@@ -0,0 +1,246 @@
+package com.ism.satellite.engine;
+
+import com.ism.satellite.domain.SatelliteParameters;
+import com.ism.satellite.exception.custom.ServiceUnavailableException;
+import com.ism.satellite.request.PositionUpdate;
+import com.ism.satellite.service.PositionListener;
+import com.ism.satellite.service.PositionPublisher;
+import com.ism.satellite.writebehind.WriteBehindBuffer;
+import com.ism.satellite.writebehind.WriteBehindProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * Single-writer engine for position patches. Satellites are partitioned by a hash of their id into shards, each
+ * owned by one writer thread, so patches to different shards proceed in parallel and patches to the same satellite
+ * are applied one at a time in arrival order without any lock. An If-Match check runs on the writer, atomically with
+ * the patch it guards.
+ *
+ * <p>Accepted fixes are published to the PositionStore and its listeners and buffered in the write-behind buffer,
+ * which writes them to the database asynchronously, so the engine requires write-behind. Writes made outside the
+ * engine (full updates, bulk updates, repairs and deletes) reach it as a position listener and are queued behind
+ * any pending patch for the same shard.
+ */
+@Component
+public class SatelliteEngine implements PositionListener, MeterBinder, SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SatelliteEngine.class);
+
+    private final EngineProperties properties;
+
+    private final WriteBehindProperties writeBehindProperties;
+
+    private final PositionPublisher positionPublisher;
+
+    private final WriteBehindBuffer writeBehindBuffer;
+
+    private volatile SatelliteShard[] shards = new SatelliteShard[0];
+
+    // Lazy, the publisher is built with every position listener, the engine among them, and the buffer writes
+    // through the publisher
+    public SatelliteEngine(EngineProperties properties, WriteBehindProperties writeBehindProperties,
+                           @Lazy PositionPublisher positionPublisher, @Lazy WriteBehindBuffer writeBehindBuffer) {
+        this.properties = properties;
+        this.writeBehindProperties = writeBehindProperties;
+        this.positionPublisher = positionPublisher;
+        this.writeBehindBuffer = writeBehindBuffer;
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled() || isRunning()) {
+            return;
+        }
+        if (!writeBehindProperties.isEnabled()) {
+            throw new IllegalStateException("satellite.engine.enabled requires satellite.write-behind.enabled, the "
+              + "engine persists through the write-behind buffer");
+        }
+        SatelliteShard[] started = new SatelliteShard[properties.resolveShards()];
+        for (int i = 0; i < started.length; i++) {
+            started[i] = new SatelliteShard(i, properties.getInboxCapacity(), this::persist);
+            started[i].start();
+        }
+        shards = started;
+        LOGGER.info("Position engine enabled with {} shards", started.length);
+    }
+
+    /**
+     * Stops the writers once their inboxes are drained. Lifecycle beans stop before any bean is destroyed, so the
+     * write-behind buffer's final flush includes every fix the shards buffered.
+     */
+    @Override
+    public void stop() {
+        SatelliteShard[] stopped = shards;
+        shards = new SatelliteShard[0];
+        try {
+            for (SatelliteShard shard : stopped) {
+                shard.stop(properties.getApplyTimeout().toMillis());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return shards.length > 0;
+    }
+
+    // Started before and stopped after the web server, so no request reaches a stopped engine
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 2048;
+    }
+
+    public boolean isEnabled() {
+        return isRunning();
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Applies the fix on the satellite's shard and waits until readers can see it. Current is the satellite's
+     * position outside the engine, used when the shard does not hold it yet, and seenGeneration the
+     * {@link #removalGeneration} read before current was. Throws PreconditionFailedException when If-Match does not
+     * match the position the fix replaces, NotFoundException when the satellite was removed after current was read,
+     * and ServiceUnavailableException when the shard is saturated. Returns the write-behind generation the fix was
+     * buffered in.
+     */
+    public CompletableFuture<Void> patch(PositionUpdate update, SatelliteParameters current, long seenGeneration,
+                                         String ifMatch) {
+        SatelliteShard[] shards = this.shards;
+        if (shards.length == 0) {
+            throw new ServiceUnavailableException("Position engine is not running, retry later");
+        }
+        CompletableFuture<CompletableFuture<Void>> applied = shardFor(shards, update.getSatelliteId())
+          .patch(update, current, seenGeneration, ifMatch);
+        try {
+            return applied.get(properties.getApplyTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for satellite " + update.getSatelliteId()
+              + " to be patched", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new ServiceUnavailableException(String.format("Position engine did not apply the patch of "
+              + "satellite with id: %s in time, retry later", update.getSatelliteId()));
+        }
+    }
+
+    /**
+     * Counts the removals of the satellite's shard. Read before loading the position a patch is seeded from, so a
+     * removal applied in between refuses the patch instead of bringing the satellite back.
+     */
+    public long removalGeneration(long satelliteId) {
+        SatelliteShard[] shards = this.shards;
+        return shards.length == 0 ? 0 : shardFor(shards, satelliteId).removalGeneration();
+    }
+
+    /**
+     * Returns the position the engine holds for the satellite, or null when it has not been patched through the
+     * engine yet. Never blocks.
+     */
+    public SatelliteParameters get(long satelliteId) {
+        SatelliteShard[] shards = this.shards;
+        if (shards.length == 0) {
+            return null;
+        }
+        EnginePosition position = shardFor(shards, satelliteId).get(satelliteId);
+        return position == null ? null : position.toParameters();
+    }
+
+    public int size() {
+        int size = 0;
+        for (SatelliteShard shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    @Override
+    public void onPositionChanged(long satelliteId, long timestampMillis, double altitude, double latitude,
+                                  double longitude) {
+        SatelliteShard[] shards = this.shards;
+        // The engine's own fixes come back through the publisher on a writer thread
+        if (shards.length == 0 || isWriterThread(shards)) {
+            return;
+        }
+        shardFor(shards, satelliteId).overwrite(satelliteId, altitude, latitude, longitude);
+    }
+
+    @Override
+    public void onSatelliteRemoved(long satelliteId) {
+        SatelliteShard[] shards = this.shards;
+        if (shards.length == 0) {
+            return;
+        }
+        shardFor(shards, satelliteId).remove(satelliteId);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Gauge.builder("satellite.engine.inbox.depth", this, engine -> {
+            long depth = 0;
+            for (SatelliteShard shard : engine.shards) {
+                depth += shard.depth();
+            }
+            return depth;
+        })
+          .description("Commands queued on the engine's shards and not yet applied")
+          .register(registry);
+        Gauge.builder("satellite.engine.satellites", this, SatelliteEngine::size)
+          .description("Satellites held by the engine's shards")
+          .register(registry);
+        FunctionCounter.builder("satellite.engine.applied", this, engine -> {
+            long applied = 0;
+            for (SatelliteShard shard : engine.shards) {
+                applied += shard.appliedCount();
+            }
+            return applied;
+        })
+          .description("Commands applied by the engine's shard writers")
+          .register(registry);
+    }
+
+    private CompletableFuture<Void> persist(EnginePosition position, PositionUpdate update) {
+        positionPublisher.publish(position.satelliteId(), position.parametersId(), position.altitude(),
+          position.latitude(), position.longitude());
+        return writeBehindBuffer.buffer(update);
+    }
+
+    private static boolean isWriterThread(SatelliteShard[] shards) {
+        Thread current = Thread.currentThread();
+        for (SatelliteShard shard : shards) {
+            if (shard.isWriter(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static SatelliteShard shardFor(SatelliteShard[] shards, long satelliteId) {
+        // A different multiplier from the shard's own index hash, so each shard's ids still spread over its table
+        long hash = (satelliteId * 0xC2B2AE3D27D4EB4FL) >>> 32;
+        return shards[(int) ((hash * shards.length) >>> 32)];
+    }
+}
@@ -0,0 +1,414 @@
+package com.ism.satellite.engine;
+
+import com.ism.satellite.domain.SatelliteParameters;
+import com.ism.satellite.exception.custom.NotFoundException;
+import com.ism.satellite.exception.custom.PreconditionFailedException;
+import com.ism.satellite.exception.custom.ServiceUnavailableException;
+import com.ism.satellite.request.PositionUpdate;
+import com.ism.satellite.service.EntityTags;
+import com.ism.satellite.store.LongIntHashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * One partition of the engine, owned by a single writer thread. Commands are queued on a lock-free inbox and
+ * applied in arrival order by the writer, which is the only thread that touches the shard's working state, so
+ * nothing on the write path takes a lock.
+ *
+ * <p>Readers never block either. The writer publishes a table of immutable positions through a volatile field at
+ * the end of every drained batch: a fix for a known satellite replaces its entry in place, while adding or removing
+ * a satellite first copies the index so the published one is never modified. Patches are acknowledged only after
+ * the batch that applied them has been published.
+ *
+ * <p>Every removal takes the next removal generation of the shard and leaves a tombstone carrying it. A patch for a
+ * satellite the shard does not hold is seeded from a position its caller read beforehand, so it carries the
+ * generation seen before that read, and is refused when the satellite was removed after it.
+ */
+final class SatelliteShard {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SatelliteShard.class);
+
+    // Commands applied before a batch is published and its patches acknowledged
+    private static final int MAX_DRAIN = 1024;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // Tombstones kept before the oldest are dropped, a seeding patch older than a dropped one is asked to retry
+    static final int MAX_TOMBSTONES = 4096;
+
+    /**
+     * Receives every patch the shard accepts, on the writer thread, and returns the persistence generation the
+     * patch was buffered in.
+     */
+    @FunctionalInterface
+    interface Sink {
+        CompletableFuture<Void> accept(EnginePosition position, PositionUpdate update);
+    }
+
+    private record Table(LongIntHashMap index, EnginePosition[] positions) {
+    }
+
+    private final int number;
+
+    private final int inboxCapacity;
+
+    private final Sink sink;
+
+    private final MpscInbox<Command> inbox = new MpscInbox<>();
+
+    private final AtomicInteger depth = new AtomicInteger();
+
+    private final AtomicLong removals = new AtomicLong();
+
+    private final Thread writer;
+
+    private volatile boolean running = true;
+
+    private volatile boolean sleeping;
+
+    private volatile Table published;
+
+    private volatile long appliedCount;
+
+    // Working state, owned by the writer thread
+    private LongIntHashMap index = new LongIntHashMap(INITIAL_CAPACITY);
+
+    private EnginePosition[] positions = new EnginePosition[INITIAL_CAPACITY];
+
+    // Set once the index has been published, the next change to it works on a copy
+    private boolean indexPublished;
+
+    private int[] freeSlots = new int[16];
+
+    private int freeCount;
+
+    private int highWater;
+
+    // Removal generation per removed satellite, oldest first
+    private final LinkedHashMap<Long, Long> tombstones = new LinkedHashMap<>();
+
+    // Highest generation among the tombstones dropped so far
+    private long droppedGeneration;
+
+    SatelliteShard(int number, int inboxCapacity, Sink sink) {
+        this.number = number;
+        this.inboxCapacity = inboxCapacity;
+        this.sink = sink;
+        this.published = new Table(index, positions);
+        this.indexPublished = true;
+        this.writer = new Thread(this::run, "satellite-engine-shard-" + number);
+        writer.setDaemon(true);
+    }
+
+    void start() {
+        writer.start();
+    }
+
+    void stop(long timeoutMillis) throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(timeoutMillis);
+    }
+
+    boolean isWriter(Thread thread) {
+        return thread == writer;
+    }
+
+    /**
+     * The removal generation to read before the position a patch is seeded from.
+     */
+    long removalGeneration() {
+        return removals.get();
+    }
+
+    /**
+     * Queues a patch, refusing it when the inbox is full. The returned future completes with the persistence
+     * generation once the patch is applied and visible to readers.
+     */
+    CompletableFuture<CompletableFuture<Void>> patch(PositionUpdate update, SatelliteParameters current,
+                                                     long seenGeneration, String ifMatch) {
+        if (depth.incrementAndGet() > inboxCapacity) {
+            depth.decrementAndGet();
+            throw new ServiceUnavailableException(String.format("Position engine shard %s is saturated, retry later",
+              number));
+        }
+        Patch patch = new Patch(update, current, seenGeneration, ifMatch);
+        enqueue(patch);
+        return patch.applied;
+    }
+
+    /**
+     * Replaces the position of a satellite the shard already holds, used to follow writes made outside the engine.
+     */
+    void overwrite(long satelliteId, double altitude, double latitude, double longitude) {
+        depth.incrementAndGet();
+        enqueue(new Overwrite(satelliteId, altitude, latitude, longitude));
+    }
+
+    void remove(long satelliteId) {
+        depth.incrementAndGet();
+        enqueue(new Remove(satelliteId, removals.incrementAndGet()));
+    }
+
+    /**
+     * Returns the published position of the satellite or null when the shard does not hold it.
+     */
+    EnginePosition get(long satelliteId) {
+        Table table = published;
+        int slot = table.index.get(satelliteId);
+        if (slot < 0) {
+            return null;
+        }
+        EnginePosition position = table.positions[slot];
+        // A slot released by a removal may already hold another satellite
+        return position != null && position.satelliteId() == satelliteId ? position : null;
+    }
+
+    int size() {
+        return published.index.size();
+    }
+
+    int depth() {
+        return depth.get();
+    }
+
+    long appliedCount() {
+        return appliedCount;
+    }
+
+    private void enqueue(Command command) {
+        inbox.offer(command);
+        // Read after the offer, while the writer sets the flag before checking the inbox, so one of them sees the other
+        if (sleeping) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void run() {
+        List<Patch> acknowledged = new ArrayList<>();
+        while (true) {
+            Command command = inbox.poll();
+            if (command == null) {
+                if (!running) {
+                    break;
+                }
+                idle();
+                continue;
+            }
+            int drained = 0;
+            while (command != null) {
+                depth.decrementAndGet();
+                try {
+                    command.apply(acknowledged);
+                } catch (RuntimeException ex) {
+                    command.fail(ex);
+                }
+                if (++drained == MAX_DRAIN) {
+                    break;
+                }
+                command = inbox.poll();
+            }
+            published = new Table(index, positions);
+            indexPublished = true;
+            appliedCount += drained;
+            for (Patch patch : acknowledged) {
+                patch.applied.complete(patch.flushed);
+            }
+            acknowledged.clear();
+        }
+    }
+
+    private void idle() {
+        sleeping = true;
+        if (inbox.isEmpty() && running) {
+            LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(100));
+        }
+        sleeping = false;
+    }
+
+    private int slotOf(long satelliteId) {
+        return index.get(satelliteId);
+    }
+
+    private void insert(EnginePosition position) {
+        if (indexPublished) {
+            index = index.copy();
+            indexPublished = false;
+        }
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (highWater == positions.length) {
+                // Readers keep the array they were published with, later fixes land in the new one
+                positions = Arrays.copyOf(positions, positions.length << 1);
+            }
+            slot = highWater++;
+        }
+        positions[slot] = position;
+        index.put(position.satelliteId(), slot);
+    }
+
+    private void delete(long satelliteId) {
+        if (index.get(satelliteId) < 0) {
+            return;
+        }
+        if (indexPublished) {
+            index = index.copy();
+            indexPublished = false;
+        }
+        int slot = index.remove(satelliteId);
+        positions[slot] = null;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount << 1);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    private void bury(long satelliteId, long generation) {
+        tombstones.remove(satelliteId);
+        tombstones.put(satelliteId, generation);
+        if (tombstones.size() > MAX_TOMBSTONES) {
+            Iterator<Map.Entry<Long, Long>> oldest = tombstones.entrySet().iterator();
+            droppedGeneration = Math.max(droppedGeneration, oldest.next().getValue());
+            oldest.remove();
+        }
+    }
+
+    private abstract static class Command {
+
+        abstract void apply(List<Patch> acknowledged);
+
+        void fail(RuntimeException ex) {
+            LOGGER.error("Position engine command {} failed: {}", getClass().getSimpleName(), ex.getMessage());
+        }
+    }
+
+    private final class Patch extends Command {
+
+        private final PositionUpdate update;
+
+        private final SatelliteParameters current;
+
+        private final long seenGeneration;
+
+        private final String ifMatch;
+
+        private final CompletableFuture<CompletableFuture<Void>> applied = new CompletableFuture<>();
+
+        private CompletableFuture<Void> flushed;
+
+        Patch(PositionUpdate update, SatelliteParameters current, long seenGeneration, String ifMatch) {
+            this.update = update;
+            this.current = current;
+            this.seenGeneration = seenGeneration;
+            this.ifMatch = ifMatch;
+        }
+
+        @Override
+        void apply(List<Patch> acknowledged) {
+            long satelliteId = update.getSatelliteId();
+            int slot = slotOf(satelliteId);
+            if (slot < 0 && !seedable(satelliteId)) {
+                return;
+            }
+            // The caller's position seeds a satellite the shard has not seen, anything it already holds is newer
+            EnginePosition existing = slot < 0 ? EnginePosition.of(satelliteId, current) : positions[slot];
+            if (ifMatch != null && !EntityTags.matches(ifMatch, EntityTags.position(existing.toParameters()))) {
+                applied.completeExceptionally(new PreconditionFailedException(String.format("Position of satellite "
+                  + "with id: %s has been modified", satelliteId)));
+                return;
+            }
+            EnginePosition position = new EnginePosition(satelliteId, existing.parametersId(), update.getAltitude(),
+              update.getLatitude(), update.getLongitude());
+            if (slot < 0) {
+                tombstones.remove(satelliteId);
+                insert(position);
+            } else {
+                positions[slot] = position;
+            }
+            flushed = sink.accept(position, update);
+            acknowledged.add(this);
+        }
+
+        @Override
+        void fail(RuntimeException ex) {
+            applied.completeExceptionally(ex);
+        }
+
+        // The caller's position was read before a removal the shard has applied since, seeding would bring the
+        // deleted satellite back
+        private boolean seedable(long satelliteId) {
+            Long removedAt = tombstones.get(satelliteId);
+            if (removedAt != null && removedAt > seenGeneration) {
+                applied.completeExceptionally(new NotFoundException(String.format("Satellite with id: %s not found",
+                  satelliteId)));
+                return false;
+            }
+            if (removedAt == null && droppedGeneration > seenGeneration) {
+                applied.completeExceptionally(new ServiceUnavailableException(String.format("Position engine "
+                  + "shard %s removed too many satellites during the patch of satellite with id: %s, retry later",
+                  number, satelliteId)));
+                return false;
+            }
+            return true;
+        }
+    }
+
+    private final class Overwrite extends Command {
+
+        private final long satelliteId;
+
+        private final double altitude;
+
+        private final double latitude;
+
+        private final double longitude;
+
+        Overwrite(long satelliteId, double altitude, double latitude, double longitude) {
+            this.satelliteId = satelliteId;
+            this.altitude = altitude;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+
+        @Override
+        void apply(List<Patch> acknowledged) {
+            int slot = slotOf(satelliteId);
+            // A satellite the shard does not hold yet is seeded by its first patch
+            if (slot >= 0) {
+                positions[slot] = new EnginePosition(satelliteId, positions[slot].parametersId(), altitude, latitude,
+                  longitude);
+            }
+        }
+    }
+
+    private final class Remove extends Command {
+
+        private final long satelliteId;
+
+        private final long generation;
+
+        Remove(long satelliteId, long generation) {
+            this.satelliteId = satelliteId;
+            this.generation = generation;
+        }
+
+        @Override
+        void apply(List<Patch> acknowledged) {
+            delete(satelliteId);
+            bury(satelliteId, generation);
+        }
+    }
+}
@@ -2,9 +2,13 @@ package com.ism.satellite.exception.handler;
 
 import com.ism.satellite.exception.custom.BadRequestException;
 import com.ism.satellite.exception.custom.NotFoundException;
+import com.ism.satellite.exception.custom.PreconditionFailedException;
+import com.ism.satellite.exception.custom.ServiceUnavailableException;
 import com.ism.satellite.response.ErrorResponse;
+import jakarta.persistence.OptimisticLockException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -55,6 +59,66 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
 
+    /**
+     * Handles ServiceUnavailableException.
+     *
+     * @param ex Exception
+     * @return ResponseEntity with Error information
+     */
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleServiceUnavailableException(ServiceUnavailableException ex) {
+
+        var errorResponse = ErrorResponse.builder()
+          .code(HttpStatus.SERVICE_UNAVAILABLE)
+          .title("Service at capacity")
+          .message(ex.getMessage())
+          .build();
+
+        LOGGER.error(ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+    }
+
+    /**
+     * Handles PreconditionFailedException.
+     *
+     * @param ex Exception
+     * @return ResponseEntity with Error information
+     */
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorResponse> handlePreconditionFailedException(PreconditionFailedException ex) {
+
+        var errorResponse = ErrorResponse.builder()
+          .code(HttpStatus.PRECONDITION_FAILED)
+          .title("Satellite has changed")
+          .message(ex.getMessage())
+          .build();
+
+        LOGGER.error(ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(errorResponse);
+    }
+
+    /**
+     * Handles writes that lost an optimistic locking race against a concurrent writer.
+     *
+     * @param ex Exception
+     * @return ResponseEntity with Error information
+     */
+    @ExceptionHandler({OptimisticLockingFailureException.class, OptimisticLockException.class})
+    public ResponseEntity<ErrorResponse> handleOptimisticLockException(RuntimeException ex) {
+
+        var errorResponse = ErrorResponse.builder()
+          .code(HttpStatus.CONFLICT)
+          .title("Concurrent modification")
+          .message("Satellite was modified concurrently, retry the request")
+          .build();
+
+        LOGGER.error(ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+    }
+
     /**
      * Handles generic Exception.
      *
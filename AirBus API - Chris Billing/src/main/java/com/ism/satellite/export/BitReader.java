@@ -0,0 +1,105 @@
+package com.ism.satellite.export;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads bits written by {@link BitWriter}, most significant bit first, refilling a 64 bit accumulator from a byte
+ * buffer over the stream.
+ */
+final class BitReader {
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final InputStream in;
+
+    private final byte[] buffer = new byte[BUFFER_BYTES];
+
+    private int position;
+
+    private int limit;
+
+    private long accumulator;
+
+    // Unread low bits of the accumulator
+    private int available;
+
+    BitReader(InputStream in) {
+        this.in = in;
+    }
+
+    boolean readBit() throws IOException {
+        return readBits(1) != 0L;
+    }
+
+    /**
+     * Reads count bits, between 1 and 64, as the low bits of the result.
+     */
+    long readBits(int count) throws IOException {
+        if (count <= available) {
+            available -= count;
+            return (accumulator >>> available) & mask(count);
+        }
+        long high = accumulator & mask(available);
+        int rest = count - available;
+        refill();
+        if (rest > available) {
+            throw new EOFException("Position export ended in the middle of a value");
+        }
+        available -= rest;
+        // high is empty whenever rest is 64, where the shift would be a no-op
+        return (rest == Long.SIZE ? 0L : high << rest) | ((accumulator >>> available) & mask(rest));
+    }
+
+    long readVarLong() throws IOException {
+        long value = 0L;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            long group = readBits(8);
+            value |= (group & 0x7F) << shift;
+            if ((group & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable length integer in position export");
+    }
+
+    long readSignedVarLong() throws IOException {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Discards the zero padding up to the next byte boundary.
+     */
+    void alignToByte() {
+        available -= available % 8;
+    }
+
+    private void refill() throws IOException {
+        accumulator = 0L;
+        available = 0;
+        while (available < Long.SIZE) {
+            if (position == limit && !fill()) {
+                break;
+            }
+            accumulator |= (buffer[position++] & 0xFFL) << (Long.SIZE - 8 - available);
+            available += 8;
+        }
+        if (available < Long.SIZE && available > 0) {
+            // Keep the unread bits in the low end like a full word would
+            accumulator >>>= Long.SIZE - available;
+        }
+    }
+
+    private boolean fill() throws IOException {
+        int read = in.readNBytes(buffer, 0, buffer.length);
+        position = 0;
+        limit = read;
+        return read > 0;
+    }
+
+    private static long mask(int count) {
+        return count == Long.SIZE ? -1L : (1L << count) - 1;
+    }
+}
@@ -0,0 +1,107 @@
+package com.ism.satellite.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Most significant bit first bit packer over an OutputStream. Bits collect in a 64 bit accumulator and whole words
+ * are copied into a byte buffer that is handed to the stream in large writes.
+ */
+final class BitWriter {
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final OutputStream out;
+
+    private final byte[] buffer = new byte[BUFFER_BYTES];
+
+    private int position;
+
+    private long accumulator;
+
+    // Unused low bits of the accumulator
+    private int free = Long.SIZE;
+
+    private long bytesWritten;
+
+    BitWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    void writeBit(boolean bit) throws IOException {
+        writeBits(bit ? 1L : 0L, 1);
+    }
+
+    /**
+     * Writes the low count bits of value, count between 1 and 64.
+     */
+    void writeBits(long value, int count) throws IOException {
+        if (count < Long.SIZE) {
+            value &= (1L << count) - 1;
+        }
+        if (count < free) {
+            free -= count;
+            accumulator |= value << free;
+            return;
+        }
+        int rest = count - free;
+        accumulator |= value >>> rest;
+        emitWord();
+        free = Long.SIZE - rest;
+        // A shift by 64 is a no-op in Java, so an exactly filled word needs an explicit reset
+        accumulator = rest == 0 ? 0L : value << free;
+    }
+
+    // Unsigned LEB128, kept on the bit stream so it needs no alignment
+    void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            writeBits((value & 0x7F) | 0x80, 8);
+            value >>>= 7;
+        }
+        writeBits(value, 8);
+    }
+
+    void writeSignedVarLong(long value) throws IOException {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * Pads the last byte with zero bits and hands everything buffered to the stream.
+     */
+    void flush() throws IOException {
+        int pending = (Long.SIZE - free + 7) / 8;
+        for (int i = 0; i < pending; i++) {
+            putByte((byte) (accumulator >>> (Long.SIZE - 8 - i * 8)));
+        }
+        accumulator = 0L;
+        free = Long.SIZE;
+        drain();
+        out.flush();
+    }
+
+    long getBytesWritten() {
+        return bytesWritten + position;
+    }
+
+    private void emitWord() throws IOException {
+        if (position + 8 > buffer.length) {
+            drain();
+        }
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[position++] = (byte) (accumulator >>> shift);
+        }
+    }
+
+    private void putByte(byte value) throws IOException {
+        if (position == buffer.length) {
+            drain();
+        }
+        buffer[position++] = value;
+    }
+
+    private void drain() throws IOException {
+        out.write(buffer, 0, position);
+        bytesWritten += position;
+        position = 0;
+    }
+}
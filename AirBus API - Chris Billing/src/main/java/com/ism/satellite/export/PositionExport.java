@@ -0,0 +1,51 @@
+package com.ism.satellite.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+
+/**
+ * A validated export of either the current fleet positions or the recorded position history, written once the
+ * response or file is ready to receive it.
+ */
+public final class PositionExport {
+
+    public enum Source {
+        CURRENT,
+        HISTORY
+    }
+
+    private final PositionExportService exportService;
+
+    private final Source source;
+
+    private final Instant from;
+
+    private final Instant to;
+
+    PositionExport(PositionExportService exportService, Source source, Instant from, Instant to) {
+        this.exportService = exportService;
+        this.source = source;
+        this.from = from;
+        this.to = to;
+    }
+
+    public Source getSource() {
+        return source;
+    }
+
+    public Instant getFrom() {
+        return from;
+    }
+
+    public Instant getTo() {
+        return to;
+    }
+
+    /**
+     * Streams the export to out and returns the number of fixes written, the stream is flushed but left open.
+     */
+    public long writeTo(OutputStream out) throws IOException {
+        return exportService.write(this, out);
+    }
+}
@@ -0,0 +1,27 @@
+package com.ism.satellite.export;
+
+/**
+ * Columnar binary format for bulk position exports, modelled on Facebook's Gorilla time series encoding.
+ *
+ * <p>A file is a header (magic, version), a sequence of blocks and a trailer. Blocks hold up to
+ * {@link #BLOCK_POINTS} fixes of one satellite in timestamp order, and appear in ascending satellite id order.
+ * Each block is a point count, the satellite id delta from the previous block, then four columns: timestamps
+ * encoded as delta-of-delta and altitude, latitude and longitude XOR-compressed against the previous value of the
+ * same column. Columns carry their state over from one block to the next. A zero point count ends the blocks and
+ * is followed by the total number of points, then zero padding to a byte boundary.
+ */
+public final class PositionExportFormat {
+
+    public static final String MEDIA_TYPE = "application/vnd.satellite.positions";
+
+    public static final String FILE_EXTENSION = ".spx";
+
+    static final int MAGIC = 0x53505846;
+
+    static final int VERSION = 1;
+
+    static final int BLOCK_POINTS = 4096;
+
+    private PositionExportFormat() {
+    }
+}
@@ -0,0 +1,109 @@
+package com.ism.satellite.export;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads a {@link PositionExportFormat} stream back, one block at a time, so memory stays fixed like the writer's.
+ */
+public final class PositionExportReader {
+
+    /**
+     * Visitor over exported fixes, called in file order.
+     */
+    @FunctionalInterface
+    public interface PointVisitor {
+        void visit(long satelliteId, long timestampMillis, double altitude, double latitude, double longitude);
+    }
+
+    private final BitReader bits;
+
+    private final long[] timestamps = new long[PositionExportFormat.BLOCK_POINTS];
+
+    private final double[] altitudes = new double[PositionExportFormat.BLOCK_POINTS];
+
+    private final double[] latitudes = new double[PositionExportFormat.BLOCK_POINTS];
+
+    private final double[] longitudes = new double[PositionExportFormat.BLOCK_POINTS];
+
+    private final XorColumn altitudeColumn = new XorColumn();
+
+    private final XorColumn latitudeColumn = new XorColumn();
+
+    private final XorColumn longitudeColumn = new XorColumn();
+
+    private long satelliteId;
+
+    private long previousBlockStart;
+
+    public PositionExportReader(InputStream in) throws IOException {
+        this.bits = new BitReader(in);
+        if (bits.readBits(32) != PositionExportFormat.MAGIC) {
+            throw new IOException("Not a position export");
+        }
+        int version = (int) bits.readBits(8);
+        if (version != PositionExportFormat.VERSION) {
+            throw new IOException("Unsupported position export version " + version);
+        }
+    }
+
+    /**
+     * Visits every fix in the stream and returns how many were read, checking the count against the trailer.
+     */
+    public long read(PointVisitor visitor) throws IOException {
+        long read = 0L;
+        int blockSize;
+        while ((blockSize = (int) bits.readVarLong()) != 0) {
+            if (blockSize < 0 || blockSize > PositionExportFormat.BLOCK_POINTS) {
+                throw new IOException("Corrupt position export block of " + blockSize + " points");
+            }
+            satelliteId += bits.readVarLong();
+            readTimestamps(blockSize);
+            for (int i = 0; i < blockSize; i++) {
+                altitudes[i] = altitudeColumn.read(bits);
+            }
+            for (int i = 0; i < blockSize; i++) {
+                latitudes[i] = latitudeColumn.read(bits);
+            }
+            for (int i = 0; i < blockSize; i++) {
+                longitudes[i] = longitudeColumn.read(bits);
+            }
+            for (int i = 0; i < blockSize; i++) {
+                visitor.visit(satelliteId, timestamps[i], altitudes[i], latitudes[i], longitudes[i]);
+            }
+            read += blockSize;
+        }
+        long expected = bits.readVarLong();
+        bits.alignToByte();
+        if (expected != read) {
+            throw new IOException("Position export truncated, read " + read + " of " + expected + " points");
+        }
+        return read;
+    }
+
+    private void readTimestamps(int blockSize) throws IOException {
+        long previous = previousBlockStart + bits.readSignedVarLong();
+        previousBlockStart = previous;
+        timestamps[0] = previous;
+        long previousDelta = 0L;
+        for (int i = 1; i < blockSize; i++) {
+            long deltaOfDelta;
+            if (!bits.readBit()) {
+                deltaOfDelta = 0L;
+            } else if (!bits.readBit()) {
+                deltaOfDelta = bits.readBits(7) - 63;
+            } else if (!bits.readBit()) {
+                deltaOfDelta = bits.readBits(9) - 255;
+            } else if (!bits.readBit()) {
+                deltaOfDelta = bits.readBits(12) - 2047;
+            } else if (!bits.readBit()) {
+                deltaOfDelta = (int) bits.readBits(32);
+            } else {
+                deltaOfDelta = bits.readBits(64);
+            }
+            previousDelta += deltaOfDelta;
+            previous += previousDelta;
+            timestamps[i] = previous;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.ism.satellite.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Command line export. Started with --export=&lt;file&gt; the application writes a position export, then exits.
+ * --export-from and --export-to take ISO instants and bound the history range. Add
+ * --spring.main.web-application-type=none to skip starting the web server.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class PositionExportRunner implements ApplicationRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PositionExportRunner.class);
+
+    private final PositionExportService positionExportService;
+
+    private final ConfigurableApplicationContext context;
+
+    public PositionExportRunner(PositionExportService positionExportService, ConfigurableApplicationContext context) {
+        this.positionExportService = positionExportService;
+        this.context = context;
+    }
+
+    // Runs last, so current positions are exported from the warmed position store
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (!args.containsOption("export")) {
+            return;
+        }
+        Path file = Paths.get(requiredOption(args, "export"));
+        PositionExport export = positionExportService.export(instantOption(args, "export-from"),
+          instantOption(args, "export-to"));
+        // Written beside the target and moved into place, so a reader never sees a partial file
+        Path partial = file.resolveSibling(file.getFileName() + ".partial");
+        long points;
+        try (OutputStream out = Files.newOutputStream(partial)) {
+            points = export.writeTo(out);
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(partial);
+            throw ex;
+        }
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        LOGGER.info("Wrote {} {} positions to {}", points, export.getSource().name().toLowerCase(), file);
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+
+    private static String requiredOption(ApplicationArguments args, String name) {
+        List<String> values = args.getOptionValues(name);
+        if (values == null || values.isEmpty() || values.get(0).isBlank()) {
+            throw new IllegalArgumentException("--" + name + " needs a value");
+        }
+        return values.get(0);
+    }
+
+    private static Instant instantOption(ApplicationArguments args, String name) {
+        return args.containsOption(name) ? Instant.parse(requiredOption(args, name)) : null;
+    }
+}
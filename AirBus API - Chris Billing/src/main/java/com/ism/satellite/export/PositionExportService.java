@@ -0,0 +1,227 @@
+package com.ism.satellite.export;
+
+import com.ism.satellite.domain.SatelliteParameters;
+import com.ism.satellite.exception.custom.BadRequestException;
+import com.ism.satellite.history.PositionHistoryStore;
+import com.ism.satellite.store.LongIntHashMap;
+import com.ism.satellite.store.PositionStore;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Arrays;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes bulk position exports. Current positions come from the PositionStore, all stamped with the export time.
+ * History is recorded in time order across satellites, so it is regrouped by satellite id: one pass counts the
+ * fixes per satellite, then satellites are read back in id order in groups whose fixes fit a fixed size buffer.
+ * A satellite with more fixes than the buffer holds is streamed straight through in a pass of its own.
+ */
+@Component
+public class PositionExportService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PositionExportService.class);
+
+    // Fixes regrouped in memory per history pass, 32 bytes each
+    static final int GROUP_POINTS = 1 << 19;
+
+    private final PositionStore positionStore;
+
+    private final PositionHistoryStore positionHistoryStore;
+
+    private final int groupPoints;
+
+    @Autowired
+    public PositionExportService(PositionStore positionStore, PositionHistoryStore positionHistoryStore) {
+        this(positionStore, positionHistoryStore, GROUP_POINTS);
+    }
+
+    PositionExportService(PositionStore positionStore, PositionHistoryStore positionHistoryStore, int groupPoints) {
+        this.positionStore = positionStore;
+        this.positionHistoryStore = positionHistoryStore;
+        this.groupPoints = groupPoints;
+    }
+
+    public boolean isHistoryEnabled() {
+        return positionHistoryStore.isEnabled();
+    }
+
+    /**
+     * Exports the history recorded between from and to, by default everything retained, or the current positions
+     * when history is disabled.
+     */
+    public PositionExport export(Instant from, Instant to) {
+        // Without history there is only the current position of each satellite to export
+        if (!isHistoryEnabled()) {
+            if (from != null || to != null) {
+                throw new BadRequestException("Position history is not enabled");
+            }
+            return current();
+        }
+        Instant end = to == null ? Instant.now() : to;
+        Instant start = from == null ? Instant.EPOCH : from;
+        if (start.isAfter(end)) {
+            throw new BadRequestException("Export range start must not be after its end");
+        }
+        return history(start, end);
+    }
+
+    public PositionExport current() {
+        Instant now = Instant.now();
+        return new PositionExport(this, PositionExport.Source.CURRENT, now, now);
+    }
+
+    public PositionExport history(Instant from, Instant to) {
+        return new PositionExport(this, PositionExport.Source.HISTORY, from, to);
+    }
+
+    long write(PositionExport export, OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        PositionExportWriter writer = new PositionExportWriter(out);
+        try {
+            if (export.getSource() == PositionExport.Source.HISTORY) {
+                writeHistory(writer, export.getFrom().toEpochMilli(), export.getTo().toEpochMilli());
+            } else {
+                writeCurrent(writer, export.getTo().toEpochMilli());
+            }
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        writer.finish();
+        LOGGER.info("Exported {} {} positions in {} bytes in {} ms", writer.getPointCount(),
+          export.getSource().name().toLowerCase(), writer.getBytesWritten(), (System.nanoTime() - started) / 1_000_000);
+        return writer.getPointCount();
+    }
+
+    private void writeCurrent(PositionExportWriter writer, long timestampMillis) throws IOException {
+        long[] satelliteIds = positionStore.satelliteIds();
+        Arrays.sort(satelliteIds);
+        for (long satelliteId : satelliteIds) {
+            SatelliteParameters position = positionStore.get(satelliteId);
+            // Removed since the ids were taken
+            if (position != null) {
+                writer.write(satelliteId, timestampMillis, position.getAltitude(), position.getLatitude(),
+                  position.getLongitude());
+            }
+        }
+    }
+
+    private void writeHistory(PositionExportWriter writer, long from, long to) throws IOException {
+        LongIntHashMap counts = new LongIntHashMap();
+        long[] total = {0L};
+        positionHistoryStore.scanAll(from, to, (satelliteId, timestampMillis, altitude, latitude, longitude) -> {
+            int count = counts.get(satelliteId);
+            counts.put(satelliteId, count == LongIntHashMap.NO_VALUE ? 1 : count + 1);
+            total[0]++;
+            return true;
+        });
+        long[] satelliteIds = counts.keys();
+        Arrays.sort(satelliteIds);
+        GroupBuffer buffer = new GroupBuffer((int) Math.min(groupPoints, total[0]));
+        int start = 0;
+        while (start < satelliteIds.length) {
+            int end = start;
+            int points = 0;
+            while (end < satelliteIds.length
+              && (end == start || points + counts.get(satelliteIds[end]) <= groupPoints)) {
+                points += counts.get(satelliteIds[end++]);
+            }
+            if (end - start == 1) {
+                streamSatellite(writer, satelliteIds[start], from, to);
+            } else {
+                buffer.fill(satelliteIds, start, end, counts, from, to);
+                buffer.writeTo(writer);
+            }
+            start = end;
+        }
+    }
+
+    // History is in time order, so one satellite's fixes can go straight to the writer
+    private void streamSatellite(PositionExportWriter writer, long satelliteId, long from, long to) {
+        positionHistoryStore.scanAll(from, to, (id, timestampMillis, altitude, latitude, longitude) -> {
+            if (id == satelliteId) {
+                try {
+                    writer.write(id, timestampMillis, altitude, latitude, longitude);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Columns for one group of satellites, laid out satellite by satellite in id order. Filling from a time ordered
+     * scan keeps each satellite's fixes in time order.
+     */
+    private final class GroupBuffer {
+
+        private final long[] timestamps;
+
+        private final double[] altitudes;
+
+        private final double[] latitudes;
+
+        private final double[] longitudes;
+
+        private long[] satelliteIds;
+
+        private int[] cursors;
+
+        private int[] limits;
+
+        GroupBuffer(int capacity) {
+            this.timestamps = new long[capacity];
+            this.altitudes = new double[capacity];
+            this.latitudes = new double[capacity];
+            this.longitudes = new double[capacity];
+        }
+
+        void fill(long[] ids, int start, int end, LongIntHashMap counts, long from, long to) {
+            int size = end - start;
+            satelliteIds = Arrays.copyOfRange(ids, start, end);
+            cursors = new int[size];
+            limits = new int[size];
+            LongIntHashMap slots = new LongIntHashMap(size);
+            int offset = 0;
+            for (int slot = 0; slot < size; slot++) {
+                slots.put(satelliteIds[slot], slot);
+                cursors[slot] = offset;
+                offset += counts.get(satelliteIds[slot]);
+                limits[slot] = offset;
+            }
+            long minId = satelliteIds[0];
+            long maxId = satelliteIds[size - 1];
+            positionHistoryStore.scanAll(from, to, (satelliteId, timestampMillis, altitude, latitude, longitude) -> {
+                if (satelliteId < minId || satelliteId > maxId) {
+                    return true;
+                }
+                int slot = slots.get(satelliteId);
+                // Fixes appended since the counting pass are left out
+                if (slot != LongIntHashMap.NO_VALUE && cursors[slot] < limits[slot]) {
+                    int index = cursors[slot]++;
+                    timestamps[index] = timestampMillis;
+                    altitudes[index] = altitude;
+                    latitudes[index] = latitude;
+                    longitudes[index] = longitude;
+                }
+                return true;
+            });
+        }
+
+        void writeTo(PositionExportWriter writer) throws IOException {
+            for (int slot = 0; slot < satelliteIds.length; slot++) {
+                int first = slot == 0 ? 0 : limits[slot - 1];
+                // Short of the count when retention dropped a segment between the passes
+                for (int index = first; index < cursors[slot]; index++) {
+                    writer.write(satelliteIds[slot], timestamps[index], altitudes[index], latitudes[index],
+                      longitudes[index]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.ism.satellite.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Streams fixes into the {@link PositionExportFormat}. Fixes must arrive grouped by ascending satellite id, and in
+ * timestamp order within a satellite for the timestamp column to compress well. Only the current block is held in
+ * memory, so the writer's footprint is fixed however many fixes are written.
+ */
+public final class PositionExportWriter {
+
+    private final BitWriter bits;
+
+    private final long[] timestamps = new long[PositionExportFormat.BLOCK_POINTS];
+
+    private final double[] altitudes = new double[PositionExportFormat.BLOCK_POINTS];
+
+    private final double[] latitudes = new double[PositionExportFormat.BLOCK_POINTS];
+
+    private final double[] longitudes = new double[PositionExportFormat.BLOCK_POINTS];
+
+    private final XorColumn altitudeColumn = new XorColumn();
+
+    private final XorColumn latitudeColumn = new XorColumn();
+
+    private final XorColumn longitudeColumn = new XorColumn();
+
+    private int blockSize;
+
+    private long blockSatelliteId;
+
+    private long previousSatelliteId;
+
+    private long previousBlockStart;
+
+    private long pointCount;
+
+    private boolean finished;
+
+    public PositionExportWriter(OutputStream out) throws IOException {
+        this.bits = new BitWriter(out);
+        bits.writeBits(PositionExportFormat.MAGIC, 32);
+        bits.writeBits(PositionExportFormat.VERSION, 8);
+    }
+
+    public void write(long satelliteId, long timestampMillis, double altitude, double latitude, double longitude)
+      throws IOException {
+        if (finished) {
+            throw new IllegalStateException("Position export already finished");
+        }
+        long lastSatelliteId = blockSize > 0 ? blockSatelliteId : previousSatelliteId;
+        if (pointCount > 0 && satelliteId < lastSatelliteId) {
+            throw new IllegalArgumentException("Positions must be exported in ascending satellite id order, got "
+              + satelliteId + " after " + lastSatelliteId);
+        }
+        if (blockSize == PositionExportFormat.BLOCK_POINTS || blockSize > 0 && satelliteId != blockSatelliteId) {
+            writeBlock();
+        }
+        blockSatelliteId = satelliteId;
+        timestamps[blockSize] = timestampMillis;
+        altitudes[blockSize] = altitude;
+        latitudes[blockSize] = latitude;
+        longitudes[blockSize] = longitude;
+        blockSize++;
+        pointCount++;
+    }
+
+    /**
+     * Writes the pending block and the trailer and flushes, leaving the stream open.
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        if (blockSize > 0) {
+            writeBlock();
+        }
+        bits.writeVarLong(0L);
+        bits.writeVarLong(pointCount);
+        bits.flush();
+        finished = true;
+    }
+
+    public long getPointCount() {
+        return pointCount;
+    }
+
+    public long getBytesWritten() {
+        return bits.getBytesWritten();
+    }
+
+    private void writeBlock() throws IOException {
+        bits.writeVarLong(blockSize);
+        bits.writeVarLong(blockSatelliteId - previousSatelliteId);
+        writeTimestamps();
+        for (int i = 0; i < blockSize; i++) {
+            altitudeColumn.write(bits, altitudes[i]);
+        }
+        for (int i = 0; i < blockSize; i++) {
+            latitudeColumn.write(bits, latitudes[i]);
+        }
+        for (int i = 0; i < blockSize; i++) {
+            longitudeColumn.write(bits, longitudes[i]);
+        }
+        previousSatelliteId = blockSatelliteId;
+        blockSize = 0;
+    }
+
+    // The first timestamp is a delta from the previous block's first, the rest are delta-of-delta in Gorilla's
+    // variable width buckets, widened with a 64 bit escape since fixes can be days apart
+    private void writeTimestamps() throws IOException {
+        long first = timestamps[0];
+        bits.writeSignedVarLong(first - previousBlockStart);
+        previousBlockStart = first;
+        long previous = first;
+        long previousDelta = 0L;
+        for (int i = 1; i < blockSize; i++) {
+            long delta = timestamps[i] - previous;
+            long deltaOfDelta = delta - previousDelta;
+            if (deltaOfDelta == 0L) {
+                bits.writeBit(false);
+            } else if (deltaOfDelta >= -63 && deltaOfDelta <= 64) {
+                bits.writeBits(0b10, 2);
+                bits.writeBits(deltaOfDelta + 63, 7);
+            } else if (deltaOfDelta >= -255 && deltaOfDelta <= 256) {
+                bits.writeBits(0b110, 3);
+                bits.writeBits(deltaOfDelta + 255, 9);
+            } else if (deltaOfDelta >= -2047 && deltaOfDelta <= 2048) {
+                bits.writeBits(0b1110, 4);
+                bits.writeBits(deltaOfDelta + 2047, 12);
+            } else if (deltaOfDelta >= Integer.MIN_VALUE && deltaOfDelta <= Integer.MAX_VALUE) {
+                bits.writeBits(0b11110, 5);
+                bits.writeBits(deltaOfDelta, 32);
+            } else {
+                bits.writeBits(0b11111, 5);
+                bits.writeBits(deltaOfDelta, 64);
+            }
+            previous = timestamps[i];
+            previousDelta = delta;
+        }
+    }
+}
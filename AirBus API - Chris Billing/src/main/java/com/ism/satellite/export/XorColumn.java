@@ -0,0 +1,55 @@
+package com.ism.satellite.export;
+
+import java.io.IOException;
+
+/**
+ * Gorilla XOR state of one double column. An unchanged value costs one bit; a change whose meaningful bits fit
+ * the previous window reuses it, otherwise the new window's leading zeros and length are written first.
+ */
+final class XorColumn {
+
+    private long previous;
+
+    // No window yet, so the first change always writes one
+    private int leading = Integer.MAX_VALUE;
+
+    private int trailing;
+
+    void write(BitWriter bits, double value) throws IOException {
+        long current = Double.doubleToRawLongBits(value);
+        long xor = current ^ previous;
+        previous = current;
+        if (xor == 0L) {
+            bits.writeBit(false);
+            return;
+        }
+        bits.writeBit(true);
+        int newLeading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+        int newTrailing = Long.numberOfTrailingZeros(xor);
+        if (newLeading >= leading && newTrailing >= trailing) {
+            bits.writeBit(false);
+            bits.writeBits(xor >>> trailing, Long.SIZE - leading - trailing);
+            return;
+        }
+        leading = newLeading;
+        trailing = newTrailing;
+        int meaningful = Long.SIZE - leading - trailing;
+        bits.writeBit(true);
+        bits.writeBits(leading, 5);
+        // 1 to 64 meaningful bits stored as 0 to 63
+        bits.writeBits(meaningful - 1, 6);
+        bits.writeBits(xor >>> trailing, meaningful);
+    }
+
+    double read(BitReader bits) throws IOException {
+        if (bits.readBit()) {
+            if (bits.readBit()) {
+                leading = (int) bits.readBits(5);
+                int meaningful = (int) bits.readBits(6) + 1;
+                trailing = Long.SIZE - leading - meaningful;
+            }
+            previous ^= bits.readBits(Long.SIZE - leading - trailing) << trailing;
+        }
+        return Double.longBitsToDouble(previous);
+    }
+}
@@ -0,0 +1,18 @@
+package com.ism.satellite.format;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Smile converter built from Spring Boot's Jackson builder, so spring.jackson settings and modules apply exactly as
+ * they do to JSON. Replaces the default Smile converter Spring MVC would register.
+ */
+@Component
+public class SmileMessageConverter extends MappingJackson2SmileHttpMessageConverter {
+
+    public SmileMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        super(builder.createXmlMapper(false).factory(new SmileFactory()).build());
+    }
+}
@@ -0,0 +1,57 @@
+package com.ism.satellite.format;
+
+import java.util.List;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * Media types the API can encode its payloads in, selected through the Accept header. CBOR and Smile are binary
+ * encodings of the same Jackson object model as JSON, so every endpoint supports them without separate schemas.
+ */
+public final class WireFormats {
+
+    public static final String JSON = MediaType.APPLICATION_JSON_VALUE;
+
+    public static final String CBOR = MediaType.APPLICATION_CBOR_VALUE;
+
+    public static final String SMILE = "application/x-jackson-smile";
+
+    public static final MediaType SMILE_TYPE = MediaType.parseMediaType(SMILE);
+
+    private static final List<MediaType> PRODUCIBLE = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR,
+      SMILE_TYPE);
+
+    private WireFormats() {
+    }
+
+    /**
+     * Short name of the format an Accept header selects among JSON, CBOR and Smile, JSON when none is preferred.
+     */
+    public static String negotiate(String accept) {
+        if (accept == null || accept.isEmpty()) {
+            return "json";
+        }
+        List<MediaType> acceptable = MediaType.parseMediaTypes(accept);
+        // Orders by quality first for media types, then by specificity
+        MimeTypeUtils.sortBySpecificity(acceptable);
+        for (MediaType candidate : acceptable) {
+            for (MediaType producible : PRODUCIBLE) {
+                if (candidate.isCompatibleWith(producible) && candidate.getQualityValue() > 0) {
+                    return producible.getSubtype().equals("x-jackson-smile") ? "smile" : producible.getSubtype();
+                }
+            }
+        }
+        return "json";
+    }
+
+    /**
+     * Media type of a format short name as returned by {@link #negotiate}.
+     */
+    public static MediaType mediaType(String format) {
+        return switch (format) {
+            case "cbor" -> MediaType.APPLICATION_CBOR;
+            case "smile" -> SMILE_TYPE;
+            default -> MediaType.APPLICATION_JSON;
+        };
+    }
+}
@@ -0,0 +1,35 @@
+package com.ism.satellite.history;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Settings for the position history segment files, bound from satellite.history.*.
+ */
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "satellite.history")
+public class HistoryProperties {
+
+    private boolean enabled = false;
+
+    private Path directory = Paths.get(System.getProperty("java.io.tmpdir"), "satellite-history");
+
+    // Preallocated size of each memory mapped segment, a segment rolls early once it is full
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    private int retentionDays = 7;
+
+    private Duration retentionCheckInterval = Duration.ofHours(1);
+
+    // Every n-th record's timestamp is kept in the in-memory sparse index
+    private int indexInterval = 1024;
+
+}
@@ -0,0 +1,214 @@
+package com.ism.satellite.history;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+/**
+ * A preallocated, memory mapped file of fixed width position records for a single UTC day.
+ *
+ * <p>Layout: a 64 byte header (magic, format version, record size, epoch day, sequence, committed record count)
+ * followed by 40 byte records of satellite id, timestamp in epoch millis, altitude, latitude and longitude.
+ * Records are appended in timestamp order by a single writer at a time, and the committed count is published
+ * through a volatile field so readers can scan the mapped buffer concurrently without copying it.
+ */
+final class HistorySegment {
+
+    static final int HEADER_BYTES = 64;
+
+    static final int RECORD_BYTES = 40;
+
+    private static final int MAGIC = 0x53415448;
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int COUNT_OFFSET = 24;
+
+    /**
+     * Visitor over raw records, returning false stops the scan.
+     */
+    @FunctionalInterface
+    interface RecordVisitor {
+        boolean visit(long satelliteId, long timestampMillis, double altitude, double latitude, double longitude);
+    }
+
+    private final Path path;
+
+    private final LocalDate day;
+
+    private final int sequence;
+
+    private final MappedByteBuffer buffer;
+
+    private final int capacity;
+
+    private final int indexInterval;
+
+    // Timestamp of every indexInterval-th record, entries below count / indexInterval are published by count
+    private final long[] sparseIndex;
+
+    private volatile int count;
+
+    private volatile long minTimestamp = Long.MAX_VALUE;
+
+    private volatile long maxTimestamp = Long.MIN_VALUE;
+
+    private HistorySegment(Path path, LocalDate day, int sequence, MappedByteBuffer buffer, int indexInterval) {
+        this.path = path;
+        this.day = day;
+        this.sequence = sequence;
+        this.buffer = buffer;
+        this.capacity = (buffer.capacity() - HEADER_BYTES) / RECORD_BYTES;
+        this.indexInterval = indexInterval;
+        this.sparseIndex = new long[capacity / indexInterval + 1];
+    }
+
+    static HistorySegment create(Path directory, LocalDate day, int sequence, long segmentSize, int indexInterval)
+      throws IOException {
+        if (segmentSize > Integer.MAX_VALUE || segmentSize < HEADER_BYTES + RECORD_BYTES) {
+            throw new IllegalArgumentException("Segment size must be between " + (HEADER_BYTES + RECORD_BYTES)
+              + " and " + Integer.MAX_VALUE + " bytes");
+        }
+        Path path = directory.resolve(String.format("positions-%s-%04d.seg", day, sequence));
+        MappedByteBuffer buffer = map(path, segmentSize);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, FORMAT_VERSION);
+        buffer.putInt(8, RECORD_BYTES);
+        buffer.putLong(12, day.toEpochDay());
+        buffer.putInt(20, sequence);
+        buffer.putLong(COUNT_OFFSET, 0L);
+        return new HistorySegment(path, day, sequence, buffer, indexInterval);
+    }
+
+    static HistorySegment open(Path path, int indexInterval) throws IOException {
+        MappedByteBuffer buffer = map(path, Files.size(path));
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION || buffer.getInt(8) != RECORD_BYTES) {
+            throw new IOException("Not a position history segment: " + path);
+        }
+        HistorySegment segment = new HistorySegment(path, LocalDate.ofEpochDay(buffer.getLong(12)),
+          buffer.getInt(20), buffer, indexInterval);
+        segment.recover((int) Math.min(buffer.getLong(COUNT_OFFSET), segment.capacity));
+        return segment;
+    }
+
+    /**
+     * Appends a record, returning false when the segment is full. Callers serialise appends and supply
+     * non-decreasing timestamps.
+     */
+    boolean append(long satelliteId, long timestampMillis, double altitude, double latitude, double longitude) {
+        int index = count;
+        if (index == capacity) {
+            return false;
+        }
+        int offset = HEADER_BYTES + index * RECORD_BYTES;
+        buffer.putLong(offset, satelliteId);
+        buffer.putLong(offset + 8, timestampMillis);
+        buffer.putDouble(offset + 16, altitude);
+        buffer.putDouble(offset + 24, latitude);
+        buffer.putDouble(offset + 32, longitude);
+        if (index % indexInterval == 0) {
+            sparseIndex[index / indexInterval] = timestampMillis;
+        }
+        if (index == 0) {
+            minTimestamp = timestampMillis;
+        }
+        maxTimestamp = timestampMillis;
+        buffer.putLong(COUNT_OFFSET, index + 1L);
+        // Publishes the record and its index entry to readers
+        count = index + 1;
+        return true;
+    }
+
+    /**
+     * Visits the committed records with timestamps in [from, to], optionally restricted to one satellite.
+     * The sparse index narrows the scan to the block containing from, records are read in place.
+     */
+    boolean scan(long satelliteId, long from, long to, RecordVisitor visitor) {
+        int committed = count;
+        if (committed == 0 || from > maxTimestamp || to < minTimestamp) {
+            return true;
+        }
+        for (int index = firstCandidate(from, committed); index < committed; index++) {
+            int offset = HEADER_BYTES + index * RECORD_BYTES;
+            long timestamp = buffer.getLong(offset + 8);
+            if (timestamp > to) {
+                return true;
+            }
+            long recordSatelliteId = buffer.getLong(offset);
+            if (timestamp >= from && (satelliteId < 0 || recordSatelliteId == satelliteId)
+              && !visitor.visit(recordSatelliteId, timestamp, buffer.getDouble(offset + 16),
+              buffer.getDouble(offset + 24), buffer.getDouble(offset + 32))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    LocalDate getDay() {
+        return day;
+    }
+
+    int getSequence() {
+        return sequence;
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    long getMaxTimestamp() {
+        return maxTimestamp;
+    }
+
+    boolean isFull() {
+        return count == capacity;
+    }
+
+    // Binary search over the sparse index for the last block starting at or before from
+    private int firstCandidate(long from, int committed) {
+        int low = 0;
+        int high = (committed - 1) / indexInterval;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (sparseIndex[mid] < from) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low * indexInterval;
+    }
+
+    private void recover(int committed) {
+        for (int index = 0; index < committed; index++) {
+            long timestamp = buffer.getLong(HEADER_BYTES + index * RECORD_BYTES + 8);
+            if (index % indexInterval == 0) {
+                sparseIndex[index / indexInterval] = timestamp;
+            }
+            if (index == 0) {
+                minTimestamp = timestamp;
+            }
+            maxTimestamp = timestamp;
+        }
+        count = committed;
+    }
+
+    private static MappedByteBuffer map(Path path, long size) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw");
+             FileChannel channel = file.getChannel()) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+}
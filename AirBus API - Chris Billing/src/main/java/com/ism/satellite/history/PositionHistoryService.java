@@ -0,0 +1,49 @@
+package com.ism.satellite.history;
+
+import com.ism.satellite.exception.custom.BadRequestException;
+import com.ism.satellite.exception.custom.NotFoundException;
+import com.ism.satellite.repository.SatelliteRepository;
+import com.ism.satellite.response.PositionHistoryPoint;
+import com.ism.satellite.store.PositionStore;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.stereotype.Component;
+
+/**
+ * Validates history queries from the API and reads them from the PositionHistoryStore. A satellite known to the
+ * PositionStore exists without asking the database.
+ */
+@Component
+public class PositionHistoryService {
+
+    public static final int MAX_POINTS = 100_000;
+
+    private final PositionHistoryStore positionHistoryStore;
+
+    private final PositionStore positionStore;
+
+    private final SatelliteRepository repository;
+
+    public PositionHistoryService(PositionHistoryStore positionHistoryStore, PositionStore positionStore,
+                                  SatelliteRepository repository) {
+        this.positionHistoryStore = positionHistoryStore;
+        this.positionStore = positionStore;
+        this.repository = repository;
+    }
+
+    public List<PositionHistoryPoint> getPositionHistory(Long satelliteId, Instant from, Instant to, int limit) {
+        if (!positionHistoryStore.isEnabled()) {
+            throw new BadRequestException("Position history is not enabled");
+        }
+        if (limit < 1 || limit > MAX_POINTS) {
+            throw new BadRequestException(String.format("History limit must be between 1 and %s", MAX_POINTS));
+        }
+        if (from.isAfter(to)) {
+            throw new BadRequestException("History range start must not be after its end");
+        }
+        if (!positionStore.contains(satelliteId) && !repository.existsSatelliteById(satelliteId)) {
+            throw new NotFoundException(String.format("Satellite with id: %s not found", satelliteId));
+        }
+        return positionHistoryStore.query(satelliteId, from, to, limit);
+    }
+}
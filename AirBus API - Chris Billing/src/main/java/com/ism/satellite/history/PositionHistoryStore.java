@@ -0,0 +1,210 @@
+package com.ism.satellite.history;
+
+import com.ism.satellite.response.PositionHistoryPoint;
+import com.ism.satellite.service.PositionListener;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Append-only position history kept outside the database in per-day memory mapped segment files. Every accepted
+ * position fix is appended as a fixed width record, segments roll over at midnight UTC or once full, and segments
+ * older than the retention period are deleted.
+ */
+@Component
+public class PositionHistoryStore implements PositionListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PositionHistoryStore.class);
+
+    static final String LOCK_FILE = ".lock";
+
+    private final HistoryProperties properties;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+
+    // Ordered oldest first, readers iterate a stable snapshot while segments are added or removed
+    private final List<HistorySegment> segments = new CopyOnWriteArrayList<>();
+
+    private HistorySegment active;
+
+    // Held while open, two processes appending to the same mapped segment would overwrite each other's records
+    private FileChannel lockChannel;
+
+    /**
+     * Visitor over recorded fixes, returning false stops the scan.
+     */
+    @FunctionalInterface
+    public interface HistoryVisitor {
+        boolean visit(long satelliteId, long timestampMillis, double altitude, double latitude, double longitude);
+    }
+
+    public PositionHistoryStore(HistoryProperties properties) {
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Files.createDirectories(properties.getDirectory());
+        lockDirectory();
+        List<HistorySegment> existing = new ArrayList<>();
+        try (Stream<Path> files = Files.list(properties.getDirectory())) {
+            for (Path path : (Iterable<Path>) files.filter(file -> file.toString().endsWith(".seg"))::iterator) {
+                existing.add(HistorySegment.open(path, properties.getIndexInterval()));
+            }
+        }
+        existing.sort(Comparator.comparing(HistorySegment::getDay).thenComparing(HistorySegment::getSequence));
+        segments.addAll(existing);
+        if (!existing.isEmpty()) {
+            active = existing.get(existing.size() - 1);
+        }
+        LOGGER.info("Opened {} position history segments in {}", existing.size(), properties.getDirectory());
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        if (active != null) {
+            active.force();
+        }
+        if (lockChannel != null) {
+            // Closing the channel releases the lock
+            lockChannel.close();
+            lockChannel = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    @Override
+    public void onPositionChanged(long satelliteId, long timestampMillis, double altitude, double latitude,
+                                  double longitude) {
+        if (properties.isEnabled()) {
+            append(satelliteId, timestampMillis, altitude, latitude, longitude);
+        }
+    }
+
+    public void append(long satelliteId, long timestampMillis, double altitude, double latitude, double longitude) {
+        appendLock.lock();
+        try {
+            // Keep each segment in timestamp order so the sparse index stays valid if the clock steps back
+            long timestamp = active == null ? timestampMillis : Math.max(timestampMillis, active.getMaxTimestamp());
+            LocalDate day = LocalDate.ofEpochDay(Math.floorDiv(timestamp, 86_400_000L));
+            if (active == null || day.isAfter(active.getDay())) {
+                roll(day, 0);
+            }
+            if (!active.append(satelliteId, timestamp, altitude, latitude, longitude)) {
+                roll(active.getDay(), active.getSequence() + 1);
+                active.append(satelliteId, timestamp, altitude, latitude, longitude);
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Returns up to limit fixes of the satellite with timestamps in [from, to], oldest first.
+     */
+    public List<PositionHistoryPoint> query(long satelliteId, Instant from, Instant to, int limit) {
+        List<PositionHistoryPoint> points = new ArrayList<>(Math.min(limit, 1024));
+        scan(satelliteId, from.toEpochMilli(), to.toEpochMilli(), (id, timestamp, altitude, latitude, longitude) -> {
+            points.add(new PositionHistoryPoint(Instant.ofEpochMilli(timestamp), altitude, latitude, longitude));
+            return points.size() < limit;
+        });
+        return points;
+    }
+
+    /**
+     * Visits the fixes of every satellite with timestamps in [from, to] in the order they were recorded.
+     */
+    public void scanAll(long fromMillis, long toMillis, HistoryVisitor visitor) {
+        scan(-1L, fromMillis, toMillis, visitor::visit);
+    }
+
+    /**
+     * Visits raw records in [from, to] across segments, for every satellite when satelliteId is negative.
+     */
+    void scan(long satelliteId, long from, long to, HistorySegment.RecordVisitor visitor) {
+        LocalDate firstDay = LocalDate.ofEpochDay(Math.floorDiv(from, 86_400_000L));
+        for (HistorySegment segment : segments) {
+            if (!segment.getDay().isBefore(firstDay) && !segment.scan(satelliteId, from, to, visitor)) {
+                return;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${satellite.history.retention-check-interval:PT1H}")
+    public void removeExpiredSegments() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        LocalDate oldestKept = LocalDate.now(ZoneOffset.UTC).minusDays(properties.getRetentionDays());
+        for (HistorySegment segment : segments) {
+            if (segment.getDay().isBefore(oldestKept) && segment != active) {
+                segments.remove(segment);
+                try {
+                    Files.deleteIfExists(segment.getPath());
+                    LOGGER.info("Deleted expired position history segment {}", segment.getPath());
+                } catch (IOException ex) {
+                    LOGGER.error("Could not delete position history segment {}: {}", segment.getPath(),
+                      ex.getMessage());
+                }
+            }
+        }
+    }
+
+    private void lockDirectory() throws IOException {
+        Path lockFile = properties.getDirectory().resolve(LOCK_FILE);
+        FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException ex) {
+            // Held by another store in this JVM, such as a second application context
+            lock = null;
+        }
+        if (lock == null) {
+            channel.close();
+            throw new IllegalStateException(String.format("Position history directory %s is in use by another "
+              + "process, set satellite.history.directory to a directory of its own", properties.getDirectory()));
+        }
+        lockChannel = channel;
+    }
+
+    private void roll(LocalDate day, int sequence) {
+        try {
+            if (active != null) {
+                active.force();
+            }
+            HistorySegment segment = HistorySegment.create(properties.getDirectory(), day, sequence,
+              properties.getSegmentSize().toBytes(), properties.getIndexInterval());
+            segments.add(segment);
+            active = segment;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not create position history segment", ex);
+        }
+    }
+}
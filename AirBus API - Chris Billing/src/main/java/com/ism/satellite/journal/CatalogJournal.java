@@ -0,0 +1,444 @@
+package com.ism.satellite.journal;
+
+import com.ism.satellite.domain.Satellite;
+import com.ism.satellite.repository.CatalogImportRepository;
+import com.ism.satellite.repository.SatelliteRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps the in-memory catalog across restarts with a snapshot and a write-ahead log in satellite.journal.directory.
+ *
+ * <p>On start the latest snapshot is memory mapped and loaded, then the log segments written since it are
+ * replayed, before any other component reads the database. Afterwards every flushed insert, update and delete of a
+ * satellite, its parameters or a catalog import is encoded by a Hibernate listener, and the transaction's changes
+ * are appended to the log as one frame after Hibernate's final flush and before the JDBC commit, forced to disk
+ * when syncing. Writers of the same row hold its lock until they commit, so their frames are logged in commit
+ * order. A transaction whose commit fails after its frame was written logs an abort frame that replay honours.
+ *
+ * <p>Snapshots are taken periodically, once the log has grown past a size, and on shutdown. Taking one rolls the
+ * log to a new segment while no commit is between logging and completing, so every change logged to earlier
+ * segments is committed and read by the snapshot, and later ones are replayed on top of it. Replaying a change the
+ * snapshot already holds sets the row to the same state again. Older snapshots and segments are then deleted.
+ */
+@Component
+public class CatalogJournal implements MeterBinder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CatalogJournal.class);
+
+    private static final byte COMMIT = 1;
+
+    private static final byte ABORT = 2;
+
+    private final JournalProperties properties;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final DataSource dataSource;
+
+    private final SatelliteRepository satelliteRepository;
+
+    private final CatalogImportRepository catalogImportRepository;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    // Held shared from logging a transaction to its completion, exclusively while the log rolls for a snapshot
+    private final ReentrantReadWriteLock rollLock = new ReentrantReadWriteLock();
+
+    // Changes of the transactions currently running in each session
+    private final Map<SharedSessionContractImplementor, PendingTransaction> pending = new ConcurrentHashMap<>();
+
+    private final AtomicLong transactionIds = new AtomicLong();
+
+    private final AtomicBoolean snapshotRequested = new AtomicBoolean();
+
+    private Timer snapshotTimer;
+
+    private WriteAheadLog log;
+
+    private ScheduledExecutorService snapshotter;
+
+    private volatile long restoreMillis = -1;
+
+    private volatile long restoredSatellites;
+
+    // Set while replayed log segments are not yet folded into a snapshot
+    private volatile boolean replayed;
+
+    public CatalogJournal(JournalProperties properties, EntityManagerFactory entityManagerFactory,
+                          DataSource dataSource, SatelliteRepository satelliteRepository,
+                          CatalogImportRepository catalogImportRepository, EntityManager entityManager,
+                          PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.entityManagerFactory = entityManagerFactory;
+        this.dataSource = dataSource;
+        this.satelliteRepository = satelliteRepository;
+        this.catalogImportRepository = catalogImportRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @PostConstruct
+    void open() throws IOException, SQLException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Path directory = properties.getDirectory();
+        Files.createDirectories(directory);
+        CatalogSnapshot.deleteIncomplete(directory);
+        long started = System.nanoTime();
+        List<Long> snapshots = CatalogSnapshot.snapshots(directory);
+        List<Long> segments = WriteAheadLog.segments(directory);
+        long replayFrom = snapshots.isEmpty() ? 0 : snapshots.get(snapshots.size() - 1);
+        long snapshotRecords = 0;
+        int frames = 0;
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            if (!snapshots.isEmpty()) {
+                try (JournalLoader loader = new JournalLoader(connection, false)) {
+                    snapshotRecords = CatalogSnapshot.read(CatalogSnapshot.path(directory, replayFrom), loader);
+                    loader.flush();
+                }
+            }
+            try (JournalLoader loader = new JournalLoader(connection, true)) {
+                for (int i = 0; i < segments.size(); i++) {
+                    if (segments.get(i) >= replayFrom) {
+                        frames += replay(WriteAheadLog.segmentPath(directory, segments.get(i)),
+                          i == segments.size() - 1, loader);
+                    }
+                }
+                loader.restartSequences();
+            }
+            connection.commit();
+            restoredSatellites = count(connection);
+        }
+        long nextSegment = Math.max(replayFrom, segments.isEmpty() ? 0 : segments.get(segments.size() - 1)) + 1;
+        log = WriteAheadLog.create(directory, nextSegment, properties.isSyncOnCommit());
+        restoreMillis = (System.nanoTime() - started) / 1_000_000;
+        LOGGER.info("Restored {} satellites from {} snapshot records and {} log transactions in {} ms",
+          restoredSatellites, snapshotRecords, frames, restoreMillis);
+
+        registerListeners();
+        snapshotter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-snapshotter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = properties.getSnapshotInterval().toMillis();
+        if (intervalMillis > 0) {
+            snapshotter.scheduleWithFixedDelay(this::snapshotIfChanged, intervalMillis, intervalMillis,
+              TimeUnit.MILLISECONDS);
+        }
+        // Replayed segments are folded into a snapshot straight away, so the next start does not replay them again
+        if (frames > 0) {
+            replayed = true;
+            requestSnapshot();
+        }
+    }
+
+    @PreDestroy
+    void close() throws IOException, InterruptedException {
+        if (log == null) {
+            return;
+        }
+        snapshotter.shutdown();
+        snapshotter.awaitTermination(1, TimeUnit.MINUTES);
+        if (properties.isSnapshotOnShutdown()) {
+            snapshotIfChanged();
+        }
+        log.close();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        TimeGauge.builder("satellite.journal.restore.time", this, TimeUnit.MILLISECONDS,
+            journal -> journal.restoreMillis)
+          .description("Time taken to load the snapshot and replay the write-ahead log at startup")
+          .register(registry);
+        Gauge.builder("satellite.journal.restored.satellites", this, journal -> journal.restoredSatellites)
+          .description("Satellites restored from the journal at startup")
+          .register(registry);
+        Gauge.builder("satellite.journal.log.size", this, journal -> journal.log == null ? 0 : journal.log.getSize())
+          .description("Bytes written to the write-ahead log since the last snapshot")
+          .baseUnit("bytes")
+          .register(registry);
+        snapshotTimer = Timer.builder("satellite.journal.snapshot")
+          .description("Time taken to write a catalog snapshot")
+          .register(registry);
+    }
+
+    /**
+     * Writes a snapshot now and deletes the snapshots and log segments it replaces.
+     */
+    public void snapshot() throws IOException {
+        if (log == null) {
+            throw new IllegalStateException("The journal is disabled");
+        }
+        long started = System.nanoTime();
+        long sequence;
+        rollLock.writeLock().lock();
+        try {
+            sequence = log.roll();
+        } finally {
+            rollLock.writeLock().unlock();
+        }
+        replayed = false;
+        Path directory = properties.getDirectory();
+        long records = readOnlyTransaction.execute(status -> {
+            try (Stream<Satellite> satellites = satelliteRepository.streamAll()) {
+                // Detached as they are read so the persistence context does not grow with the table
+                return CatalogSnapshot.write(directory, sequence, satellites.peek(entityManager::detach),
+                  catalogImportRepository.findAll());
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        for (long older : CatalogSnapshot.snapshots(directory)) {
+            if (older < sequence) {
+                Files.deleteIfExists(CatalogSnapshot.path(directory, older));
+            }
+        }
+        for (long older : WriteAheadLog.segments(directory)) {
+            if (older < sequence) {
+                Files.deleteIfExists(WriteAheadLog.segmentPath(directory, older));
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+        if (snapshotTimer != null) {
+            snapshotTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        }
+        LOGGER.info("Wrote catalog snapshot of {} records in {} ms", records, elapsed / 1_000_000);
+    }
+
+    private void snapshotIfChanged() {
+        snapshotRequested.set(false);
+        if (log.getSize() == 0 && !replayed) {
+            return;
+        }
+        try {
+            snapshot();
+        } catch (Exception ex) {
+            // The log keeps every change, the next snapshot attempt starts from it again
+            LOGGER.error("Catalog snapshot failed", ex);
+        }
+    }
+
+    private void requestSnapshot() {
+        if (snapshotRequested.compareAndSet(false, true)) {
+            snapshotter.execute(this::snapshotIfChanged);
+        }
+    }
+
+    // Aborted transactions are found first, their frame precedes the abort frame in the same segment
+    private static int replay(Path segment, boolean last, JournalLoader loader) throws IOException {
+        List<ByteBuffer> frames = WriteAheadLog.read(segment, last);
+        Set<Long> aborted = new HashSet<>();
+        for (ByteBuffer frame : frames) {
+            if (frame.get(8) == ABORT) {
+                aborted.add(frame.getLong(0));
+            }
+        }
+        int replayed = 0;
+        for (ByteBuffer frame : frames) {
+            long transactionId = frame.getLong();
+            if (frame.get() != COMMIT || aborted.contains(transactionId)) {
+                continue;
+            }
+            int count = frame.getInt();
+            for (int i = 0; i < count; i++) {
+                JournalCodec.read(frame, loader);
+            }
+            replayed++;
+        }
+        return replayed;
+    }
+
+    private static long count(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("select count(*) from satellite")) {
+            rows.next();
+            return rows.getLong(1);
+        }
+    }
+
+    private void registerListeners() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+          .getServiceRegistry().getService(EventListenerRegistry.class);
+        Recorder recorder = new Recorder();
+        registry.appendListeners(EventType.POST_INSERT, recorder);
+        registry.appendListeners(EventType.POST_UPDATE, recorder);
+        registry.appendListeners(EventType.POST_DELETE, recorder);
+    }
+
+    private PendingTransaction pendingFor(EventSource session) {
+        PendingTransaction transaction = pending.get(session);
+        if (transaction == null) {
+            transaction = new PendingTransaction(transactionIds.incrementAndGet());
+            pending.put(session, transaction);
+            PendingTransaction registered = transaction;
+            session.getActionQueue().registerProcess(completing -> logCommit(registered));
+            session.getActionQueue().registerProcess((success, completed) -> complete(completed, registered,
+              success));
+        }
+        return transaction;
+    }
+
+    // Runs after Hibernate's final flush, before the JDBC commit. A failure here rolls the transaction back
+    private void logCommit(PendingTransaction transaction) {
+        if (transaction.records == 0) {
+            return;
+        }
+        rollLock.readLock().lock();
+        transaction.logged = true;
+        try {
+            ByteBuffer frame = ByteBuffer.allocate(13 + transaction.bytes.size())
+              .putLong(transaction.id)
+              .put(COMMIT)
+              .putInt(transaction.records)
+              .put(transaction.bytes.toByteArray())
+              .flip();
+            log.append(frame);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to write the catalog change log", ex);
+        }
+        if (log.getSize() >= properties.getSnapshotLogSize().toBytes()) {
+            requestSnapshot();
+        }
+    }
+
+    private void complete(SharedSessionContractImplementor session, PendingTransaction transaction,
+                          boolean success) {
+        pending.remove(session, transaction);
+        if (!transaction.logged) {
+            return;
+        }
+        try {
+            if (!success) {
+                log.append(ByteBuffer.allocate(9).putLong(transaction.id).put(ABORT).flip());
+            }
+        } catch (IOException ex) {
+            LOGGER.error("Failed to log the abort of transaction {}", transaction.id, ex);
+        } finally {
+            rollLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Changes flushed by one transaction, encoded as they are flushed.
+     */
+    private static final class PendingTransaction {
+
+        private final long id;
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        private final DataOutputStream out = new DataOutputStream(bytes);
+
+        private int records;
+
+        private boolean logged;
+
+        private PendingTransaction(long id) {
+            this.id = id;
+        }
+    }
+
+    /**
+     * Hibernate listener encoding each flushed change into its transaction's pending frame.
+     */
+    private final class Recorder implements PostInsertEventListener, PostUpdateEventListener,
+      PostDeleteEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            upsert(event.getSession(), event.getEntity());
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            upsert(event.getSession(), event.getEntity());
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            PendingTransaction transaction = pendingFor(event.getSession());
+            try {
+                if (JournalCodec.writeDelete(transaction.out, event.getEntity(), event.getId())) {
+                    transaction.records++;
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return false;
+        }
+
+        private void upsert(EventSource session, Object entity) {
+            PendingTransaction transaction = pendingFor(session);
+            try {
+                if (JournalCodec.writeUpsert(transaction.out, entity)) {
+                    transaction.records++;
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+}
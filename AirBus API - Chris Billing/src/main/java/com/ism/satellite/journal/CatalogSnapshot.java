@@ -0,0 +1,253 @@
+package com.ism.satellite.journal;
+
+import com.ism.satellite.domain.CatalogImport;
+import com.ism.satellite.domain.Satellite;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Compact binary image of the catalog at a point in the write-ahead log.
+ *
+ * <p>Layout: a 24 byte header (magic, format version, the first log segment to replay on top of it, creation
+ * time in epoch millis) followed by blocks of {@link JournalCodec} records. A block is its payload length, the
+ * CRC-32 of the payload, then the payload: a record count and the records. Within a block parameters rows come
+ * before the satellites that reference them. A zero length ends the blocks and is followed by the total record
+ * count. Files are written under a temporary name and renamed once complete, and read through memory mapped
+ * windows so loading copies nothing but the decoded rows.
+ */
+final class CatalogSnapshot {
+
+    static final String FILE_SUFFIX = ".snap";
+
+    private static final int MAGIC = 0x53534E50;
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int HEADER_BYTES = 24;
+
+    private static final int BLOCK_HEADER_BYTES = 8;
+
+    private static final int END_BYTES = 12;
+
+    // Rows are gathered into blocks of about this size before they are checksummed and written
+    private static final int BLOCK_BYTES = 1 << 20;
+
+    // Largest region mapped at once, blocks never straddle two windows
+    private static final long WINDOW_BYTES = 1L << 30;
+
+    private CatalogSnapshot() {
+    }
+
+    static Path path(Path directory, long walSequence) {
+        return directory.resolve(String.format("snapshot-%010d%s", walSequence, FILE_SUFFIX));
+    }
+
+    /**
+     * First log segment to replay on top of each snapshot in the directory, oldest first.
+     */
+    static List<Long> snapshots(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+              .filter(name -> name.matches("snapshot-\\d{10}\\" + FILE_SUFFIX))
+              .map(name -> Long.parseLong(name.substring(9, 19)))
+              .sorted()
+              .toList();
+        }
+    }
+
+    /**
+     * Deletes snapshots left half written by a crash.
+     */
+    static void deleteIncomplete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                if (path.getFileName().toString().endsWith(FILE_SUFFIX + ".tmp")) {
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes a snapshot of the given rows and returns the number of records written.
+     */
+    static long write(Path directory, long walSequence, Stream<Satellite> satellites,
+                      List<CatalogImport> catalogImports) throws IOException {
+        Path target = path(directory, walSequence);
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        long records;
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+          StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeFully(channel, ByteBuffer.allocate(HEADER_BYTES)
+              .putInt(MAGIC)
+              .putInt(FORMAT_VERSION)
+              .putLong(walSequence)
+              .putLong(System.currentTimeMillis())
+              .flip());
+            BlockWriter blocks = new BlockWriter(channel);
+            for (Satellite satellite : (Iterable<Satellite>) satellites::iterator) {
+                blocks.add(satellite);
+            }
+            for (CatalogImport catalogImport : catalogImports) {
+                blocks.add(catalogImport);
+            }
+            records = blocks.finish();
+            channel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return records;
+    }
+
+    /**
+     * Decodes every record of a snapshot into the sink and returns the number of records read.
+     */
+    static long read(Path path, JournalCodec.Sink sink) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, HEADER_BYTES));
+            if (size < HEADER_BYTES || header.getInt(0) != MAGIC || header.getInt(4) != FORMAT_VERSION) {
+                throw new IOException("Not a catalog snapshot: " + path);
+            }
+            CRC32 crc = new CRC32();
+            long records = 0;
+            long windowStart = HEADER_BYTES;
+            MappedByteBuffer window = map(channel, windowStart, size);
+            while (true) {
+                int offset = window.position();
+                // Room for a block header and its count, or for the end marker, both are 12 bytes
+                if (offset + END_BYTES > window.limit()) {
+                    if (windowStart + offset + END_BYTES > size) {
+                        throw new IOException("Catalog snapshot is truncated: " + path);
+                    }
+                    windowStart += offset;
+                    window = map(channel, windowStart, size);
+                    continue;
+                }
+                int length = window.getInt(offset);
+                if (length == 0) {
+                    if (window.getLong(offset + 4) != records) {
+                        throw new IOException("Catalog snapshot is truncated: " + path);
+                    }
+                    return records;
+                }
+                if (offset + BLOCK_HEADER_BYTES + length > window.limit()) {
+                    if (offset == 0 || windowStart + offset + BLOCK_HEADER_BYTES + length > size) {
+                        throw new IOException("Catalog snapshot is truncated: " + path);
+                    }
+                    windowStart += offset;
+                    window = map(channel, windowStart, size);
+                    continue;
+                }
+                ByteBuffer block = window.slice(offset + BLOCK_HEADER_BYTES, length);
+                crc.reset();
+                crc.update(block.duplicate());
+                if ((int) crc.getValue() != window.getInt(offset + 4)) {
+                    throw new IOException("Corrupt catalog snapshot block at offset " + (windowStart + offset)
+                      + " of " + path);
+                }
+                int count = block.getInt();
+                for (int i = 0; i < count; i++) {
+                    JournalCodec.read(block, sink);
+                }
+                records += count;
+                window.position(offset + BLOCK_HEADER_BYTES + length);
+            }
+        }
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long start, long size) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(size - start, WINDOW_BYTES));
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Gathers records into blocks, with each block's parameters rows ahead of its satellites.
+     */
+    private static final class BlockWriter {
+
+        private final FileChannel channel;
+
+        private final ByteArrayOutputStream parameters = new ByteArrayOutputStream(BLOCK_BYTES / 2);
+
+        private final ByteArrayOutputStream rows = new ByteArrayOutputStream(BLOCK_BYTES);
+
+        private final DataOutputStream parametersOut = new DataOutputStream(parameters);
+
+        private final DataOutputStream rowsOut = new DataOutputStream(rows);
+
+        private final CRC32 crc = new CRC32();
+
+        private int count;
+
+        private long total;
+
+        BlockWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void add(Satellite satellite) throws IOException {
+            if (satellite.getParameters() != null) {
+                JournalCodec.writeParameters(parametersOut, satellite.getParameters());
+                count++;
+            }
+            JournalCodec.writeSatellite(rowsOut, satellite);
+            added();
+        }
+
+        void add(CatalogImport catalogImport) throws IOException {
+            JournalCodec.writeCatalogImport(rowsOut, catalogImport);
+            added();
+        }
+
+        long finish() throws IOException {
+            flush();
+            writeFully(channel, ByteBuffer.allocate(END_BYTES).putInt(0).putLong(total).flip());
+            return total;
+        }
+
+        private void added() throws IOException {
+            count++;
+            if (parameters.size() + rows.size() >= BLOCK_BYTES) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            if (count == 0) {
+                return;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(4 + parameters.size() + rows.size())
+              .putInt(count)
+              .put(parameters.toByteArray())
+              .put(rows.toByteArray())
+              .flip();
+            crc.reset();
+            crc.update(payload.duplicate());
+            writeFully(channel, ByteBuffer.allocate(BLOCK_HEADER_BYTES)
+              .putInt(payload.remaining())
+              .putInt((int) crc.getValue())
+              .flip());
+            writeFully(channel, payload);
+            total += count;
+            count = 0;
+            parameters.reset();
+            rows.reset();
+        }
+    }
+}
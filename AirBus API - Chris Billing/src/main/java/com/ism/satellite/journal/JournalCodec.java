@@ -0,0 +1,262 @@
+package com.ism.satellite.journal;
+
+import com.ism.satellite.domain.CatalogFormat;
+import com.ism.satellite.domain.CatalogImport;
+import com.ism.satellite.domain.CatalogImportStatus;
+import com.ism.satellite.domain.OrbitType;
+import com.ism.satellite.domain.OrbitalElements;
+import com.ism.satellite.domain.Satellite;
+import com.ism.satellite.domain.SatelliteParameters;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Binary encoding of the rows kept by the journal, shared by snapshots and the write-ahead log.
+ *
+ * <p>Each record starts with a kind byte. Upserts carry every column of the row, including its version, so
+ * applying a record sets the row to exactly the state it was written from. Deletes carry the id. Nullable values
+ * are preceded by a presence byte, strings are length prefixed UTF-8 and date times are epoch seconds and nanos in
+ * UTC. Everything is big-endian.
+ */
+final class JournalCodec {
+
+    static final byte SATELLITE = 1;
+
+    static final byte PARAMETERS = 2;
+
+    static final byte CATALOG_IMPORT = 3;
+
+    static final byte DELETE_SATELLITE = 4;
+
+    static final byte DELETE_PARAMETERS = 5;
+
+    static final byte DELETE_CATALOG_IMPORT = 6;
+
+    /**
+     * Receiver of decoded records.
+     */
+    interface Sink {
+
+        void satellite(Satellite satellite);
+
+        void parameters(SatelliteParameters parameters);
+
+        void catalogImport(CatalogImport catalogImport);
+
+        void delete(byte kind, Object id);
+    }
+
+    private JournalCodec() {
+    }
+
+    /**
+     * Writes the row of a journaled entity, returning false for entities the journal does not keep.
+     */
+    static boolean writeUpsert(DataOutputStream out, Object entity) throws IOException {
+        if (entity instanceof Satellite satellite) {
+            writeSatellite(out, satellite);
+        } else if (entity instanceof SatelliteParameters parameters) {
+            writeParameters(out, parameters);
+        } else if (entity instanceof CatalogImport catalogImport) {
+            writeCatalogImport(out, catalogImport);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Writes the deletion of a journaled entity's row, returning false for entities the journal does not keep.
+     */
+    static boolean writeDelete(DataOutputStream out, Object entity, Object id) throws IOException {
+        if (entity instanceof Satellite) {
+            out.writeByte(DELETE_SATELLITE);
+            out.writeLong((Long) id);
+        } else if (entity instanceof SatelliteParameters) {
+            out.writeByte(DELETE_PARAMETERS);
+            out.writeLong((Long) id);
+        } else if (entity instanceof CatalogImport) {
+            out.writeByte(DELETE_CATALOG_IMPORT);
+            writeString(out, (String) id);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    static void writeSatellite(DataOutputStream out, Satellite satellite) throws IOException {
+        out.writeByte(SATELLITE);
+        out.writeLong(satellite.getId());
+        writeNullableLong(out, satellite.getVersion());
+        writeString(out, satellite.getName());
+        writeString(out, satellite.getOrbit() == null ? null : satellite.getOrbit().name());
+        writeDateTime(out, satellite.getLaunchDate());
+        writeNullableLong(out, satellite.getParameters() == null ? null : satellite.getParameters().getId());
+        OrbitalElements elements = satellite.getElements();
+        out.writeBoolean(elements != null);
+        if (elements != null) {
+            writeNullableDouble(out, elements.getSemiMajorAxisKm());
+            writeNullableDouble(out, elements.getEccentricity());
+            writeNullableDouble(out, elements.getInclinationDeg());
+            writeNullableDouble(out, elements.getRaanDeg());
+            writeNullableDouble(out, elements.getArgumentOfPerigeeDeg());
+            writeNullableDouble(out, elements.getMeanAnomalyDeg());
+            writeDateTime(out, elements.getEpoch());
+        }
+    }
+
+    static void writeParameters(DataOutputStream out, SatelliteParameters parameters) throws IOException {
+        out.writeByte(PARAMETERS);
+        out.writeLong(parameters.getId());
+        writeNullableLong(out, parameters.getVersion());
+        writeNullableDouble(out, parameters.getAltitude());
+        writeNullableDouble(out, parameters.getLatitude());
+        writeNullableDouble(out, parameters.getLongitude());
+    }
+
+    static void writeCatalogImport(DataOutputStream out, CatalogImport catalogImport) throws IOException {
+        out.writeByte(CATALOG_IMPORT);
+        writeString(out, catalogImport.getId());
+        writeString(out, catalogImport.getSource());
+        writeString(out, catalogImport.getFormat() == null ? null : catalogImport.getFormat().name());
+        writeString(out, catalogImport.getStatus() == null ? null : catalogImport.getStatus().name());
+        out.writeLong(catalogImport.getRecordsCommitted());
+        out.writeLong(catalogImport.getImported());
+        out.writeLong(catalogImport.getFailed());
+        writeDateTime(out, catalogImport.getStartedAt());
+        writeDateTime(out, catalogImport.getUpdatedAt());
+        writeString(out, catalogImport.getError());
+    }
+
+    /**
+     * Decodes the record at the buffer's position and hands it to the sink.
+     */
+    static void read(ByteBuffer in, Sink sink) {
+        byte kind = in.get();
+        switch (kind) {
+            case SATELLITE -> sink.satellite(readSatellite(in));
+            case PARAMETERS -> sink.parameters(readParameters(in));
+            case CATALOG_IMPORT -> sink.catalogImport(readCatalogImport(in));
+            case DELETE_SATELLITE, DELETE_PARAMETERS -> sink.delete(kind, in.getLong());
+            case DELETE_CATALOG_IMPORT -> sink.delete(kind, readString(in));
+            default -> throw new IllegalStateException("Unknown journal record kind " + kind);
+        }
+    }
+
+    private static Satellite readSatellite(ByteBuffer in) {
+        Satellite satellite = new Satellite();
+        satellite.setId(in.getLong());
+        satellite.setVersion(readNullableLong(in));
+        satellite.setName(readString(in));
+        String orbit = readString(in);
+        satellite.setOrbit(orbit == null ? null : OrbitType.valueOf(orbit));
+        satellite.setLaunchDate(readDateTime(in));
+        Long parametersId = readNullableLong(in);
+        if (parametersId != null) {
+            SatelliteParameters parameters = new SatelliteParameters();
+            parameters.setId(parametersId);
+            satellite.setParameters(parameters);
+        }
+        if (in.get() != 0) {
+            OrbitalElements elements = new OrbitalElements();
+            elements.setSemiMajorAxisKm(readNullableDouble(in));
+            elements.setEccentricity(readNullableDouble(in));
+            elements.setInclinationDeg(readNullableDouble(in));
+            elements.setRaanDeg(readNullableDouble(in));
+            elements.setArgumentOfPerigeeDeg(readNullableDouble(in));
+            elements.setMeanAnomalyDeg(readNullableDouble(in));
+            elements.setEpoch(readDateTime(in));
+            satellite.setElements(elements);
+        }
+        return satellite;
+    }
+
+    private static SatelliteParameters readParameters(ByteBuffer in) {
+        SatelliteParameters parameters = new SatelliteParameters();
+        parameters.setId(in.getLong());
+        parameters.setVersion(readNullableLong(in));
+        parameters.setAltitude(readNullableDouble(in));
+        parameters.setLatitude(readNullableDouble(in));
+        parameters.setLongitude(readNullableDouble(in));
+        return parameters;
+    }
+
+    private static CatalogImport readCatalogImport(ByteBuffer in) {
+        CatalogImport catalogImport = new CatalogImport();
+        catalogImport.setId(readString(in));
+        catalogImport.setSource(readString(in));
+        String format = readString(in);
+        catalogImport.setFormat(format == null ? null : CatalogFormat.valueOf(format));
+        String status = readString(in);
+        catalogImport.setStatus(status == null ? null : CatalogImportStatus.valueOf(status));
+        catalogImport.setRecordsCommitted(in.getLong());
+        catalogImport.setImported(in.getLong());
+        catalogImport.setFailed(in.getLong());
+        catalogImport.setStartedAt(readDateTime(in));
+        catalogImport.setUpdatedAt(readDateTime(in));
+        catalogImport.setError(readString(in));
+        return catalogImport;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeNullableLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readNullableLong(ByteBuffer in) {
+        return in.get() != 0 ? in.getLong() : null;
+    }
+
+    private static void writeNullableDouble(DataOutputStream out, Double value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeDouble(value);
+        }
+    }
+
+    private static Double readNullableDouble(ByteBuffer in) {
+        return in.get() != 0 ? in.getDouble() : null;
+    }
+
+    private static void writeDateTime(DataOutputStream out, LocalDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(value.getNano());
+        }
+    }
+
+    private static LocalDateTime readDateTime(ByteBuffer in) {
+        if (in.get() == 0) {
+            return null;
+        }
+        long seconds = in.getLong();
+        return LocalDateTime.ofEpochSecond(seconds, in.getInt(), ZoneOffset.UTC);
+    }
+}
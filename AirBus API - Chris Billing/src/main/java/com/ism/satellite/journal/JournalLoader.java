@@ -0,0 +1,204 @@
+package com.ism.satellite.journal;
+
+import com.ism.satellite.domain.CatalogImport;
+import com.ism.satellite.domain.OrbitalElements;
+import com.ism.satellite.domain.Satellite;
+import com.ism.satellite.domain.SatelliteParameters;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes decoded journal records into the database with batched JDBC statements, bypassing Hibernate so a restore
+ * neither builds entities nor fires the listeners that would journal them again.
+ *
+ * <p>Records are applied in order. Consecutive records of one kind share a batch, a change of kind executes the
+ * pending batch first, so parameters rows are in place before the satellites that reference them and satellites
+ * are gone before their parameters are deleted. Snapshots load into empty tables with plain inserts, log replay
+ * merges rows by key as they may already exist.
+ */
+final class JournalLoader implements JournalCodec.Sink, AutoCloseable {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String SATELLITE_COLUMNS = "id, version, name, orbit, launch_date, param_id, "
+      + "semi_major_axis_km, eccentricity, inclination_deg, raan_deg, argument_of_perigee_deg, mean_anomaly_deg, "
+      + "elements_epoch";
+
+    private static final String PARAMETERS_COLUMNS = "id, version, altitude, latitude, longitude";
+
+    private static final String CATALOG_IMPORT_COLUMNS = "id, source, format, status, records_committed, imported, "
+      + "failed, started_at, updated_at, error";
+
+    private final Connection connection;
+
+    private final boolean merge;
+
+    private final Map<String, PreparedStatement> statements = new HashMap<>();
+
+    private PreparedStatement pending;
+
+    private int pendingCount;
+
+    JournalLoader(Connection connection, boolean merge) {
+        this.connection = connection;
+        this.merge = merge;
+    }
+
+    @Override
+    public void satellite(Satellite satellite) {
+        try {
+            PreparedStatement statement = upsert("satellite", SATELLITE_COLUMNS, 13);
+            OrbitalElements elements = satellite.getElements() == null ? new OrbitalElements()
+              : satellite.getElements();
+            statement.setLong(1, satellite.getId());
+            statement.setObject(2, satellite.getVersion());
+            statement.setString(3, satellite.getName());
+            statement.setString(4, satellite.getOrbit() == null ? null : satellite.getOrbit().name());
+            statement.setObject(5, satellite.getLaunchDate());
+            statement.setObject(6, satellite.getParameters() == null ? null : satellite.getParameters().getId());
+            statement.setObject(7, elements.getSemiMajorAxisKm());
+            statement.setObject(8, elements.getEccentricity());
+            statement.setObject(9, elements.getInclinationDeg());
+            statement.setObject(10, elements.getRaanDeg());
+            statement.setObject(11, elements.getArgumentOfPerigeeDeg());
+            statement.setObject(12, elements.getMeanAnomalyDeg());
+            statement.setObject(13, elements.getEpoch());
+            add(statement);
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to restore satellite " + satellite.getId(), ex);
+        }
+    }
+
+    @Override
+    public void parameters(SatelliteParameters parameters) {
+        try {
+            PreparedStatement statement = upsert("satellite_parameters", PARAMETERS_COLUMNS, 5);
+            statement.setLong(1, parameters.getId());
+            statement.setObject(2, parameters.getVersion());
+            statement.setObject(3, parameters.getAltitude());
+            statement.setObject(4, parameters.getLatitude());
+            statement.setObject(5, parameters.getLongitude());
+            add(statement);
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to restore satellite parameters " + parameters.getId(), ex);
+        }
+    }
+
+    @Override
+    public void catalogImport(CatalogImport catalogImport) {
+        try {
+            PreparedStatement statement = upsert("catalog_import", CATALOG_IMPORT_COLUMNS, 10);
+            statement.setString(1, catalogImport.getId());
+            statement.setString(2, catalogImport.getSource());
+            statement.setString(3, catalogImport.getFormat() == null ? null : catalogImport.getFormat().name());
+            statement.setString(4, catalogImport.getStatus() == null ? null : catalogImport.getStatus().name());
+            statement.setLong(5, catalogImport.getRecordsCommitted());
+            statement.setLong(6, catalogImport.getImported());
+            statement.setLong(7, catalogImport.getFailed());
+            statement.setObject(8, catalogImport.getStartedAt());
+            statement.setObject(9, catalogImport.getUpdatedAt());
+            statement.setString(10, catalogImport.getError());
+            add(statement);
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to restore catalog import " + catalogImport.getId(), ex);
+        }
+    }
+
+    @Override
+    public void delete(byte kind, Object id) {
+        String table = switch (kind) {
+            case JournalCodec.DELETE_SATELLITE -> "satellite";
+            case JournalCodec.DELETE_PARAMETERS -> "satellite_parameters";
+            default -> "catalog_import";
+        };
+        try {
+            PreparedStatement statement = statement("delete from " + table + " where id = ?");
+            statement.setObject(1, id);
+            add(statement);
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to replay the deletion of " + table + " " + id, ex);
+        }
+    }
+
+    /**
+     * Executes the pending batch.
+     */
+    void flush() throws SQLException {
+        if (pendingCount > 0) {
+            pending.executeBatch();
+        }
+        pending = null;
+        pendingCount = 0;
+    }
+
+    /**
+     * Moves the id sequences past the restored ids, so new rows do not collide with them.
+     */
+    void restartSequences() throws SQLException {
+        flush();
+        restartSequence("satellite_seq", "satellite");
+        restartSequence("satellite_parameters_seq", "satellite_parameters");
+    }
+
+    @Override
+    public void close() throws SQLException {
+        for (PreparedStatement statement : statements.values()) {
+            statement.close();
+        }
+    }
+
+    private PreparedStatement upsert(String table, String columns, int count) throws SQLException {
+        String values = "?" + ", ?".repeat(count - 1);
+        return statement(merge
+          ? "merge into " + table + " (" + columns + ") key (id) values (" + values + ")"
+          : "insert into " + table + " (" + columns + ") values (" + values + ")");
+    }
+
+    private PreparedStatement statement(String sql) throws SQLException {
+        PreparedStatement statement = statements.get(sql);
+        if (statement == null) {
+            statement = connection.prepareStatement(sql);
+            statements.put(sql, statement);
+        }
+        return statement;
+    }
+
+    private void add(PreparedStatement statement) throws SQLException {
+        if (statement != pending) {
+            flush();
+            pending = statement;
+        }
+        statement.addBatch();
+        if (++pendingCount == BATCH_SIZE) {
+            flush();
+            pending = statement;
+        }
+    }
+
+    // Hibernate's pooled optimizer hands out the increment below each value it reads, so the next value must be
+    // at least a full increment past the highest restored id
+    private void restartSequence(String sequence, String table) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            long maxId;
+            try (ResultSet rows = statement.executeQuery("select coalesce(max(id), 0) from " + table)) {
+                rows.next();
+                maxId = rows.getLong(1);
+            }
+            long increment = 1;
+            try (ResultSet rows = statement.executeQuery("select increment from information_schema.sequences "
+              + "where lower(sequence_name) = '" + sequence + "'")) {
+                if (rows.next()) {
+                    increment = rows.getLong(1);
+                }
+            }
+            if (maxId > 0) {
+                statement.execute("alter sequence " + sequence + " restart with " + (maxId + increment));
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.ism.satellite.journal;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Settings for the catalog snapshot and write-ahead log, bound from satellite.journal.*.
+ */
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "satellite.journal")
+public class JournalProperties {
+
+    private boolean enabled = false;
+
+    private Path directory = Paths.get(System.getProperty("java.io.tmpdir"), "satellite-journal");
+
+    // Forces each transaction's log entry to disk before it commits, off only loses the last writes on a crash
+    private boolean syncOnCommit = true;
+
+    // A snapshot is taken this often when the log has grown since the last one, zero disables periodic snapshots
+    private Duration snapshotInterval = Duration.ofMinutes(10);
+
+    // A snapshot is also taken once the log written since the last one reaches this size
+    private DataSize snapshotLogSize = DataSize.ofMegabytes(256);
+
+    // A clean shutdown snapshots, so the next start only has to load the snapshot
+    private boolean snapshotOnShutdown = true;
+
+}
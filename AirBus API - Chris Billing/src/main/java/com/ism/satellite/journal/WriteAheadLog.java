@@ -0,0 +1,222 @@
+package com.ism.satellite.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of committed catalog changes, split into numbered segment files.
+ *
+ * <p>Layout: a 16 byte header (magic, format version, segment sequence) followed by frames. A frame is the
+ * payload length, the CRC-32 of the payload, then the payload itself. A frame cut short by a crash fails its
+ * length or checksum and ends the segment. Segments are only appended to by the process that created them, a
+ * restarted process starts a new one.
+ */
+final class WriteAheadLog implements AutoCloseable {
+
+    static final int HEADER_BYTES = 16;
+
+    private static final int MAGIC = 0x5357414C;
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int FRAME_HEADER_BYTES = 8;
+
+    private final Path directory;
+
+    private final boolean sync;
+
+    // A lock rather than synchronized, appends write to the file on request threads and a virtual thread blocked
+    // in I/O while holding a monitor stays pinned to its carrier
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private FileChannel channel;
+
+    private long sequence;
+
+    private long position;
+
+    private WriteAheadLog(Path directory, boolean sync) {
+        this.directory = directory;
+        this.sync = sync;
+    }
+
+    static WriteAheadLog create(Path directory, long sequence, boolean sync) throws IOException {
+        WriteAheadLog log = new WriteAheadLog(directory, sync);
+        log.open(sequence);
+        return log;
+    }
+
+    static Path segmentPath(Path directory, long sequence) {
+        return directory.resolve(String.format("wal-%010d.log", sequence));
+    }
+
+    /**
+     * Sequences of the segments in the directory, oldest first.
+     */
+    static List<Long> segments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+              .filter(name -> name.matches("wal-\\d{10}\\.log"))
+              .map(name -> Long.parseLong(name.substring(4, 14)))
+              .sorted()
+              .toList();
+        }
+    }
+
+    /**
+     * Reads the frames of a segment. A damaged frame ends the segment when it is the last one written, a crash can
+     * only have cut that one short, anywhere else it means the log is corrupt.
+     */
+    static List<ByteBuffer> read(Path path, boolean last) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+            if (last) {
+                return List.of();
+            }
+            throw new IOException("Not a write-ahead log segment: " + path);
+        }
+        List<ByteBuffer> frames = new ArrayList<>();
+        CRC32 crc = new CRC32();
+        int offset = HEADER_BYTES;
+        while (offset < buffer.limit()) {
+            int length = offset + FRAME_HEADER_BYTES <= buffer.limit() ? buffer.getInt(offset) : -1;
+            boolean intact = length > 0 && length <= buffer.limit() - offset - FRAME_HEADER_BYTES;
+            if (intact) {
+                crc.reset();
+                crc.update(buffer.slice(offset + FRAME_HEADER_BYTES, length));
+                intact = (int) crc.getValue() == buffer.getInt(offset + 4);
+            }
+            if (!intact) {
+                if (last) {
+                    break;
+                }
+                throw new IOException("Corrupt write-ahead log frame at offset " + offset + " of " + path);
+            }
+            frames.add(buffer.slice(offset + FRAME_HEADER_BYTES, length));
+            offset += FRAME_HEADER_BYTES + length;
+        }
+        return frames;
+    }
+
+    /**
+     * Appends a frame, forced to disk before returning when syncing. A failed write is truncated away so the
+     * segment stays readable.
+     */
+    void append(ByteBuffer payload) throws IOException {
+        FileChannel target;
+        lock.lock();
+        try {
+            if (channel == null) {
+                throw new IOException("Write-ahead log is closed");
+            }
+            CRC32 crc = new CRC32();
+            crc.update(payload.duplicate());
+            ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER_BYTES)
+              .putInt(payload.remaining())
+              .putInt((int) crc.getValue())
+              .flip();
+            long start = position;
+            try {
+                long written = 0;
+                long expected = header.remaining() + payload.remaining();
+                while (written < expected) {
+                    written += channel.write(new ByteBuffer[] {header, payload});
+                }
+                position += written;
+            } catch (IOException ex) {
+                channel.truncate(start);
+                channel.position(start);
+                throw ex;
+            }
+            target = channel;
+        } finally {
+            lock.unlock();
+        }
+        // Forced outside the lock, so commits that appended meanwhile share one flush
+        if (sync) {
+            target.force(false);
+        }
+    }
+
+    /**
+     * Closes the current segment and starts the next, returning its sequence. Callers make sure no append is in
+     * progress.
+     */
+    long roll() throws IOException {
+        lock.lock();
+        try {
+            closeChannel();
+            open(sequence + 1);
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getSequence() {
+        lock.lock();
+        try {
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Bytes of frames in the current segment
+    long getSize() {
+        lock.lock();
+        try {
+            return position - HEADER_BYTES;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closeChannel();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void open(long sequence) throws IOException {
+        FileChannel created = FileChannel.open(segmentPath(directory, sequence), StandardOpenOption.CREATE_NEW,
+          StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+          .putInt(MAGIC)
+          .putInt(FORMAT_VERSION)
+          .putLong(sequence)
+          .flip();
+        while (header.hasRemaining()) {
+            created.write(header);
+        }
+        created.force(true);
+        this.channel = created;
+        this.sequence = sequence;
+        this.position = HEADER_BYTES;
+    }
+
+    private void closeChannel() throws IOException {
+        if (channel != null) {
+            channel.force(true);
+            channel.close();
+            channel = null;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.ism.satellite.live;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings for live position push, bound from satellite.live.*.
+ */
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "satellite.live")
+public class LiveProperties {
+
+    private boolean enabled = true;
+
+    // Changes within one interval are coalesced to the latest fix per satellite before fan-out
+    private Duration dispatchInterval = Duration.ofMillis(100);
+
+    private int senderThreads = 16;
+
+    // A send still blocked after this long drops its subscriber, and the sender pool gets a thread in its place
+    // until the container's write timeout ends the send
+    private Duration sendTimeout = Duration.ofSeconds(5);
+
+    private int maxSubscribers = 20_000;
+
+    private int maxSubscriptionIds = 10_000;
+
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+    // Zero keeps subscriptions open until the client disconnects
+    private Duration subscriptionTimeout = Duration.ZERO;
+
+}
@@ -0,0 +1,487 @@
+package com.ism.satellite.live;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ism.satellite.domain.OrbitType;
+import com.ism.satellite.exception.custom.BadRequestException;
+import com.ism.satellite.exception.custom.ServiceUnavailableException;
+import com.ism.satellite.response.PositionEvent;
+import com.ism.satellite.service.PositionListener;
+import com.ism.satellite.store.PositionStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes position changes to Server-Sent Events subscribers. Changes are coalesced to the latest fix per satellite
+ * and fanned out by a dispatcher thread on a fixed interval: each fix is serialized once and the same string is
+ * handed to every interested subscriber, found through indexes by satellite id and by orbit type.
+ *
+ * <p>Every subscriber holds at most one pending fix per satellite, so a slow consumer receives conflated updates
+ * instead of growing a backlog. A sender pool writes each subscriber's pending fixes as one batched event, with at
+ * most one send in flight per subscriber.
+ *
+ * <p>Sends are blocking writes, so a client that stops reading would hold its sender thread once the socket buffers
+ * fill. A send still in flight after the send timeout writes its subscriber off: it is dropped, the pool gets a
+ * replacement thread so delivery to everyone else goes on, and the emitter is completed once the write returns.
+ */
+@Component
+public class PositionBroadcaster implements PositionListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PositionBroadcaster.class);
+
+    public static final String EVENT_NAME = "positions";
+
+    // Upper bound on fixes written in one event, the rest follow in the next send
+    private static final int MAX_BATCH = 1000;
+
+    // Upper bound on replacement sender threads, stalled sends beyond it are still dropped but not replaced
+    static final int MAX_REPLACEMENT_SENDERS = 1024;
+
+    private static final int IDLE = 0;
+
+    private static final int SENDING = 1;
+
+    private static final int WRITTEN_OFF = 2;
+
+    private final LiveProperties properties;
+
+    private final ObjectMapper objectMapper;
+
+    private final PositionStore positionStore;
+
+    private final ConcurrentHashMap<Long, PositionEvent> changed = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<Long, OrbitType> orbits = new ConcurrentHashMap<>();
+
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+    private final Set<Subscription> everything = ConcurrentHashMap.newKeySet();
+
+    private final ConcurrentHashMap<Long, Set<Subscription>> bySatellite = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<OrbitType, Set<Subscription>> byOrbit = new ConcurrentHashMap<>();
+
+    private final Set<Subscription> sending = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder stalledDrops = new LongAdder();
+
+    private ScheduledExecutorService dispatcher;
+
+    private ThreadPoolExecutor senders;
+
+    private int replacementSenders;
+
+    /**
+     * A subscriber's filter, emitter and conflated pending fixes.
+     */
+    static final class Subscription {
+
+        private final SseEmitter emitter;
+
+        private final Set<Long> satelliteIds;
+
+        private final OrbitType orbit;
+
+        private final ConcurrentHashMap<Long, String> pending = new ConcurrentHashMap<>();
+
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private final AtomicInteger sendState = new AtomicInteger(IDLE);
+
+        private volatile long sendStartedNanos;
+
+        // Whether writing this subscriber off added a replacement sender thread
+        private volatile boolean replaced;
+
+        private volatile boolean heartbeatDue;
+
+        Subscription(SseEmitter emitter, Set<Long> satelliteIds, OrbitType orbit) {
+            this.emitter = emitter;
+            this.satelliteIds = satelliteIds;
+            this.orbit = orbit;
+        }
+
+        boolean matchesEverything() {
+            return satelliteIds.isEmpty() && orbit == null;
+        }
+    }
+
+    public PositionBroadcaster(LiveProperties properties, ObjectMapper objectMapper, PositionStore positionStore) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.positionStore = positionStore;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "live-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger senderNumber = new AtomicInteger();
+        senders = new ThreadPoolExecutor(properties.getSenderThreads(), properties.getSenderThreads(), 0L,
+          TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+              Thread thread = new Thread(runnable, "live-sender-" + senderNumber.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+          });
+        long dispatchMillis = properties.getDispatchInterval().toMillis();
+        dispatcher.scheduleWithFixedDelay(this::dispatchQuietly, dispatchMillis, dispatchMillis,
+          TimeUnit.MILLISECONDS);
+        long heartbeatMillis = properties.getHeartbeatInterval().toMillis();
+        dispatcher.scheduleWithFixedDelay(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        long stallCheckMillis = Math.max(1, properties.getSendTimeout().toMillis() / 4);
+        dispatcher.scheduleWithFixedDelay(this::writeOffQuietly, stallCheckMillis, stallCheckMillis,
+          TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (dispatcher == null) {
+            return;
+        }
+        dispatcher.shutdown();
+        senders.shutdown();
+        senders.awaitTermination(1, TimeUnit.SECONDS);
+        for (Subscription subscription : subscriptions) {
+            unregister(subscription);
+            subscription.emitter.complete();
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    public boolean hasCapacity() {
+        return subscriptions.size() < properties.getMaxSubscribers();
+    }
+
+    public int getMaxSubscriptionIds() {
+        return properties.getMaxSubscriptionIds();
+    }
+
+    /**
+     * Counts the subscribers dropped because a send to them outlasted the send timeout.
+     */
+    public long getStalledSubscriberDrops() {
+        return stalledDrops.sum();
+    }
+
+    /**
+     * Records the orbit type of a satellite so orbit subscriptions receive its fixes.
+     */
+    public void trackOrbit(long satelliteId, OrbitType orbit) {
+        if (orbit == null) {
+            orbits.remove(satelliteId);
+        } else {
+            orbits.put(satelliteId, orbit);
+        }
+    }
+
+    /**
+     * Records an orbit type loaded at startup unless a newer one has been tracked already.
+     */
+    public void trackOrbitIfAbsent(long satelliteId, OrbitType orbit) {
+        if (orbit != null) {
+            orbits.putIfAbsent(satelliteId, orbit);
+        }
+    }
+
+    @Override
+    public void onPositionChanged(long satelliteId, long timestampMillis, double altitude, double latitude,
+                                  double longitude) {
+        if (dispatcher != null && !subscriptions.isEmpty()) {
+            changed.put(satelliteId, new PositionEvent(satelliteId, Instant.ofEpochMilli(timestampMillis), altitude,
+              latitude, longitude));
+        }
+    }
+
+    @Override
+    public void onSatelliteRemoved(long satelliteId) {
+        orbits.remove(satelliteId);
+        changed.remove(satelliteId);
+    }
+
+    /**
+     * Subscribes to the given satellites, to one orbit type, or to everything when neither is given. The current
+     * position of every matching satellite is sent first.
+     */
+    public SseEmitter subscribe(Collection<Long> satelliteIds, OrbitType orbit) {
+        if (!isEnabled()) {
+            throw new BadRequestException("Live position updates are not enabled");
+        }
+        if (satelliteIds.size() > getMaxSubscriptionIds()) {
+            throw new BadRequestException(String.format("A subscription may name at most %s satellites",
+              getMaxSubscriptionIds()));
+        }
+        if (!hasCapacity()) {
+            throw new ServiceUnavailableException("Live position subscriber limit reached, retry later");
+        }
+        long timeout = properties.getSubscriptionTimeout().toMillis();
+        return subscribe(satelliteIds, orbit, new SseEmitter(timeout));
+    }
+
+    SseEmitter subscribe(Collection<Long> satelliteIds, OrbitType orbit, SseEmitter emitter) {
+        Subscription subscription = new Subscription(emitter, Set.copyOf(satelliteIds), orbit);
+        emitter.onCompletion(() -> unregister(subscription));
+        emitter.onTimeout(() -> {
+            // Completing ends the stream cleanly instead of surfacing an async timeout error
+            unregister(subscription);
+            emitter.complete();
+        });
+        emitter.onError(ex -> unregister(subscription));
+        subscriptions.add(subscription);
+        if (subscription.matchesEverything()) {
+            everything.add(subscription);
+        }
+        for (Long satelliteId : subscription.satelliteIds) {
+            bySatellite.computeIfAbsent(satelliteId, id -> ConcurrentHashMap.newKeySet()).add(subscription);
+        }
+        if (orbit != null) {
+            byOrbit.computeIfAbsent(orbit, type -> ConcurrentHashMap.newKeySet()).add(subscription);
+        }
+        sendSnapshot(subscription);
+        return emitter;
+    }
+
+    /**
+     * Serializes and fans out every change since the last dispatch.
+     */
+    void dispatch() {
+        for (Long satelliteId : changed.keySet()) {
+            PositionEvent event = changed.remove(satelliteId);
+            if (event == null) {
+                continue;
+            }
+            String json = serialize(event);
+            if (json == null) {
+                continue;
+            }
+            deliver(everything, satelliteId, json);
+            deliver(bySatellite.get(satelliteId), satelliteId, json);
+            OrbitType orbit = orbits.get(satelliteId);
+            if (orbit != null) {
+                deliver(byOrbit.get(orbit), satelliteId, json);
+            }
+        }
+    }
+
+    private void sendSnapshot(Subscription subscription) {
+        Instant now = Instant.now();
+        List<PositionEvent> snapshot = new ArrayList<>();
+        positionStore.forEach((satelliteId, parametersId, altitude, latitude, longitude) -> {
+            if (subscription.matchesEverything() || subscription.satelliteIds.contains(satelliteId)
+              || (subscription.orbit != null && subscription.orbit == orbits.get(satelliteId))) {
+                snapshot.add(new PositionEvent(satelliteId, now, altitude, latitude, longitude));
+            }
+        });
+        // Serialized outside the store's read lock, and never over a live fix that arrived meanwhile
+        for (PositionEvent event : snapshot) {
+            String json = serialize(event);
+            if (json != null) {
+                subscription.pending.putIfAbsent(event.getSatelliteId(), json);
+            }
+        }
+        schedule(subscription);
+    }
+
+    private void deliver(Set<Subscription> targets, long satelliteId, String json) {
+        if (targets == null) {
+            return;
+        }
+        for (Subscription subscription : targets) {
+            // Replaces any fix the subscriber has not been sent yet
+            subscription.pending.put(satelliteId, json);
+            schedule(subscription);
+        }
+    }
+
+    private void schedule(Subscription subscription) {
+        if (senders != null && subscription.scheduled.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> drain(subscription));
+            } catch (RejectedExecutionException ex) {
+                subscription.scheduled.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscription subscription) {
+        if (subscription.sendState.get() == WRITTEN_OFF) {
+            return;
+        }
+        StringBuilder batch = null;
+        int size = 0;
+        for (Map.Entry<Long, String> entry : subscription.pending.entrySet()) {
+            if (size == MAX_BATCH) {
+                break;
+            }
+            // Only the value removed is sent, a newer fix arriving now stays pending for the next send
+            if (subscription.pending.remove(entry.getKey(), entry.getValue())) {
+                batch = batch == null ? new StringBuilder("[") : batch.append(',');
+                batch.append(entry.getValue());
+                size++;
+            }
+        }
+        subscription.sendStartedNanos = System.nanoTime();
+        subscription.sendState.set(SENDING);
+        sending.add(subscription);
+        try {
+            if (batch != null) {
+                subscription.emitter.send(SseEmitter.event().name(EVENT_NAME)
+                  .data(batch.append(']').toString(), MediaType.APPLICATION_JSON));
+                subscription.heartbeatDue = false;
+            } else if (subscription.heartbeatDue) {
+                subscription.heartbeatDue = false;
+                subscription.emitter.send(SseEmitter.event().comment("heartbeat"));
+            }
+        } catch (IOException | IllegalStateException ex) {
+            // The client went away, the container reports the failure to the emitter itself
+            if (!subscription.sendState.compareAndSet(SENDING, IDLE)) {
+                releaseReplacement(subscription);
+            }
+            unregister(subscription);
+            return;
+        } finally {
+            sending.remove(subscription);
+        }
+        if (!subscription.sendState.compareAndSet(SENDING, IDLE)) {
+            // Written off while blocked, completed here since the emitter is locked for the duration of a send
+            releaseReplacement(subscription);
+            subscription.emitter.completeWithError(new IOException("Live position send timed out"));
+            return;
+        }
+        subscription.scheduled.set(false);
+        if (!subscription.pending.isEmpty()) {
+            // Resubmitted rather than looped so one busy subscriber cannot hold a sender thread
+            schedule(subscription);
+        }
+    }
+
+    /**
+     * Drops subscribers whose send has been blocked for longer than the send timeout, giving the pool a thread in
+     * place of each one held.
+     */
+    void writeOffStalledSends() {
+        long timeoutNanos = properties.getSendTimeout().toNanos();
+        long now = System.nanoTime();
+        for (Subscription subscription : sending) {
+            if (now - subscription.sendStartedNanos < timeoutNanos
+              || !subscription.sendState.compareAndSet(SENDING, WRITTEN_OFF)) {
+                continue;
+            }
+            sending.remove(subscription);
+            unregister(subscription);
+            stalledDrops.increment();
+            subscription.replaced = resizeSenders(1);
+            LOGGER.warn("Dropped a live position subscriber blocked for more than {} ms",
+              properties.getSendTimeout().toMillis());
+        }
+    }
+
+    private void releaseReplacement(Subscription subscription) {
+        if (subscription.replaced) {
+            resizeSenders(-1);
+        }
+    }
+
+    private synchronized boolean resizeSenders(int delta) {
+        if (delta > 0 && replacementSenders >= MAX_REPLACEMENT_SENDERS) {
+            return false;
+        }
+        replacementSenders += delta;
+        int size = properties.getSenderThreads() + replacementSenders;
+        // The core size never exceeds the maximum in between
+        if (delta > 0) {
+            senders.setMaximumPoolSize(size);
+            senders.setCorePoolSize(size);
+        } else {
+            senders.setCorePoolSize(size);
+            senders.setMaximumPoolSize(size);
+        }
+        return true;
+    }
+
+    private void heartbeat() {
+        for (Subscription subscription : subscriptions) {
+            subscription.heartbeatDue = true;
+            schedule(subscription);
+        }
+    }
+
+    private void unregister(Subscription subscription) {
+        if (!subscriptions.remove(subscription)) {
+            return;
+        }
+        everything.remove(subscription);
+        for (Long satelliteId : subscription.satelliteIds) {
+            bySatellite.computeIfPresent(satelliteId, (id, targets) -> {
+                targets.remove(subscription);
+                return targets.isEmpty() ? null : targets;
+            });
+        }
+        if (subscription.orbit != null) {
+            byOrbit.computeIfPresent(subscription.orbit, (type, targets) -> {
+                targets.remove(subscription);
+                return targets.isEmpty() ? null : targets;
+            });
+        }
+        subscription.pending.clear();
+    }
+
+    private void writeOffQuietly() {
+        try {
+            writeOffStalledSends();
+        } catch (RuntimeException ex) {
+            LOGGER.error("Live position stall check failed: {}", ex.getMessage());
+        }
+    }
+
+    private void dispatchQuietly() {
+        try {
+            dispatch();
+        } catch (RuntimeException ex) {
+            LOGGER.error("Live position dispatch failed: {}", ex.getMessage());
+        }
+    }
+
+    private String serialize(PositionEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            LOGGER.error("Could not serialize position of satellite {}: {}", event.getSatelliteId(), ex.getMessage());
+            return null;
+        }
+    }
+}
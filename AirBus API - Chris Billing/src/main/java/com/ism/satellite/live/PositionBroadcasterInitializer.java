@@ -0,0 +1,30 @@
+package com.ism.satellite.live;
+
+import com.ism.satellite.repository.SatelliteOrbitView;
+import com.ism.satellite.repository.SatelliteRepository;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads the orbit type of every satellite into the PositionBroadcaster once the application has started.
+ */
+@Component
+public class PositionBroadcasterInitializer implements ApplicationRunner {
+
+    private final SatelliteRepository repository;
+
+    private final PositionBroadcaster positionBroadcaster;
+
+    public PositionBroadcasterInitializer(SatelliteRepository repository, PositionBroadcaster positionBroadcaster) {
+        this.repository = repository;
+        this.positionBroadcaster = positionBroadcaster;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        for (SatelliteOrbitView view : repository.findAllOrbits()) {
+            positionBroadcaster.trackOrbitIfAbsent(view.getId(), view.getOrbit());
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.ism.satellite.metrics;
+
+import com.ism.satellite.store.PositionStore;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exports the position store as a cache named positions, using the same cache.gets and cache.size meters as
+ * Micrometer's cache binders so hit ratio dashboards work unchanged. The counts are read at scrape time.
+ */
+@Component
+public class PositionStoreMetrics implements MeterBinder {
+
+    private final PositionStore positionStore;
+
+    public PositionStoreMetrics(PositionStore positionStore) {
+        this.positionStore = positionStore;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", positionStore, PositionStore::getHitCount)
+          .tags("cache", "positions", "result", "hit")
+          .description("Position lookups served from memory")
+          .register(registry);
+        FunctionCounter.builder("cache.gets", positionStore, PositionStore::getMissCount)
+          .tags("cache", "positions", "result", "miss")
+          .description("Position lookups that fell through to the database")
+          .register(registry);
+        Gauge.builder("cache.size", positionStore, PositionStore::size)
+          .tags("cache", "positions")
+          .description("Satellites held in the position store")
+          .register(registry);
+    }
+}
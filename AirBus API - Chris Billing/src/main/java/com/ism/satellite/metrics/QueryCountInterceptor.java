@@ -0,0 +1,75 @@
+package com.ism.satellite.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Records the number of SQL statements each request issued into a satellite.http.queries summary per handler
+ * method. Runs after view rendering, so lazy loads triggered while writing the response are included.
+ */
+@Component
+public class QueryCountInterceptor implements HandlerInterceptor, WebMvcConfigurer {
+
+    private final ObjectProvider<QueryCounter> queryCounterProvider;
+
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+    private final ConcurrentHashMap<Method, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    private QueryCounter queryCounter;
+
+    private MeterRegistry meterRegistry;
+
+    // Providers, so web slices without persistence or metrics still start and simply skip the interceptor
+    public QueryCountInterceptor(ObjectProvider<QueryCounter> queryCounterProvider,
+                                 ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.queryCounterProvider = queryCounterProvider;
+        this.meterRegistryProvider = meterRegistryProvider;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        queryCounter = queryCounterProvider.getIfAvailable();
+        meterRegistry = meterRegistryProvider.getIfAvailable();
+        if (queryCounter != null && meterRegistry != null) {
+            registry.addInterceptor(this);
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        queryCounter.reset();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            DistributionSummary summary = summaries.get(handlerMethod.getMethod());
+            if (summary == null) {
+                summary = summaries.computeIfAbsent(handlerMethod.getMethod(), this::register);
+            }
+            summary.record(queryCounter.count());
+        }
+    }
+
+    private DistributionSummary register(Method method) {
+        return DistributionSummary.builder("satellite.http.queries")
+          .description("SQL statements issued per request")
+          .tag("handler", method.getName())
+          .publishPercentileHistogram()
+          .maximumExpectedValue(1000d)
+          .register(meterRegistry);
+    }
+}
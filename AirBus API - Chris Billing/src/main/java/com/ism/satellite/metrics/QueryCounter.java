@@ -0,0 +1,54 @@
+package com.ism.satellite.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hibernate statement inspector counting the SQL statements prepared on each thread, so a request can report how
+ * many queries it issued. Also feeds the application wide satellite.db.statements counter.
+ */
+@Component
+public class QueryCounter implements StatementInspector, HibernatePropertiesCustomizer {
+
+    // Mutable holder so counting a statement does not box a new value
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    private final Counter statements;
+
+    public QueryCounter(MeterRegistry meterRegistry) {
+        this.statements = Counter.builder("satellite.db.statements")
+          .description("SQL statements prepared by Hibernate")
+          .register(meterRegistry);
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        statements.increment();
+        return sql;
+    }
+
+    /**
+     * Starts counting from zero on the current thread.
+     */
+    public void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    /**
+     * Statements prepared on the current thread since the last reset.
+     */
+    public int count() {
+        return COUNT.get()[0];
+    }
+}
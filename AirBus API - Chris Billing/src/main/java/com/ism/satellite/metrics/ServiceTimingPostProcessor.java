@@ -0,0 +1,89 @@
+package com.ism.satellite.metrics;
+
+import com.ism.satellite.service.SatelliteService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every {@link SatelliteService} call into a satellite.service timer tagged with the method name and outcome.
+ * The timers for a method are registered on its first call and looked up by Method afterwards, so a call costs two
+ * nanoTime reads and a map lookup with no tag or string allocation.
+ */
+@Component
+public class ServiceTimingPostProcessor implements BeanPostProcessor {
+
+    static final String TIMER_NAME = "satellite.service";
+
+    // Resolved lazily, post processors are created before the registry
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public ServiceTimingPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof SatelliteService)) {
+            return bean;
+        }
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry == null) {
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setInterfaces(SatelliteService.class);
+        proxyFactory.addAdvice(new TimingInterceptor(registry));
+        return proxyFactory.getProxy();
+    }
+
+    static final class TimingInterceptor implements MethodInterceptor {
+
+        private final MeterRegistry registry;
+
+        // Success and error timers per method
+        private final ConcurrentHashMap<Method, Timer[]> timers = new ConcurrentHashMap<>();
+
+        TimingInterceptor(MeterRegistry registry) {
+            this.registry = registry;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Timer[] methodTimers = timers.get(invocation.getMethod());
+            if (methodTimers == null) {
+                methodTimers = timers.computeIfAbsent(invocation.getMethod(), this::register);
+            }
+            long started = System.nanoTime();
+            try {
+                Object result = invocation.proceed();
+                methodTimers[0].record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                return result;
+            } catch (Throwable ex) {
+                methodTimers[1].record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                throw ex;
+            }
+        }
+
+        private Timer[] register(Method method) {
+            return new Timer[] {timer(method, "success"), timer(method, "error")};
+        }
+
+        private Timer timer(Method method, String outcome) {
+            return Timer.builder(TIMER_NAME)
+              .description("Time spent in SatelliteService methods")
+              .tag("method", method.getName())
+              .tag("outcome", outcome)
+              .publishPercentileHistogram()
+              .register(registry);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.ism.satellite.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports whether requests, and the repository calls made on them, run on virtual threads. Spring Boot only honours
+ * spring.threads.virtual.enabled on Java 21 and later and silently keeps platform threads otherwise, so that case
+ * is logged as a warning.
+ */
+@Component
+public class ThreadingMetrics implements MeterBinder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ThreadingMetrics.class);
+
+    private final boolean virtual;
+
+    public ThreadingMetrics(Environment environment) {
+        this.virtual = Threading.VIRTUAL.isActive(environment);
+        boolean requested = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        if (requested && !virtual) {
+            LOGGER.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads, requests are "
+              + "served on platform threads", Runtime.version().feature());
+        } else {
+            LOGGER.info("Serving requests on {} threads", virtual ? "virtual" : "platform");
+        }
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("satellite.threads.virtual", this, metrics -> metrics.virtual ? 1 : 0)
+          .description("1 when requests are served on virtual threads, 0 on the platform thread pool")
+          .register(registry);
+    }
+}
@@ -0,0 +1,12 @@
+package com.ism.satellite.pass;
+
+/**
+ * Lifecycle of an asynchronous pass prediction job.
+ */
+public enum PassJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    CANCELLED,
+    FAILED
+}
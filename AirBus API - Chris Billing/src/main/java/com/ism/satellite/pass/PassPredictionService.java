@@ -0,0 +1,332 @@
+package com.ism.satellite.pass;
+
+import com.ism.satellite.exception.custom.BadRequestException;
+import com.ism.satellite.exception.custom.NotFoundException;
+import com.ism.satellite.exception.custom.ServiceUnavailableException;
+import com.ism.satellite.propagation.FleetElements;
+import com.ism.satellite.propagation.OrbitPropagator;
+import com.ism.satellite.request.PassPredictionRequest;
+import com.ism.satellite.response.PassPredictionJob;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs pass predictions as asynchronous jobs. At most maxConcurrentJobs run at once, each spreading its satellites
+ * over a shared ForkJoinPool, with a bounded queue behind them. Completed predictions are cached per station and
+ * window together with the orbit snapshot they were computed from, so a repeated request is answered at once until
+ * an orbit changes.
+ */
+@Component
+public class PassPredictionService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PassPredictionService.class);
+
+    private final PassProperties properties;
+
+    private final OrbitPropagator orbitPropagator;
+
+    private final ConcurrentHashMap<String, Job> jobs = new ConcurrentHashMap<>();
+
+    // Least recently used first, guarded by its own monitor
+    private final LinkedHashMap<Window, CachedPrediction> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    private ForkJoinPool pool;
+
+    private PassPredictor predictor;
+
+    private ThreadPoolExecutor runner;
+
+    public PassPredictionService(PassProperties properties, OrbitPropagator orbitPropagator) {
+        this.properties = properties;
+        this.orbitPropagator = orbitPropagator;
+    }
+
+    @PostConstruct
+    void start() {
+        int threads = properties.getThreads() > 0 ? properties.getThreads()
+          : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(threads);
+        predictor = new PassPredictor(pool);
+        AtomicInteger threadNumber = new AtomicInteger();
+        runner = new ThreadPoolExecutor(properties.getMaxConcurrentJobs(), properties.getMaxConcurrentJobs(), 0,
+          TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(Math.max(1, properties.getMaxQueuedJobs())), runnable -> {
+              Thread thread = new Thread(runnable, "pass-job-" + threadNumber.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+          });
+    }
+
+    @PreDestroy
+    void stop() {
+        runner.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    /**
+     * Queues a prediction, or answers it from the cache when the same station and window was predicted against the
+     * current orbits.
+     */
+    public PassPredictionJob submit(PassPredictionRequest request) {
+        Window window = window(request);
+        FleetElements fleet = orbitPropagator.fleet();
+        Job job = new Job(UUID.randomUUID().toString(), window, fleet);
+        CachedPrediction cached;
+        synchronized (cache) {
+            cached = cache.get(window);
+        }
+        if (cached != null && cached.fleet == fleet) {
+            job.complete(cached.result, true);
+            jobs.put(job.id, job);
+            return job.snapshot();
+        }
+        try {
+            job.future = runner.submit(() -> run(job));
+        } catch (RejectedExecutionException ex) {
+            throw new ServiceUnavailableException("Too many pass predictions queued, retry later");
+        }
+        jobs.put(job.id, job);
+        return job.snapshot();
+    }
+
+    public PassPredictionJob get(String jobId) {
+        return find(jobId).snapshot();
+    }
+
+    /**
+     * Cancels a queued or running job, a finished job is returned unchanged.
+     */
+    public PassPredictionJob cancel(String jobId) {
+        Job job = find(jobId);
+        synchronized (job) {
+            if (job.status == PassJobStatus.QUEUED || job.status == PassJobStatus.RUNNING) {
+                job.cancelled = true;
+                // A running job notices the flag between satellites, a queued one never starts
+                job.future.cancel(false);
+                job.finish(PassJobStatus.CANCELLED, null);
+            }
+        }
+        return job.snapshot();
+    }
+
+    // Finished jobs are kept for jobRetention so clients can collect them
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+    public void purgeFinishedJobs() {
+        Instant cutoff = Instant.now().minus(properties.getJobRetention());
+        jobs.values().removeIf(job -> job.completedAt != null && job.completedAt.isBefore(cutoff));
+    }
+
+    private void run(Job job) {
+        synchronized (job) {
+            if (job.cancelled) {
+                return;
+            }
+            job.status = PassJobStatus.RUNNING;
+            job.startNanos = System.nanoTime();
+        }
+        Window window = job.window;
+        try {
+            PassPredictor.Result result = predictor.predict(job.fleet, window.latitude, window.longitude,
+              window.altitudeKm, window.fromMillis, window.toMillis, window.minElevationDeg,
+              properties.getCoarseStep().toMillis(), properties.getMaxPassesPerJob(), job);
+            synchronized (cache) {
+                cache.put(window, new CachedPrediction(job.fleet, result));
+                if (cache.size() > properties.getCacheSize()) {
+                    cache.remove(cache.keySet().iterator().next());
+                }
+            }
+            job.complete(result, false);
+            LOGGER.info("Pass prediction {} found {} passes of {} satellites in {} ms", job.id, result.getTotal(),
+              job.fleet.size(), Math.round(job.durationMillis()));
+        } catch (CancellationException ex) {
+            job.finish(PassJobStatus.CANCELLED, null);
+        } catch (RuntimeException ex) {
+            LOGGER.error("Pass prediction {} failed: {}", job.id, ex.getMessage());
+            job.finish(PassJobStatus.FAILED, ex.getMessage());
+        }
+    }
+
+    private Job find(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            throw new NotFoundException(String.format("Pass prediction with id: %s not found", jobId));
+        }
+        return job;
+    }
+
+    private Window window(PassPredictionRequest request) {
+        if (request.getLatitude() == null || request.getLongitude() == null) {
+            throw new BadRequestException("Ground station latitude and longitude are required");
+        }
+        if (request.getLatitude() < -90 || request.getLatitude() > 90
+          || request.getLongitude() < -180 || request.getLongitude() > 180) {
+            throw new BadRequestException("Ground station latitude must be in [-90, 90] and longitude in [-180, 180]");
+        }
+        double minElevation = request.getMinElevationDeg() == null ? properties.getMinElevationDeg()
+          : request.getMinElevationDeg();
+        if (minElevation < -90 || minElevation >= 90) {
+            throw new BadRequestException("Minimum elevation must be in [-90, 90)");
+        }
+        double hours = request.getHours() == null ? 24 : request.getHours();
+        long windowMillis = Math.round(hours * 3_600_000);
+        if (windowMillis <= 0 || windowMillis > properties.getMaxWindow().toMillis()) {
+            throw new BadRequestException(String.format("Prediction window must be more than 0 and at most %s hours",
+              properties.getMaxWindow().toHours()));
+        }
+        long fromMillis;
+        if (request.getFrom() != null) {
+            fromMillis = request.getFrom().toEpochMilli();
+        } else {
+            long alignment = Math.max(1, properties.getWindowAlignment().toMillis());
+            fromMillis = System.currentTimeMillis() / alignment * alignment;
+        }
+        return new Window(request.getLatitude(), request.getLongitude(),
+          request.getAltitudeKm() == null ? 0 : request.getAltitudeKm(), fromMillis, fromMillis + windowMillis,
+          minElevation);
+    }
+
+    /**
+     * A station and prediction window, the cache key.
+     */
+    @Value
+    private static class Window {
+
+        double latitude;
+
+        double longitude;
+
+        double altitudeKm;
+
+        long fromMillis;
+
+        long toMillis;
+
+        double minElevationDeg;
+
+    }
+
+    /**
+     * A cached result and the orbit snapshot it holds for.
+     */
+    @Value
+    private static class CachedPrediction {
+
+        FleetElements fleet;
+
+        PassPredictor.Result result;
+
+    }
+
+    private static final class Job implements PassPredictor.Monitor {
+
+        private final String id;
+
+        private final Window window;
+
+        private final FleetElements fleet;
+
+        private final Instant submittedAt = Instant.now();
+
+        private final AtomicLong screened = new AtomicLong();
+
+        private volatile PassJobStatus status = PassJobStatus.QUEUED;
+
+        private volatile boolean cancelled;
+
+        private volatile boolean cached;
+
+        private volatile Future<?> future;
+
+        private volatile long startNanos;
+
+        private volatile long endNanos;
+
+        private volatile Instant completedAt;
+
+        private volatile PassPredictor.Result result;
+
+        private volatile String error;
+
+        Job(String id, Window window, FleetElements fleet) {
+            this.id = id;
+            this.window = window;
+            this.fleet = fleet;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void screened(int satellites) {
+            screened.addAndGet(satellites);
+        }
+
+        synchronized void complete(PassPredictor.Result result, boolean fromCache) {
+            if (status == PassJobStatus.CANCELLED) {
+                return;
+            }
+            this.result = result;
+            this.cached = fromCache;
+            screened.set(fleet.size());
+            finish(PassJobStatus.COMPLETED, null);
+        }
+
+        synchronized void finish(PassJobStatus finalStatus, String failure) {
+            if (completedAt != null) {
+                return;
+            }
+            endNanos = System.nanoTime();
+            completedAt = Instant.now();
+            error = failure;
+            status = finalStatus;
+        }
+
+        double durationMillis() {
+            return startNanos == 0 ? 0 : ((endNanos == 0 ? System.nanoTime() : endNanos) - startNanos) / 1e6;
+        }
+
+        PassPredictionJob snapshot() {
+            PassPredictor.Result completed = status == PassJobStatus.COMPLETED ? result : null;
+            return PassPredictionJob.builder()
+              .jobId(id)
+              .status(status)
+              .latitude(window.latitude)
+              .longitude(window.longitude)
+              .altitudeKm(window.altitudeKm)
+              .from(Instant.ofEpochMilli(window.fromMillis))
+              .to(Instant.ofEpochMilli(window.toMillis))
+              .minElevationDeg(window.minElevationDeg)
+              .satellites(fleet.size())
+              .satellitesScreened(screened.get())
+              .cached(cached)
+              .submittedAt(submittedAt)
+              .completedAt(completedAt)
+              .durationMillis(durationMillis())
+              .passCount(completed == null ? 0 : completed.getTotal())
+              .truncated(completed != null && completed.getTotal() > completed.getPasses().size())
+              .passes(completed == null ? List.of() : completed.getPasses())
+              .error(error)
+              .build();
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package com.ism.satellite.pass;
+
+import com.ism.satellite.propagation.FleetElements;
+import com.ism.satellite.propagation.OrbitMath;
+import com.ism.satellite.response.SatellitePass;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import lombok.Value;
+
+/**
+ * Predicts when satellites are above a ground station's elevation mask. Each satellite's elevation is first sampled
+ * on a coarse grid; a sign change between two samples brackets a rise or set, which is then refined by bisection,
+ * and the peak of each pass is found by golden-section search. A pass short enough to fall between two samples
+ * shows up as a local maximum of the samples just below the mask and is refined the same way. Satellites are
+ * predicted in parallel on a ForkJoinPool, each task sharing the sidereal angles of the grid.
+ */
+public class PassPredictor {
+
+    // Below this many satellites a range is predicted on the current thread
+    static final int SPLIT_THRESHOLD = 64;
+
+    // Sampled local maxima within this of the mask are searched for a pass peaking between samples
+    static final double GRAZING_MARGIN_DEG = 10;
+
+    // Rises and sets are refined to this
+    private static final long ROOT_TOLERANCE_MILLIS = 100;
+
+    private static final long PEAK_TOLERANCE_MILLIS = 500;
+
+    private static final double INVERSE_GOLDEN_RATIO = (Math.sqrt(5) - 1) / 2;
+
+    private static final Comparator<SatellitePass> LATEST_FIRST =
+      Comparator.comparing(SatellitePass::getRise).thenComparing(SatellitePass::getSatelliteId).reversed();
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Outcome of a prediction, the earliest passes by rise time and the number of passes found in total.
+     */
+    @Value
+    public static class Result {
+
+        List<SatellitePass> passes;
+
+        long total;
+
+    }
+
+    /**
+     * Observes a running prediction. Checked once per satellite, so cancellation takes effect within a task.
+     */
+    public interface Monitor {
+
+        boolean isCancelled();
+
+        void screened(int satellites);
+
+    }
+
+    public PassPredictor(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Predicts the passes of every satellite in the fleet over [fromMillis, toMillis], returning at most maxPasses of
+     * the earliest. Throws CancellationException once the monitor reports the prediction cancelled.
+     */
+    public Result predict(FleetElements fleet, double latitude, double longitude, double altitudeKm, long fromMillis,
+                          long toMillis, double minElevationDeg, long stepMillis, int maxPasses, Monitor monitor) {
+        Station station = new Station(latitude, longitude, altitudeKm, minElevationDeg);
+        Grid grid = Grid.build(fromMillis, toMillis, stepMillis);
+        Found found = pool.invoke(new PredictRange(fleet, station, grid, maxPasses, monitor, 0, fleet.size()));
+        List<SatellitePass> passes = new ArrayList<>(found.earliest);
+        passes.sort(LATEST_FIRST.reversed());
+        return new Result(passes, found.total);
+    }
+
+    /**
+     * Elevation in degrees of the satellite at index above the station's horizon.
+     */
+    static double elevation(FleetElements fleet, int index, Station station, long atMillis, double cosTheta,
+                            double sinTheta, double[] scratch) {
+        fleet.earthFixedPosition(index, atMillis, cosTheta, sinTheta, scratch);
+        double dx = scratch[0] - station.x;
+        double dy = scratch[1] - station.y;
+        double dz = scratch[2] - station.z;
+        double range = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        double up = (dx * station.upX + dy * station.upY + dz * station.upZ) / range;
+        return Math.toDegrees(Math.asin(Math.max(-1, Math.min(1, up))));
+    }
+
+    /**
+     * A ground station in Earth-fixed coordinates with its local vertical, on the same spherical Earth as the
+     * propagation.
+     */
+    static final class Station {
+
+        final double x;
+
+        final double y;
+
+        final double z;
+
+        final double upX;
+
+        final double upY;
+
+        final double upZ;
+
+        final double minElevationDeg;
+
+        Station(double latitude, double longitude, double altitudeKm, double minElevationDeg) {
+            double[] position = new double[3];
+            OrbitMath.earthFixed(altitudeKm, latitude, longitude, position);
+            double radius = OrbitMath.EARTH_RADIUS_KM + altitudeKm;
+            x = position[0];
+            y = position[1];
+            z = position[2];
+            upX = x / radius;
+            upY = y / radius;
+            upZ = z / radius;
+            this.minElevationDeg = minElevationDeg;
+        }
+    }
+
+    /**
+     * Sample times of the coarse screening, the last one being the window end, with their sidereal angles.
+     */
+    private static final class Grid {
+
+        private final long[] times;
+
+        private final double[] cosTheta;
+
+        private final double[] sinTheta;
+
+        private Grid(long[] times) {
+            this.times = times;
+            this.cosTheta = new double[times.length];
+            this.sinTheta = new double[times.length];
+            for (int k = 0; k < times.length; k++) {
+                double theta = OrbitMath.greenwichSiderealTime(times[k]);
+                cosTheta[k] = Math.cos(theta);
+                sinTheta[k] = Math.sin(theta);
+            }
+        }
+
+        static Grid build(long fromMillis, long toMillis, long stepMillis) {
+            int samples = (int) ((toMillis - fromMillis + stepMillis - 1) / stepMillis) + 1;
+            long[] times = new long[samples];
+            for (int k = 0; k < samples; k++) {
+                times[k] = Math.min(toMillis, fromMillis + k * stepMillis);
+            }
+            return new Grid(times);
+        }
+    }
+
+    /**
+     * Passes found by a task: a bounded max-heap of the earliest by rise time and the total count.
+     */
+    private static final class Found {
+
+        private final PriorityQueue<SatellitePass> earliest = new PriorityQueue<>(LATEST_FIRST);
+
+        private final int limit;
+
+        private long total;
+
+        Found(int limit) {
+            this.limit = limit;
+        }
+
+        void add(SatellitePass pass) {
+            total++;
+            if (earliest.size() < limit) {
+                earliest.add(pass);
+            } else if (limit > 0 && LATEST_FIRST.compare(pass, earliest.peek()) > 0) {
+                earliest.poll();
+                earliest.add(pass);
+            }
+        }
+
+        Found merge(Found other) {
+            Found larger = earliest.size() >= other.earliest.size() ? this : other;
+            Found smaller = larger == this ? other : this;
+            long combined = total + other.total;
+            smaller.earliest.forEach(larger::add);
+            larger.total = combined;
+            return larger;
+        }
+    }
+
+    private static final class PredictRange extends RecursiveTask<Found> {
+
+        private final FleetElements fleet;
+
+        private final Station station;
+
+        private final Grid grid;
+
+        private final int maxPasses;
+
+        private final Monitor monitor;
+
+        private final int from;
+
+        private final int to;
+
+        private final double[] scratch = new double[3];
+
+        PredictRange(FleetElements fleet, Station station, Grid grid, int maxPasses, Monitor monitor, int from,
+                     int to) {
+            this.fleet = fleet;
+            this.station = station;
+            this.grid = grid;
+            this.maxPasses = maxPasses;
+            this.monitor = monitor;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Found compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                PredictRange right = new PredictRange(fleet, station, grid, maxPasses, monitor, middle, to);
+                right.fork();
+                Found left = new PredictRange(fleet, station, grid, maxPasses, monitor, from, middle).compute();
+                return left.merge(right.join());
+            }
+            Found found = new Found(maxPasses);
+            // Elevations above the mask of the current satellite at each grid time
+            double[] samples = new double[grid.times.length];
+            for (int index = from; index < to; index++) {
+                if (monitor.isCancelled()) {
+                    throw new CancellationException("Pass prediction cancelled");
+                }
+                predict(index, samples, found);
+            }
+            monitor.screened(to - from);
+            return found;
+        }
+
+        private void predict(int index, double[] samples, Found found) {
+            long[] times = grid.times;
+            int last = times.length - 1;
+            for (int k = 0; k <= last; k++) {
+                samples[k] = elevation(fleet, index, station, times[k], grid.cosTheta[k], grid.sinTheta[k], scratch)
+                  - station.minElevationDeg;
+            }
+            long rise = samples[0] >= 0 ? times[0] : -1;
+            for (int k = 1; k <= last; k++) {
+                if (rise < 0 && samples[k] >= 0) {
+                    rise = crossing(index, times[k - 1], times[k], true);
+                } else if (rise >= 0 && samples[k] < 0) {
+                    add(index, rise, crossing(index, times[k - 1], times[k], false), -1, found);
+                    rise = -1;
+                } else if (rise < 0 && k < last && samples[k] > -GRAZING_MARGIN_DEG
+                  && samples[k] >= samples[k - 1] && samples[k] >= samples[k + 1]) {
+                    long peak = peak(index, times[k - 1], times[k + 1]);
+                    if (aboveMask(index, peak) >= 0) {
+                        add(index, crossing(index, times[k - 1], peak, true), crossing(index, peak, times[k + 1], false),
+                          peak, found);
+                    }
+                }
+            }
+            if (rise >= 0) {
+                add(index, rise, times[last], -1, found);
+            }
+        }
+
+        private void add(int index, long rise, long set, long knownPeak, Found found) {
+            long peak = knownPeak >= 0 ? knownPeak : peak(index, rise, set);
+            found.add(new SatellitePass(fleet.satelliteId(index), Instant.ofEpochMilli(rise), Instant.ofEpochMilli(peak),
+              aboveMask(index, peak) + station.minElevationDeg, Instant.ofEpochMilli(set)));
+        }
+
+        // Bisects a crossing of the mask bracketed by start and end, returning the side of it that is above the mask
+        private long crossing(int index, long start, long end, boolean rising) {
+            long lo = start;
+            long hi = end;
+            while (hi - lo > ROOT_TOLERANCE_MILLIS) {
+                long middle = (lo + hi) >>> 1;
+                if ((aboveMask(index, middle) >= 0) == rising) {
+                    hi = middle;
+                } else {
+                    lo = middle;
+                }
+            }
+            return rising ? hi : lo;
+        }
+
+        // Golden-section search for the highest elevation, a single pass is unimodal in elevation
+        private long peak(int index, long start, long end) {
+            double a = start;
+            double b = end;
+            double c = b - INVERSE_GOLDEN_RATIO * (b - a);
+            double d = a + INVERSE_GOLDEN_RATIO * (b - a);
+            double fc = aboveMask(index, (long) c);
+            double fd = aboveMask(index, (long) d);
+            while (b - a > PEAK_TOLERANCE_MILLIS) {
+                if (fc > fd) {
+                    b = d;
+                    d = c;
+                    fd = fc;
+                    c = b - INVERSE_GOLDEN_RATIO * (b - a);
+                    fc = aboveMask(index, (long) c);
+                } else {
+                    a = c;
+                    c = d;
+                    fc = fd;
+                    d = a + INVERSE_GOLDEN_RATIO * (b - a);
+                    fd = aboveMask(index, (long) d);
+                }
+            }
+            return Math.round((a + b) / 2);
+        }
+
+        private double aboveMask(int index, long atMillis) {
+            double theta = OrbitMath.greenwichSiderealTime(atMillis);
+            return elevation(fleet, index, station, atMillis, Math.cos(theta), Math.sin(theta), scratch)
+              - station.minElevationDeg;
+        }
+    }
+}
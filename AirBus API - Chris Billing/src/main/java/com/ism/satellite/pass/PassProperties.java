@@ -0,0 +1,46 @@
+package com.ism.satellite.pass;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings for ground station pass prediction, bound from satellite.pass.*.
+ */
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "satellite.pass")
+public class PassProperties {
+
+    // Sampling interval of the coarse screening, rises and sets in between are found by root finding
+    private Duration coarseStep = Duration.ofSeconds(60);
+
+    // Elevation mask used when a request does not give one
+    private double minElevationDeg = 10.0;
+
+    // Longest prediction window a request may ask for
+    private Duration maxWindow = Duration.ofHours(48);
+
+    // Windows without an explicit start begin at the current time rounded down to this, so they share the cache
+    private Duration windowAlignment = Duration.ofMinutes(10);
+
+    // Threads propagating satellites within a job, 0 uses one per available processor
+    private int threads = 0;
+
+    private int maxConcurrentJobs = 2;
+
+    // Jobs waiting for a free slot, further submissions are rejected
+    private int maxQueuedJobs = 64;
+
+    private int maxPassesPerJob = 100_000;
+
+    // Completed predictions cached per station and window, dropped once orbits change
+    private int cacheSize = 64;
+
+    // How long finished jobs can still be fetched
+    private Duration jobRetention = Duration.ofHours(1);
+
+}
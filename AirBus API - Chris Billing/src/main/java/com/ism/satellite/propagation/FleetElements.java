@@ -0,0 +1,126 @@
+package com.ism.satellite.propagation;
+
+import com.ism.satellite.domain.OrbitalElements;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Immutable struct-of-arrays snapshot of the orbital elements of every propagatable satellite, sorted by id.
+ * Everything that does not depend on time (mean motion, perifocal to inertial rotation) is precomputed so the
+ * per-satellite propagation step is a Kepler solve and a handful of multiplications.
+ */
+public final class FleetElements {
+
+    static final FleetElements EMPTY = new FleetElements(0);
+
+    final long[] satelliteIds;
+
+    final long[] epochMillis;
+
+    final double[] meanAnomaly;
+
+    final double[] meanMotion;
+
+    final double[] semiMajorAxis;
+
+    final double[] eccentricity;
+
+    // a * sqrt(1 - e^2), the semi-minor axis
+    final double[] semiMinorAxis;
+
+    // Unit vectors of the perifocal frame (towards perigee, and 90 degrees ahead of it) in inertial coordinates
+    final double[] px;
+
+    final double[] py;
+
+    final double[] pz;
+
+    final double[] qx;
+
+    final double[] qy;
+
+    final double[] qz;
+
+    private FleetElements(int size) {
+        satelliteIds = new long[size];
+        epochMillis = new long[size];
+        meanAnomaly = new double[size];
+        meanMotion = new double[size];
+        semiMajorAxis = new double[size];
+        eccentricity = new double[size];
+        semiMinorAxis = new double[size];
+        px = new double[size];
+        py = new double[size];
+        pz = new double[size];
+        qx = new double[size];
+        qy = new double[size];
+        qz = new double[size];
+    }
+
+    /**
+     * Builds a snapshot from validated elements keyed by satellite id.
+     */
+    public static FleetElements of(Map<Long, OrbitalElements> elementsById) {
+        long[] ids = elementsById.keySet().stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(ids);
+        FleetElements fleet = new FleetElements(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            fleet.set(i, ids[i], elementsById.get(ids[i]));
+        }
+        return fleet;
+    }
+
+    public int size() {
+        return satelliteIds.length;
+    }
+
+    public long satelliteId(int index) {
+        return satelliteIds[index];
+    }
+
+    /**
+     * Writes the Earth-fixed (ECEF) position in km of the satellite at index into out[0..2], given the cosine and
+     * sine of the Greenwich sidereal angle at the same instant.
+     */
+    public void earthFixedPosition(int index, long atMillis, double cosTheta, double sinTheta, double[] out) {
+        double elapsedSeconds = (atMillis - epochMillis[index]) / 1000d;
+        double anomaly = OrbitMath.wrapAngle(meanAnomaly[index] + meanMotion[index] * elapsedSeconds);
+        double eccentric = OrbitMath.eccentricAnomaly(anomaly, eccentricity[index]);
+        double perifocalX = semiMajorAxis[index] * (Math.cos(eccentric) - eccentricity[index]);
+        double perifocalY = semiMinorAxis[index] * Math.sin(eccentric);
+        double x = perifocalX * px[index] + perifocalY * qx[index];
+        double y = perifocalX * py[index] + perifocalY * qy[index];
+        out[0] = cosTheta * x + sinTheta * y;
+        out[1] = cosTheta * y - sinTheta * x;
+        out[2] = perifocalX * pz[index] + perifocalY * qz[index];
+    }
+
+    private void set(int index, long satelliteId, OrbitalElements elements) {
+        double a = elements.getSemiMajorAxisKm();
+        double e = elements.getEccentricity();
+        double inclination = Math.toRadians(elements.getInclinationDeg());
+        double raan = Math.toRadians(elements.getRaanDeg());
+        double perigee = Math.toRadians(elements.getArgumentOfPerigeeDeg());
+        double cosRaan = Math.cos(raan);
+        double sinRaan = Math.sin(raan);
+        double cosPerigee = Math.cos(perigee);
+        double sinPerigee = Math.sin(perigee);
+        double cosInclination = Math.cos(inclination);
+        double sinInclination = Math.sin(inclination);
+
+        satelliteIds[index] = satelliteId;
+        epochMillis[index] = elements.getEpoch().toInstant(ZoneOffset.UTC).toEpochMilli();
+        meanAnomaly[index] = Math.toRadians(elements.getMeanAnomalyDeg());
+        meanMotion[index] = OrbitMath.meanMotion(a);
+        semiMajorAxis[index] = a;
+        eccentricity[index] = e;
+        semiMinorAxis[index] = a * Math.sqrt(1 - e * e);
+        px[index] = cosRaan * cosPerigee - sinRaan * sinPerigee * cosInclination;
+        py[index] = sinRaan * cosPerigee + cosRaan * sinPerigee * cosInclination;
+        pz[index] = sinPerigee * sinInclination;
+        qx[index] = -cosRaan * sinPerigee - sinRaan * cosPerigee * cosInclination;
+        qy[index] = -sinRaan * sinPerigee + cosRaan * cosPerigee * cosInclination;
+        qz[index] = cosPerigee * sinInclination;
+    }
+}
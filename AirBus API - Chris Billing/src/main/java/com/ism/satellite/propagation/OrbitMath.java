@@ -0,0 +1,97 @@
+package com.ism.satellite.propagation;
+
+import com.ism.satellite.domain.OrbitalElements;
+
+/**
+ * Two-body orbital mechanics helpers shared by the propagation, screening and pass prediction code.
+ * Uses a spherical Earth, which is well within the accuracy of unperturbed Keplerian propagation.
+ */
+public final class OrbitMath {
+
+    // Earth's gravitational parameter, km^3/s^2
+    public static final double MU = 398_600.4418;
+
+    public static final double EARTH_RADIUS_KM = 6371.0;
+
+    public static final double TWO_PI = 2 * Math.PI;
+
+    // Unix epoch as a Julian date, and J2000.0
+    private static final double JD_UNIX_EPOCH = 2_440_587.5;
+
+    private static final double JD_J2000 = 2_451_545.0;
+
+    private OrbitMath() {
+    }
+
+    /**
+     * Mean motion in radians per second for a semi-major axis in km.
+     */
+    public static double meanMotion(double semiMajorAxisKm) {
+        return Math.sqrt(MU / (semiMajorAxisKm * semiMajorAxisKm * semiMajorAxisKm));
+    }
+
+    /**
+     * Solves Kepler's equation M = E - e sin E for the eccentric anomaly with Newton iterations.
+     */
+    public static double eccentricAnomaly(double meanAnomaly, double eccentricity) {
+        double anomaly = meanAnomaly;
+        double eccentric = eccentricity < 0.8 ? anomaly : Math.PI;
+        for (int i = 0; i < 12; i++) {
+            double delta = (eccentric - eccentricity * Math.sin(eccentric) - anomaly)
+              / (1 - eccentricity * Math.cos(eccentric));
+            eccentric -= delta;
+            if (Math.abs(delta) < 1e-12) {
+                break;
+            }
+        }
+        return eccentric;
+    }
+
+    /**
+     * Wraps an angle into [-pi, pi).
+     */
+    public static double wrapAngle(double radians) {
+        return radians - TWO_PI * Math.floor((radians + Math.PI) / TWO_PI);
+    }
+
+    /**
+     * Greenwich mean sidereal time in radians at the given instant.
+     */
+    public static double greenwichSiderealTime(long epochMillis) {
+        double daysSinceJ2000 = epochMillis / 86_400_000d + JD_UNIX_EPOCH - JD_J2000;
+        return wrapAngle(Math.toRadians(280.46061837 + 360.98564736629 * daysSinceJ2000));
+    }
+
+    /**
+     * Earth-fixed Cartesian coordinates in km of a point at the given altitude (km), latitude and longitude
+     * (degrees), written into out[0..2].
+     */
+    public static void earthFixed(double altitude, double latitude, double longitude, double[] out) {
+        double radius = EARTH_RADIUS_KM + altitude;
+        double phi = Math.toRadians(latitude);
+        double lambda = Math.toRadians(longitude);
+        double equatorial = radius * Math.cos(phi);
+        out[0] = equatorial * Math.cos(lambda);
+        out[1] = equatorial * Math.sin(lambda);
+        out[2] = radius * Math.sin(phi);
+    }
+
+    /**
+     * Returns a reason the elements cannot be propagated, or null when they are usable.
+     */
+    public static String validate(OrbitalElements elements) {
+        if (elements.getSemiMajorAxisKm() == null || elements.getEccentricity() == null
+          || elements.getInclinationDeg() == null || elements.getRaanDeg() == null
+          || elements.getArgumentOfPerigeeDeg() == null || elements.getMeanAnomalyDeg() == null
+          || elements.getEpoch() == null) {
+            return "Orbital elements missing required parameters";
+        }
+        if (elements.getEccentricity() < 0 || elements.getEccentricity() >= 1) {
+            return "Orbital eccentricity must be in [0, 1)";
+        }
+        if (elements.getSemiMajorAxisKm() * (1 - elements.getEccentricity()) <= EARTH_RADIUS_KM) {
+            return "Orbit perigee must be above the Earth's surface";
+        }
+        return null;
+    }
+}
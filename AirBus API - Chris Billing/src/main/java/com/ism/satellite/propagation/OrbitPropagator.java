@@ -0,0 +1,176 @@
+package com.ism.satellite.propagation;
+
+import com.ism.satellite.domain.OrbitalElements;
+import com.ism.satellite.response.FleetPositions;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.stereotype.Component;
+
+/**
+ * Computes the position of every satellite with orbital elements at an arbitrary instant. Elements are kept in a
+ * {@link FleetElements} snapshot that is rebuilt lazily after changes, and propagation is split across cores with
+ * fork-join over index ranges writing straight into the result's primitive arrays.
+ */
+@Component
+public class OrbitPropagator {
+
+    // Below this many satellites a range is propagated on the current thread
+    static final int SPLIT_THRESHOLD = 2048;
+
+    private final ConcurrentHashMap<Long, OrbitalElements> elementsById = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private final ForkJoinPool pool;
+
+    private volatile FleetElements fleet = FleetElements.EMPTY;
+
+    public OrbitPropagator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public OrbitPropagator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Registers or replaces the elements of a satellite, satellites without usable elements are removed.
+     */
+    public void register(long satelliteId, OrbitalElements elements) {
+        if (elements == null || OrbitMath.validate(elements) != null) {
+            remove(satelliteId);
+            return;
+        }
+        // Copied so later changes to the entity do not leak into the snapshot without a register call
+        OrbitalElements copy = new OrbitalElements();
+        copy.setSemiMajorAxisKm(elements.getSemiMajorAxisKm());
+        copy.setEccentricity(elements.getEccentricity());
+        copy.setInclinationDeg(elements.getInclinationDeg());
+        copy.setRaanDeg(elements.getRaanDeg());
+        copy.setArgumentOfPerigeeDeg(elements.getArgumentOfPerigeeDeg());
+        copy.setMeanAnomalyDeg(elements.getMeanAnomalyDeg());
+        copy.setEpoch(elements.getEpoch());
+        elementsById.put(satelliteId, copy);
+        dirty.set(true);
+    }
+
+    public void remove(long satelliteId) {
+        if (elementsById.remove(satelliteId) != null) {
+            dirty.set(true);
+        }
+    }
+
+    /**
+     * Returns the current snapshot, rebuilding it first if elements changed since it was taken.
+     */
+    public FleetElements fleet() {
+        if (dirty.get()) {
+            rebuildLock.lock();
+            try {
+                if (dirty.getAndSet(false)) {
+                    fleet = FleetElements.of(elementsById);
+                }
+            } finally {
+                rebuildLock.unlock();
+            }
+        }
+        return fleet;
+    }
+
+    public FleetPositions propagate(Instant at) {
+        FleetElements elements = fleet();
+        int size = elements.size();
+        double[] altitudes = new double[size];
+        double[] latitudes = new double[size];
+        double[] longitudes = new double[size];
+        long atMillis = at.toEpochMilli();
+        pool.invoke(new PropagateRange(elements, atMillis, OrbitMath.greenwichSiderealTime(atMillis), 0, size,
+          altitudes, latitudes, longitudes));
+        return new FleetPositions(at, elements.satelliteIds.clone(), altitudes, latitudes, longitudes);
+    }
+
+    /**
+     * Propagates a single validated orbit to an instant, writing altitude, latitude and longitude into out[0..2].
+     */
+    public static void propagate(OrbitalElements elements, long atMillis, double[] out) {
+        FleetElements single = FleetElements.of(Map.of(0L, elements));
+        double[] altitude = new double[1];
+        double[] latitude = new double[1];
+        double[] longitude = new double[1];
+        propagateRange(single, atMillis, OrbitMath.greenwichSiderealTime(atMillis), 0, 1, altitude, latitude,
+          longitude);
+        out[0] = altitude[0];
+        out[1] = latitude[0];
+        out[2] = longitude[0];
+    }
+
+    /**
+     * Propagates satellites [from, to) of the fleet into geodetic altitude (km), latitude and longitude (degrees).
+     */
+    static void propagateRange(FleetElements fleet, long atMillis, double siderealTime, int from, int to,
+                               double[] altitudes, double[] latitudes, double[] longitudes) {
+        double cosTheta = Math.cos(siderealTime);
+        double sinTheta = Math.sin(siderealTime);
+        double[] position = new double[3];
+        for (int i = from; i < to; i++) {
+            fleet.earthFixedPosition(i, atMillis, cosTheta, sinTheta, position);
+            double x = position[0];
+            double y = position[1];
+            double z = position[2];
+            double equatorial = Math.sqrt(x * x + y * y);
+            altitudes[i] = Math.sqrt(equatorial * equatorial + z * z) - OrbitMath.EARTH_RADIUS_KM;
+            latitudes[i] = Math.toDegrees(Math.atan2(z, equatorial));
+            longitudes[i] = Math.toDegrees(Math.atan2(y, x));
+        }
+    }
+
+    private static final class PropagateRange extends RecursiveAction {
+
+        private final FleetElements fleet;
+
+        private final long atMillis;
+
+        private final double siderealTime;
+
+        private final int from;
+
+        private final int to;
+
+        private final double[] altitudes;
+
+        private final double[] latitudes;
+
+        private final double[] longitudes;
+
+        PropagateRange(FleetElements fleet, long atMillis, double siderealTime, int from, int to,
+                       double[] altitudes, double[] latitudes, double[] longitudes) {
+            this.fleet = fleet;
+            this.atMillis = atMillis;
+            this.siderealTime = siderealTime;
+            this.from = from;
+            this.to = to;
+            this.altitudes = altitudes;
+            this.latitudes = latitudes;
+            this.longitudes = longitudes;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                propagateRange(fleet, atMillis, siderealTime, from, to, altitudes, latitudes, longitudes);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(
+              new PropagateRange(fleet, atMillis, siderealTime, from, middle, altitudes, latitudes, longitudes),
+              new PropagateRange(fleet, atMillis, siderealTime, middle, to, altitudes, latitudes, longitudes));
+        }
+    }
+}
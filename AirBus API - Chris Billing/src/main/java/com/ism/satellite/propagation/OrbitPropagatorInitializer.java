@@ -0,0 +1,35 @@
+package com.ism.satellite.propagation;
+
+import com.ism.satellite.repository.SatelliteElementsView;
+import com.ism.satellite.repository.SatelliteRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads the orbital elements of every satellite into the OrbitPropagator once the application has started.
+ */
+@Component
+public class OrbitPropagatorInitializer implements ApplicationRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OrbitPropagatorInitializer.class);
+
+    private final SatelliteRepository repository;
+
+    private final OrbitPropagator orbitPropagator;
+
+    public OrbitPropagatorInitializer(SatelliteRepository repository, OrbitPropagator orbitPropagator) {
+        this.repository = repository;
+        this.orbitPropagator = orbitPropagator;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        for (SatelliteElementsView view : repository.findAllElements()) {
+            orbitPropagator.register(view.getId(), view.getElements());
+        }
+        LOGGER.info("Loaded orbital elements for {} satellites", orbitPropagator.fleet().size());
+    }
+}
@@ -0,0 +1,7 @@
+package com.ism.satellite.repository;
+
+import com.ism.satellite.domain.CatalogImport;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface CatalogImportRepository extends JpaRepository<CatalogImport, String> {
+}
@@ -0,0 +1,13 @@
+package com.ism.satellite.repository;
+
+import com.ism.satellite.domain.OrbitalElements;
+
+/**
+ * Projection of a satellite's id and orbital elements, used to load the propagator without the parameters join.
+ */
+public interface SatelliteElementsView {
+
+    Long getId();
+
+    OrbitalElements getElements();
+}
@@ -0,0 +1,13 @@
+package com.ism.satellite.repository;
+
+import com.ism.satellite.domain.OrbitType;
+
+/**
+ * Projection of a satellite's id and orbit type, used to route live position updates by orbit.
+ */
+public interface SatelliteOrbitView {
+
+    Long getId();
+
+    OrbitType getOrbit();
+}
@@ -1,7 +1,31 @@
 package com.ism.satellite.repository;
 
 import com.ism.satellite.domain.SatelliteParameters;
+import com.ism.satellite.response.SatellitePosition;
+import jakarta.persistence.QueryHint;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 public interface SatelliteParametersRepository extends JpaRepository<SatelliteParameters, Long> {
+
+    /**
+     * Current position of one satellite as a flat projection, a single query without loading the entities.
+     */
+    @Query("select new com.ism.satellite.response.SatellitePosition(s.id, p.id, p.altitude, p.latitude, p.longitude) "
+      + "from Satellite s join s.parameters p where s.id = :satelliteId")
+    Optional<SatellitePosition> findPositionBySatelliteId(@Param("satelliteId") Long satelliteId);
+
+    /**
+     * Streams the current position of every satellite as a flat projection, used to warm and verify the
+     * PositionStore. Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.ism.satellite.response.SatellitePosition(s.id, p.id, p.altitude, p.latitude, p.longitude) "
+      + "from Satellite s join s.parameters p")
+    Stream<SatellitePosition> streamAllPositions();
 }
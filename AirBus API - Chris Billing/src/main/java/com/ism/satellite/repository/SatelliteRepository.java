@@ -1,7 +1,81 @@
 package com.ism.satellite.repository;
 
 import com.ism.satellite.domain.Satellite;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface SatelliteRepository extends JpaRepository<Satellite, Long> {
+public interface SatelliteRepository extends JpaRepository<Satellite, Long>, SatelliteSearchRepository {
+
+    /**
+     * Every satellite with its parameters, fetch joined so the listing is a single query rather than one per row.
+     */
+    @Query("select s from Satellite s join fetch s.parameters order by s.id")
+    List<Satellite> findAllWithParameters();
+
+    /**
+     * Versions of one satellite and its parameters.
+     */
+    @Query("select s.id as id, s.version as version, p.version as parametersVersion "
+      + "from Satellite s join s.parameters p where s.id = :id")
+    Optional<SatelliteVersionView> findVersionsById(@Param("id") Long id);
+
+    /**
+     * Versions of every satellite and its parameters, in the same order as findAllWithParameters.
+     */
+    @Query("select s.id as id, s.version as version, p.version as parametersVersion "
+      + "from Satellite s join s.parameters p order by s.id")
+    List<SatelliteVersionView> findAllVersions();
+
+    /**
+     * Existence check that selects the id with a row limit instead of counting. Answered from the query cache
+     * until the satellite table is next written.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    boolean existsSatelliteById(Long id);
+
+    /**
+     * Keyset page of satellites ordered by id, starting after the given cursor.
+     * Parameters are fetch joined so a page is loaded with a single query.
+     */
+    @Query("select s from Satellite s join fetch s.parameters where s.id > :afterId order by s.id")
+    List<Satellite> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Loads the given satellites together with their parameters in one query.
+     */
+    @Query("select s from Satellite s join fetch s.parameters where s.id in :ids")
+    List<Satellite> findAllWithParametersByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Orbit type of every satellite.
+     */
+    @Query("select s.id as id, s.orbit as orbit from Satellite s")
+    List<SatelliteOrbitView> findAllOrbits();
+
+    /**
+     * Orbital elements of every satellite that has them.
+     */
+    @Query("select s.id as id, s.elements as elements from Satellite s where s.elements.semiMajorAxisKm is not null")
+    List<SatelliteElementsView> findAllElements();
+
+    /**
+     * Streams every satellite ordered by id. Must be consumed inside a transaction and closed afterwards.
+     * Bypasses the second-level cache, so a full scan does not evict the entries that are read repeatedly.
+     */
+    @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+      @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+      @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("select s from Satellite s join fetch s.parameters order by s.id")
+    Stream<Satellite> streamAll();
 }
@@ -0,0 +1,170 @@
+package com.ism.satellite.repository;
+
+import com.ism.satellite.domain.Satellite;
+import com.ism.satellite.request.SatelliteSearch;
+import com.ism.satellite.request.SatelliteSearch.SortField;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import lombok.Getter;
+
+/**
+ * SQL selecting the ids of one page of a catalog search, with its positional parameters.
+ *
+ * <p>Pages are seeked by keyset: rows are ordered by the sort column then id, and the cursor holds both values of
+ * the last row returned, so every page is a range scan of the sort column's index however deep it is. Orders are
+ * ascending only, as H2 cannot walk an index backwards and would sort every match instead. A name prefix becomes
+ * a range on the name index. When the orbit is fixed the id order is expressed as orbit then id, so the orbit
+ * index serves both the filter and the order.
+ */
+@Getter
+public final class SatelliteSearchQuery {
+
+    private final String sql;
+
+    private final List<Object> parameters;
+
+    private SatelliteSearchQuery(String sql, List<Object> parameters) {
+        this.sql = sql;
+        this.parameters = parameters;
+    }
+
+    /**
+     * Builds the query for a search, throwing IllegalArgumentException when its cursor is malformed or was issued
+     * for another order.
+     */
+    public static SatelliteSearchQuery of(SatelliteSearch search) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> parameters = new ArrayList<>();
+        if (search.getOrbit() != null) {
+            conditions.add("s.orbit = ?");
+            parameters.add(search.getOrbit().name());
+        }
+        if (search.getName() != null && !search.getName().isEmpty()) {
+            String name = search.getName();
+            if (search.getNameMatch() == SatelliteSearch.NameMatch.CONTAINS) {
+                conditions.add("s.name like ? escape '\\'");
+                parameters.add("%" + escapeLike(name) + "%");
+            } else {
+                conditions.add("s.name >= ?");
+                parameters.add(name);
+                char last = name.charAt(name.length() - 1);
+                if (last != Character.MAX_VALUE) {
+                    // Every name starting with the prefix sorts below the prefix with its last character bumped
+                    conditions.add("s.name < ?");
+                    parameters.add(name.substring(0, name.length() - 1) + (char) (last + 1));
+                } else {
+                    conditions.add("s.name like ? escape '\\'");
+                    parameters.add(escapeLike(name) + "%");
+                }
+            }
+        }
+        if (search.getLaunchedFrom() != null) {
+            conditions.add("s.launch_date >= ?");
+            parameters.add(search.getLaunchedFrom());
+        }
+        if (search.getLaunchedTo() != null) {
+            conditions.add("s.launch_date < ?");
+            parameters.add(search.getLaunchedTo());
+        }
+        boolean altitude = search.getMinAltitude() != null || search.getMaxAltitude() != null;
+        if (search.getMinAltitude() != null) {
+            conditions.add("p.altitude >= ?");
+            parameters.add(search.getMinAltitude());
+        }
+        if (search.getMaxAltitude() != null) {
+            conditions.add("p.altitude <= ?");
+            parameters.add(search.getMaxAltitude());
+        }
+
+        String column = column(search.getSort());
+        if (search.getAfter() != null) {
+            Cursor cursor = Cursor.decode(search.getAfter(), search.getSort());
+            if (column == null) {
+                conditions.add("s.id > ?");
+                parameters.add(cursor.id);
+            } else {
+                // The leading bound gives the index a range to seek, the rest breaks ties on id
+                conditions.add(column + " >= ? and (" + column + " > ? or s.id > ?)");
+                parameters.add(cursor.value);
+                parameters.add(cursor.value);
+                parameters.add(cursor.id);
+            }
+        }
+
+        String order;
+        if (column != null) {
+            order = column + ", s.id";
+        } else if (search.getOrbit() != null) {
+            order = "s.orbit, s.id";
+        } else {
+            order = "s.id";
+        }
+        StringBuilder sql = new StringBuilder("select s.id from satellite s");
+        if (altitude) {
+            sql.append(" join satellite_parameters p on p.id = s.param_id");
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" where ").append(String.join(" and ", conditions));
+        }
+        sql.append(" order by ").append(order).append(" limit ?");
+        parameters.add(search.getLimit());
+        return new SatelliteSearchQuery(sql.toString(), parameters);
+    }
+
+    /**
+     * Cursor continuing a search in the given order after the given satellite.
+     */
+    public static String cursor(SortField sort, Satellite last) {
+        String value = switch (sort) {
+            case ID -> "";
+            case NAME -> last.getName();
+            case LAUNCH_DATE -> last.getLaunchDate().toString();
+        };
+        String cursor = sort.name() + "|" + last.getId() + "|" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String column(SortField sort) {
+        return switch (sort) {
+            case ID -> null;
+            case NAME -> "s.name";
+            case LAUNCH_DATE -> "s.launch_date";
+        };
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private record Cursor(long id, Object value) {
+
+        static Cursor decode(String encoded, SortField sort) {
+            String[] parts;
+            try {
+                parts = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8).split("\\|", 3);
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Malformed search cursor");
+            }
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Malformed search cursor");
+            }
+            if (!parts[0].equals(sort.name())) {
+                throw new IllegalArgumentException("Search cursor was issued for a search sorted by " + parts[0]);
+            }
+            try {
+                long id = Long.parseLong(parts[1]);
+                return switch (sort) {
+                    case ID -> new Cursor(id, null);
+                    case NAME -> new Cursor(id, parts[2]);
+                    case LAUNCH_DATE -> new Cursor(id, LocalDateTime.parse(parts[2]));
+                };
+            } catch (NumberFormatException | DateTimeParseException ex) {
+                throw new IllegalArgumentException("Malformed search cursor");
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.ism.satellite.repository;
+
+import java.util.List;
+
+/**
+ * Catalog search, implemented with native SQL so each filter and order maps onto a known index.
+ */
+public interface SatelliteSearchRepository {
+
+    /**
+     * Ids of the satellites on one page of a search, in the search's order.
+     */
+    List<Long> findSearchIds(SatelliteSearchQuery query);
+}
@@ -0,0 +1,23 @@
+package com.ism.satellite.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import java.util.List;
+
+public class SatelliteSearchRepositoryImpl implements SatelliteSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Long> findSearchIds(SatelliteSearchQuery query) {
+        Query nativeQuery = entityManager.createNativeQuery(query.getSql(), Long.class);
+        List<Object> parameters = query.getParameters();
+        for (int i = 0; i < parameters.size(); i++) {
+            nativeQuery.setParameter(i + 1, parameters.get(i));
+        }
+        return nativeQuery.getResultList();
+    }
+}
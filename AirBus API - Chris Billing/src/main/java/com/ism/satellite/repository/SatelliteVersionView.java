@@ -0,0 +1,14 @@
+package com.ism.satellite.repository;
+
+/**
+ * Projection of the optimistic lock versions of a satellite and its parameters, used to build ETags without
+ * loading the entities.
+ */
+public interface SatelliteVersionView {
+
+    Long getId();
+
+    Long getVersion();
+
+    Long getParametersVersion();
+}
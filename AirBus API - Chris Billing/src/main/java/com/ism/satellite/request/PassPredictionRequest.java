@@ -0,0 +1,29 @@
+package com.ism.satellite.request;
+
+import java.time.Instant;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * A ground station and the window to predict its passes over. Altitude is in km above the mean Earth radius. The
+ * window starts now unless from is given and lasts hours, the elevation mask defaults to the configured one.
+ */
+@Value
+@Builder
+@Jacksonized
+public class PassPredictionRequest {
+
+    Double latitude;
+
+    Double longitude;
+
+    Double altitudeKm;
+
+    Instant from;
+
+    Double hours;
+
+    Double minElevationDeg;
+
+}
@@ -0,0 +1,23 @@
+package com.ism.satellite.request;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * A single position fix received through the bulk ingest endpoint.
+ */
+@Value
+@Builder
+@Jacksonized
+public class PositionUpdate {
+
+    Long satelliteId;
+
+    Double altitude;
+
+    Double latitude;
+
+    Double longitude;
+
+}
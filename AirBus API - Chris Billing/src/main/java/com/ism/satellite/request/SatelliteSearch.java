@@ -0,0 +1,51 @@
+package com.ism.satellite.request;
+
+import com.ism.satellite.domain.OrbitType;
+import java.time.LocalDateTime;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Filters, order and page of a catalog search. Every filter is optional. Launch dates are matched from launchedFrom
+ * inclusive to launchedTo exclusive, altitudes from minAltitude to maxAltitude inclusive. Name matching is case
+ * sensitive, so a prefix can be answered from the name index. Results are in ascending order of the sort field
+ * then id. After is the cursor returned with the previous page.
+ */
+@Value
+@Builder(toBuilder = true)
+public class SatelliteSearch {
+
+    OrbitType orbit;
+
+    String name;
+
+    @Builder.Default
+    NameMatch nameMatch = NameMatch.PREFIX;
+
+    LocalDateTime launchedFrom;
+
+    LocalDateTime launchedTo;
+
+    Double minAltitude;
+
+    Double maxAltitude;
+
+    @Builder.Default
+    SortField sort = SortField.ID;
+
+    String after;
+
+    @Builder.Default
+    int limit = 100;
+
+    public enum NameMatch {
+        PREFIX,
+        CONTAINS
+    }
+
+    public enum SortField {
+        ID,
+        NAME,
+        LAUNCH_DATE
+    }
+}
@@ -0,0 +1,17 @@
+package com.ism.satellite.response;
+
+import lombok.Value;
+
+/**
+ * An item of a bulk request that could not be applied. Index is the zero based position of the item in the request.
+ */
+@Value
+public class BulkItemFailure {
+
+    int index;
+
+    Long satelliteId;
+
+    String reason;
+
+}
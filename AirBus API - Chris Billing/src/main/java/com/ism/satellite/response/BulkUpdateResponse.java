@@ -0,0 +1,24 @@
+package com.ism.satellite.response;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * Outcome of a bulk position update. Failed items are reported individually and do not abort the rest of the batch.
+ * Every received item is either applied or listed in failures, so applied plus the number of failures equals
+ * received. Several fixes for the same satellite are all applied, in request order, the last one wins.
+ */
+@Value
+@Builder
+@Jacksonized
+public class BulkUpdateResponse {
+
+    int received;
+
+    int applied;
+
+    List<BulkItemFailure> failures;
+
+}
@@ -0,0 +1,44 @@
+package com.ism.satellite.response;
+
+import com.ism.satellite.domain.CatalogFormat;
+import com.ism.satellite.domain.CatalogImportStatus;
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * Progress or outcome of a bulk catalog import. Failure indexes are zero based positions of records in the source,
+ * only the first few failures are listed. A failed import is resumed by sending the same importId again.
+ */
+@Value
+@Builder
+@Jacksonized
+public class CatalogImportReport {
+
+    String importId;
+
+    String source;
+
+    CatalogFormat format;
+
+    CatalogImportStatus status;
+
+    // Records skipped because an earlier run of the same import had already committed them
+    long resumedFrom;
+
+    long recordsCommitted;
+
+    long imported;
+
+    long failed;
+
+    List<BulkItemFailure> failures;
+
+    double elapsedMillis;
+
+    double recordsPerSecond;
+
+    String error;
+
+}
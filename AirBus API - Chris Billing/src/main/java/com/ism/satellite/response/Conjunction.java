@@ -0,0 +1,17 @@
+package com.ism.satellite.response;
+
+import lombok.Value;
+
+/**
+ * A pair of satellites closer than the screening threshold, the lower id first.
+ */
+@Value
+public class Conjunction {
+
+    Long satelliteId;
+
+    Long otherSatelliteId;
+
+    Double distanceKm;
+
+}
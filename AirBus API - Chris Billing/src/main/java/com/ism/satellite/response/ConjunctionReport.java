@@ -0,0 +1,37 @@
+package com.ism.satellite.response;
+
+import java.time.Instant;
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * Outcome of a conjunction screening run. Conjunctions are the closest pairs found, nearest first, capped at the
+ * configured maximum; conjunctionCount is the number of pairs found before the cap.
+ */
+@Value
+@Builder
+@Jacksonized
+public class ConjunctionReport {
+
+    Instant screenedAt;
+
+    // When the screened positions are valid: the screening time for stored positions, else the propagation epoch
+    Instant positionsAt;
+
+    String source;
+
+    double thresholdKm;
+
+    int satellites;
+
+    long conjunctionCount;
+
+    boolean truncated;
+
+    double durationMillis;
+
+    List<Conjunction> conjunctions;
+
+}
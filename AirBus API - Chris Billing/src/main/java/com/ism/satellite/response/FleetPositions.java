@@ -0,0 +1,23 @@
+package com.ism.satellite.response;
+
+import java.time.Instant;
+import lombok.Value;
+
+/**
+ * Propagated positions of the whole fleet at one instant, in columnar form: index i of every array describes
+ * the same satellite. Primitive arrays keep both the computation and the JSON encoding free of per-row objects.
+ */
+@Value
+public class FleetPositions {
+
+    Instant at;
+
+    long[] satelliteIds;
+
+    double[] altitudes;
+
+    double[] latitudes;
+
+    double[] longitudes;
+
+}
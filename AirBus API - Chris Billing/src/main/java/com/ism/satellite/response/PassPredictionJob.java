@@ -0,0 +1,57 @@
+package com.ism.satellite.response;
+
+import com.ism.satellite.pass.PassJobStatus;
+import java.time.Instant;
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * State of an asynchronous pass prediction. Passes are listed by rise time once the job has completed, capped at
+ * the configured maximum; passCount is the number found before the cap.
+ */
+@Value
+@Builder
+@Jacksonized
+public class PassPredictionJob {
+
+    String jobId;
+
+    PassJobStatus status;
+
+    double latitude;
+
+    double longitude;
+
+    double altitudeKm;
+
+    Instant from;
+
+    Instant to;
+
+    double minElevationDeg;
+
+    int satellites;
+
+    // Satellites screened so far, equal to satellites once the job has completed
+    long satellitesScreened;
+
+    // Served from the cache of an earlier job over the same station and window
+    boolean cached;
+
+    Instant submittedAt;
+
+    Instant completedAt;
+
+    double durationMillis;
+
+    long passCount;
+
+    boolean truncated;
+
+    List<SatellitePass> passes;
+
+    String error;
+
+}
@@ -0,0 +1,33 @@
+package com.ism.satellite.response;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * Result of comparing the in-memory PositionStore against the database.
+ * Missing rows exist only in the database, stale rows differ and orphaned entries exist only in memory.
+ */
+@Value
+@Builder
+@Jacksonized
+public class PositionConsistencyReport {
+
+    long checked;
+
+    long missing;
+
+    long stale;
+
+    long orphaned;
+
+    boolean repaired;
+
+    // A bounded sample of satellite ids that did not match, to help diagnose drift
+    List<Long> mismatchedIds;
+
+    public boolean isConsistent() {
+        return missing == 0 && stale == 0 && orphaned == 0;
+    }
+}
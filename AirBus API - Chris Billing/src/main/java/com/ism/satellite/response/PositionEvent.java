@@ -0,0 +1,22 @@
+package com.ism.satellite.response;
+
+import java.time.Instant;
+import lombok.Value;
+
+/**
+ * A position change pushed to live subscribers.
+ */
+@Value
+public class PositionEvent {
+
+    Long satelliteId;
+
+    Instant timestamp;
+
+    Double altitude;
+
+    Double latitude;
+
+    Double longitude;
+
+}
@@ -0,0 +1,20 @@
+package com.ism.satellite.response;
+
+import java.time.Instant;
+import lombok.Value;
+
+/**
+ * A historical position fix of a satellite.
+ */
+@Value
+public class PositionHistoryPoint {
+
+    Instant timestamp;
+
+    Double altitude;
+
+    Double latitude;
+
+    Double longitude;
+
+}
@@ -0,0 +1,23 @@
+package com.ism.satellite.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Value;
+
+/**
+ * A satellite matched by a spatial query, with its distance from the query centre for radius queries.
+ */
+@Value
+public class SatelliteLocation {
+
+    Long satelliteId;
+
+    Double altitude;
+
+    Double latitude;
+
+    Double longitude;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    Double distanceKm;
+
+}
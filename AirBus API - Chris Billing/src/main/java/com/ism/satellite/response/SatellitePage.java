@@ -0,0 +1,24 @@
+package com.ism.satellite.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.ism.satellite.domain.Satellite;
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * Keyset paginated listing of satellites. Pass nextCursor as the "after" parameter to fetch the following page,
+ * it is omitted once the last page has been reached.
+ */
+@Value
+@Builder
+@Jacksonized
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SatellitePage {
+
+    List<Satellite> items;
+
+    Long nextCursor;
+
+}
@@ -0,0 +1,23 @@
+package com.ism.satellite.response;
+
+import java.time.Instant;
+import lombok.Value;
+
+/**
+ * A satellite above a ground station's elevation mask. A pass already in progress at the start of the window rises
+ * at the window start, one still in progress at its end sets at the window end.
+ */
+@Value
+public class SatellitePass {
+
+    Long satelliteId;
+
+    Instant rise;
+
+    Instant peak;
+
+    Double peakElevationDeg;
+
+    Instant set;
+
+}
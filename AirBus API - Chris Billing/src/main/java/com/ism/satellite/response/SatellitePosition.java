@@ -0,0 +1,21 @@
+package com.ism.satellite.response;
+
+import lombok.Value;
+
+/**
+ * Flat projection of a satellite's current position, joined from Satellite and SatelliteParameters.
+ */
+@Value
+public class SatellitePosition {
+
+    Long satelliteId;
+
+    Long parametersId;
+
+    Double altitude;
+
+    Double latitude;
+
+    Double longitude;
+
+}
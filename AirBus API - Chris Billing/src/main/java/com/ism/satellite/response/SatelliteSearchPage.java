@@ -0,0 +1,24 @@
+package com.ism.satellite.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.ism.satellite.domain.Satellite;
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * One page of catalog search results. Pass nextCursor as the "after" parameter, with the same filters and order,
+ * to fetch the following page. It is omitted once the last page has been reached.
+ */
+@Value
+@Builder
+@Jacksonized
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SatelliteSearchPage {
+
+    List<Satellite> items;
+
+    String nextCursor;
+
+}
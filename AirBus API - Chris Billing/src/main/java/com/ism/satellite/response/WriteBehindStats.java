@@ -0,0 +1,40 @@
+package com.ism.satellite.response;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * Point in time metrics of the write-behind pipeline. The coalescing ratio is fixes accepted per row written,
+ * so 1.0 means no coalescing happened.
+ */
+@Value
+@Builder
+@Jacksonized
+public class WriteBehindStats {
+
+    boolean enabled;
+
+    String durability;
+
+    long queueDepth;
+
+    long accepted;
+
+    long coalesced;
+
+    long written;
+
+    long failed;
+
+    long flushes;
+
+    double coalescingRatio;
+
+    double lastFlushMillis;
+
+    double maxFlushMillis;
+
+    double meanFlushMillis;
+
+}
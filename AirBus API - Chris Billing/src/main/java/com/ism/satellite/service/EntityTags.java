@@ -0,0 +1,107 @@
+package com.ism.satellite.service;
+
+import com.ism.satellite.domain.Satellite;
+import com.ism.satellite.domain.SatelliteParameters;
+import com.ism.satellite.repository.SatelliteVersionView;
+import java.util.List;
+
+/**
+ * Strong ETags for satellite resources.
+ *
+ * <p>Satellites are tagged with the optimistic lock versions of the satellite and its parameters, which the database
+ * bumps on every change. Positions are tagged with a hash of their values instead: they are served from the
+ * PositionStore, which is updated before the database when write-behind is enabled, so a content tag stays correct
+ * without a database round trip. The catalog tag hashes the versions of every satellite in id order.
+ */
+public final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    public static String satellite(Satellite satellite) {
+        return satellite(satellite.getVersion(), satellite.getParameters().getVersion());
+    }
+
+    public static String satellite(SatelliteVersionView versions) {
+        return satellite(versions.getVersion(), versions.getParametersVersion());
+    }
+
+    public static String position(SatelliteParameters parameters) {
+        long hash = mix(parameters.getId() == null ? 0L : parameters.getId());
+        hash = mix(hash ^ Double.doubleToLongBits(parameters.getAltitude()));
+        hash = mix(hash ^ Double.doubleToLongBits(parameters.getLatitude()));
+        hash = mix(hash ^ Double.doubleToLongBits(parameters.getLongitude()));
+        return "\"p" + Long.toHexString(hash) + '"';
+    }
+
+    public static String catalog(List<Satellite> satellites) {
+        long hash = mix(satellites.size());
+        for (Satellite satellite : satellites) {
+            hash = mixVersions(hash, satellite.getId(), satellite.getVersion(),
+              satellite.getParameters().getVersion());
+        }
+        return "\"c" + Long.toHexString(hash) + '"';
+    }
+
+    public static String catalogFromVersions(List<SatelliteVersionView> versions) {
+        long hash = mix(versions.size());
+        for (SatelliteVersionView view : versions) {
+            hash = mixVersions(hash, view.getId(), view.getVersion(), view.getParametersVersion());
+        }
+        return "\"c" + Long.toHexString(hash) + '"';
+    }
+
+    /**
+     * Tag of the same resource encoded in another wire format, unchanged for JSON.
+     */
+    public static String withFormat(String tag, String format) {
+        return format.equals("json") ? tag : tag.substring(0, tag.length() - 1) + '-' + format + '"';
+    }
+
+    /**
+     * Tag of the representation sent to clients that accept gzip, unchanged for other clients. Such a client gets
+     * the same bytes for the same versions every time, compressed or not depending on their size.
+     */
+    public static String withGzip(String tag, boolean gzip) {
+        return gzip ? tag.substring(0, tag.length() - 1) + "-gzip\"" : tag;
+    }
+
+    /**
+     * Strips wire format and encoding suffixes from every tag in an If-Match or If-None-Match header value.
+     */
+    public static String withoutFormat(String header) {
+        return header.replace("-gzip\"", "\"").replace("-cbor\"", "\"").replace("-smile\"", "\"");
+    }
+
+    /**
+     * Strong comparison of an If-Match header value against the current tag, * matches any existing resource.
+     */
+    public static boolean matches(String ifMatch, String tag) {
+        for (String candidate : ifMatch.split(",")) {
+            String trimmed = candidate.trim();
+            // Weak tags never match under strong comparison
+            if (trimmed.equals("*") || trimmed.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String satellite(Long version, Long parametersVersion) {
+        return "\"s" + (version == null ? 0 : version) + '.' + (parametersVersion == null ? 0 : parametersVersion) + '"';
+    }
+
+    private static long mixVersions(long hash, Long id, Long version, Long parametersVersion) {
+        hash = mix(hash ^ id);
+        hash = mix(hash ^ (version == null ? 0L : version));
+        return mix(hash ^ (parametersVersion == null ? 0L : parametersVersion));
+    }
+
+    // SplitMix64 finaliser, so nearby values spread over the whole tag
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,172 @@
+package com.ism.satellite.service;
+
+import com.ism.satellite.cache.ResponseCache;
+import com.ism.satellite.domain.Satellite;
+import com.ism.satellite.domain.SatelliteParameters;
+import com.ism.satellite.exception.custom.BadRequestException;
+import com.ism.satellite.repository.SatelliteRepository;
+import com.ism.satellite.request.PositionUpdate;
+import com.ism.satellite.response.BulkItemFailure;
+import com.ism.satellite.response.BulkUpdateResponse;
+import com.ism.satellite.response.SatellitePosition;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Applies position fixes to SatelliteParameters in a single transaction. Fixes are processed in chunks matching the
+ * Hibernate JDBC batch size, each chunk is loaded with one query, flushed as batched UPDATEs and then cleared so
+ * the persistence context stays bounded however many fixes are streamed in. An item the iterator rejects with
+ * BadRequestException is reported as a failure at its index like any other invalid fix.
+ */
+@Component
+public class PositionBatchWriter {
+
+    private final SatelliteRepository repository;
+
+    private final EntityManager entityManager;
+
+    private final PositionPublisher positionPublisher;
+
+    private final ResponseCache responseCache;
+
+    private final int batchSize;
+
+    public PositionBatchWriter(SatelliteRepository repository, EntityManager entityManager,
+                               PositionPublisher positionPublisher, ResponseCache responseCache,
+                               @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        this.repository = repository;
+        this.entityManager = entityManager;
+        this.positionPublisher = positionPublisher;
+        this.responseCache = responseCache;
+        this.batchSize = batchSize;
+    }
+
+    @Transactional
+    public BulkUpdateResponse write(Iterator<PositionUpdate> updates) {
+        return write(updates, true);
+    }
+
+    /**
+     * Applies the fixes, optionally skipping publication when the caller has already published them.
+     */
+    @Transactional
+    public BulkUpdateResponse write(Iterator<PositionUpdate> updates, boolean publishToStore) {
+        int received = 0;
+        int applied = 0;
+        List<BulkItemFailure> failures = new ArrayList<>();
+        List<SatellitePosition> appliedPositions = new ArrayList<>();
+        // Fix per satellite in the current chunk, and the request index it came from
+        Map<Long, PositionUpdate> chunk = new LinkedHashMap<>();
+        Map<Long, Integer> chunkIndexes = new HashMap<>();
+
+        while (updates.hasNext()) {
+            int index = received++;
+            PositionUpdate update;
+            try {
+                update = updates.next();
+            } catch (BadRequestException ex) {
+                // The item could not be read, the iterator has moved past it and the rest of the batch still applies
+                failures.add(new BulkItemFailure(index, null, ex.getMessage()));
+                continue;
+            }
+            String invalid = validate(update);
+            if (invalid != null) {
+                failures.add(new BulkItemFailure(index, update == null ? null : update.getSatelliteId(), invalid));
+                continue;
+            }
+            // A repeated satellite closes the chunk, so every fix is applied and published in request order
+            if (chunk.containsKey(update.getSatelliteId())) {
+                applied += applyChunk(chunk, chunkIndexes, failures, appliedPositions);
+            }
+            chunk.put(update.getSatelliteId(), update);
+            chunkIndexes.put(update.getSatelliteId(), index);
+            if (chunk.size() == batchSize) {
+                applied += applyChunk(chunk, chunkIndexes, failures, appliedPositions);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            applied += applyChunk(chunk, chunkIndexes, failures, appliedPositions);
+        }
+        if (publishToStore) {
+            publishAfterCommit(appliedPositions);
+        }
+        // Also when publication is skipped, as the cached response bodies embed the parameters just written
+        if (!appliedPositions.isEmpty()) {
+            responseCache.invalidate(appliedPositions.stream().map(SatellitePosition::getSatelliteId).toList());
+        }
+
+        return BulkUpdateResponse.builder()
+          .received(received)
+          .applied(applied)
+          .failures(failures)
+          .build();
+    }
+
+    private int applyChunk(Map<Long, PositionUpdate> chunk, Map<Long, Integer> chunkIndexes,
+                           List<BulkItemFailure> failures, List<SatellitePosition> appliedPositions) {
+        Map<Long, Satellite> satellites = new HashMap<>();
+        for (Satellite satellite : repository.findAllWithParametersByIdIn(chunk.keySet())) {
+            satellites.put(satellite.getId(), satellite);
+        }
+        int applied = 0;
+        for (PositionUpdate update : chunk.values()) {
+            Satellite satellite = satellites.get(update.getSatelliteId());
+            if (satellite == null) {
+                failures.add(new BulkItemFailure(chunkIndexes.get(update.getSatelliteId()), update.getSatelliteId(),
+                  String.format("Satellite with id: %s not found", update.getSatelliteId())));
+                continue;
+            }
+            SatelliteParameters parameters = satellite.getParameters();
+            parameters.setAltitude(update.getAltitude());
+            parameters.setLatitude(update.getLatitude());
+            parameters.setLongitude(update.getLongitude());
+            appliedPositions.add(new SatellitePosition(satellite.getId(), parameters.getId(), update.getAltitude(),
+              update.getLatitude(), update.getLongitude()));
+            applied++;
+        }
+        entityManager.flush();
+        entityManager.clear();
+        chunk.clear();
+        chunkIndexes.clear();
+        return applied;
+    }
+
+    // Readers of the position store must only see values the database has committed
+    private void publishAfterCommit(List<SatellitePosition> positions) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            positions.forEach(this::publish);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                positions.forEach(PositionBatchWriter.this::publish);
+            }
+        });
+    }
+
+    private void publish(SatellitePosition position) {
+        positionPublisher.publish(position.getSatelliteId(), position.getParametersId(), position.getAltitude(),
+          position.getLatitude(), position.getLongitude());
+    }
+
+    private static String validate(PositionUpdate update) {
+        if (update == null || update.getSatelliteId() == null) {
+            return "Position update missing satelliteId";
+        }
+        if (update.getAltitude() == null || update.getLatitude() == null || update.getLongitude() == null) {
+            return "Satellite Parameters missing required parameters";
+        }
+        return null;
+    }
+}
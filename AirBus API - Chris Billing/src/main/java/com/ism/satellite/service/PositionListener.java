@@ -0,0 +1,13 @@
+package com.ism.satellite.service;
+
+/**
+ * Receives every accepted position change. Implementations run on the writer's thread and must be quick, anything
+ * expensive should be handed off.
+ */
+public interface PositionListener {
+
+    void onPositionChanged(long satelliteId, long timestampMillis, double altitude, double latitude, double longitude);
+
+    default void onSatelliteRemoved(long satelliteId) {
+    }
+}
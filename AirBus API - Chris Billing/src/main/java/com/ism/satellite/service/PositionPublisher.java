@@ -0,0 +1,57 @@
+package com.ism.satellite.service;
+
+import com.ism.satellite.domain.SatelliteParameters;
+import com.ism.satellite.store.PositionStore;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Single entry point for accepted position changes: updates the PositionStore and then notifies every
+ * {@link PositionListener}. A failing listener is logged and never fails the write that triggered it.
+ */
+@Component
+public class PositionPublisher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PositionPublisher.class);
+
+    private final PositionStore positionStore;
+
+    private final PositionListener[] listeners;
+
+    public PositionPublisher(PositionStore positionStore, List<PositionListener> listeners) {
+        this.positionStore = positionStore;
+        this.listeners = listeners.toArray(new PositionListener[0]);
+    }
+
+    public void publish(long satelliteId, SatelliteParameters parameters) {
+        publish(satelliteId, parameters.getId() == null ? 0L : parameters.getId(), parameters.getAltitude(),
+          parameters.getLatitude(), parameters.getLongitude());
+    }
+
+    public void publish(long satelliteId, long parametersId, double altitude, double latitude, double longitude) {
+        positionStore.put(satelliteId, parametersId, altitude, latitude, longitude);
+        long timestampMillis = System.currentTimeMillis();
+        for (PositionListener listener : listeners) {
+            try {
+                listener.onPositionChanged(satelliteId, timestampMillis, altitude, latitude, longitude);
+            } catch (RuntimeException ex) {
+                LOGGER.error("Position listener {} failed for satellite {}: {}", listener.getClass().getSimpleName(),
+                  satelliteId, ex.getMessage());
+            }
+        }
+    }
+
+    public void remove(long satelliteId) {
+        positionStore.remove(satelliteId);
+        for (PositionListener listener : listeners) {
+            try {
+                listener.onSatelliteRemoved(satelliteId);
+            } catch (RuntimeException ex) {
+                LOGGER.error("Position listener {} failed removing satellite {}: {}",
+                  listener.getClass().getSimpleName(), satelliteId, ex.getMessage());
+            }
+        }
+    }
+}
@@ -2,20 +2,46 @@ package com.ism.satellite.service;
 
 import com.ism.satellite.domain.Satellite;
 import com.ism.satellite.domain.SatelliteParameters;
+import com.ism.satellite.request.PositionUpdate;
+import com.ism.satellite.request.SatelliteSearch;
+import com.ism.satellite.response.BulkUpdateResponse;
+import com.ism.satellite.response.PositionConsistencyReport;
+import com.ism.satellite.response.SatellitePage;
+import com.ism.satellite.response.SatelliteSearchPage;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface SatelliteService {
     List<Satellite> getAll();
 
+    SatellitePage getPage(Long afterId, int limit);
+
+    SatelliteSearchPage search(SatelliteSearch search);
+
+    void streamAll(Consumer<Satellite> consumer);
+
     Satellite create(Satellite satellite) throws Exception;
 
     Satellite getById(Long id);
 
     Satellite update(Satellite satellite, Long id);
 
+    Satellite update(Satellite satellite, Long id, String ifMatch);
+
     void delete(Long id);
 
     SatelliteParameters getSatellitePosition(Long id);
 
     Satellite patchParameters(Long satelliteId, SatelliteParameters satelliteParameters);
+
+    Satellite patchParameters(Long satelliteId, SatelliteParameters satelliteParameters, String ifMatch);
+
+    String getSatelliteTag(Long id);
+
+    String getCatalogTag();
+
+    BulkUpdateResponse bulkUpdatePositions(Iterator<PositionUpdate> updates);
+
+    PositionConsistencyReport checkPositionConsistency(boolean repair);
 }
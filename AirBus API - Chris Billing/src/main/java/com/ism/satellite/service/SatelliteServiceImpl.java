@@ -1,13 +1,46 @@
 package com.ism.satellite.service;
 
+import com.ism.satellite.cache.ResponseCache;
+import com.ism.satellite.domain.OrbitType;
+import com.ism.satellite.domain.OrbitalElements;
 import com.ism.satellite.domain.Satellite;
 import com.ism.satellite.domain.SatelliteParameters;
+import com.ism.satellite.engine.SatelliteEngine;
 import com.ism.satellite.exception.custom.BadRequestException;
 import com.ism.satellite.exception.custom.NotFoundException;
+import com.ism.satellite.exception.custom.PreconditionFailedException;
+import com.ism.satellite.live.PositionBroadcaster;
 import com.ism.satellite.repository.SatelliteParametersRepository;
 import com.ism.satellite.repository.SatelliteRepository;
+import com.ism.satellite.repository.SatelliteSearchQuery;
+import com.ism.satellite.request.PositionUpdate;
+import com.ism.satellite.request.SatelliteSearch;
+import com.ism.satellite.response.BulkUpdateResponse;
+import com.ism.satellite.propagation.OrbitMath;
+import com.ism.satellite.propagation.OrbitPropagator;
+import com.ism.satellite.response.PositionConsistencyReport;
+import com.ism.satellite.response.SatellitePage;
+import com.ism.satellite.response.SatelliteSearchPage;
+import com.ism.satellite.response.SatellitePosition;
+import com.ism.satellite.store.LongIntHashMap;
+import com.ism.satellite.store.PositionStore;
+import com.ism.satellite.writebehind.WriteBehindBuffer;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 public class SatelliteServiceImpl implements SatelliteService {
@@ -16,14 +49,128 @@ public class SatelliteServiceImpl implements SatelliteService {
 
     protected final SatelliteParametersRepository parametersRepository;
 
-    public SatelliteServiceImpl(SatelliteRepository repository, SatelliteParametersRepository parametersRepository) {
+    protected final EntityManager entityManager;
+
+    protected final PositionStore positionStore;
+
+    protected final PositionBatchWriter positionBatchWriter;
+
+    protected final WriteBehindBuffer writeBehindBuffer;
+
+    protected final PositionPublisher positionPublisher;
+
+    protected final OrbitPropagator orbitPropagator;
+
+    protected final PositionBroadcaster positionBroadcaster;
+
+    protected final ResponseCache responseCache;
+
+    protected final SatelliteEngine satelliteEngine;
+
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    // Upper bound on the mismatched ids echoed back by the consistency check
+    private static final int MISMATCH_SAMPLE_SIZE = 100;
+
+    private static final int WRITE_LOCK_STRIPES = 64;
+
+    // Serialises writes to the same satellite so an If-Match check and the write it guards cannot interleave
+    private final ReentrantLock[] writeLocks = new ReentrantLock[WRITE_LOCK_STRIPES];
+
+    public SatelliteServiceImpl(SatelliteRepository repository, SatelliteParametersRepository parametersRepository,
+                                EntityManager entityManager, PositionStore positionStore,
+                                PositionBatchWriter positionBatchWriter, WriteBehindBuffer writeBehindBuffer,
+                                PositionPublisher positionPublisher, OrbitPropagator orbitPropagator,
+                                PositionBroadcaster positionBroadcaster, ResponseCache responseCache,
+                                SatelliteEngine satelliteEngine) {
         this.repository = repository;
         this.parametersRepository = parametersRepository;
+        this.entityManager = entityManager;
+        this.positionStore = positionStore;
+        this.positionBatchWriter = positionBatchWriter;
+        this.writeBehindBuffer = writeBehindBuffer;
+        this.positionPublisher = positionPublisher;
+        this.orbitPropagator = orbitPropagator;
+        this.positionBroadcaster = positionBroadcaster;
+        this.responseCache = responseCache;
+        this.satelliteEngine = satelliteEngine;
+        for (int i = 0; i < WRITE_LOCK_STRIPES; i++) {
+            writeLocks[i] = new ReentrantLock();
+        }
     }
 
     @Override
     public List<Satellite> getAll() {
-        return repository.findAll();
+        return repository.findAllWithParameters();
+    }
+
+    @Override
+    public SatellitePage getPage(Long afterId, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException(String.format("Page limit must be between 1 and %s", MAX_PAGE_SIZE));
+        }
+        List<Satellite> items = repository.findPageAfter(afterId == null ? Long.MIN_VALUE : afterId,
+          PageRequest.ofSize(limit));
+        // A full page means there may be more rows, the last id becomes the cursor for the next request
+        Long nextCursor = items.size() == limit ? items.get(items.size() - 1).getId() : null;
+        return SatellitePage.builder()
+          .items(items)
+          .nextCursor(nextCursor)
+          .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SatelliteSearchPage search(SatelliteSearch search) {
+        if (search.getLimit() < 1 || search.getLimit() > MAX_PAGE_SIZE) {
+            throw new BadRequestException(String.format("Page limit must be between 1 and %s", MAX_PAGE_SIZE));
+        }
+        if (search.getMinAltitude() != null && search.getMaxAltitude() != null
+          && search.getMinAltitude() > search.getMaxAltitude()) {
+            throw new BadRequestException("Minimum altitude must not exceed maximum altitude");
+        }
+        if (search.getLaunchedFrom() != null && search.getLaunchedTo() != null
+          && !search.getLaunchedFrom().isBefore(search.getLaunchedTo())) {
+            throw new BadRequestException("launchedFrom must be before launchedTo");
+        }
+        SatelliteSearchQuery query;
+        try {
+            query = SatelliteSearchQuery.of(search);
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException(ex.getMessage());
+        }
+        // The ids come from the indexes alone, the page of satellites is then loaded in one query
+        List<Long> ids = repository.findSearchIds(query);
+        List<Satellite> items = new ArrayList<>(ids.size());
+        if (!ids.isEmpty()) {
+            Map<Long, Satellite> loaded = new HashMap<>();
+            repository.findAllWithParametersByIdIn(ids).forEach(satellite -> loaded.put(satellite.getId(), satellite));
+            for (Long id : ids) {
+                Satellite satellite = loaded.get(id);
+                // Skips a satellite deleted between the two queries
+                if (satellite != null) {
+                    items.add(satellite);
+                }
+            }
+        }
+        String nextCursor = ids.size() == search.getLimit() && !items.isEmpty()
+          ? SatelliteSearchQuery.cursor(search.getSort(), items.get(items.size() - 1)) : null;
+        return SatelliteSearchPage.builder()
+          .items(items)
+          .nextCursor(nextCursor)
+          .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<Satellite> consumer) {
+        try (Stream<Satellite> satellites = repository.streamAll()) {
+            satellites.forEach(satellite -> {
+                consumer.accept(satellite);
+                // Detach once written so the persistence context does not grow with the table
+                entityManager.detach(satellite);
+            });
+        }
     }
 
     @Override
@@ -33,34 +180,123 @@ public class SatelliteServiceImpl implements SatelliteService {
     }
 
     @Override
+    public String getSatelliteTag(Long id) {
+        return EntityTags.satellite(repository.findVersionsById(id)
+          .orElseThrow(() -> new NotFoundException(String.format("Satellite with id: %s not found", id))));
+    }
+
+    @Override
+    public String getCatalogTag() {
+        return EntityTags.catalogFromVersions(repository.findAllVersions());
+    }
+
+    @Override
+    @Transactional
     public Satellite update(Satellite satellite, Long id) {
-        // Efficiently check the existence of satellite otherwise getById() will throw an error.
-        getById(id);
-        if (satellite.getName() == null ||
-          satellite.getOrbit() == null ||
-          satellite.getParameters() == null ||
-          satellite.getLaunchDate() == null
-        ) {
-            throw new BadRequestException("Satellite missing required parameters");
+        return update(satellite, id, null);
+    }
+
+    @Override
+    @Transactional
+    public Satellite update(Satellite satellite, Long id, String ifMatch) {
+        ReentrantLock lock = writeLockFor(id);
+        lock.lock();
+        boolean heldUntilCompletion = false;
+        try {
+            Satellite existing = getById(id);
+            if (satellite.getName() == null ||
+              satellite.getOrbit() == null ||
+              satellite.getParameters() == null ||
+              satellite.getParameters().getAltitude() == null ||
+              satellite.getParameters().getLatitude() == null ||
+              satellite.getParameters().getLongitude() == null ||
+              satellite.getLaunchDate() == null
+            ) {
+                throw new BadRequestException("Satellite missing required parameters");
+            }
+            validateElements(satellite);
+            if (ifMatch != null && !EntityTags.matches(ifMatch, EntityTags.satellite(existing))) {
+                throw new PreconditionFailedException(String.format("Satellite with id: %s has been modified", id));
+            }
+            // Copied onto the loaded row, so the path id wins over the body and the versions guard the write
+            existing.setName(satellite.getName());
+            existing.setOrbit(satellite.getOrbit());
+            existing.setLaunchDate(satellite.getLaunchDate());
+            existing.setElements(satellite.getElements());
+            SatelliteParameters parameters = existing.getParameters();
+            parameters.setAltitude(satellite.getParameters().getAltitude());
+            parameters.setLatitude(satellite.getParameters().getLatitude());
+            parameters.setLongitude(satellite.getParameters().getLongitude());
+            // Surfaces a concurrent modification before anything is published and bumps the versions for the ETag
+            entityManager.flush();
+            OrbitType orbit = existing.getOrbit();
+            OrbitalElements elements = existing.getElements();
+            long parametersId = parameters.getId();
+            double altitude = parameters.getAltitude();
+            double latitude = parameters.getLatitude();
+            double longitude = parameters.getLongitude();
+            heldUntilCompletion = afterCommit(() -> {
+                positionBroadcaster.trackOrbit(id, orbit);
+                positionPublisher.publish(id, parametersId, altitude, latitude, longitude);
+                orbitPropagator.register(id, elements);
+            }, lock);
+            // Defers itself to after commit, registered from inside the callback above it would never run
+            responseCache.invalidate(id);
+            return existing;
+        } finally {
+            if (!heldUntilCompletion) {
+                lock.unlock();
+            }
         }
-        return repository.save(satellite);
     }
 
     @Override
+    @Transactional
     public void delete(Long id) {
-        getById(id);
-        repository.deleteById(id);
+        // Removed as an entity rather than by a bulk delete, which would invalidate the whole second-level cache
+        // region. The load is answered from that cache when warm, then one delete per table
+        Satellite satellite = getById(id);
+        entityManager.remove(satellite);
+        entityManager.flush();
+        responseCache.invalidate(id);
+        afterCommit(() -> {
+            positionPublisher.remove(id);
+            orbitPropagator.remove(id);
+        }, null);
     }
 
     @Override
     public SatelliteParameters getSatellitePosition(Long id) {
-        Long parametersId = getById(id).getParameters().getId();
-        return parametersRepository.findById(parametersId)
+        if (satelliteEngine.isEnabled()) {
+            SatelliteParameters held = satelliteEngine.get(id);
+            if (held != null) {
+                return held;
+            }
+        }
+        // Served from memory, the database is only consulted for satellites the store has not seen yet
+        SatelliteParameters stored = positionStore.lookup(id);
+        if (stored != null) {
+            return stored;
+        }
+        SatellitePosition position = parametersRepository.findPositionBySatelliteId(id)
           .orElseThrow(() -> new NotFoundException(String.format("Satellite with id: %s not found", id)));
+        positionStore.put(id, position.getParametersId(), position.getAltitude(), position.getLatitude(),
+          position.getLongitude());
+        SatelliteParameters parameters = new SatelliteParameters();
+        parameters.setId(position.getParametersId());
+        parameters.setAltitude(position.getAltitude());
+        parameters.setLatitude(position.getLatitude());
+        parameters.setLongitude(position.getLongitude());
+        return parameters;
     }
 
     @Override
     public Satellite patchParameters(Long satelliteId, SatelliteParameters satelliteParameters) {
+        return patchParameters(satelliteId, satelliteParameters, null);
+    }
+
+    @Override
+    public Satellite patchParameters(Long satelliteId, SatelliteParameters satelliteParameters, String ifMatch) {
         // Validate incoming parameters
         if (satelliteParameters == null ||
           satelliteParameters.getAltitude() == null ||
@@ -68,16 +304,168 @@ public class SatelliteServiceImpl implements SatelliteService {
           satelliteParameters.getLongitude() == null) {
             throw new BadRequestException("Satellite Parameters missing required parameters");
         }
-        // Get Satellite information
-        Satellite satellite = getById(satelliteId);
+        if (satelliteEngine.isEnabled()) {
+            return applyPatchOnEngine(satelliteId, satelliteParameters, ifMatch);
+        }
+        ReentrantLock lock = writeLockFor(satelliteId);
+        lock.lock();
+        CompletableFuture<Void> flushed;
+        Satellite satellite;
+        try {
+            satellite = getById(satelliteId);
+            flushed = applyPatch(satelliteId, satellite, satelliteParameters, ifMatch);
+        } finally {
+            lock.unlock();
+        }
+        // Waiting for the flush happens outside the lock, so patches of other satellites on the same stripe and the
+        // next fix of this one are not held up until the flush
+        if (flushed != null) {
+            writeBehindBuffer.awaitDurability(flushed, satelliteId);
+        }
+        return satellite;
+    }
+
+    /**
+     * Applies the patch under the satellite's write lock, returning the flush generation the fix was buffered in
+     * under write-behind and null once it is written.
+     */
+    private CompletableFuture<Void> applyPatch(Long satelliteId, Satellite satellite,
+                                               SatelliteParameters satelliteParameters, String ifMatch) {
+        if (ifMatch != null) {
+            // Checked against the position readers are served, which leads the database under write-behind
+            SatelliteParameters current = positionStore.get(satelliteId);
+            String tag = EntityTags.position(current == null ? satellite.getParameters() : current);
+            if (!EntityTags.matches(ifMatch, tag)) {
+                throw new PreconditionFailedException(String.format("Position of satellite with id: %s has been "
+                  + "modified", satelliteId));
+            }
+        }
+        PositionUpdate update = PositionUpdate.builder()
+          .satelliteId(satelliteId)
+          .altitude(satelliteParameters.getAltitude())
+          .latitude(satelliteParameters.getLatitude())
+          .longitude(satelliteParameters.getLongitude())
+          .build();
+
+        CompletableFuture<Void> flushed = null;
+        if (writeBehindBuffer.isEnabled()) {
+            // Readers see the fix straight away, the database row is written by the next flush
+            positionPublisher.publish(satelliteId, satellite.getParameters().getId(), update.getAltitude(),
+              update.getLatitude(), update.getLongitude());
+            flushed = writeBehindBuffer.buffer(update);
+        } else {
+            BulkUpdateResponse response = positionBatchWriter.write(List.of(update).iterator());
+            if (response.getApplied() == 0) {
+                throw new NotFoundException(String.format("Satellite with id: %s not found", satelliteId));
+            }
+        }
+
+        // Update Satellite with new values, detached first so the response copy is never flushed on its own
+        if (entityManager.contains(satellite)) {
+            entityManager.detach(satellite);
+        }
+        SatelliteParameters parameters = satellite.getParameters();
+        parameters.setAltitude(update.getAltitude());
+        parameters.setLatitude(update.getLatitude());
+        parameters.setLongitude(update.getLongitude());
+
+        return flushed;
+    }
 
-        // Update Satellite with new values
-        satelliteParameters.setId(satellite.getParameters().getId());
-        satellite.setParameters(satelliteParameters);
+    private Satellite applyPatchOnEngine(Long satelliteId, SatelliteParameters satelliteParameters, String ifMatch) {
+        // Read for the response and to seed the shard, the patch itself takes no lock and waits on no transaction.
+        // The removal generation is read first, so a delete landing after these reads refuses the patch
+        long seenGeneration = satelliteEngine.removalGeneration(satelliteId);
+        Satellite satellite = getById(satelliteId);
+        if (entityManager.contains(satellite)) {
+            entityManager.detach(satellite);
+        }
+        SatelliteParameters stored = positionStore.get(satelliteId);
+        PositionUpdate update = PositionUpdate.builder()
+          .satelliteId(satelliteId)
+          .altitude(satelliteParameters.getAltitude())
+          .latitude(satelliteParameters.getLatitude())
+          .longitude(satelliteParameters.getLongitude())
+          .build();
+        CompletableFuture<Void> flushed = satelliteEngine.patch(update,
+          stored == null ? satellite.getParameters() : stored, seenGeneration, ifMatch);
+        writeBehindBuffer.awaitDurability(flushed, satelliteId);
 
+        SatelliteParameters parameters = satellite.getParameters();
+        parameters.setAltitude(update.getAltitude());
+        parameters.setLatitude(update.getLatitude());
+        parameters.setLongitude(update.getLongitude());
         return satellite;
     }
 
+    @Override
+    public BulkUpdateResponse bulkUpdatePositions(Iterator<PositionUpdate> updates) {
+        return positionBatchWriter.write(updates);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PositionConsistencyReport checkPositionConsistency(boolean repair) {
+        long checked = 0;
+        long missing = 0;
+        long stale = 0;
+        List<Long> mismatchedIds = new ArrayList<>();
+        LongIntHashMap seen = new LongIntHashMap(positionStore.size());
+        try (Stream<SatellitePosition> positions = parametersRepository.streamAllPositions()) {
+            for (SatellitePosition position : (Iterable<SatellitePosition>) positions::iterator) {
+                checked++;
+                long satelliteId = position.getSatelliteId();
+                seen.put(satelliteId, 0);
+                SatelliteParameters stored = positionStore.get(satelliteId);
+                boolean matches = stored != null && matches(stored, position);
+                if (matches) {
+                    continue;
+                }
+                if (stored == null) {
+                    missing++;
+                } else {
+                    stale++;
+                }
+                if (mismatchedIds.size() < MISMATCH_SAMPLE_SIZE) {
+                    mismatchedIds.add(satelliteId);
+                }
+                if (repair) {
+                    // Through the publisher, so the engine's shards, the spatial index, history and live
+                    // subscribers follow the repaired value as well as the store
+                    positionPublisher.publish(satelliteId, position.getParametersId(), position.getAltitude(),
+                      position.getLatitude(), position.getLongitude());
+                }
+            }
+        }
+        long orphaned = 0;
+        for (long satelliteId : positionStore.satelliteIds()) {
+            if (!seen.containsKey(satelliteId)) {
+                orphaned++;
+                if (mismatchedIds.size() < MISMATCH_SAMPLE_SIZE) {
+                    mismatchedIds.add(satelliteId);
+                }
+                if (repair) {
+                    positionPublisher.remove(satelliteId);
+                }
+            }
+        }
+        return PositionConsistencyReport.builder()
+          .checked(checked)
+          .missing(missing)
+          .stale(stale)
+          .orphaned(orphaned)
+          .repaired(repair)
+          .mismatchedIds(mismatchedIds)
+          .build();
+    }
+
+    private static boolean matches(SatelliteParameters stored, SatellitePosition position) {
+        return Objects.equals(stored.getId(), position.getParametersId())
+          && Objects.equals(stored.getAltitude(), position.getAltitude())
+          && Objects.equals(stored.getLatitude(), position.getLatitude())
+          && Objects.equals(stored.getLongitude(), position.getLongitude());
+    }
+
     @Override
     public Satellite create(Satellite satellite) throws Exception {
         if (satellite.getName() == null ||
@@ -87,12 +475,58 @@ public class SatelliteServiceImpl implements SatelliteService {
         ) {
             throw new BadRequestException("Satellite missing required parameters");
         }
+        validateElements(satellite);
         try {
             repository.save(satellite);
         } catch (Exception ex) {
             // Handle generic Exceptions more gracefully in GlobalExceptionHandler
             throw new Exception(ex.getMessage());
         }
+        positionBroadcaster.trackOrbit(satellite.getId(), satellite.getOrbit());
+        positionPublisher.publish(satellite.getId(), satellite.getParameters());
+        orbitPropagator.register(satellite.getId(), satellite.getElements());
+        responseCache.invalidateCatalog();
         return satellite;
     }
+
+    private static void validateElements(Satellite satellite) {
+        if (satellite.getElements() != null) {
+            String invalid = OrbitMath.validate(satellite.getElements());
+            if (invalid != null) {
+                throw new BadRequestException(invalid);
+            }
+        }
+    }
+
+    /**
+     * Runs the action once the current transaction commits, so readers of the position store, history, live
+     * subscribers and the propagator only see values the database has committed. A given write lock is then held
+     * until the transaction completes, so the next writer's If-Match check reads the committed version. Returns
+     * whether the lock is released on completion, without a transaction the action runs straight away and the caller
+     * keeps the lock.
+     */
+    private static boolean afterCommit(Runnable action, ReentrantLock lock) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return false;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (lock != null) {
+                    lock.unlock();
+                }
+            }
+        });
+        return lock != null;
+    }
+
+    private ReentrantLock writeLockFor(Long satelliteId) {
+        return writeLocks[Long.hashCode(satelliteId * 0x9E3779B97F4A7C15L) & (WRITE_LOCK_STRIPES - 1)];
+    }
 }
@@ -0,0 +1,104 @@
+package com.ism.satellite.spatial;
+
+import java.util.Arrays;
+
+/**
+ * Membership of slots in a fixed number of buckets. Every bucket is a packed int array, and each slot remembers its
+ * bucket and position so moving or removing it is a constant time swap with the bucket's last member.
+ */
+final class BucketIndex {
+
+    private static final int NO_BUCKET = -1;
+
+    private static final int[] EMPTY = new int[0];
+
+    private final int[][] members;
+
+    private final int[] sizes;
+
+    private int[] bucketOfSlot = new int[0];
+
+    private int[] positionOfSlot = new int[0];
+
+    BucketIndex(int bucketCount) {
+        this.members = new int[bucketCount][];
+        this.sizes = new int[bucketCount];
+    }
+
+    int bucketCount() {
+        return members.length;
+    }
+
+    int bucketOf(int slot) {
+        return slot < bucketOfSlot.length ? bucketOfSlot[slot] : NO_BUCKET;
+    }
+
+    /**
+     * Places the slot in the bucket, moving it out of its previous bucket if needed.
+     */
+    void place(int slot, int bucket) {
+        ensureSlotCapacity(slot);
+        int current = bucketOfSlot[slot];
+        if (current == bucket) {
+            return;
+        }
+        if (current != NO_BUCKET) {
+            remove(slot);
+        }
+        int[] bucketMembers = members[bucket];
+        if (bucketMembers == null) {
+            bucketMembers = members[bucket] = new int[4];
+        } else if (sizes[bucket] == bucketMembers.length) {
+            bucketMembers = members[bucket] = Arrays.copyOf(bucketMembers, bucketMembers.length << 1);
+        }
+        int position = sizes[bucket]++;
+        bucketMembers[position] = slot;
+        bucketOfSlot[slot] = bucket;
+        positionOfSlot[slot] = position;
+    }
+
+    void remove(int slot) {
+        int bucket = bucketOf(slot);
+        if (bucket == NO_BUCKET) {
+            return;
+        }
+        int[] bucketMembers = members[bucket];
+        int position = positionOfSlot[slot];
+        int last = --sizes[bucket];
+        if (position != last) {
+            int moved = bucketMembers[last];
+            bucketMembers[position] = moved;
+            positionOfSlot[moved] = position;
+        }
+        bucketOfSlot[slot] = NO_BUCKET;
+    }
+
+    int size(int bucket) {
+        return sizes[bucket];
+    }
+
+    /**
+     * Members of the bucket, only the first size(bucket) entries are valid.
+     */
+    int[] members(int bucket) {
+        int[] bucketMembers = members[bucket];
+        return bucketMembers == null ? EMPTY : bucketMembers;
+    }
+
+    void clear() {
+        Arrays.fill(members, null);
+        Arrays.fill(sizes, 0);
+        Arrays.fill(bucketOfSlot, NO_BUCKET);
+    }
+
+    private void ensureSlotCapacity(int slot) {
+        if (slot < bucketOfSlot.length) {
+            return;
+        }
+        int capacity = Math.max(16, Integer.highestOneBit(slot) << 1);
+        int previous = bucketOfSlot.length;
+        bucketOfSlot = Arrays.copyOf(bucketOfSlot, capacity);
+        positionOfSlot = Arrays.copyOf(positionOfSlot, capacity);
+        Arrays.fill(bucketOfSlot, previous, capacity, NO_BUCKET);
+    }
+}
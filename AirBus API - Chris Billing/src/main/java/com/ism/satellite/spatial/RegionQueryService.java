@@ -0,0 +1,83 @@
+package com.ism.satellite.spatial;
+
+import com.ism.satellite.exception.custom.BadRequestException;
+import com.ism.satellite.response.SatelliteLocation;
+import java.util.List;
+import org.springframework.stereotype.Component;
+
+/**
+ * Validates region queries from the API and runs them against the SpatialIndex. A missing altitude bound leaves
+ * that side of the altitude range open.
+ */
+@Component
+public class RegionQueryService {
+
+    public static final int MAX_RESULTS = 100_000;
+
+    private final SpatialIndex spatialIndex;
+
+    public RegionQueryService(SpatialIndex spatialIndex) {
+        this.spatialIndex = spatialIndex;
+    }
+
+    public List<SatelliteLocation> findWithinBox(double minLatitude, double maxLatitude, double minLongitude,
+                                                 double maxLongitude, Double minAltitude, Double maxAltitude,
+                                                 int limit) {
+        validateLimit(limit);
+        validateLatitude(minLatitude);
+        validateLatitude(maxLatitude);
+        validateLongitude(minLongitude);
+        validateLongitude(maxLongitude);
+        if (minLatitude > maxLatitude) {
+            throw new BadRequestException("Minimum latitude must not be above maximum latitude");
+        }
+        return spatialIndex.withinBox(minLatitude, maxLatitude, minLongitude, maxLongitude,
+          lowerAltitude(minAltitude), upperAltitude(maxAltitude), limit);
+    }
+
+    public List<SatelliteLocation> findWithinRadius(double latitude, double longitude, double radiusKm,
+                                                    Double minAltitude, Double maxAltitude, int limit) {
+        validateLimit(limit);
+        validateLatitude(latitude);
+        validateLongitude(longitude);
+        if (!(radiusKm > 0)) {
+            throw new BadRequestException("Radius must be positive");
+        }
+        return spatialIndex.withinRadius(latitude, longitude, radiusKm, lowerAltitude(minAltitude),
+          upperAltitude(maxAltitude), limit);
+    }
+
+    public List<SatelliteLocation> findWithinAltitude(double minAltitude, double maxAltitude, int limit) {
+        validateLimit(limit);
+        if (minAltitude > maxAltitude) {
+            throw new BadRequestException("Minimum altitude must not be above maximum altitude");
+        }
+        return spatialIndex.withinAltitude(minAltitude, maxAltitude, limit);
+    }
+
+    private static void validateLimit(int limit) {
+        if (limit < 1 || limit > MAX_RESULTS) {
+            throw new BadRequestException(String.format("Region limit must be between 1 and %s", MAX_RESULTS));
+        }
+    }
+
+    private static void validateLatitude(double latitude) {
+        if (!(latitude >= -90 && latitude <= 90)) {
+            throw new BadRequestException("Latitude must be between -90 and 90");
+        }
+    }
+
+    private static void validateLongitude(double longitude) {
+        if (!(longitude >= -180 && longitude <= 180)) {
+            throw new BadRequestException("Longitude must be between -180 and 180");
+        }
+    }
+
+    private static double lowerAltitude(Double minAltitude) {
+        return minAltitude == null ? Double.NEGATIVE_INFINITY : minAltitude;
+    }
+
+    private static double upperAltitude(Double maxAltitude) {
+        return maxAltitude == null ? Double.POSITIVE_INFINITY : maxAltitude;
+    }
+}
@@ -0,0 +1,334 @@
+package com.ism.satellite.spatial;
+
+import com.ism.satellite.propagation.OrbitMath;
+import com.ism.satellite.response.SatelliteLocation;
+import com.ism.satellite.service.PositionListener;
+import com.ism.satellite.store.LongIntHashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.springframework.stereotype.Component;
+
+/**
+ * Spatial index over the current sub-satellite point and altitude of every satellite. Positions are bucketed into a
+ * fixed latitude/longitude grid and, independently, into altitude shells, both kept up to date incrementally from
+ * the position publisher. Region queries only visit the grid cells or shells overlapping the region and then filter
+ * exactly, so their cost follows the size of the region and its result rather than the size of the catalog.
+ */
+@Component
+public class SpatialIndex implements PositionListener {
+
+    public static final double DEFAULT_CELL_DEGREES = 1.0;
+
+    public static final double DEFAULT_SHELL_KM = 50.0;
+
+    // Altitudes above the last shell share it, which only matters for deep space orbits
+    private static final int SHELL_COUNT = 1024;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final double cellDegrees;
+
+    private final int latitudeCells;
+
+    private final int longitudeCells;
+
+    private final double shellKm;
+
+    private final BucketIndex grid;
+
+    private final BucketIndex shells;
+
+    private final LongIntHashMap slots = new LongIntHashMap(INITIAL_CAPACITY);
+
+    private long[] satelliteIds = new long[INITIAL_CAPACITY];
+
+    private double[] altitudes = new double[INITIAL_CAPACITY];
+
+    private double[] latitudes = new double[INITIAL_CAPACITY];
+
+    private double[] longitudes = new double[INITIAL_CAPACITY];
+
+    private int[] freeSlots = new int[16];
+
+    private int freeCount;
+
+    private int highWater;
+
+    /**
+     * Visitor over candidate slots of the grid or shell buckets.
+     */
+    @FunctionalInterface
+    private interface SlotVisitor {
+        boolean visit(int slot);
+    }
+
+    public SpatialIndex() {
+        this(DEFAULT_CELL_DEGREES, DEFAULT_SHELL_KM);
+    }
+
+    SpatialIndex(double cellDegrees, double shellKm) {
+        if (cellDegrees <= 0 || 180 % cellDegrees != 0) {
+            throw new IllegalArgumentException("Cell size must divide 180 degrees");
+        }
+        this.cellDegrees = cellDegrees;
+        this.latitudeCells = (int) (180 / cellDegrees);
+        this.longitudeCells = 2 * latitudeCells;
+        this.shellKm = shellKm;
+        this.grid = new BucketIndex(latitudeCells * longitudeCells);
+        this.shells = new BucketIndex(SHELL_COUNT);
+    }
+
+    @Override
+    public void onPositionChanged(long satelliteId, long timestampMillis, double altitude, double latitude,
+                                  double longitude) {
+        put(satelliteId, altitude, latitude, longitude);
+    }
+
+    @Override
+    public void onSatelliteRemoved(long satelliteId) {
+        remove(satelliteId);
+    }
+
+    public void put(long satelliteId, double altitude, double latitude, double longitude) {
+        lock.writeLock().lock();
+        try {
+            int slot = slots.get(satelliteId);
+            if (slot < 0) {
+                slot = allocateSlot();
+                slots.put(satelliteId, slot);
+            }
+            store(slot, satelliteId, altitude, latitude, longitude);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes the position unless the satellite is already indexed, so warming never overwrites a newer fix.
+     */
+    public void putIfAbsent(long satelliteId, double altitude, double latitude, double longitude) {
+        lock.writeLock().lock();
+        try {
+            if (!slots.containsKey(satelliteId)) {
+                int slot = allocateSlot();
+                slots.put(satelliteId, slot);
+                store(slot, satelliteId, altitude, latitude, longitude);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long satelliteId) {
+        lock.writeLock().lock();
+        try {
+            int slot = slots.remove(satelliteId);
+            if (slot >= 0) {
+                grid.remove(slot);
+                shells.remove(slot);
+                if (freeCount == freeSlots.length) {
+                    freeSlots = Arrays.copyOf(freeSlots, freeCount << 1);
+                }
+                freeSlots[freeCount++] = slot;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Satellites whose sub-satellite point lies in the box and whose altitude lies in [minAltitude, maxAltitude].
+     * A box with minLongitude greater than maxLongitude crosses the antimeridian.
+     */
+    public List<SatelliteLocation> withinBox(double minLatitude, double maxLatitude, double minLongitude,
+                                             double maxLongitude, double minAltitude, double maxAltitude,
+                                             int limit) {
+        boolean crossesAntimeridian = minLongitude > maxLongitude;
+        int lastLongitudeCell = longitudeCell(maxLongitude) + (crossesAntimeridian ? longitudeCells : 0);
+        List<SatelliteLocation> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            visitCells(latitudeCell(minLatitude), latitudeCell(maxLatitude), longitudeCell(minLongitude),
+              lastLongitudeCell, slot -> {
+                  double latitude = latitudes[slot];
+                  double longitude = normalizeLongitude(longitudes[slot]);
+                  boolean inLongitude = crossesAntimeridian
+                    ? longitude >= minLongitude || longitude <= maxLongitude
+                    : longitude >= minLongitude && longitude <= maxLongitude;
+                  if (inLongitude && latitude >= minLatitude && latitude <= maxLatitude
+                    && inAltitude(slot, minAltitude, maxAltitude)) {
+                      matches.add(toLocation(slot, null));
+                  }
+                  return matches.size() < limit;
+              });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return matches;
+    }
+
+    /**
+     * Satellites whose sub-satellite point lies within radiusKm of the given point along the Earth's surface and
+     * whose altitude lies in [minAltitude, maxAltitude], nearest first.
+     */
+    public List<SatelliteLocation> withinRadius(double latitude, double longitude, double radiusKm,
+                                                double minAltitude, double maxAltitude, int limit) {
+        double angularRadius = radiusKm / OrbitMath.EARTH_RADIUS_KM;
+        double radiusDegrees = Math.toDegrees(angularRadius);
+        int firstLatitudeCell = latitudeCell(latitude - radiusDegrees);
+        int lastLatitudeCell = latitudeCell(latitude + radiusDegrees);
+        int firstLongitudeCell = 0;
+        int lastLongitudeCell = longitudeCells - 1;
+        // Longitude half width of the spherical cap, unbounded when the cap contains a pole
+        double capWidth = Math.sin(angularRadius) / Math.cos(Math.toRadians(latitude));
+        if (angularRadius < Math.PI / 2 && latitude - radiusDegrees > -90 && latitude + radiusDegrees < 90
+          && capWidth < 1) {
+            double halfWidth = Math.toDegrees(Math.asin(capWidth));
+            firstLongitudeCell = (int) Math.floor((longitude - halfWidth + 180) / cellDegrees);
+            lastLongitudeCell = (int) Math.floor((longitude + halfWidth + 180) / cellDegrees);
+        }
+
+        List<SatelliteLocation> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            visitCells(firstLatitudeCell, lastLatitudeCell, firstLongitudeCell, lastLongitudeCell, slot -> {
+                double distance = surfaceDistanceKm(latitude, longitude, latitudes[slot], longitudes[slot]);
+                if (distance <= radiusKm && inAltitude(slot, minAltitude, maxAltitude)) {
+                    matches.add(toLocation(slot, distance));
+                }
+                return true;
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        matches.sort(Comparator.comparingDouble(SatelliteLocation::getDistanceKm));
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    /**
+     * Satellites with altitude in [minAltitude, maxAltitude], whatever their ground position.
+     */
+    public List<SatelliteLocation> withinAltitude(double minAltitude, double maxAltitude, int limit) {
+        List<SatelliteLocation> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int shell = shell(minAltitude), last = shell(maxAltitude); shell <= last; shell++) {
+                int[] members = shells.members(shell);
+                for (int i = 0, size = shells.size(shell); i < size; i++) {
+                    int slot = members[i];
+                    if (inAltitude(slot, minAltitude, maxAltitude)) {
+                        matches.add(toLocation(slot, null));
+                        if (matches.size() == limit) {
+                            return matches;
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return matches;
+    }
+
+    /**
+     * Great circle distance between two points on the Earth's surface.
+     */
+    static double surfaceDistanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double phi1 = Math.toRadians(latitude1);
+        double phi2 = Math.toRadians(latitude2);
+        double sinHalfLatitude = Math.sin((phi2 - phi1) / 2);
+        double sinHalfLongitude = Math.sin(Math.toRadians(longitude2 - longitude1) / 2);
+        double h = sinHalfLatitude * sinHalfLatitude
+          + Math.cos(phi1) * Math.cos(phi2) * sinHalfLongitude * sinHalfLongitude;
+        return 2 * OrbitMath.EARTH_RADIUS_KM * Math.asin(Math.sqrt(Math.min(1, h)));
+    }
+
+    // Longitude cell bounds may run past the grid edge, they wrap around and are capped at one full turn
+    private void visitCells(int firstLatitudeCell, int lastLatitudeCell, int firstLongitudeCell,
+                            int lastLongitudeCell, SlotVisitor visitor) {
+        if (lastLongitudeCell - firstLongitudeCell >= longitudeCells) {
+            firstLongitudeCell = 0;
+            lastLongitudeCell = longitudeCells - 1;
+        }
+        for (int latitudeCell = firstLatitudeCell; latitudeCell <= lastLatitudeCell; latitudeCell++) {
+            for (int column = firstLongitudeCell; column <= lastLongitudeCell; column++) {
+                int cell = latitudeCell * longitudeCells + Math.floorMod(column, longitudeCells);
+                int[] members = grid.members(cell);
+                for (int i = 0, size = grid.size(cell); i < size; i++) {
+                    if (!visitor.visit(members[i])) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private void store(int slot, long satelliteId, double altitude, double latitude, double longitude) {
+        satelliteIds[slot] = satelliteId;
+        altitudes[slot] = altitude;
+        latitudes[slot] = latitude;
+        longitudes[slot] = longitude;
+        grid.place(slot, latitudeCell(latitude) * longitudeCells + longitudeCell(normalizeLongitude(longitude)));
+        shells.place(slot, shell(altitude));
+    }
+
+    private boolean inAltitude(int slot, double minAltitude, double maxAltitude) {
+        return altitudes[slot] >= minAltitude && altitudes[slot] <= maxAltitude;
+    }
+
+    private SatelliteLocation toLocation(int slot, Double distanceKm) {
+        return new SatelliteLocation(satelliteIds[slot], altitudes[slot], latitudes[slot], longitudes[slot],
+          distanceKm);
+    }
+
+    private int latitudeCell(double latitude) {
+        return clamp((int) Math.floor((latitude + 90) / cellDegrees), latitudeCells - 1);
+    }
+
+    private int longitudeCell(double longitude) {
+        return clamp((int) Math.floor((longitude + 180) / cellDegrees), longitudeCells - 1);
+    }
+
+    private int shell(double altitude) {
+        return clamp((int) Math.floor(altitude / shellKm), SHELL_COUNT - 1);
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (highWater == satelliteIds.length) {
+            int capacity = satelliteIds.length << 1;
+            satelliteIds = Arrays.copyOf(satelliteIds, capacity);
+            altitudes = Arrays.copyOf(altitudes, capacity);
+            latitudes = Arrays.copyOf(latitudes, capacity);
+            longitudes = Arrays.copyOf(longitudes, capacity);
+        }
+        return highWater++;
+    }
+
+    private static double normalizeLongitude(double longitude) {
+        if (longitude >= -180 && longitude <= 180) {
+            return longitude;
+        }
+        return ((longitude + 180) % 360 + 360) % 360 - 180;
+    }
+
+    private static int clamp(int value, int max) {
+        return Math.max(0, Math.min(value, max));
+    }
+}
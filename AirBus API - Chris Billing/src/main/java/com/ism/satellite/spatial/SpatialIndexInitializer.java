@@ -0,0 +1,37 @@
+package com.ism.satellite.spatial;
+
+import com.ism.satellite.store.PositionStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the SpatialIndex from the PositionStore once the store has been warmed.
+ */
+@Component
+@Order(1)
+public class SpatialIndexInitializer implements ApplicationRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpatialIndexInitializer.class);
+
+    private final PositionStore positionStore;
+
+    private final SpatialIndex spatialIndex;
+
+    public SpatialIndexInitializer(PositionStore positionStore, SpatialIndex spatialIndex) {
+        this.positionStore = positionStore;
+        this.spatialIndex = spatialIndex;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long started = System.nanoTime();
+        positionStore.forEach((satelliteId, parametersId, altitude, latitude, longitude) ->
+          spatialIndex.putIfAbsent(satelliteId, altitude, latitude, longitude));
+        LOGGER.info("Built spatial index over {} satellites in {} ms", spatialIndex.size(),
+          (System.nanoTime() - started) / 1_000_000);
+    }
+}
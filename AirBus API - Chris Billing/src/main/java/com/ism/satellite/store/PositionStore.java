@@ -0,0 +1,221 @@
+package com.ism.satellite.store;
+
+import com.ism.satellite.domain.SatelliteParameters;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hot in-memory copy of the latest position of every satellite, laid out as primitive columns (struct of arrays)
+ * and indexed by satellite id through a {@link LongIntHashMap}. Reads use an optimistic stamp and allocate nothing
+ * apart from the returned SatelliteParameters, writes are serialised by the write lock.
+ */
+@Component
+public class PositionStore {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final StampedLock lock = new StampedLock();
+
+    private final LongIntHashMap slots = new LongIntHashMap(INITIAL_CAPACITY);
+
+    private long[] parametersIds = new long[INITIAL_CAPACITY];
+
+    private double[] altitudes = new double[INITIAL_CAPACITY];
+
+    private double[] latitudes = new double[INITIAL_CAPACITY];
+
+    private double[] longitudes = new double[INITIAL_CAPACITY];
+
+    // Slots released by remove() are reused before the high water mark grows
+    private int[] freeSlots = new int[16];
+
+    private int freeCount;
+
+    private int highWater;
+
+    // Outcomes of lookup(), exported as cache hit and miss counts
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Visitor over the stored columns, used to iterate without materialising rows.
+     */
+    @FunctionalInterface
+    public interface PositionVisitor {
+        void visit(long satelliteId, long parametersId, double altitude, double latitude, double longitude);
+    }
+
+    /**
+     * Returns the stored position of the satellite or null when the store does not hold it.
+     */
+    public SatelliteParameters get(long satelliteId) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            int slot = slots.get(satelliteId);
+            long[] parametersIds = this.parametersIds;
+            double[] altitudes = this.altitudes;
+            double[] latitudes = this.latitudes;
+            double[] longitudes = this.longitudes;
+            if (slot < longitudes.length && slot < latitudes.length && slot < altitudes.length
+              && slot < parametersIds.length) {
+                long parametersId = slot < 0 ? 0L : parametersIds[slot];
+                double altitude = slot < 0 ? 0d : altitudes[slot];
+                double latitude = slot < 0 ? 0d : latitudes[slot];
+                double longitude = slot < 0 ? 0d : longitudes[slot];
+                if (lock.validate(stamp)) {
+                    return slot < 0 ? null : toParameters(parametersId, altitude, latitude, longitude);
+                }
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            int slot = slots.get(satelliteId);
+            return slot < 0 ? null
+              : toParameters(parametersIds[slot], altitudes[slot], latitudes[slot], longitudes[slot]);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Same as {@link #get(long)}, counting the read as a cache hit or miss.
+     */
+    public SatelliteParameters lookup(long satelliteId) {
+        SatelliteParameters parameters = get(satelliteId);
+        (parameters == null ? misses : hits).increment();
+        return parameters;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public boolean contains(long satelliteId) {
+        long stamp = lock.tryOptimisticRead();
+        boolean present = slots.containsKey(satelliteId);
+        if (lock.validate(stamp)) {
+            return present;
+        }
+        stamp = lock.readLock();
+        try {
+            return slots.containsKey(satelliteId);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public void put(long satelliteId, SatelliteParameters parameters) {
+        put(satelliteId, parameters.getId() == null ? 0L : parameters.getId(),
+          parameters.getAltitude(), parameters.getLatitude(), parameters.getLongitude());
+    }
+
+    public void put(long satelliteId, long parametersId, double altitude, double latitude, double longitude) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = slots.get(satelliteId);
+            if (slot < 0) {
+                slot = allocateSlot();
+                slots.put(satelliteId, slot);
+            }
+            parametersIds[slot] = parametersId;
+            altitudes[slot] = altitude;
+            latitudes[slot] = latitude;
+            longitudes[slot] = longitude;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void remove(long satelliteId) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = slots.remove(satelliteId);
+            if (slot >= 0) {
+                if (freeCount == freeSlots.length) {
+                    freeSlots = Arrays.copyOf(freeSlots, freeCount << 1);
+                }
+                freeSlots[freeCount++] = slot;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            slots.clear();
+            freeCount = 0;
+            highWater = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return slots.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the ids of every stored satellite.
+     */
+    public long[] satelliteIds() {
+        long stamp = lock.readLock();
+        try {
+            return slots.keys();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Visits every stored position under the read lock. The visitor must not call back into the store's writers.
+     */
+    public void forEach(PositionVisitor visitor) {
+        long stamp = lock.readLock();
+        try {
+            for (long satelliteId : slots.keys()) {
+                int slot = slots.get(satelliteId);
+                visitor.visit(satelliteId, parametersIds[slot], altitudes[slot], latitudes[slot], longitudes[slot]);
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (highWater == parametersIds.length) {
+            int capacity = parametersIds.length << 1;
+            parametersIds = Arrays.copyOf(parametersIds, capacity);
+            altitudes = Arrays.copyOf(altitudes, capacity);
+            latitudes = Arrays.copyOf(latitudes, capacity);
+            longitudes = Arrays.copyOf(longitudes, capacity);
+        }
+        return highWater++;
+    }
+
+    private static SatelliteParameters toParameters(long parametersId, double altitude, double latitude,
+                                                    double longitude) {
+        SatelliteParameters parameters = new SatelliteParameters();
+        parameters.setId(parametersId == 0L ? null : parametersId);
+        parameters.setAltitude(altitude);
+        parameters.setLatitude(latitude);
+        parameters.setLongitude(longitude);
+        return parameters;
+    }
+}
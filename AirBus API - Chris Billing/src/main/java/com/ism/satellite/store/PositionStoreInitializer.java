@@ -0,0 +1,44 @@
+package com.ism.satellite.store;
+
+import com.ism.satellite.repository.SatelliteParametersRepository;
+import com.ism.satellite.response.SatellitePosition;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Warms the PositionStore from the database once the application has started. Runs first, other in-memory views
+ * are built from the warmed store.
+ */
+@Component
+@Order(0)
+public class PositionStoreInitializer implements ApplicationRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PositionStoreInitializer.class);
+
+    private final SatelliteParametersRepository parametersRepository;
+
+    private final PositionStore positionStore;
+
+    public PositionStoreInitializer(SatelliteParametersRepository parametersRepository, PositionStore positionStore) {
+        this.parametersRepository = parametersRepository;
+        this.positionStore = positionStore;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void run(ApplicationArguments args) {
+        long started = System.nanoTime();
+        try (Stream<SatellitePosition> positions = parametersRepository.streamAllPositions()) {
+            positions.forEach(position -> positionStore.put(position.getSatelliteId(), position.getParametersId(),
+              position.getAltitude(), position.getLatitude(), position.getLongitude()));
+        }
+        LOGGER.info("Warmed position store with {} satellites in {} ms", positionStore.size(),
+          (System.nanoTime() - started) / 1_000_000);
+    }
+}
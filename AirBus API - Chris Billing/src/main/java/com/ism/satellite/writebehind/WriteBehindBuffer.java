@@ -0,0 +1,279 @@
+package com.ism.satellite.writebehind;
+
+import com.ism.satellite.request.PositionUpdate;
+import com.ism.satellite.response.BulkUpdateResponse;
+import com.ism.satellite.response.WriteBehindStats;
+import com.ism.satellite.service.PositionBatchWriter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+/**
+ * Coalescing write-behind buffer for position fixes. Fixes are held in striped ConcurrentHashMaps keyed by satellite
+ * id, so writers never take a shared lock and a newer fix simply replaces the pending one for the same satellite.
+ * A single background flusher drains the stripes on a fixed interval, or early once enough satellites are pending,
+ * and writes the latest fix per satellite through {@link PositionBatchWriter} as batched updates.
+ *
+ * <p>Entries are only removed after their batch commits and only if they were not replaced in the meantime, so a fix
+ * arriving during a flush is never lost. Callers waiting for durability wait on the flush generation that was open
+ * when their fix was buffered.
+ */
+@Component
+// Destroyed before the journal, so the fixes drained on shutdown are logged before its final snapshot
+@DependsOn("catalogJournal")
+public class WriteBehindBuffer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WriteBehindBuffer.class);
+
+    private final WriteBehindProperties properties;
+
+    private final PositionBatchWriter positionBatchWriter;
+
+    private final ConcurrentHashMap<Long, PositionUpdate>[] stripes;
+
+    private final int stripeMask;
+
+    private final AtomicLong pending = new AtomicLong();
+
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // Completed once the next flush has committed, swapped at the start of every flush
+    private volatile CompletableFuture<Void> nextFlush = new CompletableFuture<>();
+
+    private final LongAdder accepted = new LongAdder();
+
+    private final LongAdder coalesced = new LongAdder();
+
+    private final LongAdder written = new LongAdder();
+
+    private final LongAdder failed = new LongAdder();
+
+    private final LongAdder flushes = new LongAdder();
+
+    private final LongAdder flushNanos = new LongAdder();
+
+    private volatile long lastFlushNanos;
+
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+
+    private ScheduledExecutorService flusher;
+
+    @SuppressWarnings("unchecked")
+    public WriteBehindBuffer(WriteBehindProperties properties, PositionBatchWriter positionBatchWriter) {
+        this.properties = properties;
+        this.positionBatchWriter = positionBatchWriter;
+        int stripeCount = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2) - 1) << 1;
+        this.stripes = new ConcurrentHashMap[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+        this.stripeMask = stripeCount - 1;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "write-behind-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = properties.getFlushInterval().toMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        LOGGER.info("Write-behind enabled with {} stripes, flush interval {} ms, durability {}", stripes.length,
+          intervalMillis, properties.getDurability());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        flusher.awaitTermination(properties.getAckTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        // Drain whatever is left so a graceful shutdown does not lose acknowledged fixes
+        flush();
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Buffers the fix, replacing any pending fix for the same satellite, and acknowledges it according to the
+     * configured durability.
+     */
+    public void submit(PositionUpdate update) {
+        awaitDurability(buffer(update), update.getSatelliteId());
+    }
+
+    /**
+     * Buffers the fix without waiting, returning the flush generation that will include it. Used by callers that
+     * must not block, which then acknowledge through {@link #awaitDurability(CompletableFuture, Long)}.
+     */
+    public CompletableFuture<Void> buffer(PositionUpdate update) {
+        accepted.increment();
+        PositionUpdate previous = stripeFor(update.getSatelliteId()).put(update.getSatelliteId(), update);
+        if (previous != null) {
+            coalesced.increment();
+        } else if (pending.incrementAndGet() >= properties.getMaxBatchSize()) {
+            requestFlush();
+        }
+        // Read after the put, so the generation returned is one whose flush will include this fix
+        return nextFlush;
+    }
+
+    /**
+     * Waits for the flush generation a fix was buffered in when the configured durability asks for it.
+     */
+    public void awaitDurability(CompletableFuture<Void> generation, Long satelliteId) {
+        if (properties.getDurability() == WriteBehindDurability.WAIT_FOR_FLUSH) {
+            awaitFlush(generation, satelliteId);
+        }
+    }
+
+    /**
+     * Writes every pending fix, returning the number of rows written.
+     */
+    public int flush() {
+        flushLock.lock();
+        try {
+            return flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private int flushPending() {
+        CompletableFuture<Void> generation = nextFlush;
+        nextFlush = new CompletableFuture<>();
+        // Checked after the swap, a writer that saw the old generation has already counted its fix
+        if (pending.get() == 0) {
+            generation.complete(null);
+            return 0;
+        }
+        long started = System.nanoTime();
+        int total = 0;
+        try {
+            List<Map.Entry<Long, PositionUpdate>> batch = new ArrayList<>(properties.getMaxBatchSize());
+            for (ConcurrentHashMap<Long, PositionUpdate> stripe : stripes) {
+                for (Map.Entry<Long, PositionUpdate> entry : stripe.entrySet()) {
+                    batch.add(Map.entry(entry.getKey(), entry.getValue()));
+                    if (batch.size() == properties.getMaxBatchSize()) {
+                        total += writeBatch(batch);
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                total += writeBatch(batch);
+            }
+            generation.complete(null);
+        } catch (RuntimeException ex) {
+            generation.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            recordFlush(System.nanoTime() - started);
+        }
+        return total;
+    }
+
+    public WriteBehindStats getStats() {
+        long flushCount = flushes.sum();
+        long writtenCount = written.sum();
+        return WriteBehindStats.builder()
+          .enabled(properties.isEnabled())
+          .durability(properties.getDurability().name())
+          .queueDepth(pending.get())
+          .accepted(accepted.sum())
+          .coalesced(coalesced.sum())
+          .written(writtenCount)
+          .failed(failed.sum())
+          .flushes(flushCount)
+          .coalescingRatio(writtenCount == 0 ? 0d : (double) accepted.sum() / writtenCount)
+          .lastFlushMillis(lastFlushNanos / 1_000_000d)
+          .maxFlushMillis(maxFlushNanos.get() / 1_000_000d)
+          .meanFlushMillis(flushCount == 0 ? 0d : flushNanos.sum() / 1_000_000d / flushCount)
+          .build();
+    }
+
+    private int writeBatch(List<Map.Entry<Long, PositionUpdate>> batch) {
+        // These fixes were published when buffered, publishing again could overwrite a newer fix with an older one
+        BulkUpdateResponse response = positionBatchWriter.write(batch.stream().map(Map.Entry::getValue).iterator(),
+          false);
+        for (Map.Entry<Long, PositionUpdate> entry : batch) {
+            // Only drop the entry if no newer fix replaced it while the batch was being written
+            if (stripeFor(entry.getKey()).remove(entry.getKey(), entry.getValue())) {
+                pending.decrementAndGet();
+            }
+        }
+        written.add(response.getApplied());
+        failed.add(response.getFailures().size());
+        int applied = response.getApplied();
+        batch.clear();
+        return applied;
+    }
+
+    private void requestFlush() {
+        if (flusher != null && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(() -> {
+                flushRequested.set(false);
+                flushQuietly();
+            });
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException ex) {
+            // Entries stay buffered and are retried on the next flush
+            LOGGER.error("Write-behind flush failed: {}", ex.getMessage());
+        }
+    }
+
+    private void recordFlush(long nanos) {
+        flushes.increment();
+        flushNanos.add(nanos);
+        lastFlushNanos = nanos;
+        maxFlushNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private void awaitFlush(CompletableFuture<Void> generation, Long satelliteId) {
+        try {
+            generation.get(properties.getAckTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for satellite " + satelliteId + " to be flushed", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Flush failed for satellite " + satelliteId + ": "
+              + ex.getCause().getMessage(), ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new IllegalStateException("Timed out waiting for satellite " + satelliteId + " to be flushed", ex);
+        }
+    }
+
+    private ConcurrentHashMap<Long, PositionUpdate> stripeFor(Long satelliteId) {
+        return stripes[Long.hashCode(satelliteId * 0x9E3779B97F4A7C15L) & stripeMask];
+    }
+}
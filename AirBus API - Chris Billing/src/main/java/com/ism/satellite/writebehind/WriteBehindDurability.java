@@ -0,0 +1,12 @@
+package com.ism.satellite.writebehind;
+
+/**
+ * How long a write-behind patch waits before it is acknowledged to the caller.
+ */
+public enum WriteBehindDurability {
+    // Acknowledge as soon as the fix is buffered, a crash before the next flush loses it
+    FIRE_AND_FORGET,
+    // Acknowledge once the flush containing the fix (or a newer one for the same satellite) has committed
+    WAIT_FOR_FLUSH
+
+}
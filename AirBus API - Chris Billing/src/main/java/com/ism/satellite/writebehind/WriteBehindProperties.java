@@ -0,0 +1,29 @@
+package com.ism.satellite.writebehind;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings for the write-behind position pipeline, bound from satellite.write-behind.*.
+ */
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "satellite.write-behind")
+public class WriteBehindProperties {
+
+    private boolean enabled = false;
+
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    // A flush is triggered early once this many satellites have pending fixes, and it bounds each transaction
+    private int maxBatchSize = 5000;
+
+    private WriteBehindDurability durability = WriteBehindDurability.FIRE_AND_FORGET;
+
+    private Duration ackTimeout = Duration.ofSeconds(5);
+
+}
@@ -1,11 +1,25 @@
 package com.ism.satellite;
 
+import java.nio.file.Path;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
 
 @SpringBootTest
 class SatelliteApplicationTests {
 
+    // Each context gets its own history directory, the store locks it for as long as it is open
+    @TempDir
+    static Path historyDirectory;
+
+    @DynamicPropertySource
+    static void historyProperties(DynamicPropertyRegistry registry) {
+        registry.add("satellite.history.enabled", () -> true);
+        registry.add("satellite.history.directory", historyDirectory::toString);
+    }
+
     @Test
     void contextLoads() {
     }
@@ -0,0 +1,127 @@
+package com.ism.satellite.async;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.ism.satellite.domain.Satellite;
+import com.ism.satellite.domain.SatelliteParameters;
+import com.ism.satellite.exception.custom.NotFoundException;
+import com.ism.satellite.exception.custom.ServiceUnavailableException;
+import com.ism.satellite.response.SatellitePage;
+import com.ism.satellite.service.SatelliteService;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+/**
+ * Checks the async facade runs service calls off the caller's thread, reads listings a page at a time as rows
+ * are requested, and refuses calls once its scheduler is saturated.
+ */
+public class AsyncSatelliteServiceTest {
+
+    private SatelliteService satelliteService;
+
+    private AsyncProperties properties;
+
+    private AsyncSatelliteService asyncSatelliteService;
+
+    @BeforeEach
+    void setUp() {
+        satelliteService = mock(SatelliteService.class);
+        properties = new AsyncProperties();
+        properties.setPageSize(2);
+        asyncSatelliteService = new AsyncSatelliteService(satelliteService, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        asyncSatelliteService.destroy();
+    }
+
+    @Test
+    void streamsEveryPageInOrder() {
+        stubPages();
+
+        StepVerifier.create(asyncSatelliteService.streamAll().map(Satellite::getId))
+          .expectNext(1L, 2L, 3L, 4L, 5L)
+          .verifyComplete();
+    }
+
+    @Test
+    void readsPagesOnlyAsRowsAreRequested() {
+        stubPages();
+
+        StepVerifier.create(asyncSatelliteService.streamAll().map(Satellite::getId), 1)
+          .expectNext(1L)
+          .thenAwait(Duration.ofMillis(200))
+          // One page may be read ahead, the third is not read until the client asks for more rows
+          .then(() -> verify(satelliteService, never()).getPage(eq(4L), anyInt()))
+          .thenRequest(4)
+          .expectNext(2L, 3L, 4L, 5L)
+          .verifyComplete();
+    }
+
+    @Test
+    void runsOnTheSchedulerAndPassesErrorsOn() {
+        Satellite satellite = satellite(1L);
+        when(satelliteService.getById(1L)).thenAnswer(invocation -> {
+            assertTrue(Thread.currentThread().getName().startsWith("satellite-async"));
+            return satellite;
+        });
+        when(satelliteService.getById(2L)).thenThrow(new NotFoundException("Satellite with id: 2 not found"));
+
+        StepVerifier.create(asyncSatelliteService.getById(1L)).expectNext(satellite).verifyComplete();
+        StepVerifier.create(asyncSatelliteService.getById(2L)).expectError(NotFoundException.class).verify();
+    }
+
+    @Test
+    void refusesCallsOnceTheSchedulerIsSaturated() throws InterruptedException {
+        asyncSatelliteService.destroy();
+        properties.setThreads(1);
+        properties.setQueuedCalls(1);
+        asyncSatelliteService = new AsyncSatelliteService(satelliteService, properties);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(satelliteService.patchParameters(eq(1L), any(), isNull())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return satellite(1L);
+        });
+
+        asyncSatelliteService.patchParameters(1L, new SatelliteParameters(), null).subscribe();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        asyncSatelliteService.patchParameters(1L, new SatelliteParameters(), null).subscribe();
+
+        StepVerifier.create(asyncSatelliteService.patchParameters(1L, new SatelliteParameters(), null))
+          .expectError(ServiceUnavailableException.class)
+          .verify();
+        release.countDown();
+    }
+
+    private void stubPages() {
+        when(satelliteService.getPage(isNull(), eq(2)))
+          .thenReturn(SatellitePage.builder().items(List.of(satellite(1L), satellite(2L))).nextCursor(2L).build());
+        when(satelliteService.getPage(eq(2L), eq(2)))
+          .thenReturn(SatellitePage.builder().items(List.of(satellite(3L), satellite(4L))).nextCursor(4L).build());
+        when(satelliteService.getPage(eq(4L), eq(2)))
+          .thenReturn(SatellitePage.builder().items(List.of(satellite(5L))).build());
+    }
+
+    private static Satellite satellite(long id) {
+        Satellite satellite = new Satellite();
+        satellite.setId(id);
+        return satellite;
+    }
+}
@@ -0,0 +1,84 @@
+package com.ism.satellite.benchmark;
+
+import com.ism.satellite.conjunction.ConjunctionScreener;
+import com.ism.satellite.propagation.OrbitMath;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Conjunction screening time against catalog size and worker count. With the spatial hash the time per satellite
+ * should stay roughly flat as the catalog grows, and fall with parallelism up to the number of cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConjunctionScreenerBenchmark {
+
+    @Param({"10000", "50000", "200000"})
+    public int fleetSize;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    @Param({"5"})
+    public double thresholdKm;
+
+    private ForkJoinPool pool;
+
+    private ConjunctionScreener screener;
+
+    private long[] ids;
+
+    private double[] x;
+
+    private double[] y;
+
+    private double[] z;
+
+    @Setup
+    public void setUp() {
+        pool = new ForkJoinPool(parallelism);
+        screener = new ConjunctionScreener(pool);
+        ids = new long[fleetSize];
+        x = new double[fleetSize];
+        y = new double[fleetSize];
+        z = new double[fleetSize];
+        // Uniform over the sphere in a 400 to 2000 km LEO shell, the densest real population
+        SplittableRandom random = new SplittableRandom(42);
+        double[] point = new double[3];
+        for (int i = 0; i < fleetSize; i++) {
+            double latitude = Math.toDegrees(Math.asin(random.nextDouble(-1, 1)));
+            OrbitMath.earthFixed(random.nextDouble(400, 2000), latitude, random.nextDouble(-180, 180), point);
+            ids[i] = i;
+            x[i] = point[0];
+            y[i] = point[1];
+            z[i] = point[2];
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public ConjunctionScreener.Result screen() {
+        return screener.screen(ids, x, y, z, thresholdKm, 1000);
+    }
+}
@@ -0,0 +1,91 @@
+package com.ism.satellite.benchmark;
+
+import com.ism.satellite.domain.OrbitalElements;
+import com.ism.satellite.propagation.FleetElements;
+import com.ism.satellite.propagation.OrbitMath;
+import com.ism.satellite.propagation.OrbitPropagator;
+import com.ism.satellite.response.FleetPositions;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cost of propagating the whole fleet in parallel, and of a single satellite on one thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrbitPropagatorBenchmark {
+
+    private static final int PER_SATELLITE_BATCH = 10_000;
+
+    @Param({"1000", "10000", "50000"})
+    public int fleetSize;
+
+    private OrbitPropagator propagator;
+
+    private FleetElements fleet;
+
+    private Instant at;
+
+    private double[] position;
+
+    @Setup
+    public void setUp() {
+        propagator = new OrbitPropagator();
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDateTime epoch = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 0; i < fleetSize; i++) {
+            OrbitalElements elements = new OrbitalElements();
+            elements.setSemiMajorAxisKm(6700 + random.nextDouble(36_000));
+            elements.setEccentricity(random.nextDouble(0.1));
+            elements.setInclinationDeg(random.nextDouble(180));
+            elements.setRaanDeg(random.nextDouble(360));
+            elements.setArgumentOfPerigeeDeg(random.nextDouble(360));
+            elements.setMeanAnomalyDeg(random.nextDouble(360));
+            elements.setEpoch(epoch);
+            propagator.register(i, elements);
+        }
+        fleet = propagator.fleet();
+        at = Instant.parse("2024-01-02T12:00:00Z");
+        position = new double[3];
+    }
+
+    @Benchmark
+    public FleetPositions propagateFleet() {
+        return propagator.propagate(at);
+    }
+
+    // Reported time is per satellite
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @OperationsPerInvocation(PER_SATELLITE_BATCH)
+    public void propagatePerSatellite(Blackhole blackhole) {
+        long atMillis = at.toEpochMilli();
+        double theta = OrbitMath.greenwichSiderealTime(atMillis);
+        double cosTheta = Math.cos(theta);
+        double sinTheta = Math.sin(theta);
+        int size = fleet.size();
+        for (int i = 0; i < PER_SATELLITE_BATCH; i++) {
+            fleet.earthFixedPosition(i % size, atMillis, cosTheta, sinTheta, position);
+            blackhole.consume(position[0] + position[1] + position[2]);
+        }
+    }
+}
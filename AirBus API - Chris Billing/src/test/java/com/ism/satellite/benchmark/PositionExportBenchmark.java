@@ -0,0 +1,88 @@
+package com.ism.satellite.benchmark;
+
+import com.ism.satellite.export.PositionExportReader;
+import com.ism.satellite.export.PositionExportWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Encoding and decoding of a position export of 1,000 satellites with 1,000 fixes each, one per minute along a
+ * circular orbit. The encoded size is printed once per trial, divide 1M by the score for fixes per millisecond.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PositionExportBenchmark {
+
+    private static final int SATELLITES = 1_000;
+
+    private static final int FIXES = 1_000;
+
+    private static final long START = 1_704_067_200_000L;
+
+    private final long[] timestamps = new long[SATELLITES * FIXES];
+
+    private final double[] altitudes = new double[SATELLITES * FIXES];
+
+    private final double[] latitudes = new double[SATELLITES * FIXES];
+
+    private final double[] longitudes = new double[SATELLITES * FIXES];
+
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws Exception {
+        for (int satellite = 0; satellite < SATELLITES; satellite++) {
+            double inclination = Math.toRadians(30 + satellite % 60);
+            for (int fix = 0; fix < FIXES; fix++) {
+                int i = satellite * FIXES + fix;
+                double anomaly = fix * 0.0654 + satellite;
+                timestamps[i] = START + fix * 60_000L;
+                altitudes[i] = 550.0 + satellite % 10;
+                latitudes[i] = Math.toDegrees(Math.asin(Math.sin(inclination) * Math.sin(anomaly)));
+                longitudes[i] = Math.toDegrees(anomaly) % 360 - 180;
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        write(out);
+        encoded = out.toByteArray();
+        System.out.printf("%nExport of %d fixes: %d bytes (%.1f per fix)%n", SATELLITES * FIXES, encoded.length,
+          (double) encoded.length / (SATELLITES * FIXES));
+    }
+
+    @Benchmark
+    public long encode() throws Exception {
+        return write(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public long decode(Blackhole blackhole) throws Exception {
+        return new PositionExportReader(new ByteArrayInputStream(encoded)).read(
+          (satelliteId, timestampMillis, altitude, latitude, longitude) -> blackhole.consume(longitude));
+    }
+
+    private long write(OutputStream out) throws Exception {
+        PositionExportWriter writer = new PositionExportWriter(out);
+        for (int i = 0; i < timestamps.length; i++) {
+            writer.write(i / FIXES + 1, timestamps[i], altitudes[i], latitudes[i], longitudes[i]);
+        }
+        writer.finish();
+        return writer.getPointCount();
+    }
+}
@@ -0,0 +1,135 @@
+package com.ism.satellite.benchmark;
+
+import com.ism.satellite.SatelliteApplication;
+import com.ism.satellite.domain.SatelliteParameters;
+import com.ism.satellite.engine.SatelliteEngine;
+import com.ism.satellite.request.PositionUpdate;
+import com.ism.satellite.service.SatelliteService;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Position patch throughput against the number of engine shards, from eight concurrent callers. The engine
+ * benchmark patches the engine directly, its throughput should grow roughly linearly with the shard count up to the
+ * number of cores, past which writer threads only share them. The service benchmark goes through patchParameters,
+ * which adds the satellite read for the response. Both share the PositionStore write lock and the position
+ * listeners, which bound the scaling, history is disabled so segment appends do not.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class SatelliteEngineBenchmark {
+
+    private static final int SATELLITES = 10_000;
+
+    @Param({"1", "2", "4", "8"})
+    public int shards;
+
+    private ConfigurableApplicationContext context;
+
+    private SatelliteEngine satelliteEngine;
+
+    private SatelliteService satelliteService;
+
+    private SatelliteParameters[] seeds;
+
+    @State(Scope.Thread)
+    public static class Caller {
+
+        private final SplittableRandom random = new SplittableRandom();
+
+        long nextId() {
+            return random.nextLong(SATELLITES) + 1;
+        }
+
+        double nextAltitude() {
+            return random.nextDouble(400, 2000);
+        }
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        // Arguments rather than default properties, which application.yaml would override
+        context = new SpringApplicationBuilder(SatelliteApplication.class)
+          .web(WebApplicationType.NONE)
+          .run(
+            "--satellite.engine.enabled=true",
+            "--satellite.engine.shards=" + shards,
+            "--satellite.write-behind.enabled=true",
+            "--satellite.history.enabled=false",
+            "--satellite.history.directory=" + Files.createTempDirectory("satellite-history-benchmark"),
+            "--satellite.conjunction.enabled=false",
+            "--logging.level.root=WARN");
+        satelliteEngine = context.getBean(SatelliteEngine.class);
+        satelliteService = context.getBean(SatelliteService.class);
+
+        // Plain JDBC batches, the benchmark is about patches rather than inserts
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        List<Object[]> parameters = new ArrayList<>();
+        List<Object[]> satellites = new ArrayList<>();
+        seeds = new SatelliteParameters[SATELLITES + 1];
+        for (long id = 1; id <= SATELLITES; id++) {
+            parameters.add(new Object[] {id, 500.0});
+            satellites.add(new Object[] {id, "Sat-" + id, id});
+            SatelliteParameters seed = new SatelliteParameters();
+            seed.setId(id);
+            seed.setAltitude(500.0);
+            seed.setLatitude(0.0);
+            seed.setLongitude(0.0);
+            seeds[(int) id] = seed;
+        }
+        jdbcTemplate.batchUpdate("insert into satellite_parameters (id, version, altitude, latitude, longitude) "
+          + "values (?, 0, ?, 0, 0)", parameters);
+        jdbcTemplate.batchUpdate("insert into satellite (id, version, name, orbit, launch_date, param_id) "
+          + "values (?, 0, ?, 'LEO', current_timestamp, ?)", satellites);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object engine(Caller caller) {
+        long id = caller.nextId();
+        return satelliteEngine.patch(PositionUpdate.builder()
+          .satelliteId(id)
+          .altitude(caller.nextAltitude())
+          .latitude(0.0)
+          .longitude(0.0)
+          .build(), seeds[(int) id], satelliteEngine.removalGeneration(id), null);
+    }
+
+    @Benchmark
+    public Object service(Caller caller) {
+        SatelliteParameters parameters = new SatelliteParameters();
+        parameters.setAltitude(caller.nextAltitude());
+        parameters.setLatitude(0.0);
+        parameters.setLongitude(0.0);
+        return satelliteService.patchParameters(caller.nextId(), parameters);
+    }
+}
@@ -0,0 +1,174 @@
+package com.ism.satellite.benchmark;
+
+import com.ism.satellite.SatelliteApplication;
+import com.ism.satellite.domain.OrbitType;
+import com.ism.satellite.domain.Satellite;
+import com.ism.satellite.repository.SatelliteSearchQuery;
+import com.ism.satellite.request.SatelliteSearch;
+import com.ism.satellite.request.SatelliteSearch.SortField;
+import com.ism.satellite.response.SatelliteSearchPage;
+import com.ism.satellite.service.SatelliteService;
+import java.nio.file.Files;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Catalog search pages against growing tables. Each search is answered from an index, so the time per page should
+ * stay flat from 10k to 400k rows, deep pages included. Setup prints each search's H2 plan and fails the run if a
+ * plan does not use the expected index. The altitude band is the exception: its matches grow with the table and are
+ * sorted by id.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SatelliteSearchBenchmark {
+
+    private static final int SEED_BATCH = 5000;
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    @Param({"10000", "100000", "400000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+
+    private SatelliteService satelliteService;
+
+    private SatelliteSearch namePrefix;
+
+    private SatelliteSearch deepNamePage;
+
+    private SatelliteSearch deepLaunchDatePage;
+
+    private SatelliteSearch deepOrbitPage;
+
+    private SatelliteSearch altitudeBand;
+
+    @Setup
+    public void setUp() throws Exception {
+        // Arguments rather than default properties, which application.yaml would override
+        context = new SpringApplicationBuilder(SatelliteApplication.class)
+          .web(WebApplicationType.NONE)
+          .run(
+            "--satellite.history.directory=" + Files.createTempDirectory("satellite-history-benchmark"),
+            "--satellite.conjunction.enabled=false",
+            "--logging.level.root=WARN");
+        satelliteService = context.getBean(SatelliteService.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        seed(jdbcTemplate);
+
+        Satellite middleByName = middle(jdbcTemplate, "name");
+        Satellite middleByLaunchDate = middle(jdbcTemplate, "launch_date");
+        Satellite middleById = middle(jdbcTemplate, "id");
+        namePrefix = SatelliteSearch.builder().name("Sat-7").sort(SortField.NAME).build();
+        deepNamePage = SatelliteSearch.builder().sort(SortField.NAME)
+          .after(SatelliteSearchQuery.cursor(SortField.NAME, middleByName)).build();
+        deepLaunchDatePage = SatelliteSearch.builder().launchedFrom(EPOCH.plusYears(5)).sort(SortField.LAUNCH_DATE)
+          .after(SatelliteSearchQuery.cursor(SortField.LAUNCH_DATE, middleByLaunchDate)).build();
+        deepOrbitPage = SatelliteSearch.builder().orbit(OrbitType.LEO)
+          .after(SatelliteSearchQuery.cursor(SortField.ID, middleById)).build();
+        altitudeBand = SatelliteSearch.builder().minAltitude(1000.0).maxAltitude(1001.0).build();
+
+        verifyPlan(jdbcTemplate, namePrefix, "IDX_SATELLITE_NAME", true);
+        verifyPlan(jdbcTemplate, deepNamePage, "IDX_SATELLITE_NAME", true);
+        verifyPlan(jdbcTemplate, deepLaunchDatePage, "IDX_SATELLITE_LAUNCH_DATE", true);
+        verifyPlan(jdbcTemplate, deepOrbitPage, "IDX_SATELLITE_ORBIT", true);
+        verifyPlan(jdbcTemplate, altitudeBand, "IDX_SATELLITE_PARAMETERS_ALTITUDE", false);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public SatelliteSearchPage namePrefix() {
+        return satelliteService.search(namePrefix);
+    }
+
+    @Benchmark
+    public SatelliteSearchPage deepNamePage() {
+        return satelliteService.search(deepNamePage);
+    }
+
+    @Benchmark
+    public SatelliteSearchPage deepLaunchDatePage() {
+        return satelliteService.search(deepLaunchDatePage);
+    }
+
+    @Benchmark
+    public SatelliteSearchPage deepOrbitPage() {
+        return satelliteService.search(deepOrbitPage);
+    }
+
+    @Benchmark
+    public SatelliteSearchPage altitudeBand() {
+        return satelliteService.search(altitudeBand);
+    }
+
+    // Plain JDBC batches, saving 400k entities through Hibernate would dominate the run
+    private void seed(JdbcTemplate jdbcTemplate) {
+        OrbitType[] orbits = OrbitType.values();
+        for (int start = 0; start < rows; start += SEED_BATCH) {
+            List<Object[]> parameters = new ArrayList<>();
+            List<Object[]> satellites = new ArrayList<>();
+            for (int i = start; i < Math.min(rows, start + SEED_BATCH); i++) {
+                long id = i + 1;
+                parameters.add(new Object[] {id, 400.0 + (i * 7919L) % 1600 + (i % 100) / 100.0, 0.0, 0.0});
+                // Names and launch dates are scattered, so neither order follows the ids
+                satellites.add(new Object[] {id, "Sat-" + Long.toString((i * 2654435761L) % 4294967296L, 36),
+                  orbits[i % orbits.length].name(),
+                  Timestamp.valueOf(EPOCH.plusMinutes((i * 40503L) % (20L * 365 * 24 * 60))), id});
+            }
+            jdbcTemplate.batchUpdate("insert into satellite_parameters (id, version, altitude, latitude, longitude) "
+              + "values (?, 0, ?, ?, ?)", parameters);
+            jdbcTemplate.batchUpdate("insert into satellite (id, version, name, orbit, launch_date, param_id) "
+              + "values (?, 0, ?, ?, ?, ?)", satellites);
+        }
+    }
+
+    private Satellite middle(JdbcTemplate jdbcTemplate, String column) {
+        return jdbcTemplate.queryForObject("select id, name, launch_date from satellite order by " + column
+          + ", id limit 1 offset ?", (row, index) -> {
+              Satellite satellite = new Satellite();
+              satellite.setId(row.getLong(1));
+              satellite.setName(row.getString(2));
+              satellite.setLaunchDate(row.getTimestamp(3).toLocalDateTime());
+              return satellite;
+          }, rows / 2);
+    }
+
+    private static void verifyPlan(JdbcTemplate jdbcTemplate, SatelliteSearch search, String index,
+                                   boolean sorted) {
+        SatelliteSearchQuery query = SatelliteSearchQuery.of(search);
+        String plan = jdbcTemplate.queryForObject("explain " + query.getSql(), String.class,
+          query.getParameters().toArray());
+        System.out.println(plan);
+        if (!plan.contains(index) || sorted && !plan.contains("index sorted")) {
+            throw new IllegalStateException("Expected a plan " + (sorted ? "sorted by " : "using ") + index
+              + " but got:\n" + plan);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.ism.satellite.benchmark;
+
+import com.ism.satellite.SatelliteApplication;
+import com.ism.satellite.domain.OrbitType;
+import com.ism.satellite.domain.Satellite;
+import com.ism.satellite.domain.SatelliteParameters;
+import com.ism.satellite.repository.SatelliteRepository;
+import com.ism.satellite.service.SatelliteService;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * SatelliteService hot paths against the full application context and the H2 database from application.yaml,
+ * seeded with the given number of satellites. Each fork starts its own context and in-memory database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SatelliteServiceBenchmark {
+
+    private static final int SEED_BATCH = 1000;
+
+    @Param({"100", "1000", "10000"})
+    public int rows;
+
+    // Hibernate second-level cache, compare getById with and without it
+    @Param({"true", "false"})
+    public boolean entityCache;
+
+    private ConfigurableApplicationContext context;
+
+    private SatelliteService satelliteService;
+
+    private long[] ids;
+
+    @Setup
+    public void setUp() throws Exception {
+        // Arguments rather than default properties, which application.yaml would override
+        context = new SpringApplicationBuilder(SatelliteApplication.class)
+          .web(WebApplicationType.NONE)
+          .run(
+            "--satellite.history.enabled=true",
+            "--satellite.history.directory=" + Files.createTempDirectory("satellite-history-benchmark"),
+            "--satellite.conjunction.enabled=false",
+            "--satellite.entity-cache.enabled=" + entityCache,
+            "--logging.level.root=WARN");
+        satelliteService = context.getBean(SatelliteService.class);
+        SatelliteRepository repository = context.getBean(SatelliteRepository.class);
+
+        List<Satellite> batch = new ArrayList<>(SEED_BATCH);
+        for (int i = 0; i < rows; i++) {
+            batch.add(satellite(i));
+            if (batch.size() == SEED_BATCH || i == rows - 1) {
+                repository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        ids = repository.findAll().stream().mapToLong(Satellite::getId).toArray();
+        // Warm the in-memory views the way application startup would have
+        satelliteService.checkPositionConsistency(true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Satellite getById() {
+        return satelliteService.getById(randomId());
+    }
+
+    @Benchmark
+    public SatelliteParameters getSatellitePosition() {
+        return satelliteService.getSatellitePosition(randomId());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Satellite> getAll() {
+        return satelliteService.getAll();
+    }
+
+    @Benchmark
+    public Satellite patchParameters() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        SatelliteParameters parameters = new SatelliteParameters();
+        parameters.setAltitude(random.nextDouble(400, 2000));
+        parameters.setLatitude(random.nextDouble(-90, 90));
+        parameters.setLongitude(random.nextDouble(-180, 180));
+        return satelliteService.patchParameters(randomId(), parameters);
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    private static Satellite satellite(int index) {
+        SatelliteParameters parameters = new SatelliteParameters();
+        parameters.setAltitude(400.0 + index % 1600);
+        parameters.setLatitude((index % 180) - 90.0);
+        parameters.setLongitude((index % 360) - 180.0);
+        Satellite satellite = new Satellite();
+        satellite.setName("Benchmark " + index);
+        satellite.setLaunchDate(LocalDateTime.of(2030, 1, 1, 0, 0));
+        satellite.setOrbit(OrbitType.values()[index % OrbitType.values().length]);
+        satellite.setParameters(parameters);
+        return satellite;
+    }
+}
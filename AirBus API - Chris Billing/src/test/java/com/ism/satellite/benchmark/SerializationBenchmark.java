@@ -0,0 +1,99 @@
+package com.ism.satellite.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ism.satellite.domain.OrbitType;
+import com.ism.satellite.domain.Satellite;
+import com.ism.satellite.domain.SatelliteParameters;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Jackson encoding and decoding of the API's main payloads, with an ObjectMapper configured like Spring Boot's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private static final int LIST_SIZE = 100;
+
+    private ObjectWriter writer;
+
+    private ObjectReader satelliteReader;
+
+    private Satellite satellite;
+
+    private List<Satellite> satellites;
+
+    private byte[] satelliteJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+          .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+          .build();
+        writer = objectMapper.writer();
+        satelliteReader = objectMapper.readerFor(Satellite.class);
+        satellites = new ArrayList<>(LIST_SIZE);
+        for (int i = 0; i < LIST_SIZE; i++) {
+            satellites.add(satellite(i));
+        }
+        satellite = satellites.get(0);
+        satelliteJson = writer.writeValueAsBytes(satellite);
+    }
+
+    @Benchmark
+    public byte[] serializeSatellite() throws Exception {
+        return writer.writeValueAsBytes(satellite);
+    }
+
+    @Benchmark
+    public byte[] serializeParameters() throws Exception {
+        return writer.writeValueAsBytes(satellite.getParameters());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public byte[] serializeSatelliteList() throws Exception {
+        return writer.writeValueAsBytes(satellites);
+    }
+
+    @Benchmark
+    public Satellite deserializeSatellite() throws Exception {
+        return satelliteReader.readValue(satelliteJson);
+    }
+
+    private static Satellite satellite(int index) {
+        SatelliteParameters parameters = new SatelliteParameters();
+        parameters.setId((long) index + 1);
+        parameters.setAltitude(550.0 + index);
+        parameters.setLatitude(51.5);
+        parameters.setLongitude(-0.12);
+        Satellite satellite = new Satellite();
+        satellite.setId((long) index + 1);
+        satellite.setName("Satellite " + index);
+        satellite.setLaunchDate(LocalDateTime.of(2030, 1, 1, 0, 0));
+        satellite.setOrbit(OrbitType.LEO);
+        satellite.setParameters(parameters);
+        return satellite;
+    }
+}
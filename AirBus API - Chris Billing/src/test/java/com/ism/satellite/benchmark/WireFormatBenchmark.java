@@ -0,0 +1,104 @@
+package com.ism.satellite.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.ism.satellite.domain.OrbitType;
+import com.ism.satellite.domain.Satellite;
+import com.ism.satellite.domain.SatelliteParameters;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Encoding and decoding of a satellite list in each negotiable wire format. A size of 1 stands for a single satellite
+ * response, 10000 for a bulk listing. Payload sizes are printed once per trial since JMH only reports times.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"1", "10000"})
+    private int size;
+
+    private ObjectWriter writer;
+
+    private ObjectReader reader;
+
+    private List<Satellite> satellites;
+
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws Exception {
+        // Same builder settings as the application's converters, only the underlying factory differs
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+          .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        switch (format) {
+            case "cbor" -> builder.factory(new CBORFactory());
+            case "smile" -> builder.factory(new SmileFactory());
+            default -> {
+            }
+        }
+        ObjectMapper objectMapper = builder.build();
+        writer = objectMapper.writer();
+        reader = objectMapper.readerFor(new TypeReference<List<Satellite>>() {
+        });
+        satellites = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            satellites.add(satellite(i));
+        }
+        encoded = writer.writeValueAsBytes(satellites);
+        System.out.printf("%n%s payload for %d satellites: %d bytes (%.1f per satellite)%n", format, size,
+          encoded.length, (double) encoded.length / size);
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        return writer.writeValueAsBytes(satellites);
+    }
+
+    @Benchmark
+    public List<Satellite> decode() throws Exception {
+        return reader.readValue(encoded);
+    }
+
+    private static Satellite satellite(int index) {
+        SatelliteParameters parameters = new SatelliteParameters();
+        parameters.setId((long) index + 1);
+        parameters.setAltitude(550.0 + index);
+        parameters.setLatitude(51.5);
+        parameters.setLongitude(-0.12);
+        Satellite satellite = new Satellite();
+        satellite.setId((long) index + 1);
+        satellite.setName("Satellite " + index);
+        satellite.setLaunchDate(LocalDateTime.of(2030, 1, 1, 0, 0));
+        satellite.setOrbit(OrbitType.LEO);
+        satellite.setParameters(parameters);
+        return satellite;
+    }
+}
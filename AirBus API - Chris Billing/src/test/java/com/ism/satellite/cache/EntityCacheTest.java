@@ -0,0 +1,154 @@
+package com.ism.satellite.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.ism.satellite.domain.OrbitType;
+import com.ism.satellite.domain.Satellite;
+import com.ism.satellite.domain.SatelliteParameters;
+import com.ism.satellite.exception.custom.NotFoundException;
+import com.ism.satellite.metrics.QueryCounter;
+import com.ism.satellite.repository.SatelliteRepository;
+import com.ism.satellite.service.SatelliteService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import javax.cache.CacheManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Tests that reads are answered from the second-level cache and that every write path keeps it current, against
+ * the full application context so each service call commits on its own. Committed rows would leak into other
+ * tests sharing the in-memory database, so this one gets its own.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:entity-cache;MODE=MySQL")
+public class EntityCacheTest {
+
+    @TempDir
+    static Path historyDirectory;
+
+    @DynamicPropertySource
+    static void historyProperties(DynamicPropertyRegistry registry) {
+        registry.add("satellite.history.directory", historyDirectory::toString);
+    }
+
+    @Autowired
+    SatelliteService satelliteService;
+
+    @Autowired
+    SatelliteRepository repository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    QueryCounter queryCounter;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void readsAreServedFromTheCacheAndWritesKeepItCurrent() throws Exception {
+        Long id = satelliteService.create(satellite("Cached", 500.0)).getId();
+        entityManagerFactory.getCache().evictAll();
+
+        assertEquals(1, statementsIssuedBy(() -> satelliteService.getById(id)));
+        Satellite cached = satelliteService.getById(id);
+        assertEquals(0, statementsIssuedBy(() -> satelliteService.getById(id)));
+        assertEquals(500.0, cached.getParameters().getAltitude());
+
+        Satellite replacement = satellite("Renamed", 600.0);
+        satelliteService.update(replacement, id);
+        assertEquals("Renamed", fromCache(id).getName());
+        assertEquals(600.0, fromCache(id).getParameters().getAltitude());
+
+        SatelliteParameters fix = new SatelliteParameters();
+        fix.setAltitude(700.0);
+        fix.setLatitude(1.0);
+        fix.setLongitude(2.0);
+        satelliteService.patchParameters(id, fix);
+        assertEquals(700.0, fromCache(id).getParameters().getAltitude());
+        assertEquals(2.0, fromCache(id).getParameters().getLongitude());
+
+        satelliteService.delete(id);
+        assertThrows(NotFoundException.class, () -> satelliteService.getById(id));
+
+        assertTrue(meterRegistry.get("cache.gets").tags("cache", EntityCache.SATELLITE_REGION, "result", "hit")
+          .functionCounter().count() > 0);
+        assertTrue(meterRegistry.get("cache.gets").tags("cache", EntityCache.PARAMETERS_REGION, "result", "miss")
+          .functionCounter().count() > 0);
+    }
+
+    @Test
+    void existenceChecksAreCachedUntilTheTableIsWritten() throws Exception {
+        long missing = Long.MAX_VALUE;
+
+        statementsIssuedBy(() -> repository.existsSatelliteById(missing));
+        assertEquals(0, statementsIssuedBy(() -> assertFalse(repository.existsSatelliteById(missing))));
+
+        satelliteService.create(satellite("Invalidates", 500.0));
+
+        assertEquals(1, statementsIssuedBy(() -> assertFalse(repository.existsSatelliteById(missing))));
+    }
+
+    @Test
+    void regionsAreBoundedAndReportEvictions() {
+        EntityCacheProperties properties = new EntityCacheProperties();
+        properties.setMaxEntries(10);
+        EntityCache entityCache = new EntityCache(properties);
+        try {
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            entityCache.bindTo(registry);
+            CacheManager cacheManager = entityCache.getCacheManager();
+            javax.cache.Cache<Object, Object> region = cacheManager.getCache(EntityCache.SATELLITE_REGION);
+            for (long key = 0; key < 100; key++) {
+                region.put(key, "entry " + key);
+            }
+            region.unwrap(Cache.class).cleanUp();
+
+            assertEquals(10, region.unwrap(Cache.class).estimatedSize());
+            assertEquals(90, registry.get("cache.evictions").tags("cache", EntityCache.SATELLITE_REGION)
+              .functionCounter().count());
+            assertEquals(100, registry.get("cache.puts").tags("cache", EntityCache.SATELLITE_REGION)
+              .functionCounter().count());
+        } finally {
+            entityCache.close();
+        }
+    }
+
+    // Reads the satellite, failing unless it came from the cache
+    private Satellite fromCache(Long id) {
+        Satellite[] satellite = new Satellite[1];
+        assertEquals(0, statementsIssuedBy(() -> satellite[0] = satelliteService.getById(id)));
+        return satellite[0];
+    }
+
+    private int statementsIssuedBy(Runnable call) {
+        queryCounter.reset();
+        call.run();
+        return queryCounter.count();
+    }
+
+    private static Satellite satellite(String name, double altitude) {
+        SatelliteParameters parameters = new SatelliteParameters();
+        parameters.setAltitude(altitude);
+        parameters.setLatitude(0.0);
+        parameters.setLongitude(0.0);
+        Satellite satellite = new Satellite();
+        satellite.setName(name);
+        satellite.setLaunchDate(LocalDateTime.of(2030, 1, 1, 0, 0));
+        satellite.setOrbit(OrbitType.LEO);
+        satellite.setParameters(parameters);
+        return satellite;
+    }
+}
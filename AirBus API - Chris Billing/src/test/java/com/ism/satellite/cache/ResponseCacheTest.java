@@ -0,0 +1,136 @@
+package com.ism.satellite.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Unit tests for storing, compressing, evicting and invalidating serialized responses.
+ */
+public class ResponseCacheTest {
+
+    @Test
+    void storesPerFormatAndEncoding() throws IOException {
+        ResponseCache cache = cache(new ResponseCacheProperties());
+        Map<String, String> body = Map.of("name", "x".repeat(2000));
+
+        CachedResponse json = cache.put(1L, cache.stamp(1L), "\"s1.1\"", body, "json", false);
+        CachedResponse gzipped = cache.put(1L, cache.stamp(1L), "\"s1.1-gzip\"", body, "json", true);
+        CachedResponse small = cache.put(2L, cache.stamp(2L), "\"s1.1-gzip\"", Map.of("name", "x"), "json", true);
+
+        assertFalse(json.isCompressed());
+        assertTrue(gzipped.isCompressed());
+        assertTrue(gzipped.getBody().length < json.getBody().length);
+        assertArrayEquals(json.getBody(), new GZIPInputStream(new ByteArrayInputStream(gzipped.getBody()))
+          .readAllBytes());
+        // Below the compression threshold the body is kept as it is
+        assertFalse(small.isCompressed());
+        assertEquals("x", new ObjectMapper().readTree(small.getBody()).get("name").asText());
+
+        assertEquals(json, cache.get(1L, "json", false));
+        assertEquals(gzipped, cache.get(1L, "json", true));
+        assertNull(cache.get(1L, "cbor", false));
+    }
+
+    @Test
+    void evictsByBytesHeld() {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setMaxSize(DataSize.ofKilobytes(64));
+        properties.setMaxEntrySize(DataSize.ofKilobytes(32));
+        ResponseCache cache = cache(properties);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        // 200 bodies of about 1KB each, so only around 60 of them fit
+        for (long id = 0; id < 200; id++) {
+            cache.put(id, cache.stamp(id), "\"s1.1\"", List.of("x".repeat(1000)), "json", false);
+        }
+        // Too large to keep at all, but still returned to the caller
+        CachedResponse large = cache.put(500L, cache.stamp(500L), "\"s1.1\"", List.of("x".repeat(40_000)), "json",
+          false);
+
+        assertNotNull(large.getBody());
+        assertNull(cache.get(500L, "json", false));
+        long kept = 0;
+        for (long id = 0; id < 200; id++) {
+            kept += cache.get(id, "json", false) == null ? 0 : 1;
+        }
+        assertTrue(kept > 0 && kept <= 64, "kept " + kept);
+        assertTrue(registry.get("cache.evictions").tags("cache", "responses").functionCounter().count() > 0);
+    }
+
+    @Test
+    void dropsBodiesLoadedBeforeAnInvalidation() {
+        ResponseCache cache = cache(new ResponseCacheProperties());
+        long stamp = cache.stamp(1L);
+        long catalogStamp = cache.stamp(null);
+
+        // A write commits while both bodies are being loaded
+        cache.invalidate(1L);
+        CachedResponse stale = cache.put(1L, stamp, "\"s1.1\"", Map.of("name", "old"), "json", false);
+        cache.put(null, catalogStamp, "\"c1\"", List.of(), "json", false);
+
+        assertNotNull(stale);
+        assertNull(cache.get(1L, "json", false));
+        assertNull(cache.get(null, "json", false));
+    }
+
+    @Test
+    void invalidatesOnceTheTransactionCommits() {
+        ResponseCache cache = cache(new ResponseCacheProperties());
+        cache.put(1L, cache.stamp(1L), "\"s1.1\"", Map.of("name", "one"), "smile", false);
+        cache.put(2L, cache.stamp(2L), "\"s1.1\"", Map.of("name", "two"), "cbor", true);
+        cache.put(null, cache.stamp(null), "\"c2\"", List.of(), "json", true);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidate(List.of(1L));
+            // Readers keep the committed bodies until the write commits
+            assertNotNull(cache.get(1L, "smile", false));
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertNull(cache.get(1L, "smile", false));
+        assertNull(cache.get(null, "json", true));
+        assertNotNull(cache.get(2L, "cbor", true));
+
+        cache.invalidateCatalog();
+        assertNotNull(cache.get(2L, "cbor", true));
+    }
+
+    @Test
+    void storesNothingWhenDisabled() {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setEnabled(false);
+        ResponseCache cache = cache(properties);
+
+        CachedResponse response = cache.put(1L, cache.stamp(1L), "\"s1.1\"", Map.of("name", "one"), "json", false);
+
+        assertNotNull(response.getBody());
+        assertNull(cache.get(1L, "json", false));
+    }
+
+    private static ResponseCache cache(ResponseCacheProperties properties) {
+        return new ResponseCache(properties, Jackson2ObjectMapperBuilder.json());
+    }
+}
@@ -0,0 +1,104 @@
+package com.ism.satellite.cache;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ism.satellite.domain.OrbitType;
+import com.ism.satellite.domain.Satellite;
+import com.ism.satellite.domain.SatelliteParameters;
+import com.ism.satellite.service.SatelliteService;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Tests that cached GET responses are dropped by the writes that change them, against the full application context
+ * so every write commits and the cache is only invalidated by the commit itself.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:response-cache;MODE=MySQL")
+@AutoConfigureMockMvc
+public class ResponseCacheWritesTest {
+
+    @TempDir
+    static Path historyDirectory;
+
+    @DynamicPropertySource
+    static void historyProperties(DynamicPropertyRegistry registry) {
+        registry.add("satellite.history.directory", historyDirectory::toString);
+    }
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    SatelliteService satelliteService;
+
+    @Test
+    void updateReplacesTheCachedResponses() throws Exception {
+        Long id = satelliteService.create(satellite("Cached")).getId();
+        String tag = cachedTag(id);
+        mockMvc.perform(get("/api/satellite/")).andExpect(status().isOk());
+
+        mockMvc.perform(put("/api/satellite/{id}", id)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(satellite("Renamed"))))
+          .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/satellite/{id}", id))
+          .andExpect(status().isOk())
+          .andExpect(jsonPath("$.name").value("Renamed"));
+        assertNotEquals(tag, cachedTag(id));
+        mockMvc.perform(get("/api/satellite/"))
+          .andExpect(jsonPath("$[?(@.id == " + id + ")].name").value("Renamed"));
+    }
+
+    @Test
+    void deleteDropsTheCachedResponses() throws Exception {
+        Long id = satelliteService.create(satellite("Deleted")).getId();
+        cachedTag(id);
+
+        mockMvc.perform(delete("/api/satellite/{id}", id)).andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/satellite/{id}", id)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/satellite/"))
+          .andExpect(jsonPath("$[?(@.id == " + id + ")]").isEmpty());
+    }
+
+    // Reads the satellite twice so the second answer comes from the cache, returning its ETag
+    private String cachedTag(Long id) throws Exception {
+        mockMvc.perform(get("/api/satellite/{id}", id)).andExpect(status().isOk());
+        return mockMvc.perform(get("/api/satellite/{id}", id))
+          .andExpect(status().isOk())
+          .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private static Satellite satellite(String name) {
+        SatelliteParameters parameters = new SatelliteParameters();
+        parameters.setAltitude(500.0);
+        parameters.setLatitude(10.0);
+        parameters.setLongitude(20.0);
+        Satellite satellite = new Satellite();
+        satellite.setName(name);
+        satellite.setOrbit(OrbitType.LEO);
+        satellite.setParameters(parameters);
+        satellite.setLaunchDate(LocalDateTime.now().plusDays(1));
+        return satellite;
+    }
+}
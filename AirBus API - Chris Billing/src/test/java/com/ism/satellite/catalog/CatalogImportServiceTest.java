@@ -0,0 +1,229 @@
+package com.ism.satellite.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace.NONE;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ism.satellite.cache.ResponseCache;
+import com.ism.satellite.cache.ResponseCacheProperties;
+import com.ism.satellite.domain.CatalogFormat;
+import com.ism.satellite.domain.CatalogImportStatus;
+import com.ism.satellite.domain.OrbitType;
+import com.ism.satellite.domain.Satellite;
+import com.ism.satellite.exception.custom.BadRequestException;
+import com.ism.satellite.exception.custom.NotFoundException;
+import com.ism.satellite.live.LiveProperties;
+import com.ism.satellite.live.PositionBroadcaster;
+import com.ism.satellite.propagation.OrbitPropagator;
+import com.ism.satellite.repository.CatalogImportRepository;
+import com.ism.satellite.repository.SatelliteRepository;
+import com.ism.satellite.response.CatalogImportReport;
+import com.ism.satellite.service.PositionPublisher;
+import com.ism.satellite.store.PositionStore;
+import jakarta.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Unit tests for parsing, validating, committing and resuming bulk catalog imports.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = NONE)
+public class CatalogImportServiceTest {
+
+    // Three line set, two line set without a name, a geostationary set and one with a broken checksum
+    private static final String TLE = """
+      ISS (ZARYA)
+      1 25544U 98067A   08264.51782528 -.00002182  00000-0 -11606-4 0  2927
+      2 25544  51.6416 247.4627 0006703 130.5360 325.0288 15.72125391563537
+
+      1 28884U 05041A   24001.50000000 -.00000100  00000-0  00000-0 0  9994
+      2 28884   0.0500  80.0000 0001500  90.0000 270.0000  1.00270000 67899
+      0 BROKEN
+      1 25544U 98067A   08264.51782528 -.00002182  00000-0 -11606-4 0  2928
+      2 25544  51.6416 247.4627 0006703 130.5360 325.0288 15.72125391563537
+      """;
+
+    @Autowired
+    SatelliteRepository repository;
+
+    @Autowired
+    CatalogImportRepository catalogImportRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    private CatalogImportProperties properties;
+
+    private PositionStore positionStore;
+
+    private CatalogImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CatalogImportProperties();
+        properties.setParserThreads(1);
+        positionStore = new PositionStore();
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        importService = new CatalogImportService(properties,
+          new CatalogImportWriter(catalogImportRepository, em.getEntityManager(), properties),
+          catalogImportRepository, objectMapper, Validation.buildDefaultValidatorFactory().getValidator(),
+          new PositionPublisher(positionStore, List.of()), new OrbitPropagator(),
+          new PositionBroadcaster(new LiveProperties(), objectMapper, positionStore),
+          new ResponseCache(new ResponseCacheProperties(), Jackson2ObjectMapperBuilder.json()));
+        importService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        importService.stop();
+    }
+
+    @Test
+    void importsTwoAndThreeLineElementSets() {
+        CatalogImportReport report = importService.importCatalog(stream(TLE), CatalogFormat.TLE, "tle", "test");
+
+        assertEquals(CatalogImportStatus.COMPLETED, report.getStatus());
+        assertEquals(3, report.getRecordsCommitted());
+        assertEquals(2, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertEquals(2, report.getFailures().get(0).getIndex());
+        assertTrue(report.getFailures().get(0).getReason().startsWith("Checksum mismatch"));
+
+        List<Satellite> satellites = imported();
+        Satellite iss = satellites.get(0);
+        assertEquals("ISS (ZARYA)", iss.getName());
+        assertEquals(OrbitType.LEO, iss.getOrbit());
+        assertEquals(LocalDateTime.of(1998, 1, 1, 0, 0), iss.getLaunchDate());
+        assertTrue(Duration.between(LocalDateTime.of(2008, 9, 20, 12, 25, 40, 104_192_000),
+          iss.getElements().getEpoch()).abs().toMillis() < 1);
+        assertEquals(6731.0, iss.getElements().getSemiMajorAxisKm(), 1.0);
+        assertEquals(0.0006703, iss.getElements().getEccentricity(), 1e-12);
+        assertEquals(51.6416, iss.getElements().getInclinationDeg(), 1e-12);
+        // Positioned on its orbit at the epoch, within the inclination band
+        assertEquals(360, iss.getParameters().getAltitude(), 30);
+        assertTrue(Math.abs(iss.getParameters().getLatitude()) <= 51.7);
+
+        Satellite geostationary = satellites.get(1);
+        assertEquals("NORAD 28884", geostationary.getName());
+        assertEquals(OrbitType.GEO, geostationary.getOrbit());
+        assertTrue(positionStore.contains(iss.getId()));
+        assertTrue(positionStore.contains(geostationary.getId()));
+    }
+
+    @Test
+    void importsCsvAndNdjsonRejectingInvalidRecords() {
+        String csv = """
+          name,orbit,launchDate,altitude,latitude,longitude,semiMajorAxisKm,eccentricity,inclinationDeg,raanDeg,argumentOfPerigeeDeg,meanAnomalyDeg,elementsEpoch
+          "Sentinel, 2A",LEO,2015-06-23T01:52:00,786,10.5,-20.25,7157,0.0001,98.57,10,90,0,2024-01-01T00:00:00
+          Galileo 1,MEO,2011-10-21T10:30:00,23222,5,60,,,,,,,
+          No Orbit,,2011-10-21T10:30:00,23222,5,60,,,,,,,
+          """;
+        String ndjson = """
+          {"name":"Astra 1KR","orbit":"GEO","launchDate":"2006-04-20T20:27:00","parameters":{"altitude":35786,"latitude":0,"longitude":19.2}}
+          {"name":"Truncated","orbit":
+          {"id":5,"name":"Too Far","orbit":"LEO","launchDate":"2020-01-01T00:00:00","parameters":{"altitude":500,"latitude":0,"longitude":0},"elements":{"semiMajorAxisKm":100,"eccentricity":0,"inclinationDeg":0,"raanDeg":0,"argumentOfPerigeeDeg":0,"meanAnomalyDeg":0,"epoch":"2024-01-01T00:00:00"}}
+          """;
+
+        CatalogImportReport csvReport = importService.importCatalog(stream(csv), CatalogFormat.CSV, "csv", "test");
+        CatalogImportReport ndjsonReport = importService.importCatalog(stream(ndjson), CatalogFormat.NDJSON, null,
+          "test");
+
+        assertEquals(2, csvReport.getImported());
+        assertEquals(1, csvReport.getFailed());
+        assertEquals(2, csvReport.getFailures().get(0).getIndex());
+        assertEquals(1, ndjsonReport.getImported());
+        assertEquals(2, ndjsonReport.getFailed());
+        assertNotNull(ndjsonReport.getImportId());
+        List<Satellite> satellites = imported();
+        assertEquals(3, satellites.size());
+        assertEquals("Sentinel, 2A", satellites.get(0).getName());
+        assertEquals(98.57, satellites.get(0).getElements().getInclinationDeg());
+        assertEquals(-20.25, satellites.get(0).getParameters().getLongitude());
+        assertEquals("Galileo 1", satellites.get(1).getName());
+        assertNull(satellites.get(1).getElements());
+        assertEquals(OrbitType.GEO, satellites.get(2).getOrbit());
+    }
+
+    @Test
+    void resumesFromCheckpointAfterFailure() {
+        properties.setTransactionSize(1);
+        List<String> records = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            records.add("{\"name\":\"Sat " + i + "\",\"orbit\":\"LEO\",\"launchDate\":\"2020-01-01T00:00:00\","
+              + "\"parameters\":{\"altitude\":500,\"latitude\":0,\"longitude\":" + i + "}}");
+        }
+        String ndjson = String.join("\n", records);
+        // The connection drops after the third record
+        InputStream failing = new SequenceInputStream(stream(String.join("\n", records.subList(0, 3)) + "\n"), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Connection reset");
+            }
+        });
+
+        CatalogImportReport failed = importService.importCatalog(failing, CatalogFormat.NDJSON, "resume", "test");
+
+        assertEquals(CatalogImportStatus.FAILED, failed.getStatus());
+        assertEquals("Connection reset", failed.getError());
+        // One chunk is parsed ahead of the writer, the third record was never committed
+        assertEquals(2, failed.getRecordsCommitted());
+        assertEquals(2, imported().size());
+
+        CatalogImportReport resumed = importService.importCatalog(stream(ndjson), CatalogFormat.NDJSON,
+          "resume", "test");
+
+        assertEquals(CatalogImportStatus.COMPLETED, resumed.getStatus());
+        assertEquals(2, resumed.getResumedFrom());
+        assertEquals(5, resumed.getImported());
+        List<Satellite> satellites = imported();
+        assertEquals(5, satellites.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals("Sat " + i, satellites.get(i).getName());
+        }
+
+        // A completed import is not run again
+        CatalogImportReport again = importService.importCatalog(stream(ndjson), CatalogFormat.NDJSON,
+          "resume", "test");
+        assertEquals(5, again.getImported());
+        assertEquals(5, imported().size());
+        assertEquals(CatalogImportStatus.COMPLETED, importService.getReport("resume").getStatus());
+        assertThrows(NotFoundException.class, () -> importService.getReport("missing"));
+    }
+
+    @Test
+    void requiresAFormat() {
+        BadRequestException ex = assertThrows(BadRequestException.class,
+          () -> importService.importCatalog(InputStream.nullInputStream(), null, null, "test"));
+
+        assertEquals("Catalog format is required, one of TLE, CSV, NDJSON", ex.getMessage());
+    }
+
+    private List<Satellite> imported() {
+        return repository.findAll().stream().sorted(Comparator.comparing(Satellite::getId)).toList();
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,93 @@
+package com.ism.satellite.conjunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ism.satellite.response.Conjunction;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the spatial hash screening with an exhaustive pairwise scan.
+ */
+public class ConjunctionScreenerTest {
+
+    private static final int SIZE = 20_000;
+
+    @Test
+    void findsTheSamePairsAsExhaustiveScan() {
+        double[][] points = randomPoints(SIZE, 300, 7);
+        double threshold = 10;
+
+        ConjunctionScreener.Result result = new ConjunctionScreener(ForkJoinPool.commonPool())
+          .screen(ids(SIZE), points[0], points[1], points[2], threshold, Integer.MAX_VALUE);
+
+        Set<String> expected = new HashSet<>();
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = i + 1; j < SIZE; j++) {
+                double dx = points[0][i] - points[0][j];
+                double dy = points[1][i] - points[1][j];
+                double dz = points[2][i] - points[2][j];
+                if (dx * dx + dy * dy + dz * dz <= threshold * threshold) {
+                    expected.add(i + "-" + j);
+                }
+            }
+        }
+        Set<String> actual = new HashSet<>();
+        for (Conjunction conjunction : result.getConjunctions()) {
+            actual.add(conjunction.getSatelliteId() + "-" + conjunction.getOtherSatelliteId());
+        }
+        assertTrue(expected.size() > 100);
+        assertEquals(expected, actual);
+        assertEquals(expected.size(), result.getTotal());
+    }
+
+    @Test
+    void keepsOnlyTheClosestPairs() {
+        double[][] points = randomPoints(SIZE, 300, 11);
+        ConjunctionScreener screener = new ConjunctionScreener(ForkJoinPool.commonPool());
+
+        ConjunctionScreener.Result all = screener.screen(ids(SIZE), points[0], points[1], points[2], 10,
+          Integer.MAX_VALUE);
+        ConjunctionScreener.Result closest = screener.screen(ids(SIZE), points[0], points[1], points[2], 10, 5);
+
+        assertEquals(all.getTotal(), closest.getTotal());
+        assertEquals(all.getConjunctions().subList(0, 5), closest.getConjunctions());
+    }
+
+    @Test
+    void pairsAcrossCubeBoundariesAreFound() {
+        // Points straddling the origin land in all eight octant cubes
+        double[] x = {-0.1, 0.1, -0.1, 0.1, -0.1, 0.1, -0.1, 0.1};
+        double[] y = {-0.1, -0.1, 0.1, 0.1, -0.1, -0.1, 0.1, 0.1};
+        double[] z = {-0.1, -0.1, -0.1, -0.1, 0.1, 0.1, 0.1, 0.1};
+
+        ConjunctionScreener.Result result = new ConjunctionScreener(ForkJoinPool.commonPool())
+          .screen(ids(8), x, y, z, 1, 100);
+
+        assertEquals(28, result.getTotal());
+    }
+
+    // A thin slab so neighbouring cubes are well populated
+    private static double[][] randomPoints(int size, double spread, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[][] points = new double[3][size];
+        for (int i = 0; i < size; i++) {
+            points[0][i] = random.nextDouble(-spread, spread);
+            points[1][i] = random.nextDouble(-spread, spread);
+            points[2][i] = random.nextDouble(-spread / 10, spread / 10);
+        }
+        return points;
+    }
+
+    private static long[] ids(int size) {
+        long[] ids = new long[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = i;
+        }
+        return ids;
+    }
+}
@@ -1,32 +1,75 @@
 package com.ism.satellite.controller;
 
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.ism.satellite.async.AsyncProperties;
+import com.ism.satellite.async.AsyncSatelliteService;
+import com.ism.satellite.cache.ResponseCache;
+import com.ism.satellite.cache.ResponseCacheProperties;
+import com.ism.satellite.catalog.CatalogImportService;
+import com.ism.satellite.conjunction.ConjunctionService;
 import com.ism.satellite.domain.OrbitType;
 import com.ism.satellite.domain.Satellite;
 import com.ism.satellite.domain.SatelliteParameters;
+import com.ism.satellite.exception.custom.BadRequestException;
+import com.ism.satellite.exception.custom.NotFoundException;
+import com.ism.satellite.export.PositionExportService;
+import com.ism.satellite.history.PositionHistoryService;
+import com.ism.satellite.live.PositionBroadcaster;
+import com.ism.satellite.pass.PassPredictionService;
+import com.ism.satellite.propagation.OrbitPropagator;
 import com.ism.satellite.repository.SatelliteParametersRepository;
 import com.ism.satellite.repository.SatelliteRepository;
+import com.ism.satellite.request.PositionUpdate;
+import com.ism.satellite.request.SatelliteSearch;
+import com.ism.satellite.response.BulkItemFailure;
+import com.ism.satellite.response.BulkUpdateResponse;
+import com.ism.satellite.response.PositionConsistencyReport;
+import com.ism.satellite.response.SatellitePage;
+import com.ism.satellite.response.SatelliteSearchPage;
+import com.ism.satellite.service.EntityTags;
 import com.ism.satellite.service.SatelliteService;
+import com.ism.satellite.spatial.RegionQueryService;
+import com.ism.satellite.writebehind.WriteBehindBuffer;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
@@ -37,6 +80,7 @@ import org.springframework.web.context.WebApplicationContext;
  * Integration tests for the expected behaviour of the Satellite API.
  */
 @WebMvcTest
+@Import({ResponseCache.class, ResponseCacheProperties.class, AsyncSatelliteService.class, AsyncProperties.class})
 public class SatelliteControllerTest {
 
     @Autowired
@@ -57,6 +101,36 @@ public class SatelliteControllerTest {
     @MockBean
     SatelliteRepository repository;
 
+    @MockBean
+    private PositionHistoryService positionHistoryService;
+
+    @MockBean
+    private PositionExportService positionExportService;
+
+    @MockBean
+    private CatalogImportService catalogImportService;
+
+    @MockBean
+    private PassPredictionService passPredictionService;
+
+    @MockBean
+    private OrbitPropagator orbitPropagator;
+
+    @MockBean
+    private RegionQueryService regionQueryService;
+
+    @MockBean
+    private ConjunctionService conjunctionService;
+
+    @MockBean
+    private PositionBroadcaster positionBroadcaster;
+
+    @MockBean
+    private WriteBehindBuffer writeBehindBuffer;
+
+    @Autowired
+    private ResponseCache responseCache;
+
     private Satellite satellite;
     private SatelliteParameters satelliteParameters;
 
@@ -64,6 +138,8 @@ public class SatelliteControllerTest {
 
     @BeforeEach
     void setup() {
+        responseCache.invalidateAll();
+
         // Create sample SatelliteParameters
         satelliteParameters = new SatelliteParameters();
         satelliteParameters.setAltitude(122.50);
@@ -90,6 +166,152 @@ public class SatelliteControllerTest {
           .andExpect(MockMvcResultMatchers.jsonPath("$[0].orbit").value(satellite.getOrbit().toString()));
     }
 
+    @Test
+    void streamAllSatellites() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<Satellite> consumer = invocation.getArgument(0);
+            consumer.accept(satellite);
+            consumer.accept(satellite);
+            return null;
+        }).when(satelliteService).streamAll(any());
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/api/satellite/")
+            .accept(MediaType.APPLICATION_NDJSON))
+          .andExpect(MockMvcResultMatchers.request().asyncStarted())
+          .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+          .andExpect(MockMvcResultMatchers.status().isOk())
+          .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_NDJSON))
+          .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(satellite.getName(),
+          new ObjectMapper().readTree(lines[1]).get("name").asText());
+    }
+
+    @Test
+    void getSatellitePage() throws Exception {
+        when(satelliteService.getPage(anyLong(), anyInt())).thenReturn(SatellitePage.builder()
+          .items(List.of(satellite))
+          .nextCursor(satellite.getId())
+          .build());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/satellite/page")
+            .param("after", "0")
+            .param("limit", "1")
+            .accept(MediaType.APPLICATION_JSON))
+          .andExpect(MockMvcResultMatchers.status().isOk())
+          .andExpect(MockMvcResultMatchers.jsonPath("$.items[0].name").value(satellite.getName()))
+          .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor").value(satellite.getId()));
+    }
+
+    @Test
+    void searchSatellites() throws Exception {
+        when(satelliteService.search(any())).thenReturn(SatelliteSearchPage.builder()
+          .items(List.of(satellite))
+          .nextCursor("cursor")
+          .build());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/satellite/search")
+            .param("orbit", "LEO")
+            .param("name", "Death")
+            .param("launchedFrom", "2030-01-01T00:00:00")
+            .param("minAlt", "100")
+            .param("sort", "LAUNCH_DATE")
+            .param("after", "previous")
+            .param("limit", "1")
+            .accept(MediaType.APPLICATION_JSON))
+          .andExpect(MockMvcResultMatchers.status().isOk())
+          .andExpect(MockMvcResultMatchers.jsonPath("$.items[0].name").value(satellite.getName()))
+          .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor").value("cursor"));
+
+        verify(satelliteService).search(SatelliteSearch.builder()
+          .orbit(OrbitType.LEO)
+          .name("Death")
+          .launchedFrom(LocalDateTime.of(2030, 1, 1, 0, 0))
+          .minAltitude(100.0)
+          .sort(SatelliteSearch.SortField.LAUNCH_DATE)
+          .after("previous")
+          .limit(1)
+          .build());
+    }
+
+    @Test
+    void bulkUpdatePositions_Ndjson() throws Exception {
+        when(satelliteService.bulkUpdatePositions(any())).thenAnswer(invocation -> {
+            Iterator<PositionUpdate> updates = invocation.getArgument(0);
+            int received = 0;
+            while (updates.hasNext()) {
+                updates.next();
+                received++;
+            }
+            return BulkUpdateResponse.builder().received(received).applied(received).failures(List.of()).build();
+        });
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/satellite/positions")
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .content("{\"satelliteId\":1,\"altitude\":1.0,\"latitude\":2.0,\"longitude\":3.0}\n"
+              + "{\"satelliteId\":2,\"altitude\":1.0,\"latitude\":2.0,\"longitude\":3.0}\n")
+            .accept(MediaType.APPLICATION_JSON))
+          .andExpect(MockMvcResultMatchers.status().isOk())
+          .andExpect(MockMvcResultMatchers.jsonPath("$.received").value(2))
+          .andExpect(MockMvcResultMatchers.jsonPath("$.applied").value(2));
+    }
+
+    @Test
+    void bulkUpdatePositions_RejectsOnlyTheUnmappableItem() throws Exception {
+        when(satelliteService.bulkUpdatePositions(any())).thenAnswer(invocation -> {
+            Iterator<PositionUpdate> updates = invocation.getArgument(0);
+            int received = 0;
+            List<BulkItemFailure> failures = new ArrayList<>();
+            while (updates.hasNext()) {
+                int index = received++;
+                try {
+                    assertEquals(index == 0 ? 1L : 3L, updates.next().getSatelliteId());
+                } catch (BadRequestException ex) {
+                    failures.add(new BulkItemFailure(index, null, ex.getMessage()));
+                }
+            }
+            return BulkUpdateResponse.builder()
+              .received(received)
+              .applied(received - failures.size())
+              .failures(failures)
+              .build();
+        });
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/satellite/positions")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("[{\"satelliteId\":1,\"altitude\":1.0,\"latitude\":2.0,\"longitude\":3.0},"
+              + "{\"satelliteId\":2,\"altitude\":\"high\",\"latitude\":{\"deg\":2},\"longitude\":3.0},"
+              + "{\"satelliteId\":3,\"altitude\":1.0,\"latitude\":2.0,\"longitude\":3.0}]")
+            .accept(MediaType.APPLICATION_JSON))
+          .andExpect(MockMvcResultMatchers.status().isOk())
+          .andExpect(MockMvcResultMatchers.jsonPath("$.received").value(3))
+          .andExpect(MockMvcResultMatchers.jsonPath("$.applied").value(2))
+          .andExpect(MockMvcResultMatchers.jsonPath("$.failures[0].index").value(1))
+          .andExpect(MockMvcResultMatchers.jsonPath("$.failures[0].reason")
+            .value(startsWith("Malformed position update: ")));
+    }
+
+    @Test
+    void bulkUpdatePositions_UnparseableBody() throws Exception {
+        when(satelliteService.bulkUpdatePositions(any())).thenAnswer(invocation -> {
+            Iterator<PositionUpdate> updates = invocation.getArgument(0);
+            while (updates.hasNext()) {
+                updates.next();
+            }
+            return BulkUpdateResponse.builder().failures(List.of()).build();
+        });
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/satellite/positions")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("[{\"satelliteId\":1,\"altitude\":1.0,\"latitude\":2.0,\"longitude\":3.0},{\"satelliteId\":")
+            .accept(MediaType.APPLICATION_JSON))
+          .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
     @Test
     void getSatellitePosition_Success() throws Exception {
         when(satelliteService.getSatellitePosition(anyLong())).thenReturn(satelliteParameters);
@@ -102,6 +324,31 @@ public class SatelliteControllerTest {
           .andExpect(MockMvcResultMatchers.jsonPath("$.longitude").value(satelliteParameters.getLongitude()));
     }
 
+    @Test
+    void getSatellitePosition_NotModified() throws Exception {
+        when(satelliteService.getSatellitePosition(anyLong())).thenReturn(satelliteParameters);
+        String tag = EntityTags.position(satelliteParameters);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/satellite/position/{id}", 1L)
+            .header(HttpHeaders.IF_NONE_MATCH, tag)
+            .accept(MediaType.APPLICATION_JSON))
+          .andExpect(MockMvcResultMatchers.status().isNotModified())
+          .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, tag))
+          .andExpect(MockMvcResultMatchers.content().string(""));
+    }
+
+    @Test
+    void getById_NotModifiedWithoutLoading() throws Exception {
+        when(satelliteService.getSatelliteTag(1L)).thenReturn("\"s3.7\"");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/satellite/{id}", 1L)
+            .header(HttpHeaders.IF_NONE_MATCH, "\"s3.7\"")
+            .accept(MediaType.APPLICATION_JSON))
+          .andExpect(MockMvcResultMatchers.status().isNotModified());
+
+        verify(satelliteService, never()).getById(anyLong());
+    }
+
     @Test
     void getById_Success() throws Exception {
         when(satelliteService.getById(anyLong())).thenReturn(satellite);
@@ -114,6 +361,86 @@ public class SatelliteControllerTest {
           .andExpect(MockMvcResultMatchers.jsonPath("$.orbit").value(satellite.getOrbit().toString()));
     }
 
+    @Test
+    void getById_NegotiatesCbor() throws Exception {
+        when(satelliteService.getById(anyLong())).thenReturn(satellite);
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/api/satellite/{id}", 1L)
+            .accept(MediaType.APPLICATION_CBOR))
+          .andExpect(MockMvcResultMatchers.status().isOk())
+          .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_CBOR))
+          .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.VARY,
+            HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING))
+          .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG,
+            EntityTags.withFormat(EntityTags.satellite(satellite), "cbor")))
+          .andReturn();
+
+        Satellite decoded = new ObjectMapper(new CBORFactory()).findAndRegisterModules()
+          .readValue(result.getResponse().getContentAsByteArray(), Satellite.class);
+        assertEquals(satellite.getName(), decoded.getName());
+        assertEquals(satellite.getParameters().getAltitude(), decoded.getParameters().getAltitude());
+    }
+
+    @Test
+    void getById_ServedFromResponseCache() throws Exception {
+        when(satelliteService.getById(anyLong())).thenReturn(satellite);
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(MockMvcRequestBuilders.get("/api/satellite/{id}", 1L)
+                .accept(MediaType.APPLICATION_JSON))
+              .andExpect(MockMvcResultMatchers.status().isOk())
+              .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, EntityTags.satellite(satellite)))
+              .andExpect(MockMvcResultMatchers.jsonPath("$.name").value(satellite.getName()));
+        }
+        // Revalidations against the stored tag are answered without the service too
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/satellite/{id}", 1L)
+            .header(HttpHeaders.IF_NONE_MATCH, EntityTags.satellite(satellite))
+            .accept(MediaType.APPLICATION_JSON))
+          .andExpect(MockMvcResultMatchers.status().isNotModified());
+        verify(satelliteService, times(1)).getById(1L);
+        verify(satelliteService, never()).getSatelliteTag(anyLong());
+
+        responseCache.invalidate(1L);
+        satellite.setName("Second Death Star");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/satellite/{id}", 1L)
+            .accept(MediaType.APPLICATION_JSON))
+          .andExpect(MockMvcResultMatchers.jsonPath("$.name").value("Second Death Star"));
+        verify(satelliteService, times(2)).getById(1L);
+    }
+
+    @Test
+    void getAllSatellites_GzippedForClientsAcceptingIt() throws Exception {
+        List<Satellite> satellites = Collections.nCopies(100, satellite);
+        when(satelliteService.getAll()).thenReturn(satellites);
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/api/satellite/")
+            .header(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, gzip;q=0.8")
+            .accept(MediaType.APPLICATION_JSON))
+          .andExpect(MockMvcResultMatchers.status().isOk())
+          .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+          .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG,
+            EntityTags.withGzip(EntityTags.catalog(satellites), true)))
+          .andReturn();
+
+        try (InputStream body = new GZIPInputStream(
+          new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            Satellite[] decoded = new ObjectMapper().findAndRegisterModules().readValue(body, Satellite[].class);
+            assertEquals(100, decoded.length);
+            assertEquals(satellite.getName(), decoded[99].getName());
+        }
+
+        // Kept apart from the gzipped bytes, so a client refusing gzip still gets plain JSON
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/satellite/")
+            .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0")
+            .accept(MediaType.APPLICATION_JSON))
+          .andExpect(MockMvcResultMatchers.status().isOk())
+          .andExpect(MockMvcResultMatchers.header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+          .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, EntityTags.catalog(satellites)))
+          .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(100));
+        verify(satelliteService, times(2)).getAll();
+    }
+
     @Test
     void createSatellite_Success() throws Exception {
         when(satelliteService.create(any(Satellite.class))).thenReturn(satellite);
@@ -130,7 +457,7 @@ public class SatelliteControllerTest {
 
     @Test
     void updateSatellite_Success() throws Exception {
-        when(satelliteService.update(any(Satellite.class), anyLong())).thenReturn(satellite);
+        when(satelliteService.update(any(Satellite.class), anyLong(), isNull())).thenReturn(satellite);
 
         mockMvc.perform(MockMvcRequestBuilders.put("/api/satellite/{id}", 1L)
             .contentType(MediaType.APPLICATION_JSON)
@@ -142,6 +469,92 @@ public class SatelliteControllerTest {
           .andExpect(MockMvcResultMatchers.jsonPath("$.orbit").value(satellite.getOrbit().toString()));
     }
 
+    @Test
+    void asyncStreamAllSatellites() throws Exception {
+        when(satelliteService.getPage(isNull(), anyInt())).thenReturn(SatellitePage.builder()
+          .items(List.of(satellite, satellite))
+          .build());
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/api/async/satellite/")
+            .accept(MediaType.APPLICATION_NDJSON))
+          .andExpect(MockMvcResultMatchers.request().asyncStarted())
+          .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+          .andExpect(MockMvcResultMatchers.status().isOk())
+          .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(satellite.getName(),
+          new ObjectMapper().readTree(lines[1]).get("name").asText());
+    }
+
+    @Test
+    void asyncPatchSatelliteParameters() throws Exception {
+        when(satelliteService.patchParameters(anyLong(), any(SatelliteParameters.class), isNull()))
+          .thenReturn(satellite);
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.patch("/api/async/satellite/{id}", 1L)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(new ObjectMapper().writeValueAsString(satelliteParameters))
+            .accept(MediaType.APPLICATION_JSON))
+          .andExpect(MockMvcResultMatchers.request().asyncStarted())
+          .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+          .andExpect(MockMvcResultMatchers.status().isOk())
+          .andExpect(MockMvcResultMatchers.jsonPath("$.id").value(satellite.getId()))
+          .andExpect(MockMvcResultMatchers.jsonPath("$.parameters.altitude").value(satelliteParameters.getAltitude()));
+    }
+
+    @Test
+    void asyncGetById_NotFound() throws Exception {
+        when(satelliteService.getById(2L)).thenThrow(new NotFoundException("Satellite with id: 2 not found"));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/api/async/satellite/{id}", 2L)
+            .accept(MediaType.APPLICATION_JSON))
+          .andExpect(MockMvcResultMatchers.request().asyncStarted())
+          .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+          .andExpect(MockMvcResultMatchers.status().isNotFound())
+          .andExpect(MockMvcResultMatchers.jsonPath("$.message").value("Satellite with id: 2 not found"));
+    }
+
+    @Test
+    void checkPositionConsistency_IsReadOnly() throws Exception {
+        when(satelliteService.checkPositionConsistency(false)).thenReturn(PositionConsistencyReport.builder()
+          .checked(1)
+          .stale(1)
+          .mismatchedIds(List.of(1L))
+          .build());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/satellite/position/consistency")
+            .param("repair", "true")
+            .accept(MediaType.APPLICATION_JSON))
+          .andExpect(MockMvcResultMatchers.status().isOk())
+          .andExpect(MockMvcResultMatchers.jsonPath("$.stale").value(1))
+          .andExpect(MockMvcResultMatchers.jsonPath("$.repaired").value(false));
+
+        verify(satelliteService, never()).checkPositionConsistency(true);
+    }
+
+    @Test
+    void repairPositionConsistency() throws Exception {
+        when(satelliteService.checkPositionConsistency(true)).thenReturn(PositionConsistencyReport.builder()
+          .checked(1)
+          .stale(1)
+          .repaired(true)
+          .mismatchedIds(List.of(1L))
+          .build());
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/satellite/position/consistency/repair")
+            .accept(MediaType.APPLICATION_JSON))
+          .andExpect(MockMvcResultMatchers.status().isOk())
+          .andExpect(MockMvcResultMatchers.jsonPath("$.repaired").value(true));
+    }
+
     @Test
     void delete_Success() throws Exception {
         doNothing().when(satelliteService).delete(anyLong());
@@ -0,0 +1,249 @@
+package com.ism.satellite.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.ism.satellite.domain.SatelliteParameters;
+import com.ism.satellite.exception.custom.NotFoundException;
+import com.ism.satellite.exception.custom.PreconditionFailedException;
+import com.ism.satellite.request.PositionUpdate;
+import com.ism.satellite.response.BulkUpdateResponse;
+import com.ism.satellite.service.EntityTags;
+import com.ism.satellite.service.PositionBatchWriter;
+import com.ism.satellite.service.PositionPublisher;
+import com.ism.satellite.store.PositionStore;
+import com.ism.satellite.writebehind.WriteBehindBuffer;
+import com.ism.satellite.writebehind.WriteBehindProperties;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that the sharded engine applies patches atomically per satellite, publishes them to readers and the
+ * PositionStore, and persists the latest fix per satellite through the write-behind buffer.
+ */
+public class SatelliteEngineTest {
+
+    private final Map<Long, PositionUpdate> written = new ConcurrentHashMap<>();
+
+    private PositionStore positionStore;
+
+    private WriteBehindBuffer writeBehindBuffer;
+
+    private SatelliteEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        PositionBatchWriter positionBatchWriter = mock(PositionBatchWriter.class);
+        when(positionBatchWriter.write(any(), eq(false))).thenAnswer(invocation -> {
+            Iterator<PositionUpdate> updates = invocation.getArgument(0);
+            int applied = 0;
+            while (updates.hasNext()) {
+                PositionUpdate update = updates.next();
+                written.put(update.getSatelliteId(), update);
+                applied++;
+            }
+            return BulkUpdateResponse.builder().received(applied).applied(applied).failures(List.of()).build();
+        });
+        WriteBehindProperties writeBehindProperties = new WriteBehindProperties();
+        writeBehindProperties.setEnabled(true);
+        writeBehindBuffer = new WriteBehindBuffer(writeBehindProperties, positionBatchWriter);
+        positionStore = new PositionStore();
+
+        EngineProperties properties = new EngineProperties();
+        properties.setEnabled(true);
+        properties.setShards(4);
+        engine = new SatelliteEngine(properties, writeBehindProperties, new PositionPublisher(positionStore, List.of()),
+          writeBehindBuffer);
+        engine.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.stop();
+    }
+
+    @Test
+    void guardedPatchesFromManyThreadsAreNeverLost() throws Exception {
+        int threads = 8;
+        int increments = 200;
+        long[] satelliteIds = {1L, 2L, 3L, 4L, 5L};
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < increments; i++) {
+                        for (long satelliteId : satelliteIds) {
+                            incrementAltitude(satelliteId);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        writeBehindBuffer.flush();
+        for (long satelliteId : satelliteIds) {
+            double expected = 400.0 + threads * increments;
+            assertEquals(expected, engine.get(satelliteId).getAltitude());
+            assertEquals(expected, positionStore.get(satelliteId).getAltitude());
+            assertEquals(expected, written.get(satelliteId).getAltitude());
+        }
+        assertEquals(satelliteIds.length, engine.size());
+    }
+
+    @Test
+    void rejectsStaleIfMatchWithoutApplying() {
+        engine.patch(fix(7L, 500.0), seed(70L, 400.0), engine.removalGeneration(7L), null);
+        String stale = EntityTags.position(seed(70L, 400.0));
+
+        assertThrows(PreconditionFailedException.class, () -> engine.patch(fix(7L, 600.0), seed(70L, 400.0),
+          engine.removalGeneration(7L), stale));
+        assertEquals(500.0, engine.get(7L).getAltitude());
+        assertEquals(70L, engine.get(7L).getId());
+    }
+
+    @Test
+    void followsWritesMadeOutsideTheEngine() throws InterruptedException {
+        engine.patch(fix(9L, 500.0), seed(90L, 400.0), engine.removalGeneration(9L), null);
+
+        engine.onPositionChanged(9L, System.currentTimeMillis(), 800.0, 1.0, 2.0);
+        engine.onPositionChanged(10L, System.currentTimeMillis(), 800.0, 1.0, 2.0);
+        awaitAltitude(9L, 800.0);
+        // Only satellites the engine holds are followed, others are seeded by their first patch
+        assertNull(engine.get(10L));
+
+        engine.onSatelliteRemoved(9L);
+        while (engine.get(9L) != null) {
+            Thread.sleep(1);
+        }
+        assertEquals(0, engine.size());
+    }
+
+    @Test
+    void refusesAPatchSeededBeforeARemoval() throws InterruptedException {
+        engine.patch(fix(11L, 500.0), seed(110L, 400.0), engine.removalGeneration(11L), null);
+        long seenGeneration = engine.removalGeneration(11L);
+
+        engine.onSatelliteRemoved(11L);
+        assertThrows(NotFoundException.class, () -> engine.patch(fix(11L, 600.0), seed(110L, 500.0),
+          seenGeneration, null));
+        assertNull(engine.get(11L));
+
+        // A position read after the removal seeds the shard again
+        engine.patch(fix(11L, 700.0), seed(110L, 400.0), engine.removalGeneration(11L), null);
+        assertEquals(700.0, engine.get(11L).getAltitude());
+    }
+
+    @Test
+    void patchesRacingRemovalsNeverBringASatelliteBack() throws Exception {
+        int satellites = 2000;
+        Set<Long> stored = ConcurrentHashMap.newKeySet();
+        for (long satelliteId = 1; satelliteId <= satellites; satelliteId++) {
+            stored.add(satelliteId);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // Mirrors the service: the patch reads the generation, then the stored position, and the delete
+            // removes the stored row before the engine hears of it
+            Future<?> patches = executor.submit(() -> {
+                for (long satelliteId = 1; satelliteId <= satellites; satelliteId++) {
+                    long seenGeneration = engine.removalGeneration(satelliteId);
+                    if (!stored.contains(satelliteId)) {
+                        continue;
+                    }
+                    try {
+                        engine.patch(fix(satelliteId, 500.0), seed(satelliteId * 10, 400.0), seenGeneration, null);
+                    } catch (NotFoundException ex) {
+                        // Removed after the position was read
+                    }
+                }
+            });
+            Future<?> removals = executor.submit(() -> {
+                for (long satelliteId = 1; satelliteId <= satellites; satelliteId++) {
+                    stored.remove(satelliteId);
+                    engine.onSatelliteRemoved(satelliteId);
+                }
+            });
+            patches.get();
+            removals.get();
+        } finally {
+            executor.shutdown();
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (engine.size() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(0, engine.size());
+    }
+
+    @Test
+    void requiresWriteBehind() {
+        EngineProperties properties = new EngineProperties();
+        properties.setEnabled(true);
+        SatelliteEngine withoutWriteBehind = new SatelliteEngine(properties, new WriteBehindProperties(),
+          new PositionPublisher(positionStore, List.of()),
+          new WriteBehindBuffer(new WriteBehindProperties(), mock(PositionBatchWriter.class)));
+
+        assertThrows(IllegalStateException.class, withoutWriteBehind::start);
+    }
+
+    private void incrementAltitude(long satelliteId) {
+        while (true) {
+            SatelliteParameters current = engine.get(satelliteId);
+            SatelliteParameters expected = current == null ? seed(satelliteId * 10, 400.0) : current;
+            try {
+                engine.patch(fix(satelliteId, expected.getAltitude() + 1), seed(satelliteId * 10, 400.0),
+                  engine.removalGeneration(satelliteId), EntityTags.position(expected));
+                return;
+            } catch (PreconditionFailedException ex) {
+                // Another thread patched first, read again and retry
+            }
+        }
+    }
+
+    private void awaitAltitude(long satelliteId, double altitude) throws InterruptedException {
+        while (engine.get(satelliteId).getAltitude() != altitude) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static SatelliteParameters seed(long parametersId, double altitude) {
+        SatelliteParameters parameters = new SatelliteParameters();
+        parameters.setId(parametersId);
+        parameters.setAltitude(altitude);
+        parameters.setLatitude(0.0);
+        parameters.setLongitude(0.0);
+        return parameters;
+    }
+
+    private static PositionUpdate fix(long satelliteId, double altitude) {
+        return PositionUpdate.builder()
+          .satelliteId(satelliteId)
+          .altitude(altitude)
+          .latitude(0.0)
+          .longitude(0.0)
+          .build();
+    }
+}
@@ -0,0 +1,135 @@
+package com.ism.satellite.export;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ism.satellite.history.HistoryProperties;
+import com.ism.satellite.history.PositionHistoryStore;
+import com.ism.satellite.response.PositionHistoryPoint;
+import com.ism.satellite.store.PositionStore;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for the Gorilla style position export writer, reader and history regrouping.
+ */
+public class PositionExportTest {
+
+    // 2024-01-01T00:00:00Z
+    private static final long DAY_START = 1_704_067_200_000L;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripPreservesEveryFix() throws Exception {
+        Random random = new Random(42);
+        List<double[]> written = new ArrayList<>();
+        // Regular, jittered, repeated, backwards and far apart timestamps, and doubles with no common bits
+        long[] steps = {1000L, 1000L, 1000L, 1003L, 998L, 0L, -5L, 86_400_000L, 1000L, 5_000_000_000L};
+        double[] specials = {0.0, -0.0, Double.NaN, Double.POSITIVE_INFINITY, Double.MIN_VALUE, -1e300};
+        long timestamp = DAY_START;
+        for (long satelliteId = 1; satelliteId <= 3; satelliteId++) {
+            // The second satellite spans several blocks
+            int points = satelliteId == 2 ? PositionExportFormat.BLOCK_POINTS * 2 + 17 : 200;
+            for (int i = 0; i < points; i++) {
+                timestamp += steps[i % steps.length];
+                double altitude = i % 7 == 0 ? specials[i % specials.length] : 550.0 + Math.sin(i / 100.0);
+                double latitude = i % 3 == 0 ? 51.5 : random.nextDouble() * 180 - 90;
+                double longitude = random.nextGaussian() * 1e6;
+                written.add(new double[] {satelliteId, timestamp, altitude, latitude, longitude});
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PositionExportWriter writer = new PositionExportWriter(out);
+        for (double[] fix : written) {
+            writer.write((long) fix[0], (long) fix[1], fix[2], fix[3], fix[4]);
+        }
+        writer.finish();
+        assertEquals(out.size(), writer.getBytesWritten());
+
+        List<double[]> read = read(out.toByteArray());
+
+        assertEquals(written.size(), read.size());
+        for (int i = 0; i < written.size(); i++) {
+            assertEquals((long) written.get(i)[0], (long) read.get(i)[0]);
+            assertEquals((long) written.get(i)[1], (long) read.get(i)[1]);
+            for (int column = 2; column < 5; column++) {
+                assertEquals(Double.doubleToRawLongBits(written.get(i)[column]),
+                  Double.doubleToRawLongBits(read.get(i)[column]));
+            }
+        }
+    }
+
+    @Test
+    void rejectsSatellitesOutOfOrderAndTruncatedFiles() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PositionExportWriter writer = new PositionExportWriter(out);
+        writer.write(5L, DAY_START, 1.0, 2.0, 3.0);
+        writer.write(6L, DAY_START, 1.0, 2.0, 3.0);
+
+        assertThrows(IllegalArgumentException.class, () -> writer.write(5L, DAY_START, 1.0, 2.0, 3.0));
+
+        writer.finish();
+        byte[] bytes = out.toByteArray();
+        byte[] truncated = new byte[bytes.length - 2];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        assertThrows(IOException.class, () -> read(truncated));
+    }
+
+    @Test
+    void historyIsRegroupedBySatelliteInTimeOrder() throws Exception {
+        HistoryProperties properties = new HistoryProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory);
+        PositionHistoryStore history = new PositionHistoryStore(properties);
+        List<PositionHistoryPoint> json = new ArrayList<>();
+        // Interleaved fixes of 50 satellites every second, as they are recorded
+        for (int i = 0; i < 5000; i++) {
+            long satelliteId = 50 - i % 50;
+            double altitude = 400.0 + satelliteId + i / 50 * 0.01;
+            double latitude = Math.sin((i / 50) / 60.0) * 51.6;
+            double longitude = ((i / 50) * 0.065 + satelliteId) % 360 - 180;
+            long timestamp = DAY_START + (i / 50) * 1000L;
+            history.append(satelliteId, timestamp, altitude, latitude, longitude);
+            json.add(new PositionHistoryPoint(Instant.ofEpochMilli(timestamp), altitude, latitude, longitude));
+        }
+        // A group holds 7 satellites, so the export takes several passes
+        PositionExportService exportService = new PositionExportService(new PositionStore(), history, 700);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long points = exportService.history(Instant.ofEpochMilli(DAY_START), Instant.ofEpochMilli(DAY_START + 99_000L))
+          .writeTo(out);
+
+        assertEquals(5000, points);
+        List<double[]> read = read(out.toByteArray());
+        assertEquals(5000, read.size());
+        for (int i = 1; i < read.size(); i++) {
+            double[] previous = read.get(i - 1);
+            double[] current = read.get(i);
+            assertTrue(previous[0] < current[0] || previous[0] == current[0] && previous[1] < current[1]);
+        }
+        assertArrayEquals(new double[] {1, DAY_START, 401.0, 0.0, -179.0}, read.get(0));
+        byte[] asJson = new ObjectMapper().findAndRegisterModules().writeValueAsBytes(json);
+        assertTrue(out.size() * 3 < asJson.length, out.size() + " bytes exported against " + asJson.length + " as JSON");
+    }
+
+    private static List<double[]> read(byte[] bytes) throws IOException {
+        List<double[]> read = new ArrayList<>();
+        new PositionExportReader(new ByteArrayInputStream(bytes)).read(
+          (satelliteId, timestampMillis, altitude, latitude, longitude) ->
+            read.add(new double[] {satelliteId, timestampMillis, altitude, latitude, longitude}));
+        return read;
+    }
+}
@@ -0,0 +1,37 @@
+package com.ism.satellite.format;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks Accept header negotiation among JSON, CBOR and Smile honours quality values and specificity.
+ */
+public class WireFormatsTest {
+
+    @Test
+    void defaultsToJson() {
+        assertEquals("json", WireFormats.negotiate(null));
+        assertEquals("json", WireFormats.negotiate(""));
+        assertEquals("json", WireFormats.negotiate("*/*"));
+        assertEquals("json", WireFormats.negotiate("text/html"));
+    }
+
+    @Test
+    void prefersTheHighestQuality() {
+        assertEquals("smile", WireFormats.negotiate("application/json;q=0.5, application/x-jackson-smile"));
+        assertEquals("cbor", WireFormats.negotiate("application/json;q=0.2, application/cbor;q=0.9"));
+        assertEquals("json", WireFormats.negotiate("application/cbor;q=0.4, application/json;q=0.8"));
+    }
+
+    @Test
+    void prefersTheMoreSpecificTypeAtEqualQuality() {
+        assertEquals("cbor", WireFormats.negotiate("*/*, application/cbor"));
+        assertEquals("smile", WireFormats.negotiate("application/*, application/x-jackson-smile"));
+    }
+
+    @Test
+    void skipsRefusedTypes() {
+        assertEquals("cbor", WireFormats.negotiate("application/json;q=0, application/cbor;q=0.1"));
+    }
+}
@@ -0,0 +1,104 @@
+package com.ism.satellite.history;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.ism.satellite.response.PositionHistoryPoint;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Unit tests for appending, querying and reopening memory mapped history segments.
+ */
+public class PositionHistoryStoreTest {
+
+    // 2024-01-01T00:00:00Z
+    private static final long DAY_START = 1_704_067_200_000L;
+
+    @TempDir
+    Path directory;
+
+    private HistoryProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new HistoryProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory);
+        // Room for 100 records per segment, so the tests exercise rolling
+        properties.setSegmentSize(DataSize.ofBytes(HistorySegment.HEADER_BYTES + 100 * HistorySegment.RECORD_BYTES));
+        properties.setIndexInterval(8);
+    }
+
+    @Test
+    void queryReturnsRangeForSatellite() throws Exception {
+        PositionHistoryStore store = open();
+        for (int i = 0; i < 250; i++) {
+            store.append(i % 2, DAY_START + i * 1000L, i, i + 0.5, i + 0.25);
+        }
+
+        List<PositionHistoryPoint> points = store.query(1L, Instant.ofEpochMilli(DAY_START + 100_000L),
+          Instant.ofEpochMilli(DAY_START + 199_000L), 1000);
+
+        assertEquals(50, points.size());
+        assertEquals(101.0, points.get(0).getAltitude());
+        assertEquals(199.5, points.get(points.size() - 1).getLatitude());
+        assertEquals(3, segmentFiles());
+    }
+
+    @Test
+    void rollsPerDayAndSurvivesReopen() throws Exception {
+        PositionHistoryStore store = open();
+        store.append(7L, DAY_START + 1000L, 1.0, 2.0, 3.0);
+        store.append(7L, DAY_START + 86_400_000L, 4.0, 5.0, 6.0);
+        store.close();
+
+        PositionHistoryStore reopened = open();
+        List<PositionHistoryPoint> points = reopened.query(7L, Instant.ofEpochMilli(DAY_START),
+          Instant.ofEpochMilli(DAY_START + 2 * 86_400_000L), 10);
+
+        assertEquals(2, points.size());
+        assertEquals(6.0, points.get(1).getLongitude());
+        assertEquals(2, segmentFiles());
+    }
+
+    @Test
+    void queryHonoursLimit() throws Exception {
+        PositionHistoryStore store = open();
+        for (int i = 0; i < 20; i++) {
+            store.append(3L, DAY_START + i, i, i, i);
+        }
+
+        assertEquals(5, store.query(3L, Instant.ofEpochMilli(DAY_START), Instant.ofEpochMilli(DAY_START + 20), 5)
+          .size());
+    }
+
+    @Test
+    void refusesADirectoryInUse() throws Exception {
+        PositionHistoryStore store = open();
+
+        assertThrows(IllegalStateException.class, this::open);
+
+        store.close();
+        open();
+    }
+
+    private PositionHistoryStore open() throws Exception {
+        PositionHistoryStore store = new PositionHistoryStore(properties);
+        store.open();
+        return store;
+    }
+
+    private long segmentFiles() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".seg")).count();
+        }
+    }
+}
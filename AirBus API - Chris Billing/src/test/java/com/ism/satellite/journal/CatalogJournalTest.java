@@ -0,0 +1,240 @@
+package com.ism.satellite.journal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ism.satellite.SatelliteApplication;
+import com.ism.satellite.catalog.CatalogImportService;
+import com.ism.satellite.domain.CatalogFormat;
+import com.ism.satellite.domain.CatalogImport;
+import com.ism.satellite.domain.CatalogImportStatus;
+import com.ism.satellite.domain.OrbitType;
+import com.ism.satellite.domain.OrbitalElements;
+import com.ism.satellite.domain.Satellite;
+import com.ism.satellite.domain.SatelliteParameters;
+import com.ism.satellite.exception.custom.NotFoundException;
+import com.ism.satellite.repository.CatalogImportRepository;
+import com.ism.satellite.response.CatalogImportReport;
+import com.ism.satellite.service.EntityTags;
+import com.ism.satellite.service.SatelliteService;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Tests that the catalog survives restarts through the snapshot and write-ahead log, and that damaged files are
+ * detected. Each start gets a fresh in-memory database, so everything it serves comes from the journal.
+ */
+public class CatalogJournalTest {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void restoresTheCatalogFromTheLogAndFromSnapshots() throws Exception {
+        Long kept;
+        Long deleted;
+        String keptTag;
+        try (ConfigurableApplicationContext context = start(false)) {
+            SatelliteService service = context.getBean(SatelliteService.class);
+            kept = service.create(satellite("Kept", 500.0)).getId();
+            deleted = service.create(satellite("Deleted", 600.0)).getId();
+            Satellite renamed = satellite("Renamed", 700.0);
+            renamed.setElements(elements());
+            service.update(renamed, kept);
+            SatelliteParameters fix = new SatelliteParameters();
+            fix.setAltitude(800.0);
+            fix.setLatitude(10.0);
+            fix.setLongitude(20.0);
+            service.patchParameters(kept, fix);
+            service.delete(deleted);
+            CatalogImportReport report = context.getBean(CatalogImportService.class).importCatalog(
+              new ByteArrayInputStream(("{\"name\":\"Imported\",\"orbit\":\"GEO\",\"launchDate\":\"2030-01-01T00:00:00\","
+                + "\"parameters\":{\"altitude\":35786.0,\"latitude\":0.0,\"longitude\":0.0}}\n")
+                .getBytes(StandardCharsets.UTF_8)), CatalogFormat.NDJSON, "journal-import", "test");
+            assertEquals(1, report.getImported());
+            keptTag = service.getSatelliteTag(kept);
+        }
+        // Without a shutdown snapshot, as after a crash, the next start replays the log
+        assertTrue(CatalogSnapshot.snapshots(directory).isEmpty());
+
+        for (int restart = 0; restart < 2; restart++) {
+            try (ConfigurableApplicationContext context = start(true)) {
+                SatelliteService service = context.getBean(SatelliteService.class);
+                Satellite satellite = service.getById(kept);
+                assertEquals("Renamed", satellite.getName());
+                assertEquals(800.0, satellite.getParameters().getAltitude());
+                assertEquals(20.0, satellite.getParameters().getLongitude());
+                assertEquals(elements(), satellite.getElements());
+                // Versions are restored, so tags handed out before the restart still revalidate
+                assertEquals(keptTag, service.getSatelliteTag(kept));
+                assertEquals(keptTag, EntityTags.satellite(satellite));
+                assertThrows(NotFoundException.class, () -> service.getById(deleted));
+                assertEquals(2, service.getAll().size());
+                CatalogImport catalogImport = context.getBean(CatalogImportRepository.class)
+                  .findById("journal-import").orElseThrow();
+                assertEquals(CatalogImportStatus.COMPLETED, catalogImport.getStatus());
+                assertEquals(1, catalogImport.getImported());
+                // The in-memory views are warmed from the restored rows
+                assertEquals(800.0, service.getSatellitePosition(kept).getAltitude());
+                // New ids continue after the restored ones
+                Long created = service.create(satellite("Created " + restart, 400.0)).getId();
+                assertTrue(created > kept, "created " + created + " after " + kept);
+                service.delete(created);
+            }
+            // The replayed log was folded into a snapshot, and a clean shutdown took another
+            assertFalse(CatalogSnapshot.snapshots(directory).isEmpty());
+            assertEquals(1, WriteAheadLog.segments(directory).size());
+        }
+    }
+
+    @Test
+    void readsUpToATornFrameAtTheEndOfTheLog() throws IOException {
+        try (WriteAheadLog log = WriteAheadLog.create(directory, 1, true)) {
+            log.append(ByteBuffer.wrap(new byte[] {1, 2, 3}));
+            log.append(ByteBuffer.wrap(new byte[] {4, 5}));
+        }
+        Path segment = WriteAheadLog.segmentPath(directory, 1);
+        // A crash part way through the third frame
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.allocate(6).putInt(100).putShort((short) 7).flip());
+        }
+
+        List<ByteBuffer> frames = WriteAheadLog.read(segment, true);
+
+        assertEquals(2, frames.size());
+        assertEquals(3, frames.get(0).remaining());
+        assertEquals(5, frames.get(1).get(1));
+        // Earlier segments are complete, damage there is corruption rather than a crash
+        assertThrows(IOException.class, () -> WriteAheadLog.read(segment, false));
+    }
+
+    @Test
+    void snapshotsRoundTripAndDetectCorruption() throws IOException {
+        List<Satellite> satellites = new ArrayList<>();
+        for (long id = 1; id <= 20_000; id++) {
+            Satellite satellite = satellite("Satellite " + id, 500.0 + id);
+            satellite.setId(id);
+            satellite.setVersion(id % 3);
+            satellite.getParameters().setId(id + 100_000);
+            satellite.getParameters().setVersion(id % 5);
+            if (id % 2 == 0) {
+                satellite.setElements(elements());
+            }
+            satellites.add(satellite);
+        }
+        CatalogImport catalogImport = new CatalogImport();
+        catalogImport.setId("import");
+        catalogImport.setFormat(CatalogFormat.TLE);
+        catalogImport.setRecordsCommitted(42);
+
+        long written = CatalogSnapshot.write(directory, 7, satellites.stream(), List.of(catalogImport));
+        List<Object> read = new ArrayList<>();
+        long records = CatalogSnapshot.read(CatalogSnapshot.path(directory, 7), recorder(read));
+
+        assertEquals(40_001, written);
+        assertEquals(written, records);
+        assertEquals(List.of(7L), CatalogSnapshot.snapshots(directory));
+        // Each block holds its parameters rows ahead of its satellites
+        assertTrue(read.get(0) instanceof SatelliteParameters);
+        List<Satellite> restored = read.stream().filter(Satellite.class::isInstance).map(Satellite.class::cast)
+          .toList();
+        assertEquals(20_000, restored.size());
+        Satellite last = restored.get(restored.size() - 1);
+        assertEquals(20_000L, last.getId());
+        assertEquals(2L, last.getVersion());
+        assertEquals(120_000L, last.getParameters().getId());
+        assertEquals(elements(), last.getElements());
+        assertEquals(LocalDateTime.of(2030, 1, 1, 0, 0), last.getLaunchDate());
+        assertNull(restored.get(0).getElements());
+        CatalogImport restoredImport = (CatalogImport) read.get(read.size() - 1);
+        assertEquals(42, restoredImport.getRecordsCommitted());
+        assertEquals(CatalogFormat.TLE, restoredImport.getFormat());
+        assertNull(restoredImport.getStatus());
+
+        Path path = CatalogSnapshot.path(directory, 7);
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(path, bytes);
+        assertThrows(IOException.class, () -> CatalogSnapshot.read(path, recorder(new ArrayList<>())));
+    }
+
+    private ConfigurableApplicationContext start(boolean snapshotOnShutdown) throws IOException {
+        // Arguments rather than default properties, which application.yaml would override
+        return new SpringApplicationBuilder(SatelliteApplication.class).run(
+          "--server.port=0",
+          "--spring.devtools.restart.enabled=false",
+          "--spring.datasource.url=jdbc:h2:mem:journal-" + DATABASES.incrementAndGet() + ";MODE=MySQL",
+          "--satellite.history.directory=" + Files.createDirectories(directory.resolve("history")),
+          "--satellite.journal.enabled=true",
+          "--satellite.journal.directory=" + directory,
+          "--satellite.journal.snapshot-on-shutdown=" + snapshotOnShutdown);
+    }
+
+    private static JournalCodec.Sink recorder(List<Object> records) {
+        return new JournalCodec.Sink() {
+            @Override
+            public void satellite(Satellite satellite) {
+                records.add(satellite);
+            }
+
+            @Override
+            public void parameters(SatelliteParameters parameters) {
+                records.add(parameters);
+            }
+
+            @Override
+            public void catalogImport(CatalogImport catalogImport) {
+                records.add(catalogImport);
+            }
+
+            @Override
+            public void delete(byte kind, Object id) {
+                records.add(id);
+            }
+        };
+    }
+
+    private static OrbitalElements elements() {
+        OrbitalElements elements = new OrbitalElements();
+        elements.setSemiMajorAxisKm(6778.0);
+        elements.setEccentricity(0.001);
+        elements.setInclinationDeg(51.6);
+        elements.setRaanDeg(10.0);
+        elements.setArgumentOfPerigeeDeg(20.0);
+        elements.setMeanAnomalyDeg(30.0);
+        elements.setEpoch(LocalDateTime.of(2030, 1, 1, 12, 0, 0, 500_000_000));
+        return elements;
+    }
+
+    private static Satellite satellite(String name, double altitude) {
+        SatelliteParameters parameters = new SatelliteParameters();
+        parameters.setAltitude(altitude);
+        parameters.setLatitude(0.0);
+        parameters.setLongitude(0.0);
+        Satellite satellite = new Satellite();
+        satellite.setName(name);
+        satellite.setLaunchDate(LocalDateTime.of(2030, 1, 1, 0, 0));
+        satellite.setOrbit(OrbitType.LEO);
+        satellite.setParameters(parameters);
+        return satellite;
+    }
+}
@@ -0,0 +1,181 @@
+package com.ism.satellite.live;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ism.satellite.domain.OrbitType;
+import com.ism.satellite.store.PositionStore;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public class PositionBroadcasterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private PositionStore positionStore;
+
+    private PositionBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        LiveProperties properties = new LiveProperties();
+        properties.setDispatchInterval(Duration.ofMillis(10));
+        positionStore = new PositionStore();
+        broadcaster = new PositionBroadcaster(properties, objectMapper, positionStore);
+        broadcaster.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        broadcaster.stop();
+    }
+
+    @Test
+    void subscribersReceiveSnapshotThenMatchingChanges() throws Exception {
+        positionStore.put(1L, 10L, 500, 1, 1);
+        positionStore.put(2L, 20L, 600, 2, 2);
+        broadcaster.trackOrbit(3L, OrbitType.GEO);
+        RecordingEmitter byId = new RecordingEmitter(null);
+        RecordingEmitter byOrbit = new RecordingEmitter(null);
+        broadcaster.subscribe(List.of(1L), null, byId);
+        broadcaster.subscribe(List.of(), OrbitType.GEO, byOrbit);
+
+        broadcaster.onPositionChanged(1L, 1_000L, 510, 1.5, 1.5);
+        broadcaster.onPositionChanged(2L, 1_000L, 610, 2.5, 2.5);
+        broadcaster.onPositionChanged(3L, 1_000L, 35786, 0, 13);
+
+        assertEventually(() -> byId.latest().getOrDefault(1L, 0.0) == 510.0 && byOrbit.latest().containsKey(3L));
+        assertEquals(Map.of(1L, 510.0), byId.latest());
+        assertEquals(Map.of(3L, 35786.0), byOrbit.latest());
+    }
+
+    @Test
+    void slowSubscribersGetConflatedUpdates() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(release);
+        broadcaster.subscribe(List.of(), null, slow);
+
+        for (int i = 1; i <= 1000; i++) {
+            broadcaster.onPositionChanged(1L, i, i, 0, 0);
+            broadcaster.dispatch();
+        }
+        release.countDown();
+
+        assertEventually(() -> slow.latest().getOrDefault(1L, 0.0) == 1000.0);
+        // First send blocked on the latch, every fix after it collapsed into at most a few sends
+        assertTrue(slow.events.size() < 10, "Expected conflated sends but got " + slow.events.size());
+        assertEquals(1, broadcaster.getSubscriberCount());
+    }
+
+    @Test
+    void failedSubscribersAreRemoved() throws Exception {
+        RecordingEmitter broken = new RecordingEmitter(null);
+        broken.fail = true;
+        broadcaster.subscribe(List.of(1L), null, broken);
+
+        broadcaster.onPositionChanged(1L, 1_000L, 500, 0, 0);
+
+        assertEventually(() -> broadcaster.getSubscriberCount() == 0);
+    }
+
+    @Test
+    void stalledSubscribersAreDroppedWithoutHoldingUpTheOthers() throws Exception {
+        LiveProperties properties = new LiveProperties();
+        properties.setDispatchInterval(Duration.ofMillis(10));
+        properties.setSenderThreads(1);
+        properties.setSendTimeout(Duration.ofMillis(100));
+        PositionBroadcaster singleSender = new PositionBroadcaster(properties, objectMapper, positionStore);
+        singleSender.start();
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            positionStore.put(1L, 10L, 500, 1, 1);
+            RecordingEmitter stalled = new RecordingEmitter(release);
+            RecordingEmitter healthy = new RecordingEmitter(null);
+            // The snapshot send to the stalled subscriber takes the only sender thread
+            singleSender.subscribe(List.of(), null, stalled);
+            singleSender.subscribe(List.of(), null, healthy);
+
+            assertEventually(() -> healthy.latest().getOrDefault(1L, 0.0) == 500.0);
+            singleSender.onPositionChanged(1L, 1_000L, 510, 1.5, 1.5);
+            assertEventually(() -> healthy.latest().getOrDefault(1L, 0.0) == 510.0);
+            assertEquals(1, singleSender.getSubscriberCount());
+            assertEquals(1, singleSender.getStalledSubscriberDrops());
+            assertTrue(stalled.events.isEmpty());
+        } finally {
+            release.countDown();
+            singleSender.stop();
+        }
+    }
+
+    private static void assertEventually(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Captures sent event payloads, optionally blocking the first send until released.
+     */
+    private final class RecordingEmitter extends SseEmitter {
+
+        private final List<String> events = new CopyOnWriteArrayList<>();
+
+        private final CountDownLatch release;
+
+        private volatile boolean fail;
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (fail) {
+                throw new IOException("Broken pipe");
+            }
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            StringBuilder payload = new StringBuilder();
+            builder.build().forEach(part -> payload.append(part.getData()));
+            events.add(payload.toString());
+        }
+
+        Map<Long, Double> latest() {
+            Map<Long, Double> altitudes = new ConcurrentHashMap<>();
+            for (String event : events) {
+                int start = event.indexOf('[');
+                if (start < 0) {
+                    continue;
+                }
+                try {
+                    for (JsonNode position : objectMapper.readTree(event.substring(start, event.lastIndexOf(']') + 1))) {
+                        altitudes.put(position.get("satelliteId").asLong(), position.get("altitude").asDouble());
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+            return altitudes;
+        }
+    }
+}
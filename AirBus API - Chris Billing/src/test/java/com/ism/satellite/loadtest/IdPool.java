@@ -0,0 +1,68 @@
+package com.ism.satellite.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ids of the satellites currently alive on the server, with constant time random pick, add and remove.
+ */
+final class IdPool {
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long[] ids = new long[1024];
+
+    private int size;
+
+    void add(long id) {
+        lock.lock();
+        try {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size << 1);
+            }
+            ids[size++] = id;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a random live id, or -1 when the pool is empty.
+     */
+    long pick() {
+        lock.lock();
+        try {
+            return size == 0 ? -1 : ids[ThreadLocalRandom.current().nextInt(size)];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes and returns a random id, keeping a floor so reads always have targets. Returns -1 at the floor.
+     */
+    long take(int floor) {
+        lock.lock();
+        try {
+            if (size <= floor) {
+                return -1;
+            }
+            int index = ThreadLocalRandom.current().nextInt(size);
+            long id = ids[index];
+            ids[index] = ids[--size];
+            return id;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package com.ism.satellite.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ism.satellite.SatelliteApplication;
+import com.ism.satellite.domain.OrbitType;
+import com.ism.satellite.domain.Satellite;
+import com.ism.satellite.domain.SatelliteParameters;
+import com.ism.satellite.live.PositionBroadcaster;
+import com.ism.satellite.repository.SatelliteRepository;
+import com.ism.satellite.service.SatelliteService;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Checks live position push at the subscriber limit the application is configured for. Boots SatelliteApplication
+ * with its own settings on a random port, opens live.subscribers Server-Sent Events subscriptions to every
+ * satellite, a few of which connect with a tiny receive buffer and never read, then patches satellites at a fixed
+ * rate. The delay from each patch to its arrival at every reading subscriber goes into an HdrHistogram. The run
+ * passes when every reading subscriber connected and received the last fix, and, when live.maxP99Millis is set,
+ * when the delivery p99 stays below it. The server's socket send buffer is pinned so the stalled subscribers block
+ * their sends within the run.
+ *
+ * <p>Needs a file descriptor limit above twice the subscriber count, raise it with ulimit -n first.
+ *
+ * <p>Run with: mvn -Plive verify -Dlive.subscribers=20000 -Dlive.fixesPerSecond=50
+ */
+public final class LiveSubscriberLoadRunner {
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    // Patched altitudes start here, so the fix number can be read back from the event
+    private static final double FIX_BASE = 1_000_000;
+
+    private static final int SUBSCRIBERS_PER_CLIENT = 1000;
+
+    private final int subscribers = Integer.getInteger("live.subscribers", 20_000);
+
+    private final int stalledSubscribers = Integer.getInteger("live.stalledSubscribers", 32);
+
+    private final int satellites = Integer.getInteger("live.satellites", 100);
+
+    private final int fixesPerSecond = Integer.getInteger("live.fixesPerSecond", 50);
+
+    private final int connectRate = Integer.getInteger("live.connectRate", 2000);
+
+    private final Duration duration = Duration.ofSeconds(Integer.getInteger("live.durationSeconds", 30));
+
+    private final Duration drain = Duration.ofSeconds(Integer.getInteger("live.drainSeconds", 10));
+
+    private final Path report = Path.of(System.getProperty("live.report", "target/live-report.json"));
+
+    private final String maxP99Millis = System.getProperty("live.maxP99Millis", "");
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final Histogram delivery = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+
+    private final LongAdder connected = new LongAdder();
+
+    private final LongAdder failed = new LongAdder();
+
+    private AtomicLongArray lastSeen;
+
+    private long[] sentNanos;
+
+    private LiveSubscriberLoadRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        // DevTools would restart the application in a separate class loader
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        System.exit(new LiveSubscriberLoadRunner().run() ? 0 : 1);
+    }
+
+    private boolean run() throws Exception {
+        // Arguments rather than default properties, which application.yaml would override
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(SatelliteApplication.class)
+          .initializers(initialized -> initialized.getBeanFactory().registerSingleton("liveLoadSendBuffer",
+            (WebServerFactoryCustomizer<TomcatServletWebServerFactory>) factory -> factory.addConnectorCustomizers(
+              connector -> connector.setProperty("socket.txBufSize", "65536"))))
+          .run(
+            "--server.port=0",
+            "--satellite.history.directory=" + Files.createTempDirectory("satellite-history-live"),
+            "--logging.level.root=WARN");
+        try {
+            List<Long> ids = seed(context);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            return drive(context, port, ids);
+        } finally {
+            context.close();
+        }
+    }
+
+    private List<Long> seed(ConfigurableApplicationContext context) {
+        SatelliteRepository repository = context.getBean(SatelliteRepository.class);
+        List<Satellite> batch = new ArrayList<>();
+        for (int i = 0; i < satellites; i++) {
+            SatelliteParameters parameters = new SatelliteParameters();
+            parameters.setAltitude(400.0 + i % 1600);
+            parameters.setLatitude((i % 180) - 90.0);
+            parameters.setLongitude((i % 360) - 180.0);
+            Satellite satellite = new Satellite();
+            satellite.setName("Seed " + i);
+            satellite.setLaunchDate(LocalDateTime.of(2030, 1, 1, 0, 0));
+            satellite.setOrbit(OrbitType.values()[i % OrbitType.values().length]);
+            satellite.setParameters(parameters);
+            batch.add(satellite);
+        }
+        List<Long> ids = new ArrayList<>();
+        repository.saveAll(batch).forEach(saved -> ids.add(saved.getId()));
+        // Loads the seeded positions into the in-memory store the way startup warming would
+        context.getBean(SatelliteService.class).checkPositionConsistency(true);
+        return ids;
+    }
+
+    private boolean drive(ConfigurableApplicationContext context, int port, List<Long> ids) throws Exception {
+        int reading = subscribers - stalledSubscribers;
+        int fixes = (int) (fixesPerSecond * duration.toSeconds());
+        lastSeen = new AtomicLongArray(reading);
+        for (int i = 0; i < reading; i++) {
+            lastSeen.set(i, -1);
+        }
+        sentNanos = new long[fixes];
+        URI live = URI.create("http://localhost:" + port + "/api/satellite/live");
+        PrintStream out = System.out;
+
+        // The stalled subscribers connect first, so their snapshot sends are the first to block
+        List<Socket> stalled = new ArrayList<>();
+        for (int i = 0; i < stalledSubscribers; i++) {
+            stalled.add(stall(port));
+        }
+        List<HttpClient> clients = new ArrayList<>();
+        long periodNanos = TimeUnit.SECONDS.toNanos(1) / connectRate;
+        long start = System.nanoTime();
+        for (int i = 0; i < reading; i++) {
+            if (i % SUBSCRIBERS_PER_CLIENT == 0) {
+                // One selector thread per client, so reading the events is not the bottleneck
+                clients.add(HttpClient.newBuilder()
+                  .version(HttpClient.Version.HTTP_1_1)
+                  .connectTimeout(Duration.ofSeconds(30))
+                  .build());
+            }
+            LockSupport.parkNanos(start + i * periodNanos - System.nanoTime());
+            int subscriber = i;
+            clients.get(clients.size() - 1)
+              .sendAsync(HttpRequest.newBuilder(live).header("Accept", "text/event-stream").build(),
+                HttpResponse.BodyHandlers.fromLineSubscriber(new Reader(subscriber)))
+              .whenComplete((response, ex) -> {
+                  if (ex != null || response.statusCode() != 200) {
+                      failed.increment();
+                  }
+              });
+        }
+        long connectDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (connected.sum() + failed.sum() < reading && System.nanoTime() < connectDeadline) {
+            Thread.sleep(100);
+        }
+        out.printf("%d of %d reading subscribers connected, %d failed%n", connected.sum(), reading, failed.sum());
+
+        SatelliteService satelliteService = context.getBean(SatelliteService.class);
+        long fixPeriodNanos = TimeUnit.SECONDS.toNanos(1) / fixesPerSecond;
+        long pacing = System.nanoTime();
+        for (int k = 0; k < fixes; k++) {
+            LockSupport.parkNanos(pacing + k * fixPeriodNanos - System.nanoTime());
+            SatelliteParameters fix = new SatelliteParameters();
+            fix.setAltitude(FIX_BASE + k);
+            fix.setLatitude(0.0);
+            fix.setLongitude(0.0);
+            sentNanos[k] = System.nanoTime();
+            satelliteService.patchParameters(ids.get(k % ids.size()), fix);
+        }
+        long drainDeadline = System.nanoTime() + drain.toNanos();
+        while (caughtUp(fixes - 1) < connected.sum() && System.nanoTime() < drainDeadline) {
+            Thread.sleep(100);
+        }
+
+        PositionBroadcaster broadcaster = context.getBean(PositionBroadcaster.class);
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("subscribers", subscribers);
+        summary.put("stalledSubscribers", stalledSubscribers);
+        summary.put("connected", connected.sum());
+        summary.put("failed", failed.sum());
+        summary.put("caughtUp", caughtUp(fixes - 1));
+        summary.put("stalledDropped", broadcaster.getStalledSubscriberDrops());
+        summary.put("fixes", fixes);
+        summary.put("deliveries", delivery.getTotalCount());
+        summary.put("p50Millis", delivery.getValueAtPercentile(50) / 1000d);
+        summary.put("p99Millis", delivery.getValueAtPercentile(99) / 1000d);
+        summary.put("p999Millis", delivery.getValueAtPercentile(99.9) / 1000d);
+        summary.put("maxMillis", delivery.getMaxValue() / 1000d);
+        out.printf(Locale.ROOT, "%n%9s %7s %9s %8s %11s %9s %9s %9s %9s%n", "connected", "failed", "caught up",
+          "stalled", "deliveries", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        out.printf(Locale.ROOT, "%9d %7d %9d %8d %11d %9.2f %9.2f %9.2f %9.2f%n", summary.get("connected"),
+          summary.get("failed"), summary.get("caughtUp"), summary.get("stalledDropped"), summary.get("deliveries"),
+          summary.get("p50Millis"), summary.get("p99Millis"), summary.get("p999Millis"), summary.get("maxMillis"));
+
+        boolean passed = connected.sum() == reading && caughtUp(fixes - 1) == reading;
+        if (!maxP99Millis.isBlank() && delivery.getValueAtPercentile(99) / 1000d > Double.parseDouble(maxP99Millis)) {
+            passed = false;
+        }
+        summary.put("passed", passed);
+        Path target = report.toAbsolutePath();
+        Files.createDirectories(target.getParent());
+        objectMapper.writeValue(target.toFile(), summary);
+        out.printf("%nReport written to %s%n", target);
+
+        for (Socket socket : stalled) {
+            socket.close();
+        }
+        return passed;
+    }
+
+    private int caughtUp(long lastFix) {
+        int count = 0;
+        for (int i = 0; i < lastSeen.length(); i++) {
+            if (lastSeen.get(i) >= lastFix) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Subscribes over a plain socket with a tiny receive buffer and never reads, like a client that hung
+    private static Socket stall(int port) throws IOException {
+        Socket socket = new Socket();
+        socket.setReceiveBufferSize(1024);
+        socket.connect(new InetSocketAddress("localhost", port));
+        OutputStream output = socket.getOutputStream();
+        output.write(("GET /api/satellite/live HTTP/1.1\r\nHost: localhost\r\nAccept: text/event-stream\r\n\r\n")
+          .getBytes(StandardCharsets.US_ASCII));
+        output.flush();
+        return socket;
+    }
+
+    /**
+     * Reads one subscription's event stream, recording the delay of every patched fix it receives.
+     */
+    private final class Reader implements Flow.Subscriber<String> {
+
+        private final int subscriber;
+
+        Reader(int subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            connected.increment();
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (!line.startsWith("data:")) {
+                return;
+            }
+            long received = System.nanoTime();
+            // Scanned rather than parsed, tens of thousands of subscribers share the reading threads
+            for (int at = line.indexOf("\"altitude\":"); at >= 0; at = line.indexOf("\"altitude\":", at + 1)) {
+                int from = at + "\"altitude\":".length();
+                int to = from;
+                while (to < line.length() && line.charAt(to) != ',' && line.charAt(to) != '}') {
+                    to++;
+                }
+                double altitude = Double.parseDouble(line.substring(from, to));
+                if (altitude < FIX_BASE) {
+                    continue;
+                }
+                int fix = (int) (altitude - FIX_BASE);
+                delivery.recordValue(Math.min(HIGHEST_MICROS, (received - sentNanos[fix]) / 1000));
+                lastSeen.accumulateAndGet(subscriber, fix, Math::max);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            // Counted when the response completes
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.ism.satellite.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load test settings read from loadtest.* system properties.
+ *
+ * <ul>
+ *   <li>loadtest.satellites: satellites seeded before the run, default 1000</li>
+ *   <li>loadtest.rates: target requests per second per operation, e.g. read=200,position=500,patch=100</li>
+ *   <li>loadtest.warmupSeconds / loadtest.durationSeconds: unrecorded warmup, then the measured run</li>
+ *   <li>loadtest.timeoutMillis: per request timeout, default 5000</li>
+ *   <li>loadtest.report: JSON report file, default target/loadtest-report.json</li>
+ *   <li>loadtest.maxP99Millis: optional gate, the run fails if any operation's corrected p99 exceeds it</li>
+ * </ul>
+ */
+final class LoadTestConfig {
+
+    static final String DEFAULT_RATES = "read=200,position=500,patch=100,create=10,delete=5";
+
+    final int satellites;
+
+    final Map<String, Double> rates;
+
+    final Duration warmup;
+
+    final Duration duration;
+
+    final Duration timeout;
+
+    final Path report;
+
+    final Double maxP99Millis;
+
+    private LoadTestConfig(int satellites, Map<String, Double> rates, Duration warmup, Duration duration,
+                           Duration timeout, Path report, Double maxP99Millis) {
+        this.satellites = satellites;
+        this.rates = rates;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.timeout = timeout;
+        this.report = report;
+        this.maxP99Millis = maxP99Millis;
+    }
+
+    static LoadTestConfig fromSystemProperties() {
+        String maxP99 = System.getProperty("loadtest.maxP99Millis", "");
+        return new LoadTestConfig(
+          Integer.getInteger("loadtest.satellites", 1000),
+          parseRates(System.getProperty("loadtest.rates", DEFAULT_RATES)),
+          Duration.ofSeconds(Integer.getInteger("loadtest.warmupSeconds", 5)),
+          Duration.ofSeconds(Integer.getInteger("loadtest.durationSeconds", 30)),
+          Duration.ofMillis(Integer.getInteger("loadtest.timeoutMillis", 5000)),
+          Path.of(System.getProperty("loadtest.report", "target/loadtest-report.json")),
+          maxP99.isBlank() ? null : Double.valueOf(maxP99));
+    }
+
+    static Map<String, Double> parseRates(String spec) {
+        Map<String, Double> rates = new LinkedHashMap<>();
+        for (String entry : spec.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected operation=rate but got: " + entry);
+            }
+            double rate = Double.parseDouble(parts[1].trim());
+            if (rate > 0) {
+                rates.put(parts[0].trim(), rate);
+            }
+        }
+        return rates;
+    }
+}
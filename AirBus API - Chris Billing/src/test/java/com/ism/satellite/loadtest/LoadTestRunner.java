@@ -0,0 +1,237 @@
+package com.ism.satellite.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ism.satellite.SatelliteApplication;
+import com.ism.satellite.domain.OrbitType;
+import com.ism.satellite.domain.Satellite;
+import com.ism.satellite.domain.SatelliteParameters;
+import com.ism.satellite.repository.SatelliteRepository;
+import com.ism.satellite.service.SatelliteService;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Open-model HTTP load generator. Boots SatelliteApplication on a random port, seeds satellites, then issues every
+ * configured operation at its target rate from a pacer thread, whether or not earlier requests have completed.
+ * Requests run on virtual threads when the JVM supports them and latencies go into HdrHistograms measured from the
+ * intended start time. Prints a percentile report, writes it as JSON for regression gates, and writes an .hgrm
+ * percentile distribution per operation next to it.
+ *
+ * <p>Run with: mvn -Ploadtest verify -Dloadtest.rates=read=500,patch=200 -Dloadtest.durationSeconds=60
+ */
+public final class LoadTestRunner {
+
+    private final LoadTestConfig config;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final IdPool ids = new IdPool();
+
+    private LoadTestRunner(LoadTestConfig config) {
+        this.config = config;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        // DevTools would restart the application in a separate class loader
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        // Arguments rather than default properties, which application.yaml would override
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(SatelliteApplication.class)
+          .run(
+            "--server.port=0",
+            "--satellite.history.enabled=true",
+            "--satellite.history.directory=" + Files.createTempDirectory("satellite-history-loadtest"),
+            "--logging.level.root=WARN");
+        boolean passed;
+        try {
+            LoadTestRunner runner = new LoadTestRunner(config);
+            runner.seed(context);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            passed = runner.run(URI.create("http://localhost:" + port + "/api/satellite/"));
+        } finally {
+            context.close();
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    private void seed(ConfigurableApplicationContext context) {
+        SatelliteRepository repository = context.getBean(SatelliteRepository.class);
+        List<Satellite> batch = new ArrayList<>();
+        for (int i = 0; i < config.satellites; i++) {
+            SatelliteParameters parameters = new SatelliteParameters();
+            parameters.setAltitude(400.0 + i % 1600);
+            parameters.setLatitude((i % 180) - 90.0);
+            parameters.setLongitude((i % 360) - 180.0);
+            Satellite satellite = new Satellite();
+            satellite.setName("Seed " + i);
+            satellite.setLaunchDate(LocalDateTime.of(2030, 1, 1, 0, 0));
+            satellite.setOrbit(OrbitType.values()[i % OrbitType.values().length]);
+            satellite.setParameters(parameters);
+            batch.add(satellite);
+            if (batch.size() == 1000 || i == config.satellites - 1) {
+                repository.saveAll(batch).forEach(saved -> ids.add(saved.getId()));
+                batch.clear();
+            }
+        }
+        // Loads the seeded positions into the in-memory store the way startup warming would
+        context.getBean(SatelliteService.class).checkPositionConsistency(true);
+    }
+
+    private boolean run(URI api) throws Exception {
+        List<OperationStats> operations = new ArrayList<>();
+        config.rates.forEach((key, rate) -> operations.add(new OperationStats(Operation.of(key), rate)));
+        ExecutorService executor = virtualThreadExecutor();
+        boolean virtualThreads = executor != null;
+        if (executor == null) {
+            executor = Executors.newCachedThreadPool();
+        }
+        HttpClient client = HttpClient.newBuilder()
+          .version(HttpClient.Version.HTTP_1_1)
+          .connectTimeout(config.timeout)
+          .executor(executor)
+          .build();
+
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long recordFrom = start + config.warmup.toNanos();
+        long end = recordFrom + config.duration.toNanos();
+        Instant startedAt = Instant.now();
+        List<Thread> pacers = new ArrayList<>();
+        for (OperationStats stats : operations) {
+            ExecutorService requests = executor;
+            Thread pacer = new Thread(() -> pace(client, requests, api, stats, start, recordFrom, end),
+              "loadtest-" + stats.operation.key());
+            pacer.start();
+            pacers.add(pacer);
+        }
+        for (Thread pacer : pacers) {
+            pacer.join();
+        }
+        executor.shutdown();
+        executor.awaitTermination(config.timeout.toMillis() + 1000, TimeUnit.MILLISECONDS);
+        return report(operations, startedAt, virtualThreads);
+    }
+
+    // Request k is due at start + k / rate, late pacing only shifts when it is sent, never when it was due
+    private void pace(HttpClient client, ExecutorService executor, URI api, OperationStats stats, long start,
+                      long recordFrom, long end) {
+        double periodNanos = TimeUnit.SECONDS.toNanos(1) / stats.targetRate;
+        for (long k = 0; ; k++) {
+            long intended = start + (long) (k * periodNanos);
+            if (intended >= end) {
+                return;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            boolean recorded = intended >= recordFrom;
+            if (recorded) {
+                stats.scheduled.increment();
+            }
+            executor.execute(() -> execute(client, api, stats, intended, recorded));
+        }
+    }
+
+    private void execute(HttpClient client, URI api, OperationStats stats, long intended, boolean recorded) {
+        HttpRequest request = stats.operation.build(api, ids, config.satellites / 2);
+        if (request == null) {
+            if (recorded) {
+                stats.skipped.increment();
+            }
+            return;
+        }
+        request = HttpRequest.newBuilder(request, (name, value) -> true).timeout(config.timeout).build();
+        long sent = System.nanoTime();
+        boolean failed;
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            failed = response.statusCode() >= 400;
+            if (!failed) {
+                stats.operation.completed(response, ids, objectMapper);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            failed = true;
+        } catch (Exception ex) {
+            failed = true;
+        }
+        if (recorded) {
+            stats.record(intended, sent, System.nanoTime(), failed);
+        }
+    }
+
+    private boolean report(List<OperationStats> operations, Instant startedAt, boolean virtualThreads)
+      throws Exception {
+        double seconds = config.duration.toNanos() / 1e9;
+        Map<String, Object> results = new LinkedHashMap<>();
+        boolean passed = true;
+        PrintStream out = System.out;
+        out.printf(Locale.ROOT, "%n%-10s %8s %9s %8s %7s %10s %9s %9s %9s %9s %11s%n", "operation",
+          "target/s", "achieved/s", "count", "errors", "incomplete", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "svc p99 ms");
+        for (OperationStats stats : operations) {
+            Map<String, Object> summary = stats.summary(seconds);
+            results.put(stats.operation.key(), summary);
+            out.printf(Locale.ROOT, "%-10s %8.1f %9.1f %8d %7d %10d %9.2f %9.2f %9.2f %9.2f %11.2f%n",
+              stats.operation.key(), stats.targetRate, summary.get("achievedRate"), summary.get("count"),
+              summary.get("errors"), summary.get("incomplete"), summary.get("p50Millis"), summary.get("p99Millis"), summary.get("p999Millis"),
+              summary.get("maxMillis"), summary.get("serviceTimeP99Millis"));
+            if (config.maxP99Millis != null && stats.p99Millis() > config.maxP99Millis) {
+                passed = false;
+            }
+        }
+
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("startedAt", startedAt.toString());
+        document.put("satellites", config.satellites);
+        document.put("warmupSeconds", config.warmup.toSeconds());
+        document.put("durationSeconds", config.duration.toSeconds());
+        document.put("virtualThreads", virtualThreads);
+        document.put("operations", results);
+        if (config.maxP99Millis != null) {
+            document.put("maxP99Millis", config.maxP99Millis);
+            document.put("passed", passed);
+        }
+        Path report = config.report.toAbsolutePath();
+        Files.createDirectories(report.getParent());
+        objectMapper.writeValue(report.toFile(), document);
+        for (OperationStats stats : operations) {
+            Path distribution = report.resolveSibling("loadtest-" + stats.operation.key() + ".hgrm");
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(distribution))) {
+                // Values are recorded in microseconds, the distribution is written in milliseconds
+                stats.corrected.outputPercentileDistribution(hgrm, 1000.0);
+            }
+        }
+        out.printf("%nReport written to %s%s%n", report,
+          config.maxP99Millis == null ? "" : passed ? ", p99 gate passed" : ", p99 gate FAILED");
+        return passed;
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor only exists from Java 21, older JVMs fall back to platform threads
+    private static ExecutorService virtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.ism.satellite.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ism.satellite.domain.OrbitType;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The SatelliteController requests the load test can issue. Each builds a request against a random live
+ * satellite, or returns null when there is no suitable target.
+ */
+enum Operation {
+
+    READ {
+        @Override
+        HttpRequest build(URI api, IdPool ids, int floor) {
+            long id = ids.pick();
+            return id < 0 ? null : get(api.resolve(String.valueOf(id)));
+        }
+    },
+    POSITION {
+        @Override
+        HttpRequest build(URI api, IdPool ids, int floor) {
+            long id = ids.pick();
+            return id < 0 ? null : get(api.resolve("position/" + id));
+        }
+    },
+    PATCH {
+        @Override
+        HttpRequest build(URI api, IdPool ids, int floor) {
+            long id = ids.pick();
+            if (id < 0) {
+                return null;
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            String body = String.format(Locale.ROOT, "{\"altitude\":%.3f,\"latitude\":%.5f,\"longitude\":%.5f}",
+              random.nextDouble(400, 2000), random.nextDouble(-90, 90), random.nextDouble(-180, 180));
+            return json(api.resolve(String.valueOf(id))).method("PATCH", HttpRequest.BodyPublishers.ofString(body))
+              .build();
+        }
+    },
+    CREATE {
+        @Override
+        HttpRequest build(URI api, IdPool ids, int floor) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            String body = String.format(Locale.ROOT, "{\"name\":\"Load %d\",\"launchDate\":\"2030-01-01T00:00:00\","
+                + "\"orbit\":\"LEO\",\"parameters\":{\"altitude\":%.3f,\"latitude\":%.5f,\"longitude\":%.5f}}",
+              random.nextInt(1_000_000), random.nextDouble(400, 2000), random.nextDouble(-90, 90),
+              random.nextDouble(-180, 180));
+            return json(api).POST(HttpRequest.BodyPublishers.ofString(body)).build();
+        }
+
+        @Override
+        void completed(HttpResponse<String> response, IdPool ids, ObjectMapper objectMapper) throws IOException {
+            ids.add(objectMapper.readTree(response.body()).get("id").asLong());
+        }
+    },
+    DELETE {
+        @Override
+        HttpRequest build(URI api, IdPool ids, int floor) {
+            long id = ids.take(floor);
+            return id < 0 ? null : HttpRequest.newBuilder(api.resolve(String.valueOf(id))).DELETE().build();
+        }
+    },
+    PAGE {
+        @Override
+        HttpRequest build(URI api, IdPool ids, int floor) {
+            long id = ids.pick();
+            return get(api.resolve("page?limit=100&after=" + Math.max(0, id)));
+        }
+    },
+    SEARCH {
+        @Override
+        HttpRequest build(URI api, IdPool ids, int floor) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            OrbitType orbit = OrbitType.values()[random.nextInt(OrbitType.values().length)];
+            double altitude = random.nextDouble(400, 2000);
+            return get(api.resolve(String.format(Locale.ROOT, "search?orbit=%s&minAlt=%.0f&maxAlt=%.0f&limit=100",
+              orbit, altitude, altitude + 100)));
+        }
+    },
+    LIST {
+        @Override
+        HttpRequest build(URI api, IdPool ids, int floor) {
+            return get(api);
+        }
+    },
+    HISTORY {
+        @Override
+        HttpRequest build(URI api, IdPool ids, int floor) {
+            long id = ids.pick();
+            return id < 0 ? null : get(api.resolve(id + "/history?limit=100"));
+        }
+    },
+    RADIUS {
+        @Override
+        HttpRequest build(URI api, IdPool ids, int floor) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            return get(api.resolve(String.format(Locale.ROOT, "within/radius?lat=%.3f&lon=%.3f&radiusKm=1000",
+              random.nextDouble(-90, 90), random.nextDouble(-180, 180))));
+        }
+    },
+    PROPAGATE {
+        @Override
+        HttpRequest build(URI api, IdPool ids, int floor) {
+            return get(api.resolve("positions"));
+        }
+    };
+
+    abstract HttpRequest build(URI api, IdPool ids, int floor);
+
+    /**
+     * Called for successful responses, so operations can track the satellites they create.
+     */
+    void completed(HttpResponse<String> response, IdPool ids, ObjectMapper objectMapper) throws IOException {
+    }
+
+    String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    static Operation of(String key) {
+        for (Operation operation : values()) {
+            if (operation.key().equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation " + key + ", expected one of "
+          + Arrays.stream(values()).map(Operation::key).toList());
+    }
+
+    private static HttpRequest get(URI uri) {
+        return HttpRequest.newBuilder(uri).header("Accept", "application/json").GET().build();
+    }
+
+    private static HttpRequest.Builder json(URI uri) {
+        return HttpRequest.newBuilder(uri).header("Content-Type", "application/json")
+          .header("Accept", "application/json");
+    }
+}
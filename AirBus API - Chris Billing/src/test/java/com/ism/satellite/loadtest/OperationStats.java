@@ -0,0 +1,72 @@
+package com.ism.satellite.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latency histograms and counters of one operation. The corrected histogram measures from the time a request was
+ * scheduled to start, so a stalled server is charged for every request it delayed (no coordinated omission); the
+ * service time histogram measures from the moment the request was actually sent.
+ */
+final class OperationStats {
+
+    // Microsecond resolution up to a minute, three significant digits
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    final Operation operation;
+
+    final double targetRate;
+
+    final Histogram corrected = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+
+    final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+
+    final LongAdder errors = new LongAdder();
+
+    final LongAdder skipped = new LongAdder();
+
+    // Requests due inside the measured window, those still in flight when the run ends show up as incomplete
+    final LongAdder scheduled = new LongAdder();
+
+    OperationStats(Operation operation, double targetRate) {
+        this.operation = operation;
+        this.targetRate = targetRate;
+    }
+
+    void record(long intendedNanos, long sentNanos, long completedNanos, boolean failed) {
+        corrected.recordValue(Math.min(HIGHEST_MICROS, (completedNanos - intendedNanos) / 1000));
+        serviceTime.recordValue(Math.min(HIGHEST_MICROS, (completedNanos - sentNanos) / 1000));
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    Map<String, Object> summary(double seconds) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("targetRate", targetRate);
+        summary.put("achievedRate", corrected.getTotalCount() / seconds);
+        summary.put("count", corrected.getTotalCount());
+        summary.put("errors", errors.sum());
+        summary.put("skipped", skipped.sum());
+        summary.put("incomplete", scheduled.sum() - skipped.sum() - corrected.getTotalCount());
+        summary.put("p50Millis", millis(corrected.getValueAtPercentile(50)));
+        summary.put("p99Millis", millis(corrected.getValueAtPercentile(99)));
+        summary.put("p999Millis", millis(corrected.getValueAtPercentile(99.9)));
+        summary.put("maxMillis", millis(corrected.getMaxValue()));
+        summary.put("serviceTimeP50Millis", millis(serviceTime.getValueAtPercentile(50)));
+        summary.put("serviceTimeP99Millis", millis(serviceTime.getValueAtPercentile(99)));
+        return summary;
+    }
+
+    double p99Millis() {
+        return millis(corrected.getValueAtPercentile(99));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000d;
+    }
+}
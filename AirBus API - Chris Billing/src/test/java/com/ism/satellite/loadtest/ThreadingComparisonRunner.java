@@ -0,0 +1,291 @@
+package com.ism.satellite.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ism.satellite.SatelliteApplication;
+import com.ism.satellite.domain.OrbitType;
+import com.ism.satellite.domain.Satellite;
+import com.ism.satellite.domain.SatelliteParameters;
+import com.ism.satellite.metrics.ThreadingMetrics;
+import com.ism.satellite.repository.SatelliteRepository;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.sql.DataSource;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Compares serving requests on Tomcat's platform thread pool with serving them on virtual threads, and with the
+ * async endpoints, which hand each blocking call to the async service's scheduler. The application is started once per
+ * mode and driven by a fixed number of concurrent clients (a closed model) reading and patching
+ * satellites, with the entity and response caches off so every request makes blocking JPA calls. Each statement and
+ * commit is delayed to stand in for the round trip to a networked database, and the connection pool is sized above
+ * Tomcat's 200 threads, so the comparison measures the request threads rather than the pool. Throughput and
+ * latency percentiles per mode are printed and written as JSON. Virtual threads need Java 21, on older JVMs that
+ * mode is reported as skipped. The async scheduler gets as many threads as Tomcat by default, so every mode
+ * allows the same number of concurrent JDBC calls.
+ *
+ * <p>Run with: mvn -Pthreading verify -Dthreading.concurrency=2000 -Dthreading.dbLatencyMillis=5
+ */
+public final class ThreadingComparisonRunner {
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final int satellites = Integer.getInteger("threading.satellites", 1000);
+
+    private final int concurrency = Integer.getInteger("threading.concurrency", 1000);
+
+    private final Duration warmup = Duration.ofSeconds(Integer.getInteger("threading.warmupSeconds", 5));
+
+    private final Duration duration = Duration.ofSeconds(Integer.getInteger("threading.durationSeconds", 20));
+
+    private final long dbLatencyMillis = Integer.getInteger("threading.dbLatencyMillis", 5);
+
+    private final int poolSize = Integer.getInteger("threading.poolSize", 400);
+
+    private final int patchPercent = Integer.getInteger("threading.patchPercent", 20);
+
+    private final int asyncThreads = Integer.getInteger("threading.asyncThreads", 200);
+
+    private final Path report = Path.of(System.getProperty("threading.report", "target/threading-report.json"));
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private ThreadingComparisonRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        // DevTools would restart the application in a separate class loader
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        new ThreadingComparisonRunner().run();
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+        Map<String, Object> modes = new LinkedHashMap<>();
+        modes.put("platform", measure("platform", false, "/api/satellite/"));
+        if (Runtime.version().feature() >= 21) {
+            modes.put("virtual", measure("virtual", true, "/api/satellite/"));
+        } else {
+            modes.put("virtual", Map.of("skipped", "Virtual threads need Java 21, running on Java "
+              + Runtime.version().feature()));
+        }
+        modes.put("async", measure("async", false, "/api/async/satellite/"));
+
+        PrintStream out = System.out;
+        out.printf(Locale.ROOT, "%n%-9s %11s %8s %7s %9s %9s %9s %9s%n", "threads", "requests/s", "count", "errors",
+          "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        modes.forEach((mode, result) -> {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> summary = (Map<String, Object>) result;
+            if (summary.containsKey("skipped")) {
+                out.printf("%-9s %s%n", mode, summary.get("skipped"));
+            } else {
+                out.printf(Locale.ROOT, "%-9s %11.1f %8d %7d %9.2f %9.2f %9.2f %9.2f%n", mode,
+                  summary.get("throughput"), summary.get("count"), summary.get("errors"), summary.get("p50Millis"),
+                  summary.get("p99Millis"), summary.get("p999Millis"), summary.get("maxMillis"));
+            }
+        });
+
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("java", Runtime.version().toString());
+        document.put("satellites", satellites);
+        document.put("concurrency", concurrency);
+        document.put("dbLatencyMillis", dbLatencyMillis);
+        document.put("poolSize", poolSize);
+        document.put("patchPercent", patchPercent);
+        document.put("asyncThreads", asyncThreads);
+        document.put("warmupSeconds", warmup.toSeconds());
+        document.put("durationSeconds", duration.toSeconds());
+        document.put("modes", modes);
+        Path target = report.toAbsolutePath();
+        Files.createDirectories(target.getParent());
+        objectMapper.writeValue(target.toFile(), document);
+        out.printf("%nReport written to %s%n", target);
+    }
+
+    private Map<String, Object> measure(String mode, boolean virtual, String path) throws Exception {
+        // Arguments rather than default properties, which application.yaml would override
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(SatelliteApplication.class)
+          .initializers(initialized -> initialized.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+              @Override
+              public Object postProcessAfterInitialization(Object bean, String beanName) {
+                  return bean instanceof DataSource dataSource ? delayed(dataSource) : bean;
+              }
+          }))
+          .run(
+            "--server.port=0",
+            "--spring.threads.virtual.enabled=" + virtual,
+            "--spring.datasource.url=jdbc:h2:mem:threading-" + mode + ";MODE=MySQL",
+            "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+            "--satellite.async.threads=" + asyncThreads,
+            "--satellite.entity-cache.enabled=false",
+            "--satellite.response-cache.enabled=false",
+            "--satellite.conjunction.enabled=false",
+            "--satellite.history.directory=" + Files.createTempDirectory("satellite-history-threading"),
+            "--logging.level.root=WARN");
+        try {
+            if (context.getBean(ThreadingMetrics.class).isVirtual() != virtual) {
+                throw new IllegalStateException("Application did not start in " + mode + " mode");
+            }
+            IdPool ids = seed(context);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            return drive(URI.create("http://localhost:" + port + path), ids);
+        } finally {
+            context.close();
+        }
+    }
+
+    private IdPool seed(ConfigurableApplicationContext context) {
+        SatelliteRepository repository = context.getBean(SatelliteRepository.class);
+        IdPool ids = new IdPool();
+        List<Satellite> batch = new ArrayList<>();
+        for (int i = 0; i < satellites; i++) {
+            SatelliteParameters parameters = new SatelliteParameters();
+            parameters.setAltitude(400.0 + i % 1600);
+            parameters.setLatitude((i % 180) - 90.0);
+            parameters.setLongitude((i % 360) - 180.0);
+            Satellite satellite = new Satellite();
+            satellite.setName("Seed " + i);
+            satellite.setLaunchDate(LocalDateTime.of(2030, 1, 1, 0, 0));
+            satellite.setOrbit(OrbitType.values()[i % OrbitType.values().length]);
+            satellite.setParameters(parameters);
+            batch.add(satellite);
+            if (batch.size() == 1000 || i == satellites - 1) {
+                repository.saveAll(batch).forEach(saved -> ids.add(saved.getId()));
+                batch.clear();
+            }
+        }
+        return ids;
+    }
+
+    // Every client sends its next request as soon as the previous one completes
+    private Map<String, Object> drive(URI api, IdPool ids) throws Exception {
+        Histogram latency = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+        LongAdder errors = new LongAdder();
+        ExecutorService clients = clientExecutor();
+        HttpClient client = HttpClient.newBuilder()
+          .version(HttpClient.Version.HTTP_1_1)
+          .connectTimeout(Duration.ofSeconds(30))
+          .build();
+        long recordFrom = System.nanoTime() + warmup.toNanos();
+        long end = recordFrom + duration.toNanos();
+        for (int i = 0; i < concurrency; i++) {
+            clients.execute(() -> {
+                while (true) {
+                    long sent = System.nanoTime();
+                    if (sent >= end) {
+                        return;
+                    }
+                    boolean patch = ThreadLocalRandom.current().nextInt(100) < patchPercent;
+                    HttpRequest request = (patch ? Operation.PATCH : Operation.READ).build(api, ids, 0);
+                    boolean failed;
+                    try {
+                        failed = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() >= 400;
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (Exception ex) {
+                        failed = true;
+                    }
+                    long completed = System.nanoTime();
+                    if (sent >= recordFrom && completed <= end) {
+                        latency.recordValue(Math.min(HIGHEST_MICROS, (completed - sent) / 1000));
+                        if (failed) {
+                            errors.increment();
+                        }
+                    }
+                }
+            });
+        }
+        clients.shutdown();
+        clients.awaitTermination(warmup.plus(duration).toSeconds() + 60, TimeUnit.SECONDS);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("throughput", latency.getTotalCount() / (duration.toNanos() / 1e9));
+        summary.put("count", latency.getTotalCount());
+        summary.put("errors", errors.sum());
+        summary.put("p50Millis", latency.getValueAtPercentile(50) / 1000d);
+        summary.put("p99Millis", latency.getValueAtPercentile(99) / 1000d);
+        summary.put("p999Millis", latency.getValueAtPercentile(99.9) / 1000d);
+        summary.put("maxMillis", latency.getMaxValue() / 1000d);
+        return summary;
+    }
+
+    // Wraps the pool so every statement execution and commit first waits out the simulated round trip
+    private DataSource delayed(DataSource dataSource) {
+        return proxy(DataSource.class, dataSource, (method, result) ->
+          result instanceof Connection connection ? proxy(Connection.class, connection, (connectionMethod, made) -> {
+              if (connectionMethod.getName().equals("commit")) {
+                  pause();
+              }
+              if (made instanceof PreparedStatement statement) {
+                  return proxy(PreparedStatement.class, statement, null);
+              }
+              return made instanceof Statement statement ? proxy(Statement.class, statement, null) : made;
+          }) : result);
+    }
+
+    @FunctionalInterface
+    private interface ResultWrapper {
+        Object wrap(Method method, Object result) throws Exception;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(Class<T> type, T target, ResultWrapper wrapper) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (wrapper == null && method.getName().startsWith("execute")) {
+                pause();
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+            return wrapper == null ? result : wrapper.wrap(method, result);
+        };
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+
+    private void pause() throws InterruptedException {
+        Thread.sleep(dbLatencyMillis);
+    }
+
+    // Clients use virtual threads when the JVM has them, so the load generator itself is not the bottleneck
+    private ExecutorService clientExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            return Executors.newFixedThreadPool(concurrency);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.ism.satellite.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.ism.satellite.domain.Satellite;
+import com.ism.satellite.exception.custom.NotFoundException;
+import com.ism.satellite.service.SatelliteService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+/**
+ * Checks SatelliteService calls are timed per method and outcome, and that the proxy is transparent to callers.
+ */
+public class ServiceTimingPostProcessorTest {
+
+    @Test
+    void timesCallsPerMethodAndOutcome() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", registry);
+        SatelliteService target = mock(SatelliteService.class);
+        Satellite satellite = new Satellite();
+        when(target.getById(1L)).thenReturn(satellite);
+        when(target.getById(2L)).thenThrow(new NotFoundException("Satellite with id: 2 not found"));
+
+        SatelliteService timed = (SatelliteService) new ServiceTimingPostProcessor(
+          beanFactory.getBeanProvider(MeterRegistry.class)).postProcessAfterInitialization(target, "service");
+
+        assertSame(satellite, timed.getById(1L));
+        assertSame(satellite, timed.getById(1L));
+        assertThrows(NotFoundException.class, () -> timed.getById(2L));
+        assertEquals(2, registry.get(ServiceTimingPostProcessor.TIMER_NAME).tag("method", "getById")
+          .tag("outcome", "success").timer().count());
+        assertEquals(1, registry.get(ServiceTimingPostProcessor.TIMER_NAME).tag("method", "getById")
+          .tag("outcome", "error").timer().count());
+    }
+
+    @Test
+    void leavesOtherBeansAlone() {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", new SimpleMeterRegistry());
+        Object bean = new Object();
+
+        assertSame(bean, new ServiceTimingPostProcessor(beanFactory.getBeanProvider(MeterRegistry.class))
+          .postProcessAfterInitialization(bean, "other"));
+    }
+}
@@ -0,0 +1,37 @@
+package com.ism.satellite.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+/**
+ * Checks the reported threading mode follows spring.threads.virtual.enabled, and only on a JVM with virtual threads.
+ */
+public class ThreadingMetricsTest {
+
+    @Test
+    void platformThreadsByDefault() {
+        ThreadingMetrics metrics = new ThreadingMetrics(new MockEnvironment());
+        MeterRegistry registry = new SimpleMeterRegistry();
+        metrics.bindTo(registry);
+
+        assertFalse(metrics.isVirtual());
+        assertEquals(0, registry.get("satellite.threads.virtual").gauge().value());
+    }
+
+    @Test
+    void virtualThreadsOnlyWhenTheJvmHasThem() {
+        ThreadingMetrics metrics = new ThreadingMetrics(new MockEnvironment()
+          .withProperty("spring.threads.virtual.enabled", "true"));
+        MeterRegistry registry = new SimpleMeterRegistry();
+        metrics.bindTo(registry);
+
+        boolean supported = Runtime.version().feature() >= 21;
+        assertEquals(supported, metrics.isVirtual());
+        assertEquals(supported ? 1 : 0, registry.get("satellite.threads.virtual").gauge().value());
+    }
+}
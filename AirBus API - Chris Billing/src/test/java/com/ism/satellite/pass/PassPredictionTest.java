@@ -0,0 +1,212 @@
+package com.ism.satellite.pass;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ism.satellite.domain.OrbitalElements;
+import com.ism.satellite.exception.custom.BadRequestException;
+import com.ism.satellite.exception.custom.NotFoundException;
+import com.ism.satellite.propagation.FleetElements;
+import com.ism.satellite.propagation.OrbitMath;
+import com.ism.satellite.propagation.OrbitPropagator;
+import com.ism.satellite.request.PassPredictionRequest;
+import com.ism.satellite.response.PassPredictionJob;
+import com.ism.satellite.response.SatellitePass;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for pass prediction against a one second brute force scan, and for the job lifecycle.
+ */
+public class PassPredictionTest {
+
+    // 2024-01-01T00:00:00Z
+    private static final long DAY_START = 1_704_067_200_000L;
+
+    private static final long DAY_MILLIS = 86_400_000L;
+
+    // A station near Toulouse
+    private static final double LATITUDE = 43.6;
+
+    private static final double LONGITUDE = 1.4;
+
+    private static final PassPredictor.Monitor UNMONITORED = new PassPredictor.Monitor() {
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public void screened(int satellites) {
+        }
+    };
+
+    @Test
+    void findsTheSamePassesAsABruteForceScan() {
+        Map<Long, OrbitalElements> elements = new HashMap<>();
+        elements.put(1L, elements(6771, 0.0005, 51.6, 40));
+        elements.put(2L, elements(7150, 0.001, 98.7, 200));
+        elements.put(3L, elements(7500, 0.08, 63.4, 310));
+        elements.put(4L, elements(26_560, 0.01, 55, 90));
+        // Geostationary above the station's longitude, and on the far side of the Earth
+        elements.put(5L, geostationary(LONGITUDE));
+        elements.put(6L, geostationary(LONGITUDE + 180));
+        FleetElements fleet = FleetElements.of(elements);
+
+        for (long step : new long[] {60_000L, 180_000L}) {
+            PassPredictor.Result result = new PassPredictor(ForkJoinPool.commonPool()).predict(fleet, LATITUDE,
+              LONGITUDE, 0.2, DAY_START, DAY_START + DAY_MILLIS, 10, step, 1000, UNMONITORED);
+            List<SatellitePass> expected = bruteForce(fleet, 10);
+
+            assertEquals(expected.size(), result.getTotal(), "coarse step " + step);
+            assertTrue(expected.size() > 10);
+            for (int i = 0; i < expected.size(); i++) {
+                SatellitePass want = expected.get(i);
+                SatellitePass got = result.getPasses().get(i);
+                assertEquals(want.getSatelliteId(), got.getSatelliteId());
+                assertEquals(want.getRise().toEpochMilli(), got.getRise().toEpochMilli(), 1_100);
+                assertEquals(want.getSet().toEpochMilli(), got.getSet().toEpochMilli(), 1_100);
+                assertTrue(got.getPeakElevationDeg() >= want.getPeakElevationDeg() - 0.01);
+                assertTrue(got.getRise().isBefore(got.getPeak()) || got.getRise().equals(got.getPeak()));
+                assertTrue(got.getPeak().isBefore(got.getSet()) || got.getPeak().equals(got.getSet()));
+            }
+        }
+        List<SatellitePass> geostationary = bruteForce(fleet, 10).stream()
+          .filter(pass -> pass.getSatelliteId() == 5L).toList();
+        // Always visible, so one pass clipped to the whole window
+        assertEquals(1, geostationary.size());
+        assertEquals(Instant.ofEpochMilli(DAY_START), geostationary.get(0).getRise());
+    }
+
+    @Test
+    void jobsCompleteFromTheCacheAndCanBeCancelled() throws Exception {
+        OrbitPropagator orbitPropagator = new OrbitPropagator();
+        for (long id = 1; id <= 500; id++) {
+            orbitPropagator.register(id, elements(6700 + id, 0.001, id % 180, id * 7 % 360));
+        }
+        PassProperties properties = new PassProperties();
+        properties.setMaxConcurrentJobs(1);
+        PassPredictionService service = new PassPredictionService(properties, orbitPropagator);
+        service.start();
+        try {
+            PassPredictionRequest request = PassPredictionRequest.builder()
+              .latitude(LATITUDE).longitude(LONGITUDE).from(Instant.ofEpochMilli(DAY_START)).hours(6.0).build();
+
+            PassPredictionJob first = await(service, service.submit(request).getJobId());
+
+            assertEquals(PassJobStatus.COMPLETED, first.getStatus());
+            assertEquals(500, first.getSatellitesScreened());
+            assertFalse(first.isCached());
+            assertTrue(first.getPassCount() > 0);
+            assertEquals(first.getPassCount(), first.getPasses().size());
+
+            PassPredictionJob repeated = service.submit(request);
+
+            assertEquals(PassJobStatus.COMPLETED, repeated.getStatus());
+            assertTrue(repeated.isCached());
+            assertEquals(first.getPasses(), repeated.getPasses());
+
+            // A changed orbit invalidates the cached prediction
+            orbitPropagator.register(1L, elements(7000, 0.001, 10, 10));
+            assertFalse(await(service, service.submit(request).getJobId()).isCached());
+
+            // Cancelled while queued behind a long job, and the long job while running
+            String slow = service.submit(PassPredictionRequest.builder()
+              .latitude(-33.9).longitude(18.4).from(Instant.ofEpochMilli(DAY_START)).hours(48.0).build()).getJobId();
+            String queued = service.submit(PassPredictionRequest.builder()
+              .latitude(-33.9).longitude(18.4).from(Instant.ofEpochMilli(DAY_START)).hours(47.0).build()).getJobId();
+
+            assertEquals(PassJobStatus.CANCELLED, service.cancel(queued).getStatus());
+            assertEquals(PassJobStatus.CANCELLED, service.cancel(slow).getStatus());
+            assertEquals(PassJobStatus.CANCELLED, await(service, slow).getStatus());
+            assertTrue(service.get(slow).getPasses().isEmpty());
+            assertEquals(0, service.get(queued).getSatellitesScreened());
+
+            assertThrows(NotFoundException.class, () -> service.get("missing"));
+            assertThrows(BadRequestException.class, () -> service.submit(PassPredictionRequest.builder()
+              .latitude(LATITUDE).longitude(LONGITUDE).hours(49.0).build()));
+            assertThrows(BadRequestException.class, () -> service.submit(PassPredictionRequest.builder()
+              .latitude(91.0).longitude(LONGITUDE).build()));
+        } finally {
+            service.stop();
+        }
+    }
+
+    // Every interval above the mask from elevations sampled each second
+    private static List<SatellitePass> bruteForce(FleetElements fleet, double minElevationDeg) {
+        PassPredictor.Station station = new PassPredictor.Station(LATITUDE, LONGITUDE, 0.2, minElevationDeg);
+        double[] scratch = new double[3];
+        List<SatellitePass> passes = new ArrayList<>();
+        for (int index = 0; index < fleet.size(); index++) {
+            long rise = -1;
+            long peak = -1;
+            double peakElevation = -90;
+            for (long t = DAY_START; t <= DAY_START + DAY_MILLIS; t += 1000) {
+                double theta = OrbitMath.greenwichSiderealTime(t);
+                double elevation = PassPredictor.elevation(fleet, index, station, t, Math.cos(theta), Math.sin(theta),
+                  scratch);
+                if (elevation >= minElevationDeg) {
+                    if (rise < 0) {
+                        rise = t;
+                        peakElevation = -90;
+                    }
+                    if (elevation > peakElevation) {
+                        peakElevation = elevation;
+                        peak = t;
+                    }
+                } else if (rise >= 0) {
+                    passes.add(new SatellitePass(fleet.satelliteId(index), Instant.ofEpochMilli(rise),
+                      Instant.ofEpochMilli(peak), peakElevation, Instant.ofEpochMilli(t - 1000)));
+                    rise = -1;
+                }
+            }
+            if (rise >= 0) {
+                passes.add(new SatellitePass(fleet.satelliteId(index), Instant.ofEpochMilli(rise),
+                  Instant.ofEpochMilli(peak), peakElevation, Instant.ofEpochMilli(DAY_START + DAY_MILLIS)));
+            }
+        }
+        passes.sort((a, b) -> a.getRise().equals(b.getRise()) ? Long.compare(a.getSatelliteId(), b.getSatelliteId())
+          : a.getRise().compareTo(b.getRise()));
+        return passes;
+    }
+
+    private static PassPredictionJob await(PassPredictionService service, String jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        PassPredictionJob job = service.get(jobId);
+        while (job.getCompletedAt() == null && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            job = service.get(jobId);
+        }
+        return job;
+    }
+
+    private static OrbitalElements elements(double semiMajorAxisKm, double eccentricity, double inclinationDeg,
+                                            double raanDeg) {
+        OrbitalElements elements = new OrbitalElements();
+        elements.setSemiMajorAxisKm(semiMajorAxisKm);
+        elements.setEccentricity(eccentricity);
+        elements.setInclinationDeg(inclinationDeg);
+        elements.setRaanDeg(raanDeg);
+        elements.setArgumentOfPerigeeDeg(30.0);
+        elements.setMeanAnomalyDeg(raanDeg / 2);
+        elements.setEpoch(LocalDateTime.of(2024, 1, 1, 0, 0));
+        return elements;
+    }
+
+    // Mean anomaly chosen so the satellite sits above the given longitude at the epoch
+    private static OrbitalElements geostationary(double longitude) {
+        OrbitalElements elements = elements(42_164, 0, 0, 0);
+        elements.setArgumentOfPerigeeDeg(0.0);
+        elements.setMeanAnomalyDeg(longitude + Math.toDegrees(OrbitMath.greenwichSiderealTime(DAY_START)));
+        return elements;
+    }
+}
@@ -0,0 +1,93 @@
+package com.ism.satellite.propagation;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.ism.satellite.domain.OrbitalElements;
+import com.ism.satellite.response.FleetPositions;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for Keplerian propagation against orbits with known geometry.
+ */
+public class OrbitPropagatorTest {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private static final double SEMI_MAJOR_AXIS = 7000.0;
+
+    @Test
+    void circularOrbitKeepsAltitude() {
+        OrbitPropagator propagator = new OrbitPropagator();
+        propagator.register(1L, elements(0.0));
+
+        FleetPositions positions = propagator.propagate(at(1234.5));
+
+        assertEquals(SEMI_MAJOR_AXIS - OrbitMath.EARTH_RADIUS_KM, positions.getAltitudes()[0], 1e-6);
+        assertEquals(0.0, positions.getLatitudes()[0], 1e-9);
+    }
+
+    @Test
+    void polarOrbitReachesPoleAfterQuarterPeriod() {
+        OrbitPropagator propagator = new OrbitPropagator();
+        propagator.register(1L, elements(90.0));
+        double period = OrbitMath.TWO_PI / OrbitMath.meanMotion(SEMI_MAJOR_AXIS);
+
+        FleetPositions positions = propagator.propagate(at(period / 4));
+
+        assertEquals(90.0, positions.getLatitudes()[0], 1e-3);
+    }
+
+    @Test
+    void parallelPropagationMatchesSequential() {
+        OrbitPropagator propagator = new OrbitPropagator();
+        int size = OrbitPropagator.SPLIT_THRESHOLD * 5 + 17;
+        for (int i = 0; i < size; i++) {
+            OrbitalElements elements = elements(i % 180);
+            elements.setMeanAnomalyDeg((double) (i % 360));
+            propagator.register(i, elements);
+        }
+        Instant at = at(5000);
+
+        FleetPositions parallel = propagator.propagate(at);
+        FleetElements fleet = propagator.fleet();
+        double[] altitudes = new double[size];
+        double[] latitudes = new double[size];
+        double[] longitudes = new double[size];
+        OrbitPropagator.propagateRange(fleet, at.toEpochMilli(), OrbitMath.greenwichSiderealTime(at.toEpochMilli()),
+          0, size, altitudes, latitudes, longitudes);
+
+        assertEquals(size, parallel.getSatelliteIds().length);
+        assertArrayEquals(latitudes, parallel.getLatitudes());
+        assertArrayEquals(longitudes, parallel.getLongitudes());
+    }
+
+    @Test
+    void removedSatellitesAreNotPropagated() {
+        OrbitPropagator propagator = new OrbitPropagator();
+        propagator.register(1L, elements(10.0));
+        propagator.register(2L, elements(20.0));
+        propagator.remove(1L);
+
+        assertArrayEquals(new long[] {2L}, propagator.propagate(at(0)).getSatelliteIds());
+    }
+
+    private static OrbitalElements elements(double inclination) {
+        OrbitalElements elements = new OrbitalElements();
+        elements.setSemiMajorAxisKm(SEMI_MAJOR_AXIS);
+        elements.setEccentricity(0.0);
+        elements.setInclinationDeg(inclination);
+        elements.setRaanDeg(0.0);
+        elements.setArgumentOfPerigeeDeg(0.0);
+        elements.setMeanAnomalyDeg(0.0);
+        elements.setEpoch(EPOCH);
+        return elements;
+    }
+
+    private static Instant at(double secondsAfterEpoch) {
+        return EPOCH.toInstant(ZoneOffset.UTC).plusMillis((long) (secondsAfterEpoch * 1000));
+    }
+}
@@ -0,0 +1,179 @@
+package com.ism.satellite.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace.NONE;
+
+import com.ism.satellite.domain.OrbitType;
+import com.ism.satellite.domain.Satellite;
+import com.ism.satellite.domain.SatelliteParameters;
+import com.ism.satellite.request.SatelliteSearch;
+import com.ism.satellite.request.SatelliteSearch.NameMatch;
+import com.ism.satellite.request.SatelliteSearch.SortField;
+import jakarta.persistence.EntityManager;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Tests that catalog searches page through exactly the matching satellites in order, and that H2 answers them
+ * from the search indexes.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = NONE)
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:search;MODE=MySQL")
+public class SatelliteSearchTest {
+
+    private static final String[] NAMES = {"Alpha", "Alpine", "Beta", "Gamma", "Gamma_1", "Delta%"};
+
+    @Autowired
+    SatelliteRepository repository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private List<Satellite> satellites;
+
+    @BeforeEach
+    void setUp() {
+        List<Satellite> seeded = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            SatelliteParameters parameters = new SatelliteParameters();
+            parameters.setAltitude(400.0 + (i * 37) % 1600);
+            parameters.setLatitude(0.0);
+            parameters.setLongitude(0.0);
+            Satellite satellite = new Satellite();
+            // Few distinct names and launch dates, so ordering relies on the id tie break
+            satellite.setName(NAMES[i % NAMES.length] + " " + (i % 7));
+            satellite.setLaunchDate(LocalDateTime.of(2020, 1, 1, 0, 0).plusDays(i % 40));
+            satellite.setOrbit(OrbitType.values()[i % OrbitType.values().length]);
+            satellite.setParameters(parameters);
+            seeded.add(satellite);
+        }
+        satellites = repository.saveAll(seeded);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void pagesThroughOrbitMatchesById() {
+        assertPages(SatelliteSearch.builder().orbit(OrbitType.LEO).limit(50),
+          satellite -> satellite.getOrbit() == OrbitType.LEO, Comparator.comparing(Satellite::getId));
+        assertPages(SatelliteSearch.builder().limit(500), satellite -> true, Comparator.comparing(Satellite::getId));
+    }
+
+    @Test
+    void pagesThroughNamePrefixByName() {
+        assertPages(SatelliteSearch.builder().name("Alp").sort(SortField.NAME).limit(37),
+          satellite -> satellite.getName().startsWith("Alp"), byName());
+        assertPages(SatelliteSearch.builder().name("Gamma").orbit(OrbitType.MEO).sort(SortField.NAME).limit(64),
+          satellite -> satellite.getName().startsWith("Gamma") && satellite.getOrbit() == OrbitType.MEO, byName());
+    }
+
+    @Test
+    void matchesWildcardCharactersLiterally() {
+        assertPages(SatelliteSearch.builder().name("a_").nameMatch(NameMatch.CONTAINS).limit(100),
+          satellite -> satellite.getName().contains("a_"), Comparator.comparing(Satellite::getId));
+        assertPages(SatelliteSearch.builder().name("Delta%").sort(SortField.NAME).limit(100),
+          satellite -> satellite.getName().startsWith("Delta%"), byName());
+        assertPages(SatelliteSearch.builder().name("%").nameMatch(NameMatch.CONTAINS).limit(100),
+          satellite -> satellite.getName().contains("%"), Comparator.comparing(Satellite::getId));
+    }
+
+    @Test
+    void pagesThroughLaunchDateRangeAndAltitudeBand() {
+        LocalDateTime from = LocalDateTime.of(2020, 1, 10, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2020, 1, 20, 0, 0);
+        Comparator<Satellite> byLaunchDate = Comparator.comparing(Satellite::getLaunchDate)
+          .thenComparing(Satellite::getId);
+        assertPages(SatelliteSearch.builder().launchedFrom(from).launchedTo(to).sort(SortField.LAUNCH_DATE).limit(45),
+          satellite -> !satellite.getLaunchDate().isBefore(from) && satellite.getLaunchDate().isBefore(to),
+          byLaunchDate);
+        assertPages(SatelliteSearch.builder().orbit(OrbitType.GEO).minAltitude(800.0).maxAltitude(1200.0)
+            .sort(SortField.LAUNCH_DATE).limit(20),
+          satellite -> satellite.getOrbit() == OrbitType.GEO && satellite.getParameters().getAltitude() >= 800.0
+            && satellite.getParameters().getAltitude() <= 1200.0,
+          byLaunchDate);
+    }
+
+    @Test
+    void rejectsForeignAndMalformedCursors() {
+        Satellite first = satellites.get(0);
+        String byName = SatelliteSearchQuery.cursor(SortField.NAME, first);
+
+        assertThrows(IllegalArgumentException.class,
+          () -> SatelliteSearchQuery.of(SatelliteSearch.builder().after(byName).build()));
+        assertThrows(IllegalArgumentException.class,
+          () -> SatelliteSearchQuery.of(SatelliteSearch.builder().after("not a cursor").build()));
+        assertThrows(IllegalArgumentException.class,
+          () -> SatelliteSearchQuery.of(SatelliteSearch.builder().after(Base64.getUrlEncoder()
+            .encodeToString("ID|x|".getBytes(StandardCharsets.UTF_8))).build()));
+    }
+
+    @Test
+    void plansSeekTheSearchIndexes() {
+        String cursor = SatelliteSearchQuery.cursor(SortField.NAME, satellites.get(600));
+        String plan = explain(SatelliteSearch.builder().name("Alp").sort(SortField.NAME).after(cursor).build());
+        assertTrue(plan.contains("IDX_SATELLITE_NAME"), plan);
+        assertTrue(plan.contains("index sorted"), plan);
+
+        plan = explain(SatelliteSearch.builder().launchedFrom(LocalDateTime.of(2020, 1, 10, 0, 0))
+          .sort(SortField.LAUNCH_DATE)
+          .after(SatelliteSearchQuery.cursor(SortField.LAUNCH_DATE, satellites.get(600))).build());
+        assertTrue(plan.contains("IDX_SATELLITE_LAUNCH_DATE"), plan);
+        assertTrue(plan.contains("index sorted"), plan);
+
+        plan = explain(SatelliteSearch.builder().orbit(OrbitType.MEO)
+          .after(SatelliteSearchQuery.cursor(SortField.ID, satellites.get(600))).build());
+        assertTrue(plan.contains("IDX_SATELLITE_ORBIT"), plan);
+        assertTrue(plan.contains("index sorted"), plan);
+
+        plan = explain(SatelliteSearch.builder().minAltitude(1000.0).maxAltitude(1010.0).build());
+        assertTrue(plan.contains("IDX_SATELLITE_PARAMETERS_ALTITUDE"), plan);
+    }
+
+    private void assertPages(SatelliteSearch.SatelliteSearchBuilder search, Predicate<Satellite> filter,
+                             Comparator<Satellite> order) {
+        List<Long> expected = satellites.stream().filter(filter).sorted(order).map(Satellite::getId).toList();
+        SatelliteSearch first = search.build();
+        List<Long> actual = new ArrayList<>();
+        String after = null;
+        int pages = 0;
+        do {
+            List<Long> page = repository.findSearchIds(SatelliteSearchQuery.of(search.after(after).build()));
+            actual.addAll(page);
+            after = page.size() == first.getLimit()
+              ? SatelliteSearchQuery.cursor(first.getSort(), repository.findById(page.get(page.size() - 1))
+              .orElseThrow()) : null;
+            pages++;
+        } while (after != null);
+        assertTrue(expected.size() > 0);
+        assertEquals(expected, actual);
+        assertEquals(expected.size() / first.getLimit() + 1, pages);
+    }
+
+    private String explain(SatelliteSearch search) {
+        SatelliteSearchQuery query = SatelliteSearchQuery.of(search);
+        return jdbcTemplate.queryForObject("explain " + query.getSql(), String.class,
+          query.getParameters().toArray());
+    }
+
+    private static Comparator<Satellite> byName() {
+        return Comparator.comparing(Satellite::getName).thenComparing(Satellite::getId);
+    }
+}
@@ -2,31 +2,69 @@ package com.ism.satellite.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
 import static org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace.NONE;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ism.satellite.cache.ResponseCache;
+import com.ism.satellite.cache.ResponseCacheProperties;
+import com.ism.satellite.conjunction.ConjunctionProperties;
+import com.ism.satellite.conjunction.ConjunctionService;
 import com.ism.satellite.domain.OrbitType;
 import com.ism.satellite.domain.Satellite;
 import com.ism.satellite.domain.SatelliteParameters;
+import com.ism.satellite.engine.EngineProperties;
+import com.ism.satellite.engine.SatelliteEngine;
 import com.ism.satellite.exception.custom.BadRequestException;
 import com.ism.satellite.exception.custom.NotFoundException;
+import com.ism.satellite.exception.custom.PreconditionFailedException;
+import com.ism.satellite.live.LiveProperties;
+import com.ism.satellite.live.PositionBroadcaster;
+import com.ism.satellite.metrics.QueryCounter;
+import com.ism.satellite.propagation.OrbitPropagator;
 import com.ism.satellite.repository.SatelliteParametersRepository;
 import com.ism.satellite.repository.SatelliteRepository;
+import com.ism.satellite.request.PositionUpdate;
+import com.ism.satellite.request.SatelliteSearch;
+import com.ism.satellite.response.BulkUpdateResponse;
+import com.ism.satellite.response.ConjunctionReport;
+import com.ism.satellite.response.PositionConsistencyReport;
+import com.ism.satellite.response.SatelliteLocation;
+import com.ism.satellite.response.SatellitePage;
+import com.ism.satellite.response.SatelliteSearchPage;
+import com.ism.satellite.spatial.RegionQueryService;
+import com.ism.satellite.spatial.SpatialIndex;
+import com.ism.satellite.store.PositionStore;
+import com.ism.satellite.writebehind.WriteBehindBuffer;
+import com.ism.satellite.writebehind.WriteBehindProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * Unit tests for the expected I/O of the Satellite service layer.
  */
 @DataJpaTest
 @AutoConfigureTestDatabase(replace = NONE)
+@Import({QueryCounter.class, SimpleMeterRegistry.class})
 public class SatelliteServiceTest {
 
     @Autowired
@@ -38,15 +76,43 @@ public class SatelliteServiceTest {
     @Autowired
     SatelliteParametersRepository parametersRepository;
 
+    @Autowired
+    QueryCounter queryCounter;
+
+    private PositionStore positionStore;
+
+    private SpatialIndex spatialIndex;
+
     private SatelliteServiceImpl satelliteService;
 
+    private RegionQueryService regionQueryService;
+
+    private ConjunctionService conjunctionService;
+
     private Satellite satellite;
     private SatelliteParameters satelliteParameters;
 
     // Common functionality to run before each test
     @BeforeEach
     void setUp() {
-        satelliteService = new SatelliteServiceImpl(repository, parametersRepository);
+        positionStore = new PositionStore();
+        spatialIndex = new SpatialIndex();
+        OrbitPropagator orbitPropagator = new OrbitPropagator();
+        PositionPublisher positionPublisher = new PositionPublisher(positionStore, List.of(spatialIndex));
+        ResponseCache responseCache = new ResponseCache(new ResponseCacheProperties(),
+          Jackson2ObjectMapperBuilder.json());
+        PositionBatchWriter positionBatchWriter = new PositionBatchWriter(repository, em.getEntityManager(),
+          positionPublisher, responseCache, 50);
+        PositionBroadcaster positionBroadcaster = new PositionBroadcaster(new LiveProperties(),
+          new ObjectMapper().findAndRegisterModules(), positionStore);
+        WriteBehindProperties writeBehindProperties = new WriteBehindProperties();
+        WriteBehindBuffer writeBehindBuffer = new WriteBehindBuffer(writeBehindProperties, positionBatchWriter);
+        satelliteService = new SatelliteServiceImpl(repository, parametersRepository, em.getEntityManager(),
+          positionStore, positionBatchWriter, writeBehindBuffer, positionPublisher, orbitPropagator,
+          positionBroadcaster, responseCache,
+          new SatelliteEngine(new EngineProperties(), writeBehindProperties, positionPublisher, writeBehindBuffer));
+        regionQueryService = new RegionQueryService(spatialIndex);
+        conjunctionService = new ConjunctionService(new ConjunctionProperties(), positionStore, orbitPropagator);
 
         // Create and persist sample Satellite Parameters
         satelliteParameters = new SatelliteParameters();
@@ -77,6 +143,71 @@ public class SatelliteServiceTest {
         assertEquals(satellites.get(0).getName(), satellite.getName());
     }
 
+    @Test
+    void getPage_Success() {
+        SatellitePage firstPage = satelliteService.getPage(null, 1);
+
+        assertEquals(1, firstPage.getItems().size());
+        assertEquals(satellite.getId(), firstPage.getNextCursor());
+
+        SatellitePage lastPage = satelliteService.getPage(firstPage.getNextCursor(), 1);
+
+        assertTrue(lastPage.getItems().isEmpty());
+        assertNull(lastPage.getNextCursor());
+    }
+
+    @Test
+    void getPage_BadRequest() {
+        BadRequestException ex = assertThrows(BadRequestException.class, () -> satelliteService.getPage(null, 0));
+
+        assertEquals("Page limit must be between 1 and 1000", ex.getMessage());
+    }
+
+    @Test
+    void search_Success() {
+        SatelliteSearch search = SatelliteSearch.builder()
+          .name("Death")
+          .orbit(OrbitType.MEO)
+          .minAltitude(100.0)
+          .maxAltitude(200.0)
+          .limit(1)
+          .build();
+        SatelliteSearchPage firstPage = satelliteService.search(search);
+
+        assertEquals(List.of(satellite), firstPage.getItems());
+        assertNotNull(firstPage.getNextCursor());
+
+        SatelliteSearchPage lastPage = satelliteService.search(search.toBuilder()
+          .after(firstPage.getNextCursor())
+          .build());
+
+        assertTrue(lastPage.getItems().isEmpty());
+        assertNull(lastPage.getNextCursor());
+        assertTrue(satelliteService.search(SatelliteSearch.builder().name("Death").orbit(OrbitType.LEO).build())
+          .getItems().isEmpty());
+    }
+
+    @Test
+    void search_BadRequest() {
+        BadRequestException ex = assertThrows(BadRequestException.class,
+          () -> satelliteService.search(SatelliteSearch.builder().minAltitude(2.0).maxAltitude(1.0).build()));
+
+        assertEquals("Minimum altitude must not exceed maximum altitude", ex.getMessage());
+        assertThrows(BadRequestException.class,
+          () -> satelliteService.search(SatelliteSearch.builder().after("not a cursor").build()));
+        assertThrows(BadRequestException.class,
+          () -> satelliteService.search(SatelliteSearch.builder().limit(0).build()));
+    }
+
+    @Test
+    void streamAll() {
+        List<Satellite> streamed = new ArrayList<>();
+        satelliteService.streamAll(streamed::add);
+
+        assertEquals(1, streamed.size());
+        assertEquals(satellite.getName(), streamed.get(0).getName());
+    }
+
     @Test
     void getById_Success() {
         Satellite foundSatellite = satelliteService.getById(satellite.getId());
@@ -95,8 +226,12 @@ public class SatelliteServiceTest {
     void getSatellitePosition_Success() {
         SatelliteParameters foundParameters = satelliteService.getSatellitePosition(satellite.getId());
 
+        // Read through a projection, so compared by value rather than as the managed entity
         assertNotNull(foundParameters);
-        assertEquals(satelliteParameters, foundParameters);
+        assertEquals(satelliteParameters.getId(), foundParameters.getId());
+        assertEquals(satelliteParameters.getAltitude(), foundParameters.getAltitude());
+        assertEquals(satelliteParameters.getLatitude(), foundParameters.getLatitude());
+        assertEquals(satelliteParameters.getLongitude(), foundParameters.getLongitude());
     }
 
     @Test
@@ -106,6 +241,159 @@ public class SatelliteServiceTest {
         assertEquals(ex.getMessage(), "Satellite with id: 99 not found");
     }
 
+    @Test
+    void getSatellitePosition_ServedFromStore() {
+        SatelliteParameters newParameters = new SatelliteParameters();
+        newParameters.setAltitude(400.0);
+        newParameters.setLatitude(51.5);
+        newParameters.setLongitude(-0.12);
+
+        satelliteService.patchParameters(satellite.getId(), newParameters);
+
+        SatelliteParameters foundParameters = satelliteService.getSatellitePosition(satellite.getId());
+
+        assertEquals(400.0, foundParameters.getAltitude());
+        assertEquals(satelliteParameters.getId(), foundParameters.getId());
+    }
+
+    @Test
+    void patchParameters_PersistsPosition() {
+        SatelliteParameters newParameters = new SatelliteParameters();
+        newParameters.setAltitude(35786.0);
+        newParameters.setLatitude(0.0);
+        newParameters.setLongitude(13.0);
+
+        Satellite patched = satelliteService.patchParameters(satellite.getId(), newParameters);
+        em.clear();
+
+        assertEquals(35786.0, patched.getParameters().getAltitude());
+        assertEquals(35786.0, parametersRepository.findById(satelliteParameters.getId()).orElseThrow().getAltitude());
+    }
+
+    @Test
+    void checkPositionConsistency() {
+        PositionConsistencyReport report = satelliteService.checkPositionConsistency(false);
+
+        assertEquals(1, report.getMissing());
+        assertFalse(report.isConsistent());
+
+        PositionConsistencyReport repaired = satelliteService.checkPositionConsistency(true);
+        assertTrue(repaired.isRepaired());
+
+        assertTrue(satelliteService.checkPositionConsistency(false).isConsistent());
+    }
+
+    @Test
+    void checkPositionConsistency_RepairReachesTheEngine() throws InterruptedException {
+        WriteBehindProperties writeBehindProperties = new WriteBehindProperties();
+        writeBehindProperties.setEnabled(true);
+        // Nothing is flushed, so the database keeps the original position while the engine holds the patched one
+        WriteBehindBuffer writeBehindBuffer = new WriteBehindBuffer(writeBehindProperties,
+          mock(PositionBatchWriter.class));
+        EngineProperties engineProperties = new EngineProperties();
+        engineProperties.setEnabled(true);
+        engineProperties.setShards(1);
+        SatelliteEngine engine = new SatelliteEngine(engineProperties, writeBehindProperties,
+          new PositionPublisher(positionStore, List.of()), writeBehindBuffer);
+        PositionPublisher positionPublisher = new PositionPublisher(positionStore, List.of(spatialIndex, engine));
+        SatelliteServiceImpl engineService = new SatelliteServiceImpl(repository, parametersRepository,
+          em.getEntityManager(), positionStore, mock(PositionBatchWriter.class), writeBehindBuffer, positionPublisher,
+          new OrbitPropagator(), mock(PositionBroadcaster.class),
+          new ResponseCache(new ResponseCacheProperties(), Jackson2ObjectMapperBuilder.json()), engine);
+        engine.start();
+        try {
+            SatelliteParameters drifted = new SatelliteParameters();
+            drifted.setAltitude(999.0);
+            drifted.setLatitude(1.0);
+            drifted.setLongitude(2.0);
+            engineService.patchParameters(satellite.getId(), drifted);
+            positionPublisher.publish(4242L, 4242L, 500.0, 0.0, 0.0);
+            assertEquals(999.0, engineService.getSatellitePosition(satellite.getId()).getAltitude());
+
+            PositionConsistencyReport report = engineService.checkPositionConsistency(true);
+
+            assertEquals(1, report.getStale());
+            assertEquals(1, report.getOrphaned());
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (engine.get(satellite.getId()).getAltitude() == 999.0 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            // Back to the committed row, 122.5 as persisted in setUp
+            assertEquals(122.50, engineService.getSatellitePosition(satellite.getId()).getAltitude());
+            assertEquals(satellite.getId(), regionQueryService.findWithinAltitude(100.0, 150.0, 10).get(0)
+              .getSatelliteId());
+            assertTrue(regionQueryService.findWithinAltitude(450.0, 550.0, 10).isEmpty());
+            assertTrue(engineService.checkPositionConsistency(false).isConsistent());
+        } finally {
+            engine.stop();
+        }
+    }
+
+    @Test
+    void bulkUpdatePositions_ReportsFailuresWithoutAborting() {
+        List<PositionUpdate> updates = List.of(
+          PositionUpdate.builder().satelliteId(satellite.getId()).altitude(500.0).latitude(10.0).longitude(20.0).build(),
+          PositionUpdate.builder().satelliteId(99L).altitude(1.0).latitude(1.0).longitude(1.0).build(),
+          PositionUpdate.builder().satelliteId(satellite.getId()).altitude(1.0).build());
+
+        BulkUpdateResponse response = satelliteService.bulkUpdatePositions(updates.iterator());
+
+        assertEquals(3, response.getReceived());
+        assertEquals(1, response.getApplied());
+        assertEquals(2, response.getFailures().size());
+        assertEquals(2, response.getFailures().get(0).getIndex());
+        assertEquals("Satellite with id: 99 not found", response.getFailures().get(1).getReason());
+        assertEquals(500.0, parametersRepository.findById(satelliteParameters.getId()).orElseThrow().getAltitude());
+    }
+
+    @Test
+    void bulkUpdatePositions_AppliesRepeatedFixesInOrder() {
+        List<PositionUpdate> updates = List.of(
+          PositionUpdate.builder().satelliteId(satellite.getId()).altitude(500.0).latitude(10.0).longitude(20.0).build(),
+          PositionUpdate.builder().satelliteId(99L).altitude(1.0).latitude(1.0).longitude(1.0).build(),
+          PositionUpdate.builder().satelliteId(satellite.getId()).altitude(600.0).latitude(11.0).longitude(21.0).build());
+
+        BulkUpdateResponse response = satelliteService.bulkUpdatePositions(updates.iterator());
+
+        // Every item is accounted for, the superseded fix included
+        assertEquals(3, response.getReceived());
+        assertEquals(2, response.getApplied());
+        assertEquals(1, response.getFailures().size());
+        assertEquals(1, response.getFailures().get(0).getIndex());
+        assertEquals(600.0, parametersRepository.findById(satelliteParameters.getId()).orElseThrow().getAltitude());
+        runAfterCommitCallbacks();
+        assertEquals(600.0, positionStore.get(satellite.getId()).getAltitude());
+    }
+
+    @Test
+    void bulkUpdatePositions_SkipsItemsTheReaderRejects() {
+        Iterator<PositionUpdate> updates = new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < 2;
+            }
+
+            @Override
+            public PositionUpdate next() {
+                if (next++ == 0) {
+                    throw new BadRequestException("Malformed position update: not a valid Double value");
+                }
+                return PositionUpdate.builder()
+                  .satelliteId(satellite.getId()).altitude(500.0).latitude(10.0).longitude(20.0).build();
+            }
+        };
+
+        BulkUpdateResponse response = satelliteService.bulkUpdatePositions(updates);
+
+        assertEquals(2, response.getReceived());
+        assertEquals(1, response.getApplied());
+        assertEquals(0, response.getFailures().get(0).getIndex());
+        assertEquals("Malformed position update: not a valid Double value", response.getFailures().get(0).getReason());
+        assertEquals(500.0, parametersRepository.findById(satelliteParameters.getId()).orElseThrow().getAltitude());
+    }
+
     @Test
     void update_Success() {
         Satellite updatedSatellite = new Satellite();
@@ -123,6 +411,58 @@ public class SatelliteServiceTest {
         assertEquals(OrbitType.GEO, newSatellite.getOrbit());
     }
 
+    @Test
+    void update_IfMatchGuardsConcurrentWriters() {
+        String tag = satelliteService.getSatelliteTag(satellite.getId());
+        Satellite updatedSatellite = new Satellite();
+        updatedSatellite.setName("Death Star 2");
+        updatedSatellite.setOrbit(OrbitType.GEO);
+        updatedSatellite.setParameters(satelliteParameters);
+        updatedSatellite.setLaunchDate(LocalDateTime.now().plusDays(1));
+
+        Satellite updated = satelliteService.update(updatedSatellite, satellite.getId(), tag);
+
+        String newTag = EntityTags.satellite(updated);
+        assertNotEquals(tag, newTag);
+        assertEquals(newTag, satelliteService.getSatelliteTag(satellite.getId()));
+        assertThrows(PreconditionFailedException.class,
+          () -> satelliteService.update(updatedSatellite, satellite.getId(), tag));
+    }
+
+    @Test
+    void update_PublishesOnlyAfterCommit() {
+        Satellite updatedSatellite = new Satellite();
+        updatedSatellite.setName("Death Star 2");
+        updatedSatellite.setOrbit(OrbitType.GEO);
+        updatedSatellite.setParameters(satelliteParameters);
+        updatedSatellite.setLaunchDate(LocalDateTime.now().plusDays(1));
+        satelliteParameters.setAltitude(35786.0);
+
+        satelliteService.update(updatedSatellite, satellite.getId());
+
+        // A rollback at commit must not leave the new position behind in memory
+        assertNull(positionStore.get(satellite.getId()));
+
+        runAfterCommitCallbacks();
+
+        assertEquals(35786.0, positionStore.get(satellite.getId()).getAltitude());
+    }
+
+    @Test
+    void patchParameters_IfMatchUsesPositionTag() {
+        // Tagged from the persisted row, the store is only refreshed after a commit this test never reaches
+        String tag = EntityTags.position(satelliteParameters);
+        SatelliteParameters newParameters = new SatelliteParameters();
+        newParameters.setAltitude(400.0);
+        newParameters.setLatitude(51.5);
+        newParameters.setLongitude(-0.12);
+
+        satelliteService.patchParameters(satellite.getId(), newParameters, tag);
+
+        assertThrows(PreconditionFailedException.class,
+          () -> satelliteService.patchParameters(satellite.getId(), newParameters, tag));
+    }
+
     @Test
     void update_NotFound() {
         Satellite updatedSatellite = new Satellite();
@@ -181,6 +521,130 @@ public class SatelliteServiceTest {
         assertEquals(OrbitType.LEO, createdSatellite.getOrbit());
     }
 
+    @Test
+    void findWithinRadius_TracksCreateAndDelete() throws Exception {
+        SatelliteParameters overLondon = new SatelliteParameters();
+        overLondon.setAltitude(550.0);
+        overLondon.setLatitude(51.5);
+        overLondon.setLongitude(-0.12);
+        Satellite newSatellite = new Satellite();
+        newSatellite.setName("Death Star 2");
+        newSatellite.setOrbit(OrbitType.LEO);
+        newSatellite.setParameters(overLondon);
+        newSatellite.setLaunchDate(LocalDateTime.now().plusDays(1));
+        Long id = satelliteService.create(newSatellite).getId();
+
+        List<SatelliteLocation> found = regionQueryService.findWithinRadius(51.0, 0.0, 100.0, null, null, 10);
+        assertEquals(1, found.size());
+        assertEquals(id, found.get(0).getSatelliteId());
+        assertTrue(regionQueryService.findWithinRadius(51.0, 0.0, 100.0, 600.0, null, 10).isEmpty());
+
+        satelliteService.delete(id);
+
+        // Still tracked until the delete commits, a rollback keeps the satellite
+        assertEquals(1, regionQueryService.findWithinBox(50.0, 52.0, -1.0, 1.0, null, null, 10).size());
+
+        runAfterCommitCallbacks();
+
+        assertTrue(regionQueryService.findWithinBox(50.0, 52.0, -1.0, 1.0, null, null, 10).isEmpty());
+    }
+
+    @Test
+    void screenConjunctions_FindsCloseApproach() throws Exception {
+        // Two satellites 2 km apart along the equator at 550 km altitude
+        for (double longitude : new double[] {0.0, 0.0163}) {
+            SatelliteParameters parameters = new SatelliteParameters();
+            parameters.setAltitude(550.0);
+            parameters.setLatitude(0.0);
+            parameters.setLongitude(longitude);
+            Satellite newSatellite = new Satellite();
+            newSatellite.setName("Death Star " + longitude);
+            newSatellite.setOrbit(OrbitType.LEO);
+            newSatellite.setParameters(parameters);
+            newSatellite.setLaunchDate(LocalDateTime.now().plusDays(1));
+            satelliteService.create(newSatellite);
+        }
+
+        ConjunctionReport report = conjunctionService.screen(5.0, null);
+
+        assertEquals(1, report.getConjunctionCount());
+        assertEquals(2.0, report.getConjunctions().get(0).getDistanceKm(), 0.05);
+        assertEquals(0, conjunctionService.screen(1.0, null).getConjunctionCount());
+        assertThrows(BadRequestException.class, () -> conjunctionService.screen(0.0, null));
+        assertThrows(NotFoundException.class, () -> conjunctionService.getLatest());
+    }
+
+    @Test
+    void findWithinBox_BadRequest() {
+        BadRequestException ex = assertThrows(BadRequestException.class,
+          () -> regionQueryService.findWithinBox(10.0, -10.0, 0.0, 10.0, null, null, 10));
+
+        assertEquals("Minimum latitude must not be above maximum latitude", ex.getMessage());
+    }
+
+    @Test
+    void statementCounts_Reads() {
+        for (int i = 0; i < 3; i++) {
+            SatelliteParameters parameters = new SatelliteParameters();
+            parameters.setAltitude(500.0 + i);
+            parameters.setLatitude(0.0);
+            parameters.setLongitude(0.0);
+            Satellite other = new Satellite();
+            other.setName("Probe " + i);
+            other.setLaunchDate(LocalDateTime.now().plusDays(1));
+            other.setOrbit(OrbitType.LEO);
+            other.setParameters(parameters);
+            em.persist(other);
+        }
+
+        assertEquals(1, statementsIssuedBy(() -> satelliteService.getById(satellite.getId())));
+        assertEquals(1, statementsIssuedBy(() -> assertEquals(4, satelliteService.getAll().size())));
+        assertEquals(1, statementsIssuedBy(() -> satelliteService.getPage(null, 10)));
+        // The page's ids from the indexes, then the satellites themselves
+        assertEquals(2, statementsIssuedBy(() -> assertEquals(3,
+          satelliteService.search(SatelliteSearch.builder().name("Probe").build()).getItems().size())));
+        assertEquals(1, statementsIssuedBy(() -> satelliteService.getSatellitePosition(satellite.getId())));
+        assertEquals(0, statementsIssuedBy(() -> satelliteService.getSatellitePosition(satellite.getId())));
+    }
+
+    @Test
+    void statementCounts_Writes() {
+        SatelliteParameters newParameters = new SatelliteParameters();
+        newParameters.setAltitude(400.0);
+        newParameters.setLatitude(51.5);
+        newParameters.setLongitude(-0.12);
+        Satellite updatedSatellite = new Satellite();
+        updatedSatellite.setId(satellite.getId());
+        updatedSatellite.setName("Death Star 2");
+        updatedSatellite.setOrbit(OrbitType.GEO);
+        updatedSatellite.setParameters(satelliteParameters);
+        updatedSatellite.setLaunchDate(satellite.getLaunchDate());
+
+        // Satellite and parameters loaded together, then the satellite update, unchanged parameters are not written
+        assertEquals(2, statementsIssuedBy(() -> satelliteService.update(updatedSatellite, satellite.getId())));
+        // Satellite for the response, the writer's chunk load and one parameters update
+        assertEquals(3, statementsIssuedBy(() -> satelliteService.patchParameters(satellite.getId(), newParameters)));
+        // Satellite load and one delete per table
+        assertEquals(3, statementsIssuedBy(() -> satelliteService.delete(satellite.getId())));
+        assertEquals(1, statementsIssuedBy(() -> assertThrows(NotFoundException.class,
+          () -> satelliteService.delete(satellite.getId()))));
+    }
+
+    // Stands in for the commit the test transaction never reaches, it is rolled back when the test ends
+    private static void runAfterCommitCallbacks() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    }
+
+    // Runs the call against an empty persistence context and counts the statements it issued, flushed writes included
+    private int statementsIssuedBy(Runnable call) {
+        em.flush();
+        em.clear();
+        queryCounter.reset();
+        call.run();
+        em.flush();
+        return queryCounter.count();
+    }
+
     @Test
     void create_BadRequest() {
         Satellite newSatellite = new Satellite();
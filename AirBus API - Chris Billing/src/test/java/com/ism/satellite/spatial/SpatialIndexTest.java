@@ -0,0 +1,90 @@
+package com.ism.satellite.spatial;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ism.satellite.response.SatelliteLocation;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks region queries against a brute force scan, including the antimeridian and polar edge cases.
+ */
+public class SpatialIndexTest {
+
+    private static final int FLEET_SIZE = 5000;
+
+    @Test
+    void queriesMatchBruteForce() {
+        SpatialIndex index = new SpatialIndex(5.0, 100.0);
+        double[][] positions = new double[FLEET_SIZE][];
+        SplittableRandom random = new SplittableRandom(7);
+        for (int id = 0; id < FLEET_SIZE; id++) {
+            positions[id] = new double[] {random.nextDouble(200, 2000), random.nextDouble(-90, 90),
+              random.nextDouble(-180, 180)};
+            index.put(id, positions[id][0], positions[id][1], positions[id][2]);
+        }
+
+        assertEquals(bruteForce(positions, p -> p[1] >= 10 && p[1] <= 40 && (p[2] >= 170 || p[2] <= -170)),
+          ids(index.withinBox(10, 40, 170, -170, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, FLEET_SIZE)));
+        assertEquals(bruteForce(positions, p -> p[1] >= -20 && p[1] <= 20 && p[2] >= -30 && p[2] <= 30
+            && p[0] >= 500 && p[0] <= 800),
+          ids(index.withinBox(-20, 20, -30, 30, 500, 800, FLEET_SIZE)));
+        assertEquals(bruteForce(positions, p -> SpatialIndex.surfaceDistanceKm(85, 179, p[1], p[2]) <= 1500),
+          ids(index.withinRadius(85, 179, 1500, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, FLEET_SIZE)));
+        assertEquals(bruteForce(positions, p -> SpatialIndex.surfaceDistanceKm(-10, -179.5, p[1], p[2]) <= 800),
+          ids(index.withinRadius(-10, -179.5, 800, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, FLEET_SIZE)));
+        assertEquals(bruteForce(positions, p -> p[0] >= 420 && p[0] <= 460),
+          ids(index.withinAltitude(420, 460, FLEET_SIZE)));
+    }
+
+    @Test
+    void radiusResultsAreNearestFirst() {
+        SpatialIndex index = new SpatialIndex();
+        index.put(1L, 500, 0, 2);
+        index.put(2L, 500, 0, 1);
+        index.put(3L, 500, 0, 3);
+
+        List<SatelliteLocation> nearest = index.withinRadius(0, 0, 1000, 0, 1000, 2);
+
+        assertEquals(List.of(2L, 1L), nearest.stream().map(SatelliteLocation::getSatelliteId).toList());
+        assertEquals(111.2, nearest.get(0).getDistanceKm(), 0.1);
+    }
+
+    @Test
+    void movedAndRemovedSatellitesLeaveTheirOldCells() {
+        SpatialIndex index = new SpatialIndex();
+        index.put(1L, 500, 10, 10);
+        index.put(2L, 500, 10, 10);
+        index.put(1L, 36000, -40, 100);
+        index.remove(2L);
+
+        assertTrue(index.withinBox(5, 15, 5, 15, 0, 1000, 10).isEmpty());
+        assertEquals(List.of(1L), ids(index.withinBox(-45, -35, 95, 105, 0, 40000, 10)));
+        assertEquals(List.of(1L), ids(index.withinAltitude(30000, 40000, 10)));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void outOfRangeLongitudesAreWrapped() {
+        SpatialIndex index = new SpatialIndex();
+        index.put(1L, 122.5, 45, 722.93);
+        index.put(2L, 122.5, 322.67, 2.5);
+
+        assertEquals(List.of(1L), ids(index.withinBox(40, 90, 2, 3, 0, 200, 10)));
+    }
+
+    private static List<Long> bruteForce(double[][] positions, java.util.function.Predicate<double[]> predicate) {
+        return LongStream.range(0, positions.length)
+          .filter(id -> predicate.test(positions[(int) id]))
+          .boxed()
+          .collect(Collectors.toList());
+    }
+
+    private static List<Long> ids(List<SatelliteLocation> locations) {
+        return locations.stream().map(SatelliteLocation::getSatelliteId).sorted().toList();
+    }
+}
@@ -0,0 +1,352 @@
+package com.ism.satellite.startup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ism.satellite.SatelliteApplication;
+import com.ism.satellite.domain.OrbitType;
+import com.ism.satellite.domain.Satellite;
+import com.ism.satellite.domain.SatelliteParameters;
+import com.ism.satellite.repository.SatelliteRepository;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Measures time to first request. Seeds a catalog into a journal directory, then starts the application in fresh
+ * JVMs and times each from process launch until it answers a GET for a seeded satellite: once with an empty
+ * database and no journal, once restoring the seeded catalog from the journal, and, when class data sharing is on,
+ * once more restoring from the journal with an AppCDS archive recorded by a training run that exits as soon as the
+ * context has refreshed. Each start's application.ready.time and satellite.journal.restore.time are read from the
+ * actuator. Prints medians per scenario and writes them as JSON for regression gates.
+ *
+ * <p>Run with: mvn -Pstartup verify -Dstartup.satellites=100000 -Dstartup.maxMillis=5000
+ */
+public final class StartupTimeRunner {
+
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(2);
+
+    private final int satellites = Integer.getInteger("startup.satellites", 10000);
+
+    private final int runs = Integer.getInteger("startup.runs", 3);
+
+    private final boolean cds = Boolean.parseBoolean(System.getProperty("startup.cds", "true"));
+
+    private final Path workDirectory = Paths.get(System.getProperty("startup.workDirectory", "target/startup"));
+
+    private final Path report = Paths.get(System.getProperty("startup.report", "target/startup-report.json"));
+
+    private final String maxMillis = System.getProperty("startup.maxMillis", "");
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final HttpClient client = HttpClient.newBuilder()
+      .version(HttpClient.Version.HTTP_1_1)
+      .connectTimeout(Duration.ofSeconds(1))
+      .build();
+
+    private long seededId;
+
+    private StartupTimeRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        // DevTools would restart the application in a separate class loader
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        System.exit(new StartupTimeRunner().run() ? 0 : 1);
+    }
+
+    private boolean run() throws Exception {
+        deleteRecursively(workDirectory);
+        Path journal = Files.createDirectories(workDirectory.resolve("journal"));
+        seed(journal);
+        String classpath = classpath();
+
+        List<String> journalArguments = List.of(
+          "--satellite.journal.enabled=true",
+          "--satellite.journal.directory=" + journal.toAbsolutePath(),
+          "--satellite.journal.snapshot-on-shutdown=false");
+        Map<String, Map<String, Object>> results = new LinkedHashMap<>();
+        results.put("empty", measure("empty", classpath, List.of(), List.of()));
+        results.put("journal", measure("journal", classpath, List.of(), journalArguments));
+        if (cds) {
+            Path archive = workDirectory.resolve("application.jsa").toAbsolutePath();
+            train(classpath, archive, journalArguments);
+            results.put("journal-cds", measure("journal-cds", classpath,
+              List.of("-XX:SharedArchiveFile=" + archive), journalArguments));
+        }
+        return report(results);
+    }
+
+    // Seeds through the running application so the journal records the rows, the clean shutdown snapshots them
+    private void seed(Path journal) throws IOException {
+        // Arguments rather than default properties, which application.yaml would override
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(SatelliteApplication.class).run(
+          "--server.port=0",
+          "--satellite.history.directory=" + Files.createTempDirectory("satellite-history-startup"),
+          "--satellite.journal.enabled=true",
+          "--satellite.journal.directory=" + journal.toAbsolutePath(),
+          "--logging.level.root=WARN",
+          "--logging.level.com.ism.satellite.journal=INFO");
+        try {
+            SatelliteRepository repository = context.getBean(SatelliteRepository.class);
+            List<Satellite> batch = new ArrayList<>();
+            for (int i = 0; i < satellites; i++) {
+                SatelliteParameters parameters = new SatelliteParameters();
+                parameters.setAltitude(400.0 + i % 1600);
+                parameters.setLatitude((i % 180) - 90.0);
+                parameters.setLongitude((i % 360) - 180.0);
+                Satellite satellite = new Satellite();
+                satellite.setName("Seed " + i);
+                satellite.setLaunchDate(LocalDateTime.of(2030, 1, 1, 0, 0));
+                satellite.setOrbit(OrbitType.values()[i % OrbitType.values().length]);
+                satellite.setParameters(parameters);
+                batch.add(satellite);
+                if (batch.size() == 1000 || i == satellites - 1) {
+                    for (Satellite saved : repository.saveAll(batch)) {
+                        seededId = seededId == 0 ? saved.getId() : seededId;
+                    }
+                    batch.clear();
+                }
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    // AppCDS only archives classes loaded from jars, so the application classes are packed into one
+    private String classpath() throws Exception {
+        Path classes = Paths.get(SatelliteApplication.class.getProtectionDomain().getCodeSource().getLocation()
+          .toURI());
+        Path jar = workDirectory.resolve("application.jar").toAbsolutePath();
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar));
+             Stream<Path> files = Files.walk(classes)) {
+            // Directory entries included, component scanning walks them
+            for (Path file : (Iterable<Path>) files.filter(file -> !file.equals(classes)).sorted()::iterator) {
+                String name = classes.relativize(file).toString().replace(File.separatorChar, '/');
+                boolean directory = Files.isDirectory(file);
+                out.putNextEntry(new JarEntry(directory ? name + "/" : name));
+                if (!directory) {
+                    Files.copy(file, out);
+                }
+                out.closeEntry();
+            }
+        }
+        List<String> entries = new ArrayList<>();
+        entries.add(jar.toString());
+        Arrays.stream(System.getProperty("java.class.path").split(File.pathSeparator))
+          .filter(entry -> entry.endsWith(".jar"))
+          .forEach(entries::add);
+        return String.join(File.pathSeparator, entries);
+    }
+
+    private void train(String classpath, Path archive, List<String> arguments) throws Exception {
+        Files.deleteIfExists(archive);
+        List<String> command = command(classpath, List.of("-XX:ArchiveClassesAtExit=" + archive,
+          "-Dspring.context.exit=onRefresh"), arguments, freePort());
+        Process process = new ProcessBuilder(command)
+          .redirectErrorStream(true)
+          .redirectOutput(workDirectory.resolve("training.log").toFile())
+          .start();
+        if (!process.waitFor(START_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS) || !Files.exists(archive)) {
+            process.destroyForcibly();
+            throw new IllegalStateException("Training run did not write " + archive + ", see "
+              + workDirectory.resolve("training.log"));
+        }
+    }
+
+    private Map<String, Object> measure(String scenario, String classpath, List<String> jvmArguments,
+                                        List<String> arguments) throws Exception {
+        List<Double> firstRequest = new ArrayList<>();
+        List<Double> ready = new ArrayList<>();
+        List<Double> restore = new ArrayList<>();
+        for (int run = 0; run < runs; run++) {
+            int port = freePort();
+            Path log = workDirectory.resolve(scenario + "-" + run + ".log");
+            URI first = URI.create("http://localhost:" + port + "/api/satellite/" + seededId);
+            long launched = System.nanoTime();
+            Process process = new ProcessBuilder(command(classpath, jvmArguments, arguments, port))
+              .redirectErrorStream(true)
+              .redirectOutput(log.toFile())
+              .start();
+            try {
+                int status = awaitFirstResponse(process, first, launched, log);
+                firstRequest.add((System.nanoTime() - launched) / 1e6);
+                if (!arguments.isEmpty() && status != 200) {
+                    throw new IllegalStateException("Seeded satellite " + seededId + " was not restored, answered "
+                      + status + ", see " + log);
+                }
+                ready.add(awaitReadyMillis(port));
+                Double restored = metricMillis(port, "satellite.journal.restore.time");
+                if (restored != null) {
+                    restore.add(restored);
+                }
+            } finally {
+                process.destroy();
+                if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            }
+        }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("runs", runs);
+        summary.put("firstRequestMillis", median(firstRequest));
+        summary.put("firstRequestMinMillis", firstRequest.stream().min(Comparator.naturalOrder()).orElse(null));
+        summary.put("firstRequestMaxMillis", firstRequest.stream().max(Comparator.naturalOrder()).orElse(null));
+        summary.put("readyMillis", median(ready));
+        summary.put("restoreMillis", median(restore));
+        summary.put("jvmArguments", jvmArguments);
+        return summary;
+    }
+
+    private static List<String> command(String classpath, List<String> jvmArguments, List<String> arguments,
+                                        int port) {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArguments);
+        command.add("-Dspring.devtools.restart.enabled=false");
+        command.add("-classpath");
+        command.add(classpath);
+        command.add(SatelliteApplication.class.getName());
+        command.add("--server.port=" + port);
+        command.add("--logging.level.root=WARN");
+        command.addAll(arguments);
+        return command;
+    }
+
+    // Any answer short of a server error counts, an empty catalog answers 404
+    private int awaitFirstResponse(Process process, URI uri, long launched, Path log) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(5)).build();
+        while (true) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited during startup, see " + log);
+            }
+            if (System.nanoTime() - launched > START_TIMEOUT.toNanos()) {
+                throw new IllegalStateException("Application did not answer within " + START_TIMEOUT + ", see "
+                  + log);
+            }
+            try {
+                int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status < 500) {
+                    return status;
+                }
+            } catch (IOException ex) {
+                // Not listening yet
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    // The web server answers before the ready event that registers this gauge has been published
+    private Double awaitReadyMillis(int port) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (true) {
+            Double ready = metricMillis(port, "application.ready.time");
+            if (ready != null || System.nanoTime() > deadline) {
+                return ready;
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private Double metricMillis(int port, String metric) throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(
+          URI.create("http://localhost:" + port + "/actuator/metrics/" + metric)).build(),
+          HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            return null;
+        }
+        JsonNode body = objectMapper.readTree(response.body());
+        double value = body.path("measurements").path(0).path("value").asDouble();
+        return "seconds".equals(body.path("baseUnit").asText()) ? value * 1000 : value;
+    }
+
+    private boolean report(Map<String, Map<String, Object>> results) throws IOException {
+        Double limit = maxMillis.isBlank() ? null : Double.valueOf(maxMillis);
+        boolean passed = true;
+        PrintStream out = System.out;
+        out.printf(Locale.ROOT, "%n%-12s %6s %16s %12s %12s %12s%n", "scenario", "runs", "first request ms",
+          "min ms", "ready ms", "restore ms");
+        for (Map.Entry<String, Map<String, Object>> entry : results.entrySet()) {
+            Map<String, Object> summary = entry.getValue();
+            out.printf(Locale.ROOT, "%-12s %6d %16s %12s %12s %12s%n", entry.getKey(), runs,
+              format(summary.get("firstRequestMillis")), format(summary.get("firstRequestMinMillis")),
+              format(summary.get("readyMillis")), format(summary.get("restoreMillis")));
+            Double firstRequest = (Double) summary.get("firstRequestMillis");
+            if (limit != null && firstRequest != null && firstRequest > limit) {
+                passed = false;
+            }
+        }
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("startedAt", Instant.now().toString());
+        document.put("javaVersion", System.getProperty("java.version"));
+        document.put("satellites", satellites);
+        document.put("maxMillis", limit);
+        document.put("passed", passed);
+        document.put("scenarios", results);
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        objectMapper.writeValue(report.toFile(), document);
+        out.println("Report written to " + report.toAbsolutePath());
+        if (!passed) {
+            out.printf(Locale.ROOT, "FAILED: time to first request exceeded %.0f ms%n", limit);
+        }
+        return passed;
+    }
+
+    private static Double median(List<Double> values) {
+        if (values.isEmpty()) {
+            return null;
+        }
+        List<Double> sorted = values.stream().filter(value -> value != null).sorted().toList();
+        if (sorted.isEmpty()) {
+            return null;
+        }
+        int middle = sorted.size() / 2;
+        return sorted.size() % 2 == 1 ? sorted.get(middle) : (sorted.get(middle - 1) + sorted.get(middle)) / 2;
+    }
+
+    private static String format(Object millis) {
+        return millis == null ? "-" : String.format(Locale.ROOT, "%.1f", (Double) millis);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.ism.satellite.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ism.satellite.domain.SatelliteParameters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the primitive in-memory position store.
+ */
+public class PositionStoreTest {
+
+    private PositionStore positionStore;
+
+    @BeforeEach
+    void setUp() {
+        positionStore = new PositionStore();
+    }
+
+    @Test
+    void putAndGet() {
+        positionStore.put(7L, 70L, 122.5, 32.67, 72.93);
+
+        SatelliteParameters parameters = positionStore.get(7L);
+
+        assertEquals(70L, parameters.getId());
+        assertEquals(122.5, parameters.getAltitude());
+        assertEquals(32.67, parameters.getLatitude());
+        assertEquals(72.93, parameters.getLongitude());
+        assertNull(positionStore.get(8L));
+    }
+
+    @Test
+    void removeReusesSlots() {
+        // Grow past the initial capacity so columns and the index both resize
+        for (long id = 1; id <= 5000; id++) {
+            positionStore.put(id, id, id, id, id);
+        }
+        for (long id = 1; id <= 5000; id += 2) {
+            positionStore.remove(id);
+        }
+        for (long id = 10_001; id <= 12_500; id++) {
+            positionStore.put(id, id, id, id, id);
+        }
+
+        assertEquals(5000, positionStore.size());
+        assertFalse(positionStore.contains(1L));
+        for (long id = 2; id <= 5000; id += 2) {
+            assertEquals((double) id, positionStore.get(id).getAltitude());
+        }
+        for (long id = 10_001; id <= 12_500; id++) {
+            assertEquals((double) id, positionStore.get(id).getLongitude());
+        }
+    }
+
+    @Test
+    void forEachVisitsEveryPosition() {
+        positionStore.put(1L, 10L, 1.0, 2.0, 3.0);
+        positionStore.put(2L, 20L, 4.0, 5.0, 6.0);
+
+        double[] altitudeSum = {0};
+        positionStore.forEach((satelliteId, parametersId, altitude, latitude, longitude) -> altitudeSum[0] += altitude);
+
+        assertEquals(5.0, altitudeSum[0]);
+        assertTrue(positionStore.contains(2L));
+    }
+}
@@ -0,0 +1,100 @@
+package com.ism.satellite.writebehind;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.ism.satellite.domain.OrbitType;
+import com.ism.satellite.domain.Satellite;
+import com.ism.satellite.domain.SatelliteParameters;
+import com.ism.satellite.service.SatelliteService;
+import com.ism.satellite.store.PositionStore;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Tests that a patch waiting for its flush under WAIT_FOR_FLUSH no longer holds the satellite's write lock, against
+ * the full application context with a flush interval long enough that only the test flushes.
+ */
+@SpringBootTest(properties = {
+  "spring.datasource.url=jdbc:h2:mem:wait-for-flush;MODE=MySQL",
+  "satellite.write-behind.enabled=true",
+  "satellite.write-behind.durability=WAIT_FOR_FLUSH",
+  "satellite.write-behind.flush-interval=1h",
+  "satellite.write-behind.ack-timeout=30s"
+})
+public class WaitForFlushPatchTest {
+
+    @TempDir
+    static Path historyDirectory;
+
+    @DynamicPropertySource
+    static void historyProperties(DynamicPropertyRegistry registry) {
+        registry.add("satellite.history.directory", historyDirectory::toString);
+    }
+
+    @Autowired
+    SatelliteService satelliteService;
+
+    @Autowired
+    WriteBehindBuffer writeBehindBuffer;
+
+    @Autowired
+    PositionStore positionStore;
+
+    @Test
+    void patchWaitingForTheFlushDoesNotHoldUpTheNextOne() throws Exception {
+        Long id = satelliteService.create(satellite()).getId();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Satellite> first = executor.submit(() -> satelliteService.patchParameters(id, position(600.0)));
+            awaitAltitude(id, 600.0);
+            Future<Satellite> second = executor.submit(() -> satelliteService.patchParameters(id, position(700.0)));
+
+            // The second fix is published while the first still waits for the flush
+            awaitAltitude(id, 700.0);
+            assertEquals(700.0, positionStore.get(id).getAltitude());
+            assertFalse(first.isDone());
+
+            writeBehindBuffer.flush();
+            assertEquals(600.0, first.get(5, TimeUnit.SECONDS).getParameters().getAltitude());
+            assertEquals(700.0, second.get(5, TimeUnit.SECONDS).getParameters().getAltitude());
+            assertEquals(700.0, satelliteService.getById(id).getParameters().getAltitude());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void awaitAltitude(Long id, double altitude) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (positionStore.get(id).getAltitude() != altitude && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static SatelliteParameters position(double altitude) {
+        SatelliteParameters parameters = new SatelliteParameters();
+        parameters.setAltitude(altitude);
+        parameters.setLatitude(10.0);
+        parameters.setLongitude(20.0);
+        return parameters;
+    }
+
+    private static Satellite satellite() {
+        Satellite satellite = new Satellite();
+        satellite.setName("Flushed");
+        satellite.setOrbit(OrbitType.LEO);
+        satellite.setParameters(position(500.0));
+        satellite.setLaunchDate(LocalDateTime.now().plusDays(1));
+        return satellite;
+    }
+}
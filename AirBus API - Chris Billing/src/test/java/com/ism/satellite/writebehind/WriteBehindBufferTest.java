@@ -0,0 +1,85 @@
+package com.ism.satellite.writebehind;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.ism.satellite.request.PositionUpdate;
+import com.ism.satellite.response.BulkUpdateResponse;
+import com.ism.satellite.response.WriteBehindStats;
+import com.ism.satellite.service.PositionBatchWriter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for coalescing and flushing in the write-behind buffer.
+ */
+public class WriteBehindBufferTest {
+
+    private PositionBatchWriter positionBatchWriter;
+
+    private WriteBehindBuffer writeBehindBuffer;
+
+    private final List<PositionUpdate> writtenUpdates = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        positionBatchWriter = mock(PositionBatchWriter.class);
+        when(positionBatchWriter.write(any(), eq(false))).thenAnswer(invocation -> {
+            Iterator<PositionUpdate> updates = invocation.getArgument(0);
+            int applied = 0;
+            while (updates.hasNext()) {
+                writtenUpdates.add(updates.next());
+                applied++;
+            }
+            return BulkUpdateResponse.builder().received(applied).applied(applied).failures(List.of()).build();
+        });
+
+        WriteBehindProperties properties = new WriteBehindProperties();
+        properties.setEnabled(true);
+        writeBehindBuffer = new WriteBehindBuffer(properties, positionBatchWriter);
+    }
+
+    @Test
+    void coalescesLatestFixPerSatellite() {
+        writeBehindBuffer.submit(fix(1L, 100.0));
+        writeBehindBuffer.submit(fix(1L, 200.0));
+        writeBehindBuffer.submit(fix(2L, 300.0));
+
+        assertEquals(2, writeBehindBuffer.flush());
+
+        assertEquals(2, writtenUpdates.size());
+        assertEquals(200.0, writtenUpdates.stream()
+          .filter(update -> update.getSatelliteId() == 1L)
+          .findFirst().orElseThrow().getAltitude());
+
+        WriteBehindStats stats = writeBehindBuffer.getStats();
+        assertEquals(0, stats.getQueueDepth());
+        assertEquals(3, stats.getAccepted());
+        assertEquals(1, stats.getCoalesced());
+        assertEquals(1.5, stats.getCoalescingRatio());
+    }
+
+    @Test
+    void emptyFlushSkipsDatabase() {
+        assertEquals(0, writeBehindBuffer.flush());
+
+        verify(positionBatchWriter, never()).write(any(), eq(false));
+    }
+
+    private static PositionUpdate fix(Long satelliteId, double altitude) {
+        return PositionUpdate.builder()
+          .satelliteId(satelliteId)
+          .altitude(altitude)
+          .latitude(0.0)
+          .longitude(0.0)
+          .build();
+    }
+}